@@ -40,7 +40,9 @@ public class ScienceFairCli {
         String csvOut = outDirName + File.separator + "output.csv";
         String htmlOut = outDirName + File.separator + "output.html";
 
-        ScienceFairTableAssignmentApp.runCommandLine(tableFile, projectFile, csvOut);
+        if (ScienceFairTableAssignmentApp.runCommandLine(tableFile, projectFile, csvOut) != 0) {
+            System.exit(1);
+        }
         ScienceFairTableAssignmentApp.generateHtmlLayoutFromCsv(csvOut, htmlOut);
 
         System.out.println("Output files created in " + outDirName + ":");
@@ -0,0 +1,107 @@
+package com.sciencefair;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Thin client for {@link ScienceFairDaemon}: forwards its arguments to the running daemon,
+ * prints what the command prints and exits with its exit code. Uses nothing but the JDK so that
+ * starting it loads no application classes; the {@code scripts/sciencefair-client} shell script
+ * speaks the same protocol without starting a JVM at all.
+ * <pre>
+ * java -cp science-fair-table-assignment.jar com.sciencefair.ScienceFairClient &lt;cli arguments&gt;
+ * </pre>
+ * Exits with 3 when no daemon is running.
+ */
+public final class ScienceFairClient {
+
+    static final int NO_DAEMON = 3;
+
+    private ScienceFairClient() {}
+
+    /**
+     * Where a running daemon advertises its port and token: {@code ~/.sciencefair-daemon}, or
+     * the file named by the SCIENCEFAIR_DAEMON_INFO environment variable.
+     */
+    public static Path infoFile() {
+        String override = System.getenv("SCIENCEFAIR_DAEMON_INFO");
+        return override != null && !override.isEmpty() ? Paths.get(override)
+                : Paths.get(System.getProperty("user.home"), ".sciencefair-daemon");
+    }
+
+    public static void main(String[] args) {
+        System.exit(run(args, Paths.get("").toAbsolutePath(), infoFile(), System.out, System.err));
+    }
+
+    /** Runs one command through the daemon and returns its exit code */
+    static int run(String[] args, Path workingDirectory, Path infoFile, PrintStream out, PrintStream err) {
+        for (String arg : args) {
+            if (arg.indexOf('\n') >= 0 || arg.indexOf('\r') >= 0) {
+                err.println("Error: arguments cannot contain line breaks");
+                return 2;
+            }
+        }
+        String[] info;
+        try {
+            info = new String(Files.readAllBytes(infoFile), StandardCharsets.UTF_8).trim().split("\\s+");
+        } catch (NoSuchFileException e) {
+            err.println("No daemon running (" + infoFile + " not found); start one with --daemon");
+            return NO_DAEMON;
+        } catch (IOException e) {
+            err.println("Cannot read " + infoFile + ": " + e.getMessage());
+            return NO_DAEMON;
+        }
+        if (info.length != 2) {
+            err.println("Unrecognised daemon details in " + infoFile);
+            return NO_DAEMON;
+        }
+
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), Integer.parseInt(info[0]))) {
+            socket.setTcpNoDelay(true);
+            StringBuilder request = new StringBuilder(ScienceFairDaemon.PROTOCOL).append(' ').append(info[1]).append('\n')
+                    .append(workingDirectory).append('\n').append(args.length).append('\n');
+            for (String arg : args) {
+                request.append(arg).append('\n');
+            }
+            OutputStream requestOut = socket.getOutputStream();
+            requestOut.write(request.toString().getBytes(StandardCharsets.UTF_8));
+            requestOut.flush();
+
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.length() < 2) {
+                    continue;
+                }
+                String text = line.substring(2);
+                switch (line.substring(0, 2)) {
+                    case "o ": out.println(text); break;
+                    case "o-": out.print(text); break;
+                    case "e ": err.println(text); break;
+                    case "e-": err.print(text); break;
+                    case "x ":
+                        out.flush();
+                        err.flush();
+                        return Integer.parseInt(text.trim());
+                    default:
+                        break;
+                }
+            }
+            err.println("The daemon closed the connection without an exit code");
+            return NO_DAEMON;
+        } catch (IOException | NumberFormatException e) {
+            err.println("No daemon answering on port " + info[0] + " (" + e.getMessage() + "); start one with --daemon");
+            return NO_DAEMON;
+        }
+    }
+}
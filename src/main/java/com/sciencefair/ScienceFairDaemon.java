@@ -0,0 +1,393 @@
+package com.sciencefair;
+
+import com.sciencefair.server.LoadTest;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Comparator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Keeps one JVM resident with the engine, CSV, JSON and HTML code loaded and compiled, and runs
+ * command-line modes for {@link ScienceFairClient} (or the {@code sciencefair-client} script) over
+ * a loopback socket, so a script that runs the tool many times pays JVM start-up once.
+ * <p>
+ * The daemon writes "port token" to {@link ScienceFairClient#infoFile()}, readable by its owner only; a client
+ * must present the token. Protocol, one UTF-8 line each: {@code SFD1 <token>}, the client's
+ * working directory, the argument count, then the arguments. The daemon answers with lines
+ * {@code o <text>} (stdout) and {@code e <text>} (stderr), or {@code o-}/{@code e-} for text
+ * without a trailing newline, and finally {@code x <exit code>}.
+ * <p>
+ * Commands run concurrently, each with System.out and System.err routed to its own client.
+ * Relative input and output paths are resolved against the client's directory. Modes that keep
+ * running (GUI, watch, serve) are refused and must be started directly.
+ */
+public final class ScienceFairDaemon implements Closeable {
+
+    static final String PROTOCOL = "SFD1";
+    private static final int WARMUP_RUNS = 15;
+    private static final int WARMUP_SLOTS = 2400;
+    private static final int MAX_LINE = 16 * 1024;
+    private static final int MAX_ARGS = 4096;
+    private static final int REQUEST_TIMEOUT_MILLIS = 10_000;
+
+    private static final ThreadLocal<OutputStream> STDOUT = new ThreadLocal<>();
+    private static final ThreadLocal<OutputStream> STDERR = new ThreadLocal<>();
+    private static boolean routed;
+
+    private final ServerSocket serverSocket;
+    private final String token;
+    private final Path info;
+    private final ExecutorService pool;
+
+    private ScienceFairDaemon(ServerSocket serverSocket, String token, Path info) {
+        this.serverSocket = serverSocket;
+        this.token = token;
+        this.info = info;
+        AtomicInteger threadCount = new AtomicInteger();
+        pool = Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()), runnable -> {
+            Thread thread = new Thread(runnable, "daemon-command-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Binds to the loopback address (port 0 picks a free port), writes the info file and starts
+     * accepting commands on a background thread.
+     */
+    public static ScienceFairDaemon start(int port, Path info) throws IOException {
+        if (System.getProperty("java.awt.headless") == null) {
+            System.setProperty("java.awt.headless", "true"); // posters and signs draw off-screen
+        }
+        installRouting();
+        byte[] secret = new byte[16];
+        new SecureRandom().nextBytes(secret);
+        StringBuilder token = new StringBuilder();
+        for (byte b : secret) {
+            token.append(String.format("%02x", b));
+        }
+        ServerSocket serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        ScienceFairDaemon daemon = new ScienceFairDaemon(serverSocket, token.toString(), info);
+        try {
+            daemon.writeInfo();
+        } catch (IOException e) {
+            serverSocket.close();
+            throw e;
+        }
+        Thread acceptor = new Thread(daemon::accept, "daemon-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        return daemon;
+    }
+
+    /** {@code --daemon [port]}: starts, warms up and serves until the process is stopped */
+    static int run(String port) {
+        ScienceFairDaemon daemon;
+        try {
+            daemon = start(Integer.parseInt(port), ScienceFairClient.infoFile());
+        } catch (NumberFormatException e) {
+            System.err.println("Error: --daemon takes a port number, or 0 for any free port");
+            return 1;
+        } catch (IOException e) {
+            System.err.println("Error: Cannot start the daemon: " + e.getMessage());
+            return 1;
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(daemon::close, "daemon-shutdown"));
+        long start = System.nanoTime();
+        daemon.warmUp();
+        System.out.println("Daemon listening on port " + daemon.getPort() + " (warmed up in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms; details in " + daemon.info + "). Ctrl+C to stop.");
+        try {
+            new java.util.concurrent.CountDownLatch(1).await();
+        } catch (InterruptedException e) {
+            daemon.close();
+        }
+        return 0;
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Runs the command-line mode a few times on a synthetic hall so the classes it uses are loaded
+     * and its hot paths compiled before the first client arrives.
+     */
+    public void warmUp() {
+        Path dir = null;
+        try {
+            dir = Files.createTempDirectory("sciencefair-warmup");
+            String tables = Files.write(dir.resolve("tables.csv"),
+                    LoadTest.syntheticTables(WARMUP_SLOTS).getBytes(StandardCharsets.UTF_8)).toString();
+            String projects = Files.write(dir.resolve("projects.csv"),
+                    LoadTest.syntheticProjects(WARMUP_SLOTS).getBytes(StandardCharsets.UTF_8)).toString();
+            String output = dir.resolve("output.csv").toString();
+            OutputStream discard = OutputStream.nullOutputStream();
+            STDOUT.set(discard);
+            STDERR.set(discard);
+            for (int i = 0; i < WARMUP_RUNS; i++) {
+                ScienceFairTableAssignmentApp.runCli(new String[]{tables, projects, output});
+                ScienceFairTableAssignmentApp.runCli(new String[]{"--json", tables, projects, dir.resolve("output.json").toString()});
+            }
+        } catch (IOException | RuntimeException e) {
+            STDERR.remove();
+            System.err.println("Daemon warm-up skipped: " + e.getMessage());
+        } finally {
+            STDOUT.remove();
+            STDERR.remove();
+            if (dir != null) {
+                try (Stream<Path> files = Files.walk(dir)) {
+                    files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+                } catch (IOException ignored) {
+                    // left in the temp directory
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            serverSocket.close();
+        } catch (IOException ignored) {
+            // closing anyway
+        }
+        pool.shutdownNow();
+        try {
+            // Only remove the file if it still describes this daemon
+            if (Files.isRegularFile(info) && new String(Files.readAllBytes(info), StandardCharsets.UTF_8).contains(token)) {
+                Files.delete(info);
+            }
+        } catch (IOException ignored) {
+            // stale file; clients report that nothing answers
+        }
+    }
+
+    private void writeInfo() throws IOException {
+        Files.deleteIfExists(info);
+        if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            Files.createFile(info, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+        }
+        Files.write(info, (getPort() + " " + token + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                pool.execute(() -> handle(socket));
+            } catch (IOException e) {
+                return; // closed
+            }
+        }
+    }
+
+    private void handle(Socket socket) {
+        try (Socket connection = socket) {
+            connection.setTcpNoDelay(true);
+            connection.setSoTimeout(REQUEST_TIMEOUT_MILLIS);
+            BufferedReader in = new BufferedReader(new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8));
+            OutputStream out = new BufferedOutputStream(connection.getOutputStream(), 8192);
+            String hello = in.readLine();
+            if (hello == null || !hello.startsWith(PROTOCOL + " ") || !MessageDigest.isEqual(
+                    hello.substring(PROTOCOL.length() + 1).getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8))) {
+                return; // not a client of ours
+            }
+            String workingDirectory = in.readLine();
+            String count = in.readLine();
+            if (workingDirectory == null || count == null) {
+                return;
+            }
+            int argc = Integer.parseInt(count.trim());
+            if (argc < 0 || argc > MAX_ARGS) {
+                return;
+            }
+            String[] args = new String[argc];
+            for (int i = 0; i < args.length; i++) {
+                args[i] = in.readLine();
+                if (args[i] == null) {
+                    return;
+                }
+            }
+            connection.setSoTimeout(0);
+
+            FrameStream stdout = new FrameStream('o', out);
+            FrameStream stderr = new FrameStream('e', out);
+            STDOUT.set(stdout);
+            STDERR.set(stderr);
+            int code;
+            try {
+                code = execute(args, Paths.get(workingDirectory));
+            } catch (RuntimeException e) {
+                System.err.println("Error: " + e);
+                code = 1;
+            } finally {
+                System.out.flush();
+                System.err.flush();
+                STDOUT.remove();
+                STDERR.remove();
+            }
+            stdout.finish();
+            stderr.finish();
+            synchronized (out) {
+                out.write(("x " + code + "\n").getBytes(StandardCharsets.UTF_8));
+                out.flush();
+            }
+        } catch (IOException | NumberFormatException e) {
+            // client went away or sent garbage; nothing to answer
+        }
+    }
+
+    /** Runs one command as the CLI would, with paths resolved against the client's directory */
+    static int execute(String[] args, Path workingDirectory) {
+        if (args.length == 0 || args[0].equals("--watch") || args[0].equals("--serve") || args[0].equals("--daemon")
+                || args[0].equals("--load-test")) {
+            System.err.println("Error: " + (args.length == 0 ? "the GUI" : args[0])
+                    + " keeps running; start it with java -jar instead of through the daemon");
+            return 2;
+        }
+        String[] resolved = args.clone();
+        int[] paths;
+        switch (args[0]) {
+            case "--json": paths = new int[]{1, 2, 3}; break;
+            case "--png":
+            case "--signs": paths = new int[]{1, 2}; break;
+            case "--debug": paths = new int[0]; break;
+            default: paths = new int[]{0, 1, 2};
+        }
+        for (int index : paths) {
+            if (index < resolved.length && !resolved[index].equals("-") && !resolved[index].startsWith("--")) {
+                resolved[index] = workingDirectory.resolve(resolved[index]).toString();
+            }
+        }
+        return ScienceFairTableAssignmentApp.runCli(resolved);
+    }
+
+    /** Replaces System.out and System.err with streams that write to the calling thread's client */
+    private static synchronized void installRouting() {
+        if (routed) {
+            return;
+        }
+        System.setOut(new PrintStream(new RoutedStream(STDOUT, System.out), true, StandardCharsets.UTF_8));
+        System.setErr(new PrintStream(new RoutedStream(STDERR, System.err), true, StandardCharsets.UTF_8));
+        routed = true;
+    }
+
+    /** The current thread's target, or the daemon's own console */
+    private static final class RoutedStream extends OutputStream {
+        private final ThreadLocal<OutputStream> target;
+        private final OutputStream console;
+
+        RoutedStream(ThreadLocal<OutputStream> target, OutputStream console) {
+            this.target = target;
+            this.console = console;
+        }
+
+        private OutputStream current() {
+            OutputStream out = target.get();
+            return out != null ? out : console;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            current().write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            current().write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            current().flush();
+        }
+    }
+
+    /** One output channel of a client connection, framed into protocol lines */
+    private static final class FrameStream extends OutputStream {
+        private final char channel;
+        private final OutputStream socket; // shared by both channels
+        private final ByteArrayOutputStream line = new ByteArrayOutputStream(256);
+
+        FrameStream(char channel, OutputStream socket) {
+            this.channel = channel;
+            this.socket = socket;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (b == '\n') {
+                emit(true);
+            } else {
+                line.write(b);
+                if (line.size() >= MAX_LINE) {
+                    emit(false);
+                }
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            int end = off + len;
+            int start = off;
+            for (int i = off; i < end; i++) {
+                if (b[i] == '\n') {
+                    line.write(b, start, i - start);
+                    emit(true);
+                    start = i + 1;
+                }
+            }
+            line.write(b, start, end - start);
+            if (line.size() >= MAX_LINE) {
+                emit(false);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            synchronized (socket) {
+                socket.flush();
+            }
+        }
+
+        /** Sends text left without a newline */
+        void finish() throws IOException {
+            if (line.size() > 0) {
+                emit(false);
+            }
+            flush();
+        }
+
+        private void emit(boolean newline) throws IOException {
+            synchronized (socket) {
+                socket.write(channel);
+                socket.write(newline ? ' ' : '-');
+                line.writeTo(socket);
+                socket.write('\n');
+            }
+            line.reset();
+        }
+    }
+}
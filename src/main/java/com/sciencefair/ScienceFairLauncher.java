@@ -12,14 +12,15 @@ public class ScienceFairLauncher {
         }
         try {
             switch (args[0]) {
+                // Loaded by name: only the chosen mode's classes (Swing, jline) are loaded
                 case "--cli":
-                    ScienceFairCli.main(new String[]{});
+                    ScienceFairMain.launch(ScienceFairMain.INTERACTIVE_CLI, new String[]{});
                     break;
                 case "--gui":
-                    com.sciencefair.gui.ScienceFairAssignmentGui.main(new String[]{});
+                    ScienceFairMain.launch(ScienceFairMain.ASSIGNMENT_GUI, new String[]{});
                     break;
                 case "--html":
-                    com.sciencefair.gui.HtmlGeneratorGui.main(new String[]{});
+                    ScienceFairMain.launch(ScienceFairMain.HTML_GENERATOR_GUI, new String[]{});
                     break;
                 case "--batch":
                     // TODO: Implement batch mode logic here
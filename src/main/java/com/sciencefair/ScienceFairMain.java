@@ -0,0 +1,56 @@
+package com.sciencefair;
+
+/**
+ * Main class of the JAR. Without arguments it opens the assignment window, as before; with
+ * arguments it runs the command-line modes headless, so a CLI run on a server loads only the
+ * engine and I/O classes and never AWT or Swing. Desktop entry points are looked up by name only
+ * when chosen, which keeps this class and the CLI paths free of references to them.
+ * <pre>
+ * java -jar science-fair-table-assignment.jar                      opens the GUI
+ * java -jar science-fair-table-assignment.jar &lt;cli arguments&gt;     headless, see --help
+ * java -jar science-fair-table-assignment.jar --cli|--gui|--html   the launcher's modes
+ * </pre>
+ */
+public final class ScienceFairMain {
+
+    static final String ASSIGNMENT_GUI = "com.sciencefair.gui.ScienceFairAssignmentGui";
+    static final String HTML_GENERATOR_GUI = "com.sciencefair.gui.HtmlGeneratorGui";
+    static final String INTERACTIVE_CLI = "com.sciencefair.ScienceFairCli";
+
+    private ScienceFairMain() {}
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            launch(ASSIGNMENT_GUI, args);
+            return;
+        }
+        switch (args[0]) {
+            case "--cli":
+            case "--gui":
+            case "--html":
+            case "--batch":
+                ScienceFairLauncher.main(args);
+                return;
+            default:
+                break;
+        }
+        if (System.getProperty("java.awt.headless") == null) {
+            System.setProperty("java.awt.headless", "true"); // posters and signs draw off-screen
+        }
+        ScienceFairTableAssignmentApp.main(args);
+    }
+
+    /** Loads a class by name and runs its main method; exits with 1 if that fails */
+    static void launch(String className, String[] args) {
+        try {
+            Class.forName(className).getMethod("main", String[].class).invoke(null, (Object) args);
+        } catch (java.lang.reflect.InvocationTargetException e) {
+            System.err.println("Error running " + className + ": " + e.getCause());
+            e.getCause().printStackTrace();
+            System.exit(1);
+        } catch (ReflectiveOperationException | LinkageError e) {
+            System.err.println("Cannot start " + className + ": " + e);
+            System.exit(1);
+        }
+    }
+}
@@ -1,14 +1,25 @@
 package com.sciencefair;
 
-import com.sciencefair.gui.ScienceFairAssignmentGui;
+import com.sciencefair.model.AssignmentSummary;
 import com.sciencefair.model.ScienceProject;
 import com.sciencefair.model.SlotAssignment;
 import com.sciencefair.model.TableSlot;
+import com.sciencefair.server.AssignmentServer;
+import com.sciencefair.server.LayoutServer;
+import com.sciencefair.server.LoadTest;
+import com.sciencefair.service.IncrementalRun;
 import com.sciencefair.service.ScienceFairAssignmentService;
 import com.sciencefair.util.HallLayoutUtil;
+import com.sciencefair.util.CategoryRegistry;
+import com.sciencefair.util.FloorPlanLayout;
+import com.sciencefair.util.FloorPlanRenderer;
+import com.sciencefair.util.HtmlLayoutRenderer;
+import com.sciencefair.util.HtmlRowCache;
+import com.sciencefair.util.InputWatcher;
 import com.sciencefair.util.ScienceFairCsvUtil;
+import com.sciencefair.util.ScienceFairJsonUtil;
+import com.sciencefair.util.TableSignGenerator;
 
-import javax.swing.SwingUtilities;
 import java.io.*;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -47,21 +58,89 @@ public class ScienceFairTableAssignmentApp {
         
         // Check if running in GUI mode (no command line arguments) or CLI mode
         if (args.length == 0) {
-            // Launch GUI
-            SwingUtilities.invokeLater(() -> {
-                System.out.println("Starting Science Fair Table Assignment GUI...");
-                new ScienceFairAssignmentGui().setVisible(true);
-            });
-        } else if (args.length == 3) {
+            // Launch GUI, loaded by name so command-line runs never load Swing
+            System.out.println("Starting Science Fair Table Assignment GUI...");
+            ScienceFairMain.launch(ScienceFairMain.ASSIGNMENT_GUI, args);
+            return;
+        }
+        
+        // Daemon mode: keep a warmed engine resident for the thin client, until interrupted
+        if (args[0].equals("--daemon")) {
+            System.exit(ScienceFairDaemon.run(args.length >= 2 ? args[1] : "0"));
+            return;
+        }
+        
+        // Watch mode: re-run whenever either input CSV changes, until interrupted
+        if (args.length >= 4 && args[0].equals("--watch")) {
+            HtmlLayoutRenderer.Mode htmlMode = HtmlLayoutRenderer.Mode.STATIC;
+            String live = null;
+            for (int i = 4; i < args.length; i++) {
+                if (args[i].equals("--compact-html")) {
+                    htmlMode = HtmlLayoutRenderer.Mode.DATA;
+                } else if (args[i].equals("--live") || args[i].startsWith("--live=")) {
+                    live = args[i].length() > 7 ? args[i].substring(7) : String.valueOf(LayoutServer.DEFAULT_PORT);
+                } else {
+                    printUsage();
+                    System.exit(1);
+                }
+            }
+            System.exit(runWatchMode(args[1], args[2], args[3], HallLayoutUtil.disabled(), htmlMode, live));
+            return;
+        }
+        
+        // Service mode: HTTP/JSON assignment API for other systems, until interrupted
+        if (args[0].equals("--serve")) {
+            System.exit(runServeMode(args.length >= 2 ? args[1] : String.valueOf(AssignmentServer.DEFAULT_PORT)));
+            return;
+        }
+        
+        // Load test: concurrent requests against a service, or one started in-process
+        if (args[0].equals("--load-test")) {
+            try {
+                LoadTest.main(Arrays.copyOfRange(args, 1, args.length));
+            } catch (Exception e) {
+                System.err.println("Error: " + e.getMessage());
+                System.exit(1);
+            }
+            return;
+        }
+        
+        System.exit(runCli(args));
+    }
+
+    /**
+     * Runs one of the modes that finish on their own (command line, JSON, poster, signs) and
+     * returns its exit code instead of exiting, so the daemon can run them in-process. Prints the
+     * usage for anything else.
+     */
+    public static int runCli(String[] args) {
+        // JSON mode: machine-readable output to a file, or to stdout when the target is "-"
+        if (args.length >= 3 && args[0].equals("--json")) {
+            String target = args.length >= 4 ? args[3] : "-";
+            return runJsonMode(args[1], args[2], target, HallLayoutUtil.disabled());
+        }
+        
+        // Poster mode: floor-plan PNG from an existing output.csv
+        if (args.length >= 3 && args[0].equals("--png")) {
+            return runPngMode(args, 1);
+        }
+        
+        // Table signs: paginated HTML, or a directory of PNGs
+        if (args.length >= 3 && args[0].equals("--signs")) {
+            return runSignsMode(args, 1);
+        }
+        
+        if (args.length == 3 || (args.length == 4 && args[3].equals("--compact-html"))) {
             // Run in command line mode
             String tableSlotsFile = args[0];  // SampleInputCSV1.csv
             String projectsFile = args[1];    // SampleInputCSV2.csv  
             String outputFile = args[2];      // SampleOutputCSV.csv
+            HtmlLayoutRenderer.Mode htmlMode = args.length == 4 ? HtmlLayoutRenderer.Mode.DATA : HtmlLayoutRenderer.Mode.STATIC;
             
-            runCommandLine(tableSlotsFile, projectsFile, outputFile);
-        } else {
-            printUsage();
+            return runCommandLine(tableSlotsFile, projectsFile, outputFile, HallLayoutUtil.disabled(), htmlMode);
         }
+        printUsage();
+        return 0;
     }
     
     private static void runDebugMode() {
@@ -98,11 +177,16 @@ public class ScienceFairTableAssignmentApp {
         }
     }
     
-    public static void runCommandLine(String tableSlotsFile, String projectsFile, String outputFile) {
-        runCommandLine(tableSlotsFile, projectsFile, outputFile, HallLayoutUtil.disabled());
+    public static int runCommandLine(String tableSlotsFile, String projectsFile, String outputFile) {
+        return runCommandLine(tableSlotsFile, projectsFile, outputFile, HallLayoutUtil.disabled());
     }
 
-    public static void runCommandLine(String tableSlotsFile, String projectsFile, String outputFile, HallLayoutUtil hallLayout) {
+    public static int runCommandLine(String tableSlotsFile, String projectsFile, String outputFile, HallLayoutUtil hallLayout) {
+        return runCommandLine(tableSlotsFile, projectsFile, outputFile, hallLayout, HtmlLayoutRenderer.Mode.STATIC);
+    }
+
+    public static int runCommandLine(String tableSlotsFile, String projectsFile, String outputFile, HallLayoutUtil hallLayout,
+                                     HtmlLayoutRenderer.Mode htmlMode) {
         try {
             System.out.println("Science Fair Table Assignment - Command Line Mode");
             System.out.println("=".repeat(50));
@@ -110,12 +194,12 @@ public class ScienceFairTableAssignmentApp {
             // Validate input files
             if (!new File(tableSlotsFile).exists()) {
                 System.err.println("Error: Table slots file does not exist: " + tableSlotsFile);
-                System.exit(1);
+                return 1;
             }
             
             if (!new File(projectsFile).exists()) {
                 System.err.println("Error: Projects file does not exist: " + projectsFile);
-                System.exit(1);
+                return 1;
             }
             
             // Load data
@@ -136,21 +220,254 @@ public class ScienceFairTableAssignmentApp {
             System.out.println("Saving results to: " + outputFile);
             ScienceFairCsvUtil.writeSlotAssignments(assignments, outputFile);
             
+            String jsonOutFile = outputFile.replace(".csv", ".json");
+            System.out.println("Writing JSON results: " + jsonOutFile);
+            ScienceFairJsonUtil.writeAssignmentsJson(assignments,
+                    assignmentService.buildAssignmentSummary(assignments, projects, tableSlots, hallLayout), jsonOutFile);
+            
             // Generate single HTML layout file
             String htmlOutFile = outputFile.replace(".csv", ".html");
             System.out.println("Generating HTML layout: " + htmlOutFile);
-            generateHtmlLayout(assignments, htmlOutFile, null, true, null, hallLayout);
+            generateHtmlLayout(assignments, htmlOutFile, null, true, null, hallLayout, null, htmlMode);
             
             // Print summary
             System.out.println("\n" + assignmentService.generateAssignmentSummary(assignments, projects, tableSlots));
             
             System.out.println("Assignment completed successfully!");
+            return 0;
             
         } catch (Exception e) {
             System.err.println("Error: " + e.getMessage());
             e.printStackTrace();
-            System.exit(1);
+            return 1;
+        }
+    }
+    
+    /**
+     * Runs the assignment and writes only JSON (assignments + structured summary).
+     * Progress messages go to stderr so stdout can be piped into other tools.
+     * Returns a process exit code.
+     */
+    public static int runJsonMode(String tableSlotsFile, String projectsFile, String target, HallLayoutUtil hallLayout) {
+        try {
+            if (!new File(tableSlotsFile).exists()) {
+                System.err.println("Error: Table slots file does not exist: " + tableSlotsFile);
+                return 1;
+            }
+            if (!new File(projectsFile).exists()) {
+                System.err.println("Error: Projects file does not exist: " + projectsFile);
+                return 1;
+            }
+            List<TableSlot> tableSlots = ScienceFairCsvUtil.readTableSlots(tableSlotsFile);
+            List<ScienceProject> projects = ScienceFairCsvUtil.readScienceProjects(projectsFile);
+            System.err.println("Loaded " + tableSlots.size() + " table slots and " + projects.size() + " projects");
+
+            ScienceFairAssignmentService assignmentService = new ScienceFairAssignmentService();
+            List<SlotAssignment> assignments = assignmentService.assignProjectsToSlots(projects, tableSlots, hallLayout);
+            AssignmentSummary summary = assignmentService.buildAssignmentSummary(assignments, projects, tableSlots, hallLayout);
+
+            if ("-".equals(target)) {
+                ScienceFairJsonUtil.writeAssignmentsJson(assignments, summary, System.out);
+            } else {
+                ScienceFairJsonUtil.writeAssignmentsJson(assignments, summary, target);
+                System.err.println("JSON results saved to: " + target);
+            }
+            return 0;
+        } catch (Exception e) {
+            System.err.println("Error: " + e.getMessage());
+            return 1;
+        }
+    }
+    
+    /**
+     * Runs the assignment once, then again each time an input CSV is saved. Only outputs whose
+     * content changed are rewritten; HTML rows that did not change come from the row cache.
+     * Errors (e.g. a half-saved file) are reported and the previous outputs are kept.
+     * Returns a process exit code once the watch ends.
+     */
+    public static int runWatchMode(String tableSlotsFile, String projectsFile, String outputFile, HallLayoutUtil hallLayout,
+                                   HtmlLayoutRenderer.Mode htmlMode) {
+        return runWatchMode(tableSlotsFile, projectsFile, outputFile, hallLayout, htmlMode, null);
+    }
+
+    /**
+     * Watch mode that also serves the layout: {@code live} is "[host:]port" (host defaults to
+     * this computer only; 0.0.0.0 lets the LAN in), or null for no server.
+     */
+    public static int runWatchMode(String tableSlotsFile, String projectsFile, String outputFile, HallLayoutUtil hallLayout,
+                                   HtmlLayoutRenderer.Mode htmlMode, String live) {
+        if (!new File(tableSlotsFile).exists()) {
+            System.err.println("Error: Table slots file does not exist: " + tableSlotsFile);
+            return 1;
+        }
+        if (!new File(projectsFile).exists()) {
+            System.err.println("Error: Projects file does not exist: " + projectsFile);
+            return 1;
+        }
+        HtmlRowCache rowCache = new HtmlRowCache();
+        IncrementalRun run = new IncrementalRun(tableSlotsFile, projectsFile, outputFile, new ScienceFairAssignmentService(),
+                (assignments, layout, htmlFile) -> new HtmlLayoutRenderer(layout, htmlMode, rowCache)
+                        .render(assignments, htmlFile, null, true, null, null));
+        LayoutServer server = null;
+        try {
+            if (live != null) {
+                int colon = live.lastIndexOf(':');
+                server = LayoutServer.start(colon > 0 ? live.substring(0, colon) : null, Integer.parseInt(live.substring(colon + 1)));
+                System.out.println("Live layout at " + server.getUrl());
+            }
+        } catch (NumberFormatException e) {
+            System.err.println("Error: --live takes [host:]port, e.g. --live=8080 or --live=0.0.0.0:8080");
+            return 1;
+        } catch (IOException e) {
+            System.err.println("Error: Cannot start the live layout server: " + e.getMessage());
+            return 1;
+        }
+        LayoutServer liveServer = server;
+        refreshWatched(run, hallLayout, liveServer);
+        try (InputWatcher watcher = new InputWatcher(Arrays.asList(tableSlotsFile, projectsFile), InputWatcher.DEFAULT_DEBOUNCE_MILLIS,
+                changed -> refreshWatched(run, hallLayout, liveServer))) {
+            watcher.start();
+            System.out.println("Watching " + tableSlotsFile + " and " + projectsFile + " (Ctrl+C to stop)");
+            watcher.join();
+            return 0;
+        } catch (IOException e) {
+            System.err.println("Error: Cannot watch the input files: " + e.getMessage());
+            return 1;
+        } catch (InterruptedException e) {
+            return 0;
+        } finally {
+            if (liveServer != null) {
+                liveServer.close();
+            }
+        }
+    }
+
+    /**
+     * Serves the assignment API on "[host:]port" (host defaults to this computer only) until the
+     * process is stopped. Returns a process exit code when it cannot start.
+     */
+    public static int runServeMode(String address) {
+        AssignmentServer server;
+        try {
+            int colon = address.lastIndexOf(':');
+            server = AssignmentServer.start(colon > 0 ? address.substring(0, colon) : null,
+                    Integer.parseInt(address.substring(colon + 1)));
+        } catch (NumberFormatException e) {
+            System.err.println("Error: --serve takes [host:]port, e.g. --serve 8090 or --serve 0.0.0.0:8090");
+            return 1;
+        } catch (IOException e) {
+            System.err.println("Error: Cannot start the assignment service: " + e.getMessage());
+            return 1;
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close, "assign-shutdown"));
+        System.out.println("Assignment service at " + server.getUrl() + "assign with " + server.getWorkerCount()
+                + (server.getWorkerCount() == 1 ? " worker" : " workers") + " (Ctrl+C to stop)");
+        try {
+            new java.util.concurrent.CountDownLatch(1).await();
+        } catch (InterruptedException e) {
+            server.close();
+        }
+        return 0;
+    }
+
+    private static void refreshWatched(IncrementalRun run, HallLayoutUtil hallLayout, LayoutServer liveServer) {
+        try {
+            IncrementalRun.Outcome outcome = run.refresh(hallLayout);
+            if (!outcome.isRan()) {
+                return;
+            }
+            String live = "";
+            if (liveServer != null) {
+                int rows = liveServer.publish(hallLayout,
+                        (renderer, out) -> renderer.render(outcome.getAssignments(), out, null, true, null, null));
+                live = rows < 0 ? "; viewers reloading"
+                        : "; " + rows + (rows == 1 ? " row" : " rows") + " sent to " + liveServer.getViewerCount() + " viewers";
+            }
+            String time = new java.text.SimpleDateFormat("HH:mm:ss").format(new Date());
+            System.out.println("[" + time + "] " + outcome.getProjects().size() + " projects in "
+                    + outcome.getTableSlots().size() + " slots, " + outcome.getElapsedMillis() + " ms; "
+                    + (outcome.getRewritten().isEmpty() ? "no output changed" : "rewrote " + fileNames(outcome.getRewritten())) + live);
+        } catch (Exception e) {
+            System.err.println("Error: " + e.getMessage() + " (keeping the previous outputs)");
+        }
+    }
+
+    private static String fileNames(List<String> files) {
+        return files.stream().map(f -> new File(f).getName()).collect(Collectors.joining(", "));
+    }
+    
+    /**
+     * --png <assignments.csv> <poster.png> [dpi] [aislePivotRow|zones]
+     */
+    private static int runPngMode(String[] args, int first) {
+        try {
+            String csvFile = args[first];
+            String pngFile = args[first + 1];
+            int dpi = args.length > first + 2 ? Integer.parseInt(args[first + 2]) : 150;
+            HallLayoutUtil hallLayout = args.length > first + 3 ? HallLayoutUtil.parse(args[first + 3]) : HallLayoutUtil.disabled();
+            if (!new File(csvFile).exists()) {
+                System.err.println("Error: Assignments file does not exist: " + csvFile);
+                return 1;
+            }
+            List<SlotAssignment> assignments = ScienceFairCsvUtil.readSlotAssignments(csvFile);
+            long start = System.nanoTime();
+            exportFloorPlanPng(assignments, pngFile, hallLayout, dpi);
+            System.out.println("Floor plan saved to: " + pngFile + " (" + (System.nanoTime() - start) / 1_000_000 + " ms)");
+            return 0;
+        } catch (NumberFormatException e) {
+            System.err.println("Error: DPI must be a whole number");
+            return 1;
+        } catch (Exception e) {
+            System.err.println("Error: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    /**
+     * --signs <assignments.csv> <signs.html | directory> [dpi] [aislePivotRow|zones]
+     */
+    private static int runSignsMode(String[] args, int first) {
+        try {
+            String csvFile = args[first];
+            String target = args[first + 1];
+            int dpi = args.length > first + 2 ? Integer.parseInt(args[first + 2]) : 150;
+            HallLayoutUtil hallLayout = args.length > first + 3 ? HallLayoutUtil.parse(args[first + 3]) : HallLayoutUtil.disabled();
+            if (!new File(csvFile).exists()) {
+                System.err.println("Error: Assignments file does not exist: " + csvFile);
+                return 1;
+            }
+            List<SlotAssignment> assignments = ScienceFairCsvUtil.readSlotAssignments(csvFile);
+            long start = System.nanoTime();
+            int count = exportTableSigns(assignments, target, hallLayout, dpi);
+            System.out.println(count + " table signs saved to: " + target + " (" + (System.nanoTime() - start) / 1_000_000 + " ms)");
+            return 0;
+        } catch (NumberFormatException e) {
+            System.err.println("Error: DPI must be a whole number");
+            return 1;
+        } catch (Exception e) {
+            System.err.println("Error: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    /**
+     * Writes one sign per table: a paginated HTML document when the target ends in .html,
+     * otherwise one PNG per table into the target directory. Returns the number of signs.
+     */
+    public static int exportTableSigns(List<SlotAssignment> assignments, String target, HallLayoutUtil hallLayout, int dpi) throws IOException {
+        TableSignGenerator signs = new TableSignGenerator(assignments, hallLayout);
+        if (target.toLowerCase().endsWith(".html")) {
+            signs.writeHtml(target);
+            return signs.getSigns().size();
         }
+        return signs.writePngs(target, dpi);
+    }
+
+    /**
+     * Renders the hall layout as a poster PNG at the given DPI (same rows, numbering and colors as output.html).
+     */
+    public static void exportFloorPlanPng(List<SlotAssignment> assignments, String pngFile, HallLayoutUtil hallLayout, int dpi) throws IOException {
+        new FloorPlanRenderer(FloorPlanLayout.build(assignments, hallLayout)).writePng(pngFile, dpi);
     }
     
     private static void printUsage() {
@@ -162,7 +479,32 @@ public class ScienceFairTableAssignmentApp {
         System.out.println("    java -jar science-fair-table-assignment.jar");
         System.out.println();
         System.out.println("  Command Line Mode:");
-        System.out.println("    java -jar science-fair-table-assignment.jar <table_slots.csv> <projects.csv> <output.csv>");
+        System.out.println("    java -jar science-fair-table-assignment.jar <table_slots.csv> <projects.csv> <output.csv> [--compact-html]");
+        System.out.println();
+        System.out.println("  Watch Mode (re-runs whenever either input CSV is saved; Ctrl+C to stop):");
+        System.out.println("    java -jar science-fair-table-assignment.jar --watch <table_slots.csv> <projects.csv> <output.csv> [--compact-html] [--live[=[host:]port]]");
+        System.out.println("    --live serves the layout at http://localhost:8080/; open pages update themselves after each run");
+        System.out.println();
+        System.out.println("  Service Mode (HTTP/JSON API on this computer, default port 8090; Ctrl+C to stop):");
+        System.out.println("    java -jar science-fair-table-assignment.jar --serve [[host:]port]");
+        System.out.println("    POST /assign {\"slots\":<csv text|[{...}]>, \"projects\":<csv text|[{...}]>, \"layout\":\"12\", \"format\":\"json|csv\"}");
+        System.out.println("    java -jar science-fair-table-assignment.jar --load-test [url] [--concurrency N] [--requests N] [--slots N] [--format json|csv]");
+        System.out.println();
+        System.out.println("  Daemon Mode (keeps a warmed JVM running so repeated runs skip start-up; Ctrl+C to stop):");
+        System.out.println("    java -jar science-fair-table-assignment.jar --daemon [port]");
+        System.out.println("    scripts/sciencefair-client <arguments>   (or java -cp science-fair-table-assignment.jar com.sciencefair.ScienceFairClient <arguments>)");
+        System.out.println();
+        System.out.println("  Poster Mode (floor-plan PNG from an output CSV, default 150 DPI):");
+        System.out.println("    java -jar science-fair-table-assignment.jar --png <output.csv> <poster.png> [dpi] [aislePivotRow|zones]");
+        System.out.println();
+        System.out.println("  Table Signs (paginated HTML, or one PNG per table into a directory):");
+        System.out.println("    java -jar science-fair-table-assignment.jar --signs <output.csv> <signs.html|directory> [dpi] [aislePivotRow|zones]");
+        System.out.println();
+        System.out.println("  Hall layout: a center-aisle pivot row, or zones such as \"Left=1-12, Right=13- up; Annex=30-\"");
+        System.out.println("    (commas separate zones of a hall, semicolons separate halls; flags: reverse, up)");
+        System.out.println();
+        System.out.println("  JSON Mode (writes to stdout when output is '-' or omitted):");
+        System.out.println("    java -jar science-fair-table-assignment.jar --json <table_slots.csv> <projects.csv> [output.json|-]");
         System.out.println();
         System.out.println("Examples:");
         System.out.println("    java -jar science-fair-table-assignment.jar SampleInputCSV1.csv SampleInputCSV2.csv SampleOutputCSV.csv");
@@ -171,6 +513,7 @@ public class ScienceFairTableAssignmentApp {
         System.out.println("  Table Slots CSV (Input 1): Row,rowNumSlots,tableSlotID,isReserved");
         System.out.println("  Projects CSV (Input 2): projectID,isTeam,isFirstInCat,Category");
         System.out.println("  Output CSV: Row,tableSlotID,isUnassigned,projectID,isTeam,Category");
+        System.out.println("  Output JSON: {\"assignments\":[...], \"summary\":{...}}");
     }
     
     /**
@@ -215,293 +558,26 @@ public class ScienceFairTableAssignmentApp {
             Map<Integer,Integer> rowMarginTop,
             HallLayoutUtil hallLayout,
             Map<Integer, Integer> rowGroupIndex) {
-        HallLayoutUtil layout = hallLayout != null ? hallLayout : HallLayoutUtil.disabled();
-        try (PrintWriter writer = new PrintWriter(new FileWriter(outputFile))) {
-            // Group assignments by row
-            Map<Integer, List<SlotAssignment>> assignmentsByRow = assignments.stream()
-                .collect(Collectors.groupingBy(
-                    SlotAssignment::getRow,
-                    TreeMap::new,
-                    Collectors.toList()
-                ));
-
-            // Derive ordered list of rows
-            List<Integer> orderedRows;
-            if (rowOrder != null && !rowOrder.isEmpty()) {
-                orderedRows = rowOrder.stream().filter(assignmentsByRow::containsKey).collect(Collectors.toList());
-            } else {
-                orderedRows = layout.getTraversalRowOrder(assignmentsByRow.keySet());
-            }
-
-            Map<Integer, Boolean> rowReverseMap = layout.buildRowReverseMap(assignmentsByRow.keySet());
-            
-            // HTML header with embedded CSS
-            writer.println("<!DOCTYPE html>");
-            writer.println("<html>");
-            writer.println("<head>");
-            writer.println("    <title>Science Fair Table Assignment - Visual Layout</title>");
-            writer.println("    <style>");
-            writer.println("        * { box-sizing: border-box; }");
-            writer.println("        body { font-family: 'Segoe UI', system-ui, -apple-system, sans-serif; margin: 0; padding: 20px; background: linear-gradient(135deg, #667eea 0%, #764ba2 100%); min-height: 100vh; }");
-            writer.println("        .container { max-width: min(3200px, 98vw); margin: 0 auto; background: rgba(255,255,255,0.95); padding: 30px; border-radius: 20px; box-shadow: 0 20px 60px rgba(0,0,0,0.1); backdrop-filter: blur(10px); }");
-            writer.println("        h1 { color: #2d3748; text-align: center; margin-bottom: 40px; font-size: 2.5em; font-weight: 300; letter-spacing: -1px; }");
-            writer.println("        .table-container { overflow-x: auto; margin: 30px 0; border-radius: 12px; box-shadow: 0 8px 32px rgba(0,0,0,0.08); width: 100%; }");
-            writer.println("        table { border-collapse: separate; border-spacing: 0; width: 100%; font-size: 11px; background: white; border-radius: 12px; overflow: hidden; }");
-            writer.println("        .row-label { background: linear-gradient(135deg, #4a5568, #2d3748); color: white; padding: 12px 16px; font-weight: 600; text-align: center; font-size: 12px; text-shadow: 0 1px 2px rgba(0,0,0,0.3); min-width: 60px; flex: 0 0 auto; }");
-            writer.println("        .row-wrapper { display: flex; flex-wrap: nowrap; align-items: flex-start; }");
-            writer.println("        .row-tables { display: flex; flex-wrap: nowrap; flex: 1 1 auto; align-items: flex-start; min-width: 0; }");
-            writer.println("        .slot { border-top: 2px solid transparent !important; border-bottom: 2px solid transparent !important; border-left: none !important; border-right: none !important; box-shadow: inset 0 0 0 2px transparent; padding: 4px 2px; text-align: center; min-width: 60px; font-weight: 500; position: relative; font-size: 9px; border-radius: 4px; }");
-            // Table slot borders (not legend samples) - consistent 2px inset border for all categories
-            writer.println("        .slot:not(.legend-sample).anim { border-color: #38a169 !important; box-shadow: inset 0 0 0 2px #38a169 !important; }");
-            writer.println("        .slot:not(.legend-sample).behv { border-color: #3182ce !important; box-shadow: inset 0 0 0 2px #3182ce !important; }");
-            writer.println("        .slot:not(.legend-sample).bioc { border-color: #b7791f !important; box-shadow: inset 0 0 0 2px #b7791f !important; }");
-            writer.println("        .slot:not(.legend-sample).biom { border-color: #c05621 !important; box-shadow: inset 0 0 0 2px #c05621 !important; }");
-            writer.println("        .slot:not(.legend-sample).chem { border-color: #2c7a7b !important; box-shadow: inset 0 0 0 2px #2c7a7b !important; }");
-            writer.println("        .slot:not(.legend-sample).cbio { border-color: #3c366b !important; box-shadow: inset 0 0 0 2px #3c366b !important; }");
-            writer.println("        .slot:not(.legend-sample).cell { border-color: #805ad5 !important; box-shadow: inset 0 0 0 2px #805ad5 !important; }");
-            writer.println("        .slot:not(.legend-sample).comp { border-color: #2c7a7b !important; box-shadow: inset 0 0 0 2px #2c7a7b !important; }");
-            writer.println("        .slot:not(.legend-sample).eaev { border-color: #22c55e !important; box-shadow: inset 0 0 0 2px #22c55e !important; }");
-            writer.println("        .slot:not(.legend-sample).eemr { border-color: #9333ea !important; box-shadow: inset 0 0 0 2px #9333ea !important; }");
-            writer.println("        .slot:not(.legend-sample).eemt { border-color: #f97316 !important; box-shadow: inset 0 0 0 2px #f97316 !important; }");
-            writer.println("        .slot:not(.legend-sample).math { border-color: #ca8a04 !important; box-shadow: inset 0 0 0 2px #ca8a04 !important; }");
-            writer.println("        .slot:not(.legend-sample).mcro { border-color: #0ea5e9 !important; box-shadow: inset 0 0 0 2px #0ea5e9 !important; }");
-            writer.println("        .slot:not(.legend-sample).phys { border-color: #c026d3 !important; box-shadow: inset 0 0 0 2px #c026d3 !important; }");
-            writer.println("        .slot:not(.legend-sample).plnt { border-color: #65a30d !important; box-shadow: inset 0 0 0 2px #65a30d !important; }");
-            writer.println("        .slot:not(.legend-sample).prod { border-color: #e11d48 !important; box-shadow: inset 0 0 0 2px #e11d48 !important; }");
-                        writer.println("        .slot { border-top: 2px solid transparent !important; border-bottom: 2px solid transparent !important; border-left: none !important; border-right: none !important; box-shadow: inset 0 0 0 2px transparent; padding: 4px 2px; text-align: center; min-width: 60px; min-height: 38px; height: 38px; font-weight: 500; position: relative; font-size: 9px; border-radius: 4px; }");
-                        writer.println("        .slot:not(.legend-sample).empty { border-color: #a0aec0 !important; box-shadow: inset 0 0 0 2px #a0aec0 !important; background: linear-gradient(135deg, #f7fafc, #edf2f7); color: #a0aec0; border-left: 4px solid #cbd5e0; min-height: 38px; height: 38px; }");
-                        writer.println("        .slot:not(.legend-sample).empty.reserved { background: linear-gradient(135deg, #ffe6e6, #ffd6d6); color: #b80000; border-left: 4px solid #ff6b6b; border-color: #ff6b6b !important; box-shadow: inset 0 0 0 2px #ff6b6b !important; min-height: 38px; height: 38px; }");
-            writer.println("        .table-block.non-team-table { background: #e5e7eb !important; }");
-            writer.println("        .table-block { display: block; flex: 0 0 auto; margin: 0 3px 4px 0; border: 2px solid #b8b8b8; border-radius: 6px; overflow: hidden; box-shadow: 0 1px 4px rgba(0,0,0,0.1); background: #fffbe6; position: relative; min-height: 70px; padding-left: 4px; padding-right: 4px; }");
-            writer.println("        .table-slots { display: flex; gap: 8px; }");
-            writer.println("        .table-block.empty-table { background: inherit !important; }");
-            writer.println("        .table-block.team-table { background: #fffde3; }");
-            writer.println("        .table-header { background: #e5e7eb; padding: 2px 4px; text-align: center; font-size: 8px; font-weight: 600; color: #495057; border-bottom: 1px solid #dee2e6; position: relative; }");
-            writer.println("        .team-table .table-header { background: #fffde3 !important; }");
-            writer.println("        .empty-table .table-header { background: inherit !important; }");
-            // Removed table-level team icon styling (slot-level icons remain via .team::before)
-            writer.println("        .table-slots { display: flex; }");
-            writer.println("        .empty { background: linear-gradient(135deg, #f7fafc, #edf2f7); color: #a0aec0; border-left: 4px solid #cbd5e0; }");
-            writer.println("        .anim { background: linear-gradient(135deg, #dcfce7, #86efac); color: #14532d; border-left: 4px solid #16a34a; }");
-            writer.println("        .behv { background: linear-gradient(135deg, #dbeafe, #93c5fd); color: #1e3a8a; border-left: 4px solid #2563eb; }");
-            writer.println("        .bioc { background: linear-gradient(135deg, #fef3c7, #fcd34d); color: #92400e; border-left: 4px solid #d97706; }");
-            writer.println("        .biom { background: linear-gradient(135deg, #fed7aa, #fb923c); color: #9a3412; border-left: 4px solid #ea580c; }");
-            writer.println("        .chem { background: linear-gradient(135deg, #a7f3d0, #34d399); color: #064e3b; border-left: 4px solid #059669; }");
-            writer.println("        .cbio { background: linear-gradient(135deg, #fce7f3, #f9a8d4); color: #831843; border-left: 4px solid #be185d; }");
-            writer.println("        .cell { background: linear-gradient(135deg, #ede9fe, #c4b5fd); color: #581c87; border-left: 4px solid #7c3aed; }");
-            writer.println("        .comp { background: linear-gradient(135deg, #f0f9ff, #7dd3fc); color: #0c4a6e; border-left: 4px solid #0284c7; }");
-            writer.println("        .eaev { background: linear-gradient(135deg, #f0fdf4, #bbf7d0); color: #14532d; border-left: 4px solid #22c55e; }");
-            writer.println("        .eemr { background: linear-gradient(135deg, #fef7ff, #f3e8ff); color: #581c87; border-left: 4px solid #9333ea; }");
-            writer.println("        .eemt { background: linear-gradient(135deg, #fff7ed, #fed7aa); color: #9a3412; border-left: 4px solid #f97316; }");
-            writer.println("        .math { background: linear-gradient(135deg, #fefce8, #fde047); color: #713f12; border-left: 4px solid #ca8a04; }");
-            writer.println("        .mcro { background: linear-gradient(135deg, #f0f9ff, #bae6fd); color: #0c4a6e; border-left: 4px solid #0ea5e9; }");
-            writer.println("        .phys { background: linear-gradient(135deg, #fdf4ff, #f5d0fe); color: #86198f; border-left: 4px solid #c026d3; }");
-            writer.println("        .plnt { background: linear-gradient(135deg, #f7fee7, #d9f99d); color: #365314; border-left: 4px solid #65a30d; }");
-            writer.println("        .prod { background: linear-gradient(135deg, #fff1f2, #fda4af); color: #881337; border-left: 4px solid #e11d48; }");
-            writer.println("        .anim.legend-sample { border: 3px solid #16a34a !important; }");
-            writer.println("        .behv.legend-sample { border: 3px solid #2563eb !important; }");
-            writer.println("        .bioc.legend-sample { border: 3px solid #d97706 !important; }");
-            writer.println("        .biom.legend-sample { border: 3px solid #ea580c !important; }");
-            writer.println("        .chem.legend-sample { border: 3px solid #059669 !important; }");
-            writer.println("        .cbio.legend-sample { border: 3px solid #be185d !important; }");
-            writer.println("        .cell.legend-sample { border: 3px solid #7c3aed !important; }");
-            writer.println("        .comp.legend-sample { border: 3px solid #0284c7 !important; }");
-            writer.println("        .eaev.legend-sample { border: 3px solid #22c55e !important; }");
-            writer.println("        .eemr.legend-sample { border: 3px solid #9333ea !important; }");
-            writer.println("        .eemt.legend-sample { border: 3px solid #f97316 !important; }");
-            writer.println("        .math.legend-sample { border: 3px solid #ca8a04 !important; }");
-            writer.println("        .mcro.legend-sample { border: 3px solid #0ea5e9 !important; }");
-            writer.println("        .phys.legend-sample { border: 3px solid #c026d3 !important; }");
-            writer.println("        .plnt.legend-sample { border: 3px solid #65a30d !important; }");
-            writer.println("        .prod.legend-sample { border: 3px solid #e11d48 !important; }");
-            writer.println("        .empty.legend-sample { border: 3px solid #cbd5e0 !important; }");
-            writer.println("        .empty.reserved.legend-sample { border: 3px solid #ff6b6b !important; color: #b80000 !important; }");
-            writer.println("        .team::before { content: '👥'; position: absolute; top: 1px; right: 2px; font-size: 8px; opacity: 0.7; }");
-            writer.println("        .team { box-shadow: inset 0 0 0 2px currentColor; border-radius: 4px; }");
-            writer.println("        .legend { margin-top: 24px; padding: 12px 10px; background: linear-gradient(135deg, #f8f9fa, #e9ecef); border-radius: 10px; }");
-            writer.println("        .legend h3 { color: #495057; margin-bottom: 10px; font-size: 1em; font-weight: 500; }");
-            writer.println("        .legend-table { font-size: 11px; width: 100%; border-collapse: collapse; border-spacing: 0; }");
-            writer.println("        .legend-table td { padding: 1px 2px; vertical-align: middle; line-height: 1; }");
-            writer.println("        .legend-table td:first-child { padding-right: 2px; }");
-            // Legend layout: two vertical columns (first half left, second half right) using flex
-            writer.println("        .legend-grid { display: flex; gap: 32px; align-items: flex-start; }");
-            writer.println("        .legend-col { flex: 1; display: flex; flex-direction: column; gap: 4px; }");
-            writer.println("        .legend-item { display: flex; align-items: center; font-size: 11px; line-height: 1.1; }");
-            writer.println("        .legend-item .legend-sample { margin-right: 6px !important; }");
-            writer.println("        .legend-item span { line-height: 1.1; }");
-            writer.println("        @media (max-width: 700px) { .legend-grid { flex-direction: column; gap: 12px; } .legend-col { width: 100%; } }");
-            writer.println("        .legend-sample { width: 32px !important; height: 16px !important; min-height: 16px !important; border-radius: 3px; font-size: 8px; display: flex; align-items: center; justify-content: center; border: 3px solid transparent !important; padding: 0 !important; }");
-            writer.println("        .slot.legend-sample { min-width: 32px !important; width: 32px !important; height: 16px !important; min-height: 16px !important; padding: 0 !important; }");
-            writer.println("        .stats { display: grid; grid-template-columns: repeat(auto-fit, minmax(120px, 1fr)); gap: 8px; margin-bottom: 16px; }");
-            writer.println("        .stat-card { background: white; padding: 8px; border-radius: 8px; box-shadow: 0 2px 6px rgba(0,0,0,0.04); text-align: center; }");
-            writer.println("        .stat-number { font-size: 1.2em; font-weight: 700; color: #4a5568; }");
-            writer.println("        .stat-label { color: #718096; font-size: 0.8em; margin-top: 2px; }");
-            writer.println("        .center-aisle { margin: 20px 0 16px 76px; padding: 14px 0; text-align: center; border-top: 3px dashed #94a3b8; border-bottom: 3px dashed #94a3b8; background: linear-gradient(90deg, rgba(148,163,184,0.05), rgba(148,163,184,0.18), rgba(148,163,184,0.05)); }");
-            writer.println("        .center-aisle-vertical { flex: 0 0 56px; display: flex; flex-direction: column; align-items: center; justify-content: center; align-self: stretch; border-left: 3px dashed #94a3b8; border-right: 3px dashed #94a3b8; background: linear-gradient(180deg, rgba(148,163,184,0.05), rgba(148,163,184,0.22), rgba(148,163,184,0.05)); margin: 28px 12px; padding: 20px 6px; border-radius: 8px; }");
-            writer.println("        .center-aisle-vertical .center-aisle-label { writing-mode: vertical-rl; text-orientation: mixed; transform: rotate(180deg); white-space: nowrap; }");
-            writer.println("        .center-aisle-vertical .center-aisle-note { writing-mode: vertical-rl; text-orientation: mixed; transform: rotate(180deg); margin-top: 0; margin-right: 8px; font-size: 9px; max-height: 180px; }");
-            writer.println("        .hall-layout { display: flex; align-items: flex-start; gap: 0; width: 100%; min-width: fit-content; }");
-            writer.println("        .hall-column { flex: 1 1 auto; min-width: 1050px; }");
-            writer.println("        .hall-column-left { display: flex; flex-direction: column; align-items: flex-end; }");
-            writer.println("        .hall-column-left .hall-side-label { align-self: stretch; }");
-            writer.println("        .hall-column-right { display: flex; flex-direction: column; align-items: flex-start; }");
-            writer.println("        .hall-column-right .hall-side-label { align-self: stretch; }");
-            writer.println("        .hall-column .hall-side-label { margin-left: 0; margin-bottom: 8px; display: block; text-align: center; }");
-            writer.println("        .center-aisle-label { display: inline-block; padding: 4px 18px; border-radius: 999px; background: #475569; color: white; font-size: 12px; font-weight: 700; letter-spacing: 0.08em; text-transform: uppercase; }");
-            writer.println("        .center-aisle-note { display: block; margin-top: 6px; color: #64748b; font-size: 10px; font-style: italic; }");
-            writer.println("        .hall-side-label { display: inline-block; margin-left: 76px; margin-bottom: 4px; padding: 2px 10px; border-radius: 6px; background: #e2e8f0; color: #334155; font-size: 10px; font-weight: 600; letter-spacing: 0.04em; text-transform: uppercase; }");
-            writer.println("        @media (max-width: 1100px) { .hall-layout { flex-direction: column; } .center-aisle-vertical { flex: none; flex-direction: row; width: auto; margin: 16px 0; padding: 12px 20px; border-left: none; border-right: none; border-top: 3px dashed #94a3b8; border-bottom: 3px dashed #94a3b8; } .center-aisle-vertical .center-aisle-label, .center-aisle-vertical .center-aisle-note { writing-mode: horizontal-tb; transform: none; } }");
-            writer.println("        @media (max-width: 768px) { .container { padding: 15px; } h1 { font-size: 1.8em; } .slot { min-width: 70px; padding: 6px 2px; font-size: 10px; } .row-label { padding: 8px 10px; font-size: 10px; } .center-aisle { margin-left: 0; } .hall-side-label { margin-left: 0; } }");
-            writer.println("    </style>");
-            writer.println("</head>");
-            writer.println("<body>");
-            writer.println("    <div class='container'>");
-            writer.println("        <h1>Science Fair Table Assignment</h1>");
-            
-            // Only keep Team Projects, Total Projects, and Table Counts
-            // Team Projects: count unique project IDs where isTeam is true
-            Set<Integer> teamProjectIds = assignments.stream()
-                .filter(a -> a.getIsTeam() != null && a.getIsTeam() && a.getProjectID() != null)
-                .map(SlotAssignment::getProjectID)
-                .collect(Collectors.toSet());
-            int teamProjects = teamProjectIds.size();
-
-            // Total Projects: count unique project IDs (assigned)
-            Set<Integer> totalProjectIds = assignments.stream()
-                .filter(a -> a.getProjectID() != null && !a.isUnassigned())
-                .map(SlotAssignment::getProjectID)
-                .collect(Collectors.toSet());
-            int totalProjects = totalProjectIds.size();
-
-            // Table Counts: count total tables (each table = 2 slots)
-            int tableCount = assignments.size() / 2;
-
-            // Row Count: distinct rows in the hall layout
-            int rowCount = assignmentsByRow.size();
-
-            writer.println("        <div class='stats'>");
-            writer.println("            <div class='stat-card'>");
-            writer.println("                <div class='stat-number'>" + totalProjects + "</div>");
-            writer.println("                <div class='stat-label'>Total Projects</div>");
-            writer.println("            </div>");
-            writer.println("            <div class='stat-card'>");
-            writer.println("                <div class='stat-number'>" + teamProjects + "</div>");
-            writer.println("                <div class='stat-label'>Team Projects</div>");
-            writer.println("            </div>");
-            writer.println("            <div class='stat-card'>");
-            writer.println("                <div class='stat-number'>" + tableCount + "</div>");
-            writer.println("                <div class='stat-label'>Table Count</div>");
-            writer.println("            </div>");
-            writer.println("            <div class='stat-card'>");
-            writer.println("                <div class='stat-number'>" + rowCount + "</div>");
-            writer.println("                <div class='stat-label'>Row Count</div>");
-            writer.println("            </div>");
-            if (layout.isAisleLayoutEnabled()) {
-                writer.println("            <div class='stat-card' style='grid-column: 1 / -1; text-align: center;'>");
-                writer.println("                <div class='stat-label'>Center aisle after row "
-                        + layout.getAislePivotRow() + " — assignments continue row "
-                        + layout.getRightSideRows(assignmentsByRow.keySet()).stream()
-                            .map(String::valueOf)
-                            .collect(Collectors.joining(", "))
-                        + "; right column shown top-down as "
-                        + layout.getRightSideDisplayRows(assignmentsByRow.keySet()).stream()
-                            .map(String::valueOf)
-                            .collect(Collectors.joining(", "))
-                        + "</div>");
-                writer.println("            </div>");
-            }
-            writer.println("        </div>");
-            
-            // Generate table
-            writer.println("        <div class='table-container'>");
-
-            // First, collect all row information to calculate proper table numbers
-            Map<Integer, Integer> rowTableCounts = new TreeMap<>();
-            for (Map.Entry<Integer, List<SlotAssignment>> rowEntry : assignmentsByRow.entrySet()) {
-                int rowNumber = rowEntry.getKey();
-                int slotsInRow = rowEntry.getValue().size();
-                int tablesInRow = slotsInRow / 2; // 2 slots per table
-                rowTableCounts.put(rowNumber, tablesInRow);
-            }
-            Map<Integer, Map<Integer, Integer>> snakeTableNumbers = layout.buildSnakeTableNumbers(rowTableCounts);
-
-            if (layout.isAisleLayoutEnabled()) {
-                List<Integer> leftRows = layout.getLeftSideRows(assignmentsByRow.keySet());
-                List<Integer> rightRows = layout.getRightSideDisplayRows(assignmentsByRow.keySet());
+        generateHtmlLayout(assignments, outputFile, rowOrder, applyPairSpacing, rowMarginTop, hallLayout, rowGroupIndex,
+                HtmlLayoutRenderer.Mode.STATIC);
+    }
 
-                writer.println("            <div class='hall-layout'>");
-                writer.println("                <div class='hall-column hall-column-left'>");
-                writer.println("                    <div class='hall-side-label'>Left side of hall</div>");
-                renderRowSequence(writer, leftRows, assignmentsByRow, rowReverseMap, rowTableCounts,
-                        snakeTableNumbers, rowMarginTop, rowGroupIndex, applyPairSpacing, layout);
-                writer.println("                </div>");
-                writer.println("                <div class='center-aisle-vertical'>");
-                writer.println("                    <span class='center-aisle-label'>Center Aisle</span>");
-                writer.println("                </div>");
-                writer.println("                <div class='hall-column hall-column-right'>");
-                writer.println("                    <div class='hall-side-label'>Right side of hall</div>");
-                renderRowSequence(writer, rightRows, assignmentsByRow, rowReverseMap, rowTableCounts,
-                        snakeTableNumbers, rowMarginTop, rowGroupIndex, applyPairSpacing, layout);
-                writer.println("                </div>");
-                writer.println("            </div>");
-            } else {
-                renderRowSequence(writer, orderedRows, assignmentsByRow, rowReverseMap, rowTableCounts,
-                        snakeTableNumbers, rowMarginTop, rowGroupIndex, applyPairSpacing, layout);
-            }
-            writer.println("        </div>");
-            
-            // Add legend
-            writer.println("        <div class='legend'>");
-            writer.println("            <h3>🧬 Category Legend</h3>");
-            // Build legend items dynamically, sort alphabetically, split into two columns
-            List<String[]> legendItems = new ArrayList<>();
-            legendItems.add(new String[]{"anim","Animal Sciences (ANIM)",""});
-            legendItems.add(new String[]{"behv","Behavioral & Social Sciences (BEHV)",""});
-            legendItems.add(new String[]{"bioc","Biochemistry (BIOC)",""});
-            legendItems.add(new String[]{"biom","Biomedical/Health Sci & Eng (BIOM)",""});
-            legendItems.add(new String[]{"cbio","Computational Bio & Info (CBIO)",""});
-            legendItems.add(new String[]{"cell","Cellular & Molecular Biology (CELL)",""});
-            legendItems.add(new String[]{"chem","Chemistry (CHEM)",""});
-            legendItems.add(new String[]{"comp","Computer Science (COMP)",""});
-            legendItems.add(new String[]{"eaev","Earth & Environmental Sci (EAEV)",""});
-            legendItems.add(new String[]{"eemr","Eng: Electrical, Mech, Robotics (EEMR)",""});
-            legendItems.add(new String[]{"eemt","Eng: Energy, Materials, Transport (EEMT)",""});
-            legendItems.add(new String[]{"math","Mathematics (MATH)",""});
-            legendItems.add(new String[]{"mcro","Microbiology (MCRO)",""});
-            legendItems.add(new String[]{"phys","Physics & Astronomy (PHYS)",""});
-            legendItems.add(new String[]{"plnt","Plant Sciences (PLNT)",""});
-            legendItems.add(new String[]{"prod","Product Testing (PROD)",""});
-            legendItems.add(new String[]{"empty","Unassigned slot","EMPTY"});
-            legendItems.add(new String[]{"empty reserved","Reserved slot","RSRVD"});
-            legendItems.sort(Comparator.comparing(a -> a[1].toLowerCase()));
-            int half = legendItems.size() / 2; // even count splits evenly
-            List<String[]> col1 = legendItems.subList(0, half);
-            List<String[]> col2 = legendItems.subList(half, legendItems.size());
-            writer.println("            <div class='legend-grid'>");
-            writer.println("              <div class='legend-col'>");
-            for (String[] it : col1) {
-                String classes = it[0];
-                String label = it[1];
-                String boxText = it[2];
-                writer.println("                <div class='legend-item'><div class='slot " + classes + " legend-sample'>" + boxText + "</div><span>" + label + "</span></div>");
-            }
-            writer.println("              </div>");
-            writer.println("              <div class='legend-col'>");
-            for (String[] it : col2) {
-                String classes = it[0];
-                String label = it[1];
-                String boxText = it[2];
-                writer.println("                <div class='legend-item'><div class='slot " + classes + " legend-sample'>" + boxText + "</div><span>" + label + "</span></div>");
-            }
-            writer.println("              </div>");
-            writer.println("            </div>");
-            writer.println("            <p style='font-size:10px; margin-top:6px;'><strong>💡 Note:</strong> T### = Table Number (snake flow), P### = Project ID. Team projects are marked with 👥</p>");
-            writer.println("        </div>");
-            
-            writer.println("    </div>");
-            writer.println("</body>");
-            writer.println("</html>");
-            
+    /**
+     * Full generator; {@link HtmlLayoutRenderer.Mode#DATA} writes a compact page whose rows are
+     * built in the browser as they scroll into view (recommended for very large halls).
+     */
+    public static void generateHtmlLayout(
+            List<SlotAssignment> assignments,
+            String outputFile,
+            List<Integer> rowOrder,
+            boolean applyPairSpacing,
+            Map<Integer,Integer> rowMarginTop,
+            HallLayoutUtil hallLayout,
+            Map<Integer, Integer> rowGroupIndex,
+            HtmlLayoutRenderer.Mode mode) {
+        try {
+            new HtmlLayoutRenderer(hallLayout, mode).render(
+                    assignments, outputFile, rowOrder, applyPairSpacing, rowMarginTop, rowGroupIndex);
         } catch (IOException e) {
             System.err.println("Error writing HTML layout file: " + e.getMessage());
         }
@@ -511,6 +587,7 @@ public class ScienceFairTableAssignmentApp {
      * Generates a visual layout file showing table assignments in a readable format
      */
     private static void generateVisualLayout(List<SlotAssignment> assignments, String outputFile) {
+        CategoryRegistry categories = CategoryRegistry.shared();
         try (PrintWriter writer = new PrintWriter(new FileWriter(outputFile))) {
             // Group assignments by row
             Map<Integer, List<SlotAssignment>> assignmentsByRow = assignments.stream()
@@ -538,7 +615,7 @@ public class ScienceFairTableAssignmentApp {
                     if (!assignment.isUnassigned() && assignment.getProjectID() != null) {
                         Integer projectID = assignment.getProjectID();
                         String category = assignment.getCategory();
-                        String categoryAbbrev = getCategoryAbbreviation(category);
+                        String categoryAbbrev = categories.resolve(category).getCode();
                         
                         if (assignment.getIsTeam() != null && assignment.getIsTeam()) {
                             // For team projects, show the project ID spanning multiple slots
@@ -586,35 +663,6 @@ public class ScienceFairTableAssignmentApp {
         }
     }
     
-    /**
-     * Creates abbreviated category names for the visual layout
-     */
-    private static String getCategoryAbbreviation(String category) {
-        if (category == null) return "UNKN";
-        Map<String, String> lookup = new HashMap<>();
-        lookup.put("Animal Sciences", "ANIM");
-        lookup.put("Behavioral and Social Sciences", "BEHA");
-        lookup.put("Biochemistry", "BCHM");
-        lookup.put("Biomedical/Health Sciences, and Biomedical Engineering", "BMED");
-        lookup.put("Cellular and Molecular Biology", "CELL");
-        lookup.put("Chemistry", "CHEM");
-        lookup.put("Computational Biology and Bioinformatics", "CBIO");
-        lookup.put("Computer Science and Systems Software", "COMP");
-        lookup.put("Earth and Environmental Sciences", "EAEV");
-        lookup.put("Engineering: Electrical, Mechanical, and Robotics", "EEMR");
-        lookup.put("Engineering: Energy, Materials, and Transport", "EEMT");
-        lookup.put("Mathematics", "MATH");
-        lookup.put("Microbiology", "MCRO");
-        lookup.put("Physics and Astronomy", "PHYS");
-        lookup.put("Plant Sciences", "PLNT");
-        lookup.put("Product Testing", "PROD");
-        if (lookup.containsKey(category)) return lookup.get(category);
-        for (Map.Entry<String, String> entry : lookup.entrySet()) {
-            if (category != null && category.contains(entry.getKey())) return entry.getValue();
-        }
-        return category.length() >= 4 ? category.substring(0, 4).toUpperCase() : category;
-    }
-    
     /**
      * Calculates the snake flow table number based on row and table position
      * Handles variable row sizes properly by calculating cumulative table counts
@@ -635,197 +683,4 @@ public class ScienceFairTableAssignmentApp {
         int tableNumber = 1 + cumulativeTablesBefore + (tablePosition - 1);
         return tableNumber;
     }
-    
-    private static final int GROUP_SMALL_GAP = 2;
-    private static final int GROUP_LARGE_GAP = 48;
-    private static final int DEFAULT_ROW_GAP = 24;
-
-    private static void renderRowSequence(
-            PrintWriter writer,
-            List<Integer> rowNumbers,
-            Map<Integer, List<SlotAssignment>> assignmentsByRow,
-            Map<Integer, Boolean> rowReverseMap,
-            Map<Integer, Integer> rowTableCounts,
-            Map<Integer, Map<Integer, Integer>> snakeTableNumbers,
-            Map<Integer, Integer> rowMarginTop,
-            Map<Integer, Integer> rowGroupIndex,
-            boolean applyPairSpacing,
-            HallLayoutUtil layout) {
-        Integer previousRowNumber = null;
-        for (int rowNumber : rowNumbers) {
-            int marginTop = computeRowMarginTop(
-                    rowNumber, previousRowNumber, rowMarginTop, rowGroupIndex, applyPairSpacing, layout);
-            previousRowNumber = rowNumber;
-            renderSingleRow(writer, rowNumber, assignmentsByRow.get(rowNumber), rowReverseMap, rowTableCounts,
-                    snakeTableNumbers, layout, marginTop, "            ");
-        }
-    }
-
-    private static int computeRowMarginTop(
-            int rowNumber,
-            Integer previousRowNumber,
-            Map<Integer, Integer> rowMarginTop,
-            Map<Integer, Integer> rowGroupIndex,
-            boolean applyPairSpacing,
-            HallLayoutUtil layout) {
-        if (previousRowNumber == null) {
-            return 0;
-        }
-        if (rowGroupIndex != null && !rowGroupIndex.isEmpty()) {
-            Integer prevGroup = rowGroupIndex.get(previousRowNumber);
-            Integer rowGroup = rowGroupIndex.get(rowNumber);
-            if (prevGroup != null && rowGroup != null) {
-                return prevGroup.equals(rowGroup) ? GROUP_SMALL_GAP : GROUP_LARGE_GAP;
-            }
-            return DEFAULT_ROW_GAP;
-        }
-        if (rowMarginTop != null && rowMarginTop.containsKey(rowNumber)) {
-            return rowMarginTop.get(rowNumber);
-        }
-        if (applyPairSpacing && !layout.isAisleLayoutEnabled()
-                && previousRowNumber % 2 == 0 && rowNumber == previousRowNumber + 1) {
-            return 4;
-        }
-        return DEFAULT_ROW_GAP;
-    }
-
-    private static void renderSingleRow(
-            PrintWriter writer,
-            int rowNumber,
-            List<SlotAssignment> rowAssignments,
-            Map<Integer, Boolean> rowReverseMap,
-            Map<Integer, Integer> rowTableCounts,
-            Map<Integer, Map<Integer, Integer>> snakeTableNumbers,
-            HallLayoutUtil layout,
-            int marginTop,
-            String indent) {
-        if (rowAssignments == null || rowAssignments.isEmpty()) {
-            return;
-        }
-
-        rowAssignments.sort((a, b) -> Integer.compare(a.getTableSlotID(), b.getTableSlotID()));
-        boolean reverseRow = rowReverseMap.getOrDefault(rowNumber, rowNumber % 2 == 0);
-
-        writer.println(indent + "<div class='row-wrapper' style='margin-top: " + marginTop + "px; margin-bottom: 0;'>");
-        writer.println(indent + "    <div class='row-label'>Row " + rowNumber + "</div>");
-        writer.println(indent + "    <div class='row-tables'>");
-
-        List<Integer> tableNumbers = new ArrayList<>();
-        int tablesInRow = rowTableCounts.getOrDefault(rowNumber, 0);
-        for (int i = 0; i < rowAssignments.size(); i += 2) {
-            int tableIndex = i / 2;
-            int tableNumber = layout.resolveTableNumber(snakeTableNumbers, rowNumber, tableIndex, tablesInRow, reverseRow);
-            tableNumbers.add(tableNumber);
-        }
-
-        List<Integer> visualOrder = new ArrayList<>();
-        for (int i = 0; i < tableNumbers.size(); i++) {
-            visualOrder.add(i);
-        }
-        if (reverseRow) {
-            Collections.reverse(visualOrder);
-        }
-
-        String tableIndent = indent + "    ";
-        String slotIndent = indent + "        ";
-        for (int visualIndex : visualOrder) {
-            int tableIndex = visualIndex;
-            int slotIndexStart = tableIndex * 2;
-            int tableNumber = tableNumbers.get(tableIndex);
-            SlotAssignment assignment1 = rowAssignments.get(slotIndexStart);
-            SlotAssignment assignment2 = (slotIndexStart + 1 < rowAssignments.size()) ? rowAssignments.get(slotIndexStart + 1) : null;
-
-            boolean isTeamTable = (assignment1.getIsTeam() != null && assignment1.getIsTeam())
-                    || (assignment2 != null && assignment2.getIsTeam() != null && assignment2.getIsTeam());
-            boolean isEmptyTable = assignment1.isUnassigned() && (assignment2 == null || assignment2.isUnassigned());
-            boolean isNonTeamTable = !isTeamTable && !isEmptyTable;
-
-            writer.println(tableIndent + "<div class='table-block"
-                    + (isTeamTable ? " team-table" : "")
-                    + (isEmptyTable ? " empty-table" : "")
-                    + (isNonTeamTable ? " non-team-table" : "") + "'>");
-            writer.println(tableIndent + "    <div class='table-header'>Table " + tableNumber + "</div>");
-            writer.println(tableIndent + "    <div class='table-slots'>");
-            if (reverseRow) {
-                if (assignment2 != null) {
-                    writer.println(slotIndent + "<div class='" + generateSlotCssClass(assignment2) + "'>"
-                            + generateSlotContent(assignment2) + "</div>");
-                }
-                writer.println(slotIndent + "<div class='" + generateSlotCssClass(assignment1) + "'>"
-                        + generateSlotContent(assignment1) + "</div>");
-            } else {
-                writer.println(slotIndent + "<div class='" + generateSlotCssClass(assignment1) + "'>"
-                        + generateSlotContent(assignment1) + "</div>");
-                if (assignment2 != null) {
-                    writer.println(slotIndent + "<div class='" + generateSlotCssClass(assignment2) + "'>"
-                            + generateSlotContent(assignment2) + "</div>");
-                }
-            }
-            writer.println(tableIndent + "    </div>");
-            writer.println(tableIndent + "</div>");
-        }
-
-        writer.println(indent + "    </div>");
-        writer.println(indent + "</div>");
-    }
-
-    /**
-     * Generates the content for a slot display
-     */
-    private static String generateSlotContent(SlotAssignment assignment) {
-        if (!assignment.isUnassigned() && assignment.getProjectID() != null) {
-            Integer projectID = assignment.getProjectID();
-            String category = assignment.getCategory();
-            String division = "";
-            if (category != null && category.length() >= 2) {
-                division = category.substring(0, 2).toUpperCase();
-            }
-            String categoryAbbrev = getCategoryAbbreviation(category);
-            String label = division + "-" + categoryAbbrev;
-            return "<strong>P" + projectID + "</strong><br><small>" + label + "</small>";
-        } else if (assignment.isReserved()) {
-            return "<strong>RSRVD</strong>";
-        } else {
-            return "<strong>EMPTY</strong>";
-        }
-    }
-    
-    /**
-     * Generates the CSS class for a slot
-     */
-    private static String generateSlotCssClass(SlotAssignment assignment) {
-        String cssClass = "slot ";
-        if (!assignment.isUnassigned() && assignment.getProjectID() != null) {
-            String category = assignment.getCategory();
-            String categoryAbbrev = getCategoryAbbreviation(category);
-            // Map official code to CSS class
-            Map<String, String> codeToCss = new HashMap<>();
-            codeToCss.put("ANIM", "anim");
-            codeToCss.put("BEHA", "behv");
-            codeToCss.put("BCHM", "bioc");
-            codeToCss.put("BMED", "biom");
-            codeToCss.put("CELL", "cell");
-            codeToCss.put("CHEM", "chem");
-            codeToCss.put("CBIO", "comp");
-            codeToCss.put("COMP", "comp");
-            codeToCss.put("EAEV", "eaev");
-            codeToCss.put("EEMR", "eemr");
-            codeToCss.put("EEMT", "eemt");
-            codeToCss.put("MATH", "math");
-            codeToCss.put("MCRO", "mcro");
-            codeToCss.put("PHYS", "phys");
-            codeToCss.put("PLNT", "plnt");
-            codeToCss.put("PROD", "prod");
-            String cssCat = codeToCss.getOrDefault(categoryAbbrev, "empty");
-            cssClass += cssCat;
-            if (assignment.getIsTeam() != null && assignment.getIsTeam()) {
-                cssClass += " team";
-            }
-        } else if (assignment.isReserved()) {
-            cssClass += "empty reserved";
-        } else {
-            cssClass += "empty";
-        }
-        return cssClass;
-    }
-}
\ No newline at end of file
+}
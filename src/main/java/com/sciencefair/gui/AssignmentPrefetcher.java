@@ -0,0 +1,165 @@
+package com.sciencefair.gui;
+
+import com.sciencefair.model.ScienceProject;
+import com.sciencefair.model.SlotAssignment;
+import com.sciencefair.model.TableSlot;
+import com.sciencefair.service.ScienceFairAssignmentService;
+import com.sciencefair.util.HallLayoutUtil;
+import com.sciencefair.util.ScienceFairCsvUtil;
+
+import javax.swing.SwingUtilities;
+import java.io.File;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Reads the input CSVs and runs the dealer in the background as soon as the inputs are valid,
+ * so pressing Run usually only writes the outputs. Each stage is keyed by file path, size and
+ * modification time, and the assignment also by the hall layout; when a key changes the stale
+ * work is cancelled and its result is never used. Methods are called on the event thread.
+ */
+final class AssignmentPrefetcher {
+
+    /** Told on the event thread how the current speculative assignment ended */
+    interface Listener {
+        void ready(Result result);
+
+        void failed(Throwable cause);
+    }
+
+    /** Inputs and assignment for one combination of files and hall layout */
+    static final class Result {
+        final List<TableSlot> tableSlots;
+        final List<ScienceProject> projects;
+        final HallLayoutUtil hallLayout;
+        final List<SlotAssignment> assignments;
+
+        Result(List<TableSlot> tableSlots, List<ScienceProject> projects, HallLayoutUtil hallLayout,
+               List<SlotAssignment> assignments) {
+            this.tableSlots = tableSlots;
+            this.projects = projects;
+            this.hallLayout = hallLayout;
+            this.assignments = assignments;
+        }
+    }
+
+    // One low-priority thread: stages run in the order they were asked for, so the assignment
+    // task always finds its two parse tasks finished or cancelled
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "assignment-prefetch");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.NORM_PRIORITY - 1);
+        return thread;
+    });
+
+    private final ScienceFairAssignmentService assignmentService;
+    private String tablesKey;
+    private String projectsKey;
+    private String assignmentKey;
+    private Future<List<TableSlot>> tables;
+    private Future<List<ScienceProject>> projects;
+    private Future<Result> assignment;
+
+    AssignmentPrefetcher(ScienceFairAssignmentService assignmentService) {
+        this.assignmentService = assignmentService;
+    }
+
+    /**
+     * Starts whatever the current inputs allow; a null path or layout means that input is not
+     * valid yet. The listener hears about the assignment only if it is still current when done.
+     */
+    void update(String tableSlotsPath, String projectsPath, HallLayoutUtil hallLayout, Listener listener) {
+        String newTablesKey = fileKey(tableSlotsPath);
+        if (!Objects.equals(newTablesKey, tablesKey)) {
+            cancel(tables);
+            tablesKey = newTablesKey;
+            tables = newTablesKey == null ? null : EXECUTOR.submit(() -> ScienceFairCsvUtil.readTableSlots(tableSlotsPath));
+        }
+        String newProjectsKey = fileKey(projectsPath);
+        if (!Objects.equals(newProjectsKey, projectsKey)) {
+            cancel(projects);
+            projectsKey = newProjectsKey;
+            projects = newProjectsKey == null ? null : EXECUTOR.submit(() -> ScienceFairCsvUtil.readScienceProjects(projectsPath));
+        }
+        String newAssignmentKey = assignmentKey(hallLayout);
+        if (Objects.equals(newAssignmentKey, assignmentKey)) {
+            return;
+        }
+        cancel(assignment);
+        assignmentKey = newAssignmentKey;
+        assignment = null;
+        if (newAssignmentKey != null) {
+            Future<List<TableSlot>> tableSlots = tables;
+            Future<List<ScienceProject>> projectList = projects;
+            FutureTask<Result> task = new FutureTask<Result>(() -> {
+                List<TableSlot> slots = tableSlots.get();
+                List<ScienceProject> projectsRead = projectList.get();
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedException();
+                }
+                return new Result(slots, projectsRead, hallLayout,
+                        assignmentService.assignProjectsToSlots(projectsRead, slots, hallLayout));
+            }) {
+                @Override
+                protected void done() {
+                    SwingUtilities.invokeLater(() -> {
+                        if (assignment != this || isCancelled()) {
+                            return;
+                        }
+                        try {
+                            listener.ready(get());
+                        } catch (ExecutionException e) {
+                            listener.failed(rootCause(e));
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    });
+                }
+            };
+            assignment = task;
+            EXECUTOR.execute(task);
+        }
+    }
+
+    /**
+     * The speculative assignment for exactly these inputs, possibly still running, or null when
+     * none matches; the caller then does the work itself.
+     */
+    Future<Result> lookup(String tableSlotsPath, String projectsPath, HallLayoutUtil hallLayout) {
+        boolean current = Objects.equals(fileKey(tableSlotsPath), tablesKey) && Objects.equals(fileKey(projectsPath), projectsKey)
+                && Objects.equals(assignmentKey(hallLayout), assignmentKey);
+        return current ? assignment : null;
+    }
+
+    private String assignmentKey(HallLayoutUtil hallLayout) {
+        return tablesKey == null || projectsKey == null || hallLayout == null ? null
+                : tablesKey + "|" + projectsKey + "|" + hallLayout.getAislePivotRow() + hallLayout.getZones();
+    }
+
+    private static String fileKey(String path) {
+        if (path == null) {
+            return null;
+        }
+        File file = new File(path).getAbsoluteFile();
+        return file.isFile() ? file.getPath() + "@" + file.length() + "@" + file.lastModified() : null;
+    }
+
+    /** Unwraps the ExecutionExceptions of the parse stages the assignment waited on */
+    static Throwable rootCause(Throwable e) {
+        while (e instanceof ExecutionException && e.getCause() != null) {
+            e = e.getCause();
+        }
+        return e;
+    }
+
+    private static void cancel(Future<?> future) {
+        if (future != null) {
+            future.cancel(true);
+        }
+    }
+}
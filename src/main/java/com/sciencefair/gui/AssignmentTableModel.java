@@ -0,0 +1,230 @@
+package com.sciencefair.gui;
+
+import com.sciencefair.model.SlotAssignment;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Table view of an assignment result that reads the {@link SlotAssignment} list in place. Sorting
+ * and filtering work on int arrays of list indices: each column's ascending order is computed once
+ * per result by sorting packed (key, index) longs, descending reads it backwards, and a filter is
+ * one pass over that order into the visible index array. No row objects are created, so re-sorting
+ * or re-filtering 100k+ slots takes milliseconds.
+ */
+final class AssignmentTableModel extends AbstractTableModel {
+
+    static final int COLUMN_ROW = 0;
+    static final int COLUMN_SLOT = 1;
+    static final int COLUMN_PROJECT = 2;
+    static final int COLUMN_TEAM = 3;
+    static final int COLUMN_CATEGORY = 4;
+    static final int COLUMN_STATUS = 5;
+    private static final String[] COLUMN_NAMES = {"Row", "Slot", "Project", "Team", "Category", "Status"};
+
+    static final String STATUS_ASSIGNED = "Assigned";
+    static final String STATUS_EMPTY = "Empty";
+    static final String STATUS_RESERVED = "Reserved";
+
+    private static final int INDEX_BITS = 24;
+    private static final long INDEX_MASK = (1L << INDEX_BITS) - 1;
+
+    /** Which slots to show; null fields match everything */
+    static final class Filter {
+        int firstRow = Integer.MIN_VALUE;
+        int lastRow = Integer.MAX_VALUE;
+        String category;
+        Boolean team;
+        String status;
+    }
+
+    private List<SlotAssignment> assignments = Collections.emptyList();
+    private List<String> categories = Collections.emptyList();
+    private int[] categoryRank = new int[0];
+    private final int[][] ascending = new int[COLUMN_NAMES.length][];
+    private int[] visible = new int[0];
+    private int visibleCount;
+    private int sortColumn = COLUMN_ROW;
+    private boolean sortDescending;
+    private Filter filter = new Filter();
+
+    /** Shows a new result; the list is read, not copied, and must not change while shown. */
+    void setAssignments(List<SlotAssignment> assignments) {
+        if (assignments != null && assignments.size() > INDEX_MASK) {
+            throw new IllegalArgumentException("Too many slots for the results table: " + assignments.size());
+        }
+        this.assignments = assignments != null ? assignments : Collections.<SlotAssignment>emptyList();
+        TreeSet<String> distinct = new TreeSet<>();
+        for (SlotAssignment a : this.assignments) {
+            if (a.getCategory() != null && !a.getCategory().isEmpty()) {
+                distinct.add(a.getCategory());
+            }
+        }
+        categories = Collections.unmodifiableList(new ArrayList<>(distinct));
+        categoryRank = new int[this.assignments.size()];
+        for (int i = 0; i < categoryRank.length; i++) {
+            String category = this.assignments.get(i).getCategory();
+            categoryRank[i] = category == null || category.isEmpty() ? 0 : 1 + Collections.binarySearch(categories, category);
+        }
+        Arrays.fill(ascending, null);
+        visible = new int[this.assignments.size()];
+        refresh();
+    }
+
+    List<String> getCategories() {
+        return categories;
+    }
+
+    int getTotalCount() {
+        return assignments.size();
+    }
+
+    int getSortColumn() {
+        return sortColumn;
+    }
+
+    boolean isSortDescending() {
+        return sortDescending;
+    }
+
+    /** Sorts by a column; the same column again flips the direction. */
+    void sortBy(int column) {
+        sortDescending = column == sortColumn && !sortDescending;
+        sortColumn = column;
+        refresh();
+        fireTableStructureChanged(); // header arrows
+    }
+
+    void setFilter(Filter filter) {
+        this.filter = filter != null ? filter : new Filter();
+        refresh();
+    }
+
+    /** The slot shown at a view row */
+    SlotAssignment getAssignment(int viewRow) {
+        return assignments.get(visible[viewRow]);
+    }
+
+    private void refresh() {
+        int[] order = ascending(sortColumn);
+        int n = order.length;
+        int count = 0;
+        for (int k = 0; k < n; k++) {
+            int index = order[sortDescending ? n - 1 - k : k];
+            if (matches(assignments.get(index), index)) {
+                visible[count++] = index;
+            }
+        }
+        visibleCount = count;
+        fireTableDataChanged();
+    }
+
+    private boolean matches(SlotAssignment a, int index) {
+        Filter f = filter;
+        if (a.getRow() < f.firstRow || a.getRow() > f.lastRow) {
+            return false;
+        }
+        if (f.category != null && (categoryRank[index] == 0 || !categories.get(categoryRank[index] - 1).equals(f.category))) {
+            return false;
+        }
+        if (f.team != null && f.team != isTeam(a)) {
+            return false;
+        }
+        return f.status == null || f.status.equals(status(a));
+    }
+
+    /** Ascending list indices for a column, computed on first use */
+    private int[] ascending(int column) {
+        if (ascending[column] != null) {
+            return ascending[column];
+        }
+        int n = assignments.size();
+        long[] packed = new long[n];
+        for (int i = 0; i < n; i++) {
+            packed[i] = (sortKey(column, assignments.get(i), i) << INDEX_BITS) | i;
+        }
+        Arrays.sort(packed);
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = (int) (packed[i] & INDEX_MASK);
+        }
+        ascending[column] = order;
+        return order;
+    }
+
+    /** Non-negative key below 2^39; ties keep list order through the packed index */
+    private long sortKey(int column, SlotAssignment a, int index) {
+        switch (column) {
+            case COLUMN_ROW:
+                return ((long) clamp(a.getRow(), 0x7fffff) << 16) | clamp(a.getTableSlotID(), 0xffff);
+            case COLUMN_SLOT:
+                return ((long) clamp(a.getTableSlotID(), 0xffff) << 23) | clamp(a.getRow(), 0x7fffff);
+            case COLUMN_PROJECT:
+                // Empty slots after every project
+                return a.getProjectID() != null ? clamp(a.getProjectID(), 0x3fffffff) : 0x40000000L;
+            case COLUMN_TEAM:
+                return isTeam(a) ? 1 : 0;
+            case COLUMN_CATEGORY:
+                return categoryRank[index];
+            default:
+                String status = status(a);
+                return status == STATUS_ASSIGNED ? 0 : status == STATUS_EMPTY ? 1 : 2;
+        }
+    }
+
+    private static int clamp(int value, int max) {
+        return Math.max(0, Math.min(value, max));
+    }
+
+    private static boolean isTeam(SlotAssignment a) {
+        return a.getIsTeam() != null && a.getIsTeam();
+    }
+
+    static String status(SlotAssignment a) {
+        return !a.isUnassigned() ? STATUS_ASSIGNED : a.isReserved() ? STATUS_RESERVED : STATUS_EMPTY;
+    }
+
+    @Override
+    public int getRowCount() {
+        return visibleCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMN_NAMES.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return column == sortColumn ? COLUMN_NAMES[column] + (sortDescending ? " ▼" : " ▲") : COLUMN_NAMES[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return column == COLUMN_ROW || column == COLUMN_SLOT || column == COLUMN_PROJECT ? Integer.class
+                : column == COLUMN_TEAM ? Boolean.class : String.class;
+    }
+
+    @Override
+    public Object getValueAt(int viewRow, int column) {
+        SlotAssignment a = assignments.get(visible[viewRow]);
+        switch (column) {
+            case COLUMN_ROW:
+                return a.getRow();
+            case COLUMN_SLOT:
+                return a.getTableSlotID();
+            case COLUMN_PROJECT:
+                return a.getProjectID();
+            case COLUMN_TEAM:
+                return isTeam(a);
+            case COLUMN_CATEGORY:
+                return a.getCategory();
+            default:
+                return status(a);
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.sciencefair.gui;
+
+import com.sciencefair.util.FloorPlanRenderer;
+
+import javax.swing.SwingUtilities;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Rectangle;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Square tiles of a floor plan rendered per zoom level on background threads and kept in an LRU
+ * under a memory budget, so panning only blits images. The map, the pending set and the renderer
+ * are touched on the event thread only; workers just paint into fresh images.
+ * <p>
+ * Workers paint the renderer's layout without any locking, so that layout must not change once
+ * it is handed to {@link #setRenderer}: views give it a
+ * {@link com.sciencefair.util.FloorPlanLayout#detached} copy and switch renderers after an edit.
+ * <p>
+ * Tiles are BufferedImages compatible with the screen, which Java2D keeps in video memory when it
+ * can. VolatileImage is not used because it cannot be rendered into off the event thread and
+ * its contents may be lost at any time.
+ */
+final class FloorPlanTileCache {
+
+    static final int TILE_SIZE = 256;
+    private static final long TILE_BYTES = 4L * TILE_SIZE * TILE_SIZE;
+
+    // Shared by all views; one core is left for the event thread
+    private static final ExecutorService WORKERS = Executors.newFixedThreadPool(
+            Math.max(1, Runtime.getRuntime().availableProcessors() - 1), runnable -> {
+                Thread thread = new Thread(runnable, "floor-plan-tiles");
+                thread.setDaemon(true);
+                thread.setPriority(Thread.NORM_PRIORITY - 1);
+                return thread;
+            });
+
+    /** Called on the event thread */
+    interface Listener {
+        /** A requested tile is ready or was dropped as stale */
+        void tileReady(double zoom, int column, int row);
+
+        /** A tile could not be rendered; it stays blank and is not requested again */
+        void tileFailed(RuntimeException error);
+    }
+
+    private static final class Key {
+        final double zoom;
+        final int column;
+        final int row;
+
+        Key(double zoom, int column, int row) {
+            this.zoom = zoom;
+            this.column = column;
+            this.row = row;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return zoom == other.zoom && column == other.column && row == other.row;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(zoom, column, row);
+        }
+    }
+
+    private final long budgetBytes;
+    private final Listener listener;
+    private final Map<Key, BufferedImage> tiles = new LinkedHashMap<>(64, 0.75f, true);
+    private final Set<Key> pending = new HashSet<>();
+    private FloorPlanRenderer renderer;
+    private GraphicsConfiguration graphicsConfiguration;
+    private int generation;
+    // Read by workers to skip tiles nobody is waiting for any more
+    private volatile int liveGeneration;
+    private volatile double liveZoom;
+
+    FloorPlanTileCache(long budgetBytes, Listener listener) {
+        this.budgetBytes = Math.max(budgetBytes, 16 * TILE_BYTES);
+        this.listener = listener;
+    }
+
+    /** A quarter of the heap, at most 96 MB */
+    static long defaultBudget() {
+        return Math.min(Runtime.getRuntime().maxMemory() / 4, 96L * 1024 * 1024);
+    }
+
+    /**
+     * Switches to a new renderer. With {@code changed} (logical pixels, see
+     * {@link com.sciencefair.util.FloorPlanLayout#getChangedRegions}) only the tiles touching
+     * those areas are dropped; with null every tile is.
+     */
+    void setRenderer(FloorPlanRenderer renderer, List<Rectangle> changed) {
+        this.renderer = renderer;
+        if (renderer == null || changed == null) {
+            liveGeneration = ++generation;
+            tiles.clear();
+            return;
+        }
+        invalidate(changed);
+    }
+
+    /** Drops the tiles touching the given logical areas, after the slots there were edited. */
+    void invalidate(List<Rectangle> changed) {
+        liveGeneration = ++generation;
+        for (Iterator<Map.Entry<Key, BufferedImage>> it = tiles.entrySet().iterator(); it.hasNext(); ) {
+            Key key = it.next().getKey();
+            Rectangle logical = logicalBounds(key.zoom, key.column, key.row);
+            for (Rectangle area : changed) {
+                if (area.intersects(logical)) {
+                    it.remove();
+                    break;
+                }
+            }
+        }
+    }
+
+    void setGraphicsConfiguration(GraphicsConfiguration graphicsConfiguration) {
+        this.graphicsConfiguration = graphicsConfiguration;
+    }
+
+    /** The zoom being displayed; queued tiles of other zoom levels are skipped. */
+    void setLiveZoom(double zoom) {
+        liveZoom = zoom;
+    }
+
+    int size() {
+        return tiles.size();
+    }
+
+    /** Cached tile without requesting it, or null */
+    BufferedImage peek(double zoom, int column, int row) {
+        return tiles.get(new Key(zoom, column, row));
+    }
+
+    /** Cached tile, or null after queuing it for rendering */
+    BufferedImage get(double zoom, int column, int row) {
+        Key key = new Key(zoom, column, row);
+        BufferedImage tile = tiles.get(key);
+        if (tile == null && renderer != null && pending.add(key)) {
+            FloorPlanRenderer tileRenderer = renderer;
+            GraphicsConfiguration gc = graphicsConfiguration;
+            int tileGeneration = generation;
+            WORKERS.execute(() -> {
+                BufferedImage image;
+                try {
+                    image = tileGeneration == liveGeneration && zoom == liveZoom ? render(tileRenderer, gc, key) : null;
+                } catch (RuntimeException e) {
+                    // Leave the tile pending so a failing tile is not requested over and over
+                    SwingUtilities.invokeLater(() -> listener.tileFailed(e));
+                    return;
+                }
+                SwingUtilities.invokeLater(() -> {
+                    pending.remove(key);
+                    if (image != null && tileGeneration == generation) {
+                        put(key, image);
+                    }
+                    // A dropped tile is asked for again by the repaint if it is still on screen
+                    listener.tileReady(zoom, column, row);
+                });
+            });
+        }
+        return tile;
+    }
+
+    private void put(Key key, BufferedImage image) {
+        tiles.put(key, image);
+        for (Iterator<Key> it = tiles.keySet().iterator(); tiles.size() * TILE_BYTES > budgetBytes && it.hasNext(); ) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private static BufferedImage render(FloorPlanRenderer renderer, GraphicsConfiguration gc, Key key) {
+        BufferedImage image = gc != null
+                ? gc.createCompatibleImage(TILE_SIZE, TILE_SIZE, Transparency.OPAQUE)
+                : new BufferedImage(TILE_SIZE, TILE_SIZE, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, TILE_SIZE, TILE_SIZE);
+            g.translate(-key.column * TILE_SIZE, -key.row * TILE_SIZE);
+            g.scale(key.zoom, key.zoom);
+            renderer.paint(g, logicalBounds(key.zoom, key.column, key.row));
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+
+    /** Logical area a tile shows, one pixel wider on each side for anti-aliased edges */
+    static Rectangle logicalBounds(double zoom, int column, int row) {
+        int x = (int) Math.floor(column * TILE_SIZE / zoom) - 1;
+        int y = (int) Math.floor(row * TILE_SIZE / zoom) - 1;
+        return new Rectangle(x, y,
+                (int) Math.ceil((column + 1) * TILE_SIZE / zoom) + 1 - x,
+                (int) Math.ceil((row + 1) * TILE_SIZE / zoom) + 1 - y);
+    }
+}
@@ -0,0 +1,467 @@
+package com.sciencefair.gui;
+
+import com.sciencefair.model.SlotAssignment;
+import com.sciencefair.service.AssignmentEditor;
+import com.sciencefair.util.FloorPlanLayout;
+import com.sciencefair.util.FloorPlanRenderer;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Scrollable floor plan of a {@link FloorPlanLayout}, drawn from tiles rendered in the
+ * background ({@link FloorPlanTileCache}), so panning only copies images and the cost of a frame
+ * follows the viewport rather than the hall size. Until a tile is ready it is stood in for by
+ * the tiles of the previous zoom level, scaled. Ctrl + wheel zooms around the mouse, dragging
+ * pans, and hovering a slot shows its project as a tooltip. With a {@link SlotDropHandler} set,
+ * dragging a project moves it instead, and the target table is outlined green, amber (warning)
+ * or red (refused) while hovering.
+ */
+class FloorPlanView extends JComponent implements Scrollable {
+
+    static final double MIN_ZOOM = 0.1;
+    static final double MAX_ZOOM = 4.0;
+    private static final Color HOVER_OUTLINE = new Color(0x2563eb);
+    private static final Color TILE_PLACEHOLDER = new Color(0xf4f6f8);
+    private static final Color DROP_OK = new Color(0x16a34a);
+    private static final Color DROP_WARNING = new Color(0xd97706);
+    private static final Color DROP_REFUSED = new Color(0xdc2626);
+
+    /** Edit mode callbacks: checked on every drag step, so checks must be cheap */
+    interface SlotDropHandler {
+        AssignmentEditor.Check check(SlotAssignment from, SlotAssignment to);
+
+        void drop(SlotAssignment from, SlotAssignment to);
+    }
+
+    // The layout as given, read on the event thread; tiles are painted from a detached copy
+    private FloorPlanLayout model;
+    private FloorPlanRenderer renderer;
+    private double zoom = 1.0;
+    private double previousZoom;
+    private final FloorPlanTileCache tiles = new FloorPlanTileCache(FloorPlanTileCache.defaultBudget(),
+            new FloorPlanTileCache.Listener() {
+                @Override
+                public void tileReady(double zoom, int column, int row) {
+                    FloorPlanView.this.tileReady(zoom, column, row);
+                }
+
+                @Override
+                public void tileFailed(RuntimeException error) {
+                    if (errorListener != null) {
+                        errorListener.accept("Could not draw part of the floor plan: " + error);
+                    }
+                }
+            });
+    private Consumer<String> errorListener;
+    private Point dragStart;
+    private FloorPlanLayout.Row hoverRow;
+    private int hoverTable = -1;
+    private SlotDropHandler dropHandler;
+    private SlotAssignment dragSlot;
+    private SlotAssignment dropSlot;
+    private Color dropColor;
+
+    FloorPlanView() {
+        setOpaque(true);
+        setBackground(Color.WHITE);
+        setToolTipText("");
+        MouseAdapter mouse = new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                SlotAssignment slot = dropHandler != null && SwingUtilities.isLeftMouseButton(e) ? slotAt(e.getPoint()) : null;
+                if (slot != null && !slot.isUnassigned()) {
+                    dragSlot = slot;
+                    setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
+                    return;
+                }
+                dragStart = e.getLocationOnScreen();
+                setCursor(Cursor.getPredefinedCursor(Cursor.MOVE_CURSOR));
+            }
+
+            @Override
+            public void mouseReleased(MouseEvent e) {
+                if (dragSlot != null) {
+                    SlotAssignment from = dragSlot;
+                    SlotAssignment to = dropSlot;
+                    boolean allowed = to != null && dropColor != DROP_REFUSED;
+                    dragSlot = null;
+                    setDropTarget(null, null);
+                    if (allowed) {
+                        dropHandler.drop(from, to);
+                    }
+                }
+                dragStart = null;
+                setCursor(Cursor.getDefaultCursor());
+            }
+
+            @Override
+            public void mouseDragged(MouseEvent e) {
+                if (dragSlot != null) {
+                    SlotAssignment target = slotAt(e.getPoint());
+                    if (target != dropSlot) {
+                        setDropTarget(target, target != null ? dropHandler.check(dragSlot, target) : null);
+                    }
+                    return;
+                }
+                if (dragStart == null) {
+                    return;
+                }
+                Point now = e.getLocationOnScreen();
+                Rectangle view = getVisibleRect();
+                view.translate(dragStart.x - now.x, dragStart.y - now.y);
+                dragStart = now;
+                scrollRectToVisible(view);
+            }
+
+            @Override
+            public void mouseMoved(MouseEvent e) {
+                updateHover(e.getPoint());
+            }
+
+            @Override
+            public void mouseExited(MouseEvent e) {
+                updateHover(null);
+            }
+
+            @Override
+            public void mouseWheelMoved(MouseWheelEvent e) {
+                if (e.isControlDown() || e.isMetaDown()) {
+                    zoomAt(zoom * Math.pow(1.1, -e.getPreciseWheelRotation()), e.getPoint());
+                } else {
+                    // Let the enclosing scroll pane scroll as usual
+                    JScrollPane scrollPane = (JScrollPane) SwingUtilities.getAncestorOfClass(JScrollPane.class, FloorPlanView.this);
+                    if (scrollPane != null) {
+                        scrollPane.dispatchEvent(SwingUtilities.convertMouseEvent(FloorPlanView.this, e, scrollPane));
+                    }
+                }
+            }
+        };
+        addMouseListener(mouse);
+        addMouseMotionListener(mouse);
+        addMouseWheelListener(mouse);
+    }
+
+    /**
+     * Shows a new layout. When it only differs from the current one in some rows (a grouping
+     * edit, say), only the tiles covering those rows are redrawn. Its slots may later be edited
+     * in place on the event thread, followed by {@link #rowsChanged}.
+     */
+    void setLayoutModel(FloorPlanLayout layout) {
+        FloorPlanLayout previous = model;
+        List<Rectangle> changed = layout != null && previous != null ? layout.getChangedRegions(previous) : null;
+        model = layout;
+        renderer = layout != null ? new FloorPlanRenderer(layout.detached()) : null;
+        tiles.setRenderer(renderer, changed);
+        hoverRow = null;
+        hoverTable = -1;
+        if (changed == null || previous.getHeight() != layout.getHeight()) {
+            revalidate();
+        }
+        if (changed == null) {
+            repaint();
+            return;
+        }
+        for (Rectangle area : changed) {
+            repaint((int) Math.floor(area.x * zoom), (int) Math.floor(area.y * zoom),
+                    (int) Math.ceil(area.width * zoom) + 2, (int) Math.ceil(area.height * zoom) + 2);
+        }
+    }
+
+    /** Receives, on the event thread, a message when part of the plan could not be drawn. */
+    void setErrorListener(Consumer<String> listener) {
+        errorListener = listener;
+    }
+
+    /** Turns edit mode on with a handler, off with null. */
+    void setSlotDropHandler(SlotDropHandler handler) {
+        dropHandler = handler;
+        dragSlot = null;
+        setDropTarget(null, null);
+    }
+
+    /** Redraws rows whose slots were edited in place. */
+    void rowsChanged(Collection<Integer> rowNumbers) {
+        if (model == null) {
+            return;
+        }
+        List<Rectangle> changed = new ArrayList<>();
+        for (int rowNumber : rowNumbers) {
+            FloorPlanLayout.Row row = model.getRow(rowNumber);
+            if (row != null) {
+                changed.add(FloorPlanLayout.getPaintBounds(row));
+            }
+        }
+        // Only the edited rows are copied again; tiles still rendering keep the previous copy
+        renderer = new FloorPlanRenderer(renderer.getLayout().withRowsDetached(model, rowNumbers));
+        tiles.setRenderer(renderer, changed);
+        for (Rectangle area : changed) {
+            repaint((int) Math.floor(area.x * zoom), (int) Math.floor(area.y * zoom),
+                    (int) Math.ceil(area.width * zoom) + 2, (int) Math.ceil(area.height * zoom) + 2);
+        }
+    }
+
+    private void setDropTarget(SlotAssignment target, AssignmentEditor.Check check) {
+        repaintSlotTable(dropSlot);
+        dropSlot = target;
+        dropColor = check == null ? null : !check.isAllowed() ? DROP_REFUSED
+                : check.getWarnings().isEmpty() ? DROP_OK : DROP_WARNING;
+        repaintSlotTable(dropSlot);
+    }
+
+    private void repaintSlotTable(SlotAssignment slot) {
+        FloorPlanLayout.Row row = slot != null && getLayoutModel() != null ? getLayoutModel().getRow(slot.getRow()) : null;
+        if (row != null) {
+            repaintTable(row, tableOf(row, slot));
+        }
+    }
+
+    private static int tableOf(FloorPlanLayout.Row row, SlotAssignment slot) {
+        for (int t = 0; t < row.getTableCount(); t++) {
+            if (row.getSlot(t, 0) == slot || row.getSlot(t, 1) == slot) {
+                return t;
+            }
+        }
+        return -1;
+    }
+
+    /** Slot under a point in component coordinates, or null */
+    SlotAssignment slotAt(Point point) {
+        if (model == null) {
+            return null;
+        }
+        int x = (int) (point.x / zoom);
+        int y = (int) (point.y / zoom);
+        FloorPlanLayout.Row row = model.getRowAt(x, y);
+        int table = row != null ? row.tableAt(x) : -1;
+        int side = table >= 0 ? row.slotAt(table, x, y) : -1;
+        return side >= 0 ? row.getSlot(table, side) : null;
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        tiles.setGraphicsConfiguration(getGraphicsConfiguration());
+    }
+
+    FloorPlanLayout getLayoutModel() {
+        return model;
+    }
+
+    double getZoom() {
+        return zoom;
+    }
+
+    /** Zooms keeping the logical point under {@code anchor} (component coordinates) in place. */
+    void zoomAt(double newZoom, Point anchor) {
+        double clamped = Math.max(MIN_ZOOM, Math.min(MAX_ZOOM, newZoom));
+        if (clamped == zoom) {
+            return;
+        }
+        Rectangle view = getVisibleRect();
+        Point at = anchor != null ? anchor : new Point(view.x + view.width / 2, view.y + view.height / 2);
+        double logicalX = at.x / zoom;
+        double logicalY = at.y / zoom;
+        previousZoom = zoom;
+        zoom = clamped;
+        revalidate();
+        // Keep the anchor at the same spot in the viewport once the new size is laid out
+        JViewport viewport = (JViewport) SwingUtilities.getAncestorOfClass(JViewport.class, this);
+        if (viewport != null) {
+            viewport.validate();
+            Dimension extent = viewport.getExtentSize();
+            Dimension size = getPreferredSize();
+            int x = (int) Math.round(logicalX * zoom) - (at.x - view.x);
+            int y = (int) Math.round(logicalY * zoom) - (at.y - view.y);
+            viewport.setViewPosition(new Point(
+                    Math.max(0, Math.min(x, size.width - extent.width)),
+                    Math.max(0, Math.min(y, size.height - extent.height))));
+        }
+        repaint();
+    }
+
+    /** Largest zoom at which the whole hall width fits the viewport. */
+    void zoomToFitWidth() {
+        JViewport viewport = (JViewport) SwingUtilities.getAncestorOfClass(JViewport.class, this);
+        if (model != null && viewport != null) {
+            zoomAt(viewport.getExtentSize().width / (double) model.getWidth(), new Point(0, 0));
+        }
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        if (model == null) {
+            return new Dimension(1, 1);
+        }
+        FloorPlanLayout layout = model;
+        return new Dimension((int) Math.ceil(layout.getWidth() * zoom), (int) Math.ceil(layout.getHeight() * zoom));
+    }
+
+    @Override
+    protected void paintComponent(Graphics graphics) {
+        Rectangle clip = graphics.getClipBounds();
+        if (clip == null) {
+            clip = new Rectangle(0, 0, getWidth(), getHeight());
+        }
+        graphics.setColor(getBackground());
+        graphics.fillRect(clip.x, clip.y, clip.width, clip.height);
+        if (renderer == null) {
+            return;
+        }
+        Graphics2D g = (Graphics2D) graphics.create();
+        try {
+            int size = FloorPlanTileCache.TILE_SIZE;
+            tiles.setLiveZoom(zoom);
+            for (int row = Math.max(0, clip.y / size); row <= (clip.y + clip.height - 1) / size; row++) {
+                for (int column = Math.max(0, clip.x / size); column <= (clip.x + clip.width - 1) / size; column++) {
+                    BufferedImage tile = tiles.get(zoom, column, row);
+                    if (tile != null) {
+                        g.drawImage(tile, column * size, row * size, null);
+                    } else {
+                        paintStandIn(g, column, row);
+                    }
+                }
+            }
+            g.scale(zoom, zoom);
+            g.setStroke(new BasicStroke(3f));
+            if (hoverRow != null) {
+                g.setColor(HOVER_OUTLINE);
+                g.drawRoundRect(hoverRow.getTableX(hoverTable), hoverRow.getY(),
+                        FloorPlanLayout.TABLE_WIDTH, FloorPlanLayout.ROW_HEIGHT, 8, 8);
+            }
+            FloorPlanLayout.Row dropRow = dropSlot != null ? model.getRow(dropSlot.getRow()) : null;
+            int dropTable = dropRow != null ? tableOf(dropRow, dropSlot) : -1;
+            if (dropTable >= 0 && dropColor != null) {
+                g.setColor(dropColor);
+                g.drawRoundRect(dropRow.getTableX(dropTable), dropRow.getY(),
+                        FloorPlanLayout.TABLE_WIDTH, FloorPlanLayout.ROW_HEIGHT, 8, 8);
+            }
+        } finally {
+            g.dispose();
+        }
+    }
+
+    private void paintStandIn(Graphics2D g, int column, int row) {
+        int size = FloorPlanTileCache.TILE_SIZE;
+        Rectangle area = new Rectangle(column * size, row * size, size, size);
+        g.setColor(TILE_PLACEHOLDER);
+        g.fill(area);
+        if (previousZoom <= 0 || previousZoom == zoom) {
+            return;
+        }
+        double factor = zoom / previousZoom;
+        Graphics2D scaled = (Graphics2D) g.create();
+        try {
+            scaled.clip(area);
+            scaled.scale(factor, factor);
+            scaled.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            int firstColumn = (int) Math.floor(area.x / factor / size);
+            int lastColumn = (int) Math.floor((area.x + size) / factor / size);
+            int firstRow = (int) Math.floor(area.y / factor / size);
+            int lastRow = (int) Math.floor((area.y + size) / factor / size);
+            for (int r = firstRow; r <= lastRow; r++) {
+                for (int c = firstColumn; c <= lastColumn; c++) {
+                    BufferedImage tile = tiles.peek(previousZoom, c, r);
+                    if (tile != null) {
+                        scaled.drawImage(tile, c * size, r * size, null);
+                    }
+                }
+            }
+        } finally {
+            scaled.dispose();
+        }
+    }
+
+    private void tileReady(double tileZoom, int column, int row) {
+        if (tileZoom == zoom) {
+            int size = FloorPlanTileCache.TILE_SIZE;
+            repaint(column * size, row * size, size, size);
+        }
+    }
+
+    private void updateHover(Point point) {
+        FloorPlanLayout.Row row = null;
+        int table = -1;
+        if (point != null && model != null) {
+            int x = (int) (point.x / zoom);
+            int y = (int) (point.y / zoom);
+            row = model.getRowAt(x, y);
+            table = row != null ? row.tableAt(x) : -1;
+            if (table < 0) {
+                row = null;
+            }
+        }
+        if (row != hoverRow || table != hoverTable) {
+            repaintTable(hoverRow, hoverTable);
+            hoverRow = row;
+            hoverTable = table;
+            repaintTable(hoverRow, hoverTable);
+        }
+    }
+
+    private void repaintTable(FloorPlanLayout.Row row, int table) {
+        if (row != null && table >= 0) {
+            repaint((int) Math.floor((row.getTableX(table) - 3) * zoom), (int) Math.floor((row.getY() - 3) * zoom),
+                    (int) Math.ceil((FloorPlanLayout.TABLE_WIDTH + 6) * zoom) + 1,
+                    (int) Math.ceil((FloorPlanLayout.ROW_HEIGHT + 6) * zoom) + 1);
+        }
+    }
+
+    @Override
+    public String getToolTipText(MouseEvent e) {
+        if (model == null) {
+            return null;
+        }
+        int x = (int) (e.getX() / zoom);
+        int y = (int) (e.getY() / zoom);
+        FloorPlanLayout.Row row = model.getRowAt(x, y);
+        int table = row != null ? row.tableAt(x) : -1;
+        if (table < 0) {
+            return null;
+        }
+        String where = "Table " + row.getTableNumber(table) + ", Row " + row.getRowNumber();
+        int side = row.slotAt(table, x, y);
+        if (side < 0) {
+            return where;
+        }
+        SlotAssignment slot = row.getSlot(table, side);
+        if (slot.isUnassigned() || slot.getProjectID() == null) {
+            return (slot.isReserved() ? "Reserved slot" : "Empty slot") + " - " + where;
+        }
+        return "P" + slot.getProjectID() + " (" + slot.getCategory() + ")"
+                + (Boolean.TRUE.equals(slot.getIsTeam()) ? ", team" : "") + " - " + where;
+    }
+
+    @Override
+    public Dimension getPreferredScrollableViewportSize() {
+        return new Dimension(1100, 700);
+    }
+
+    @Override
+    public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return Math.max(8, (int) Math.round((FloorPlanLayout.ROW_HEIGHT + FloorPlanLayout.ROW_BOTTOM_GAP) * zoom / 2));
+    }
+
+    @Override
+    public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return orientation == SwingConstants.VERTICAL ? visibleRect.height * 9 / 10 : visibleRect.width * 9 / 10;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportWidth() {
+        return false;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportHeight() {
+        return false;
+    }
+}
@@ -35,7 +35,7 @@ public class HtmlGeneratorGui extends JFrame {
             File csvFile = fileChooser.getSelectedFile();
             String htmlFile = csvFile.getParent() + File.separator + "output_from_csv_conversion.html";
             try {
-                HallLayoutUtil hallLayout = new HallLayoutUtil(prefs.getInt(HallLayoutUtil.PREF_AISLE_PIVOT_ROW, 0));
+                HallLayoutUtil hallLayout = HallLayoutUtil.fromPreferences(prefs);
                 com.sciencefair.ScienceFairTableAssignmentApp.generateHtmlLayoutFromCsv(
                         csvFile.getAbsolutePath(), htmlFile, hallLayout);
                 Desktop.getDesktop().browse(new File(htmlFile).toURI());
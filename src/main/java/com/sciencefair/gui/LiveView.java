@@ -0,0 +1,85 @@
+package com.sciencefair.gui;
+
+import com.sciencefair.server.LayoutServer;
+import com.sciencefair.util.HallLayoutUtil;
+
+import java.io.IOException;
+import java.net.BindException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The windows' handle on a {@link LayoutServer}: starts and stops it and publishes new versions
+ * on a background thread. Publishing coalesces: while one version renders, later ones replace
+ * each other and only the newest is rendered next. Called on the event thread.
+ */
+final class LiveView {
+
+    private static final ExecutorService PUBLISHER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "live-view-publish");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final class Version {
+        final HallLayoutUtil hallLayout;
+        final LayoutServer.PageWriter writer;
+
+        Version(HallLayoutUtil hallLayout, LayoutServer.PageWriter writer) {
+            this.hallLayout = hallLayout;
+            this.writer = writer;
+        }
+    }
+
+    private LayoutServer server;
+    private final AtomicReference<Version> pending = new AtomicReference<>();
+
+    boolean isRunning() {
+        return server != null;
+    }
+
+    /** Starts on the default port, or any free one when it is taken; returns the page's address. */
+    String start() throws IOException {
+        if (server == null) {
+            try {
+                server = LayoutServer.start(null, LayoutServer.DEFAULT_PORT);
+            } catch (BindException e) {
+                server = LayoutServer.start(null, 0);
+            }
+        }
+        return server.getUrl();
+    }
+
+    void stop() {
+        if (server != null) {
+            server.close();
+            server = null;
+        }
+    }
+
+    /**
+     * Queues a version. The writer runs on the publish thread, so it must only read data that
+     * no longer changes, such as an {@link com.sciencefair.service.EditLog.Snapshot}.
+     */
+    void publish(HallLayoutUtil hallLayout, LayoutServer.PageWriter writer) {
+        LayoutServer target = server;
+        if (target == null) {
+            return;
+        }
+        if (pending.getAndSet(new Version(hallLayout, writer)) != null) {
+            return; // the queued task picks up this version
+        }
+        PUBLISHER.execute(() -> {
+            Version version = pending.getAndSet(null);
+            if (version == null) {
+                return;
+            }
+            try {
+                target.publish(version.hallLayout, version.writer);
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Live view update failed: " + e.getMessage());
+            }
+        });
+    }
+}
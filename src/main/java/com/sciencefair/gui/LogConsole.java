@@ -0,0 +1,268 @@
+package com.sciencefair.gui;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.datatransfer.StringSelection;
+import java.awt.event.KeyEvent;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read-only log view for long runs. Lines live in a ring buffer of fixed capacity, so memory is
+ * capped and the oldest lines drop off; appends from any thread are queued and applied once per
+ * event-thread turn, then the view is repainted once; painting only draws the lines inside the
+ * clip. A line may hold several colored pieces, as when "Projects file: " is followed by "Valid."
+ * <p>
+ * While the view is scrolled to the bottom it follows new lines; scrolled up, it stays put.
+ */
+final class LogConsole extends JComponent implements Scrollable {
+
+    static final int DEFAULT_CAPACITY = 50_000;
+    private static final int MAX_LINE_CHARS = 4000;
+    private static final int PADDING = 4;
+
+    /** One line as colored pieces */
+    private static final class Line {
+        final List<String> texts = new ArrayList<>(1);
+        final List<Color> colors = new ArrayList<>(1);
+        int length;
+        int width;
+    }
+
+    private static final class Piece {
+        final String text;
+        final Color color;
+
+        Piece(String text, Color color) {
+            this.text = text;
+            this.color = color;
+        }
+    }
+
+    private final Line[] lines;
+    private int first;
+    private int count;
+    private long dropped;
+    private Line open; // last line, still waiting for its newline
+    private int maxWidth;
+
+    // Filled by any thread, drained on the event thread
+    private final Object pendingLock = new Object();
+    private List<Piece> pending = new ArrayList<>();
+    private boolean clearPending;
+    private boolean flushScheduled;
+
+    LogConsole(int capacity) {
+        lines = new Line[Math.max(16, capacity)];
+        setOpaque(true);
+        setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        setFocusable(true);
+        JPopupMenu menu = new JPopupMenu();
+        menu.add("Copy All").addActionListener(e -> copyAll());
+        setComponentPopupMenu(menu);
+        getActionMap().put("copyAll", new AbstractAction() {
+            @Override
+            public void actionPerformed(java.awt.event.ActionEvent e) {
+                copyAll();
+            }
+        });
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        // The platform's copy shortcut; only known once on screen
+        getInputMap().put(KeyStroke.getKeyStroke(KeyEvent.VK_C, Toolkit.getDefaultToolkit().getMenuShortcutKeyMaskEx()), "copyAll");
+    }
+
+    /** Queues text, which may hold several lines; safe from any thread. */
+    void append(String text, Color color) {
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+        synchronized (pendingLock) {
+            pending.add(new Piece(text, color));
+            scheduleFlush();
+        }
+    }
+
+    /** Empties the log, including text queued before this call. */
+    void clear() {
+        synchronized (pendingLock) {
+            pending = new ArrayList<>();
+            clearPending = true;
+            scheduleFlush();
+        }
+    }
+
+    /** Lines dropped off the top since the last clear */
+    long getDroppedLineCount() {
+        return dropped;
+    }
+
+    private void scheduleFlush() {
+        if (!flushScheduled) {
+            flushScheduled = true;
+            SwingUtilities.invokeLater(this::flush);
+        }
+    }
+
+    private void flush() {
+        List<Piece> batch;
+        boolean clearing;
+        synchronized (pendingLock) {
+            batch = pending;
+            pending = new ArrayList<>();
+            clearing = clearPending;
+            clearPending = false;
+            flushScheduled = false;
+        }
+        JViewport viewport = getParent() instanceof JViewport ? (JViewport) getParent() : null;
+        boolean following = viewport == null
+                || viewport.getViewPosition().y + viewport.getExtentSize().height >= getPreferredSize().height - lineHeight();
+        if (clearing) {
+            first = 0;
+            count = 0;
+            dropped = 0;
+            open = null;
+            maxWidth = 0;
+            java.util.Arrays.fill(lines, null);
+        }
+        long droppedBefore = dropped;
+        FontMetrics metrics = getFontMetrics(getFont());
+        for (Piece piece : batch) {
+            String text = piece.text;
+            int start = 0;
+            while (start <= text.length()) {
+                int newline = text.indexOf('\n', start);
+                int end = newline < 0 ? text.length() : newline;
+                if (end > start || newline >= 0) {
+                    addPiece(text.substring(start, end), piece.color, metrics);
+                }
+                if (newline < 0) {
+                    break;
+                }
+                open = null; // the newline closes the line
+                start = newline + 1;
+            }
+        }
+        revalidate();
+        repaint();
+        if (viewport != null) {
+            int height = getPreferredSize().height;
+            if (following) {
+                viewport.setViewPosition(new Point(viewport.getViewPosition().x, Math.max(0, height - viewport.getExtentSize().height)));
+            } else if (dropped > droppedBefore) {
+                // Keep the lines being read in place while older ones drop off the top
+                int shift = (int) (dropped - droppedBefore) * lineHeight();
+                viewport.setViewPosition(new Point(viewport.getViewPosition().x, Math.max(0, viewport.getViewPosition().y - shift)));
+            }
+        }
+    }
+
+    private void addPiece(String text, Color color, FontMetrics metrics) {
+        if (open == null) {
+            open = new Line();
+            if (count == lines.length) {
+                first = (first + 1) % lines.length;
+                count--;
+                dropped++;
+            }
+            lines[(first + count) % lines.length] = open;
+            count++;
+        }
+        if (text.isEmpty() || open.length >= MAX_LINE_CHARS) {
+            return;
+        }
+        if (open.length + text.length() > MAX_LINE_CHARS) {
+            text = text.substring(0, MAX_LINE_CHARS - open.length) + "…";
+        }
+        open.texts.add(text);
+        open.colors.add(color);
+        open.length += text.length();
+        open.width += metrics.stringWidth(text);
+        maxWidth = Math.max(maxWidth, open.width);
+    }
+
+    private Line line(int index) {
+        return lines[(first + index) % lines.length];
+    }
+
+    private int lineHeight() {
+        return getFontMetrics(getFont()).getHeight();
+    }
+
+    private void copyAll() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            for (String text : line(i).texts) {
+                sb.append(text);
+            }
+            sb.append('\n');
+        }
+        Toolkit.getDefaultToolkit().getSystemClipboard().setContents(new StringSelection(sb.toString()), null);
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        return new Dimension(maxWidth + 2 * PADDING, count * lineHeight() + 2 * PADDING);
+    }
+
+    @Override
+    protected void paintComponent(Graphics graphics) {
+        Graphics2D g = (Graphics2D) graphics.create();
+        try {
+            Rectangle clip = g.getClipBounds();
+            if (clip == null) {
+                clip = new Rectangle(0, 0, getWidth(), getHeight());
+            }
+            g.setColor(getBackground());
+            g.fillRect(clip.x, clip.y, clip.width, clip.height);
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            FontMetrics metrics = g.getFontMetrics(getFont());
+            g.setFont(getFont());
+            int height = metrics.getHeight();
+            int from = Math.max(0, (clip.y - PADDING) / height);
+            int to = Math.min(count, (clip.y + clip.height - PADDING) / height + 1);
+            for (int i = from; i < to; i++) {
+                Line line = line(i);
+                int x = PADDING;
+                int baseline = PADDING + i * height + metrics.getAscent();
+                for (int p = 0; p < line.texts.size() && x < clip.x + clip.width; p++) {
+                    String text = line.texts.get(p);
+                    Color color = line.colors.get(p);
+                    g.setColor(color != null ? color : getForeground());
+                    g.drawString(text, x, baseline);
+                    x += metrics.stringWidth(text);
+                }
+            }
+        } finally {
+            g.dispose();
+        }
+    }
+
+    @Override
+    public Dimension getPreferredScrollableViewportSize() {
+        return new Dimension(600, 20 * lineHeight());
+    }
+
+    @Override
+    public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return orientation == SwingConstants.VERTICAL ? lineHeight() : 16;
+    }
+
+    @Override
+    public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return orientation == SwingConstants.VERTICAL ? Math.max(lineHeight(), visibleRect.height - lineHeight()) : visibleRect.width / 2;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportWidth() {
+        return getParent() instanceof JViewport && getParent().getWidth() > getPreferredSize().width;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportHeight() {
+        return getParent() instanceof JViewport && getParent().getHeight() > getPreferredSize().height;
+    }
+}
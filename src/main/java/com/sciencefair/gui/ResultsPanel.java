@@ -0,0 +1,127 @@
+package com.sciencefair.gui;
+
+import com.sciencefair.model.SlotAssignment;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Results tab: the last run's slots in a table, with a filter bar for row range, category, team
+ * and status. Clicking a header sorts by that column, clicking it again reverses; both go through
+ * {@link AssignmentTableModel}'s index arrays rather than a {@code TableRowSorter}, which would
+ * build a row wrapper per slot on every sort.
+ */
+final class ResultsPanel extends JPanel {
+
+    private static final String ALL = "All";
+
+    private final AssignmentTableModel model = new AssignmentTableModel();
+    private final JTable table = new JTable(model);
+    private final JTextField rowsField = new JTextField(8);
+    private final JComboBox<String> categoryBox = new JComboBox<>(new String[]{ALL});
+    private final JComboBox<String> teamBox = new JComboBox<>(new String[]{ALL, "Team", "Individual"});
+    private final JComboBox<String> statusBox = new JComboBox<>(new String[]{ALL,
+            AssignmentTableModel.STATUS_ASSIGNED, AssignmentTableModel.STATUS_EMPTY, AssignmentTableModel.STATUS_RESERVED});
+    private final JLabel countLabel = new JLabel(" ");
+    private boolean updatingFilters;
+
+    ResultsPanel() {
+        super(new BorderLayout());
+        table.setAutoCreateRowSorter(false);
+        table.setFillsViewportHeight(true);
+        table.getTableHeader().setReorderingAllowed(false);
+        table.getTableHeader().addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int column = table.columnAtPoint(e.getPoint());
+                if (column >= 0 && SwingUtilities.isLeftMouseButton(e)) {
+                    model.sortBy(table.convertColumnIndexToModel(column));
+                    updateCount();
+                }
+            }
+        });
+
+        JPanel filters = new JPanel(new FlowLayout(FlowLayout.LEFT, 6, 4));
+        filters.add(new JLabel("Rows:"));
+        rowsField.setToolTipText("A row number or range, e.g. 12 or 3-8; empty for all rows");
+        filters.add(rowsField);
+        filters.add(new JLabel("Category:"));
+        filters.add(categoryBox);
+        filters.add(new JLabel("Team:"));
+        filters.add(teamBox);
+        filters.add(new JLabel("Status:"));
+        filters.add(statusBox);
+        filters.add(countLabel);
+        add(filters, BorderLayout.NORTH);
+        add(new JScrollPane(table), BorderLayout.CENTER);
+
+        rowsField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override public void insertUpdate(DocumentEvent e) { applyFilter(); }
+            @Override public void removeUpdate(DocumentEvent e) { applyFilter(); }
+            @Override public void changedUpdate(DocumentEvent e) { applyFilter(); }
+        });
+        categoryBox.addActionListener(e -> applyFilter());
+        teamBox.addActionListener(e -> applyFilter());
+        statusBox.addActionListener(e -> applyFilter());
+        updateCount();
+    }
+
+    /** Shows a run's results; the list is shown in place and must not be changed afterwards. */
+    void setAssignments(List<SlotAssignment> assignments) {
+        model.setAssignments(assignments);
+        Object selected = categoryBox.getSelectedItem();
+        updatingFilters = true;
+        try {
+            categoryBox.removeAllItems();
+            categoryBox.addItem(ALL);
+            for (String category : model.getCategories()) {
+                categoryBox.addItem(category);
+            }
+            categoryBox.setSelectedItem(model.getCategories().contains(selected) ? selected : ALL);
+        } finally {
+            updatingFilters = false;
+        }
+        applyFilter();
+    }
+
+    private void applyFilter() {
+        if (updatingFilters) {
+            return;
+        }
+        AssignmentTableModel.Filter filter = new AssignmentTableModel.Filter();
+        String rows = rowsField.getText().trim();
+        boolean rowsValid = true;
+        if (!rows.isEmpty()) {
+            try {
+                int dash = rows.indexOf('-', 1);
+                filter.firstRow = Integer.parseInt(rows.substring(0, dash < 0 ? rows.length() : dash).trim());
+                filter.lastRow = dash < 0 ? filter.firstRow : Integer.parseInt(rows.substring(dash + 1).trim());
+            } catch (NumberFormatException e) {
+                rowsValid = false; // keep the previous view until the range parses
+            }
+        }
+        rowsField.setForeground(rowsValid ? UIManager.getColor("TextField.foreground") : Color.RED);
+        if (!rowsValid) {
+            return;
+        }
+        Object category = categoryBox.getSelectedItem();
+        filter.category = category == null || ALL.equals(category) ? null : category.toString();
+        int team = teamBox.getSelectedIndex();
+        filter.team = team == 1 ? Boolean.TRUE : team == 2 ? Boolean.FALSE : null;
+        Object status = statusBox.getSelectedItem();
+        filter.status = status == null || ALL.equals(status) ? null : status.toString();
+        model.setFilter(filter);
+        updateCount();
+    }
+
+    private void updateCount() {
+        countLabel.setText(model.getTotalCount() == 0 ? "No results yet"
+                : String.format(Locale.ROOT, "%,d of %,d slots", model.getRowCount(), model.getTotalCount()));
+    }
+}
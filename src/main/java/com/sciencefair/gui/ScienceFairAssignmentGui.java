@@ -3,9 +3,16 @@ package com.sciencefair.gui;
 import com.sciencefair.model.ScienceProject;
 import com.sciencefair.model.SlotAssignment;
 import com.sciencefair.model.TableSlot;
+import com.sciencefair.service.IncrementalRun;
 import com.sciencefair.service.ScienceFairAssignmentService;
+import com.sciencefair.util.FloorPlanLayout;
 import com.sciencefair.util.HallLayoutUtil;
+import com.sciencefair.util.HtmlLayoutRenderer;
+import com.sciencefair.util.HtmlRowCache;
+import com.sciencefair.util.InputWatcher;
 import com.sciencefair.util.ScienceFairCsvUtil;
+import com.sciencefair.util.ScienceFairJsonUtil;
+import com.sciencefair.util.TaskProgress;
 
 import javax.swing.*;
 import javax.swing.filechooser.FileNameExtensionFilter;
@@ -16,6 +23,7 @@ import java.awt.event.ActionListener;
 import java.io.File;
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.CancellationException;
 
 /**
  * GUI for Science Fair Table Assignment with updated CSV format
@@ -25,6 +33,10 @@ public class ScienceFairAssignmentGui extends JFrame {
     private JButton usePreviousBtn;
     // Retry button removed
     private String outputFolder;
+    // Results of the last run, kept so layout previews do not re-read output.csv. These and
+    // outputFolder are only read and written on the event thread; run workers hand theirs back
+    private List<SlotAssignment> lastAssignments;
+    private HtmlRowCache htmlRowCache = new HtmlRowCache();
     // Removed lastSuccessfulOutputFolder persistence
     // Removed reuse/fixed latest output folder checkboxes per user request
 
@@ -32,23 +44,46 @@ public class ScienceFairAssignmentGui extends JFrame {
     private JTextField projectsFileField;
     private JTextField outputFileField;
     private JButton runButton;
+    private JButton cancelRunButton; // Shown while a run is in progress
+    private JProgressBar runProgressBar;
+    private TaskProgress runProgress; // Progress of the current run, null when idle
     private JButton openHtmlButton;
     private JButton layoutConfigButton; // Row grouping configuration button
+    private JButton exportPosterButton; // Floor-plan PNG of the last run
+    private JButton tableSignsButton; // Printable per-table signs of the last run
     private JTextField aislePivotField;
     private JCheckBox autoDetectAislePivotCheck;
     private JLabel aisleInfoLabel;
+    private JButton hallZonesButton; // Multi-aisle / multi-hall zones, overrides the pivot when set
     private boolean suppressAislePivotEvents;
-    private JTextPane resultArea;
+    private LogConsole resultArea; // Ring-buffered log; appends are batched per repaint
+    private ResultsPanel resultsPanel; // Sortable table of the last run's slots
+    private JTabbedPane centerTabs;
     private ScienceFairAssignmentService assignmentService;
+    private final ValidationService inputValidation = new ValidationService(ValidationService.DEFAULT_DELAY_MILLIS);
+    private AssignmentPrefetcher prefetcher; // parses inputs and pre-runs the dealer before Run
     private JCheckBox openHtmlAfterRunCheck; // Auto-open HTML after successful run
+    private JCheckBox compactHtmlCheck; // Data-driven HTML for very large halls
+    private JCheckBox watchInputsCheck; // Re-run into the current output folder when an input is saved
+    private JCheckBox liveViewCheck; // Serve the layout on localhost and push each run to open pages
+    private final LiveView liveView = new LiveView();
+    private InputWatcher inputWatcher; // null unless watching
+    private IncrementalRun watchedRun; // Outputs kept up to date while watching
+    private boolean watchRefreshRunning;
+    private boolean watchRefreshPending; // An input changed while a run was busy
 
     // Preferences for remembering last-used directories
     private final java.util.prefs.Preferences prefs = java.util.prefs.Preferences.userNodeForPackage(ScienceFairAssignmentGui.class);
     private static final String PREF_TABLES_DIR = "lastTableSlotsDir";
     private static final String PREF_PROJECTS_DIR = "lastProjectsDir";
     private static final String PREF_ROW_GROUPS = "rowGroupsText"; // persists row grouping configuration
+    private static final String PREF_COMPACT_HTML = "compactHtml";
     
     private HallLayoutUtil loadHallLayout() {
+        HallLayoutUtil zoned = zonedHallLayout(prefs.get(HallLayoutUtil.PREF_HALL_ZONES, ""));
+        if (zoned != null) {
+            return zoned;
+        }
         int pivot = resolveAislePivot();
         if (pivot < 0) {
             pivot = prefs.getInt(HallLayoutUtil.PREF_AISLE_PIVOT_ROW, 0);
@@ -56,6 +91,57 @@ public class ScienceFairAssignmentGui extends JFrame {
         return new HallLayoutUtil(pivot);
     }
 
+    /** Layout of the saved zones, or null to use the pivot row */
+    private static HallLayoutUtil zonedHallLayout(String zones) {
+        if (!zones.trim().isEmpty()) {
+            try {
+                return new HallLayoutUtil(HallLayoutUtil.parseZones(zones));
+            } catch (IllegalArgumentException e) {
+                System.err.println("Ignoring saved hall zones: " + e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Zones such as "Left=1-12, Right=13- up; Annex=30-" replace the single pivot for halls with
+     * several aisles or rooms; an empty spec goes back to the pivot row.
+     */
+    private void editHallZones() {
+        String current = prefs.get(HallLayoutUtil.PREF_HALL_ZONES, "");
+        while (true) {
+            Object input = JOptionPane.showInputDialog(this,
+                    "Zones in fill order, commas between zones of a hall, semicolons between halls.\n"
+                            + "Each zone: [label=]first-last [reverse] [up]   e.g. Left=1-12, Right=13- up; Annex=30-\n"
+                            + "Leave empty to use the center aisle pivot row.",
+                    "Hall Zones", JOptionPane.PLAIN_MESSAGE, null, null, current);
+            if (input == null) {
+                return;
+            }
+            String spec = input.toString().trim();
+            try {
+                if (!spec.isEmpty()) {
+                    HallLayoutUtil.parseZones(spec);
+                }
+                prefs.put(HallLayoutUtil.PREF_HALL_ZONES, spec);
+                updateHallZonesButton();
+                validateInputs();
+                return;
+            } catch (IllegalArgumentException e) {
+                JOptionPane.showMessageDialog(this, e.getMessage(), "Invalid Hall Zones", JOptionPane.ERROR_MESSAGE);
+                current = spec;
+            }
+        }
+    }
+
+    private void updateHallZonesButton() {
+        String zones = prefs.get(HallLayoutUtil.PREF_HALL_ZONES, "").trim();
+        hallZonesButton.setText(zones.isEmpty() ? "Zones…" : "Zones ✓");
+        hallZonesButton.setToolTipText(zones.isEmpty()
+                ? "Split the hall into several aisles or halls (overrides the pivot row)"
+                : "Hall zones: " + zones);
+    }
+
     private void persistAislePivot() {
         if (autoDetectAislePivotCheck != null) {
             prefs.putBoolean(HallLayoutUtil.PREF_AISLE_AUTO_DETECT, autoDetectAislePivotCheck.isSelected());
@@ -71,6 +157,7 @@ public class ScienceFairAssignmentGui extends JFrame {
     
     public ScienceFairAssignmentGui() {
         this.assignmentService = new ScienceFairAssignmentService();
+        this.prefetcher = new AssignmentPrefetcher(assignmentService);
         initializeComponents();
         setupLayout();
         setupEventHandlers();
@@ -104,8 +191,21 @@ public class ScienceFairAssignmentGui extends JFrame {
     runButton = new JButton("Run");
     runButton.setToolTipText("Assign Projects to Table Slots");
     runButton.setBackground(new Color(220, 240, 255)); // Light blue background
+    cancelRunButton = new JButton("Cancel");
+    cancelRunButton.setToolTipText("Stop the run at the next row; partial output is removed");
+    cancelRunButton.setVisible(false);
+    runProgressBar = new JProgressBar(0, 100);
+    runProgressBar.setStringPainted(true);
+    runProgressBar.setPreferredSize(new Dimension(420, runProgressBar.getPreferredSize().height));
+    runProgressBar.setVisible(false);
     openHtmlButton = new JButton("Open Table Layout");
     openHtmlButton.setEnabled(false);
+    exportPosterButton = new JButton("Export Poster PNG");
+    exportPosterButton.setToolTipText("Render the hall layout of the last run as a print-resolution PNG");
+    exportPosterButton.setEnabled(false);
+    tableSignsButton = new JButton("Table Signs");
+    tableSignsButton.setToolTipText("Write printable signs (one page per table) for the last run");
+    tableSignsButton.setEnabled(false);
     layoutConfigButton = new JButton("Row Grouping ⚙");
     layoutConfigButton.setToolTipText("Configure row grouping (order & spacing)");
     layoutConfigButton.setEnabled(true); // Enabled at startup per new requirement
@@ -118,25 +218,18 @@ public class ScienceFairAssignmentGui extends JFrame {
     autoDetectAislePivotCheck.setSelected(prefs.getBoolean(HallLayoutUtil.PREF_AISLE_AUTO_DETECT, false));
     autoDetectAislePivotCheck.setToolTipText("Split rows evenly across the aisle (e.g. 6 rows → 3 left / 3 right; 7 rows → 4 left / 3 right)");
     aisleInfoLabel = new JLabel("(last row on left side; 0 = disabled)");
-    resultArea = new JTextPane();
-    resultArea.setEditable(false);
-    resultArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+    hallZonesButton = new JButton("Zones…");
+    updateHallZonesButton();
+    resultArea = new LogConsole(LogConsole.DEFAULT_CAPACITY);
     setStyledText("Please select your Table Slots and Projects CSV files to begin.\n", Color.WHITE);
     }
     
     private void appendColoredText(String text, Color color) {
-        StyledDocument doc = resultArea.getStyledDocument();
-        SimpleAttributeSet attributes = new SimpleAttributeSet();
-        StyleConstants.setForeground(attributes, color);
-        try {
-            doc.insertString(doc.getLength(), text, attributes);
-        } catch (BadLocationException e) {
-            e.printStackTrace();
-        }
+        resultArea.append(text, color);
     }
     
     private void setStyledText(String text, Color color) {
-        resultArea.setText("");
+        resultArea.clear();
         appendColoredText(text, color);
     }
     
@@ -191,6 +284,7 @@ public class ScienceFairAssignmentGui extends JFrame {
         aislePanel.add(aislePivotField);
         aislePanel.add(autoDetectAislePivotCheck);
         aislePanel.add(aisleInfoLabel);
+        aislePanel.add(hallZonesButton);
         inputPanel.add(aislePanel, gbc);
 
         gbc.gridx = 2; gbc.fill = GridBagConstraints.NONE; gbc.weightx = 0;
@@ -204,20 +298,45 @@ public class ScienceFairAssignmentGui extends JFrame {
     openHtmlAfterRunCheck = new JCheckBox("Open HTML after run");
     openHtmlAfterRunCheck.setSelected(true);
     openHtmlAfterRunCheck.setFocusable(false);
+    compactHtmlCheck = new JCheckBox("Compact HTML (large halls)");
+    compactHtmlCheck.setSelected(prefs.getBoolean(PREF_COMPACT_HTML, false));
+    compactHtmlCheck.setFocusable(false);
+    compactHtmlCheck.setToolTipText("Embed assignments as data and draw rows in the browser as they scroll into view");
+    compactHtmlCheck.addActionListener(e -> {
+        prefs.putBoolean(PREF_COMPACT_HTML, compactHtmlCheck.isSelected());
+        watchedRun = null; // the next refresh renders in the new mode
+    });
+    watchInputsCheck = new JCheckBox("Watch inputs");
+    watchInputsCheck.setFocusable(false);
+    watchInputsCheck.setToolTipText("Re-run whenever either input CSV is saved, updating only the outputs that change");
+    watchInputsCheck.addActionListener(e -> updateInputWatch());
+    liveViewCheck = new JCheckBox("Live view");
+    liveViewCheck.setFocusable(false);
+    liveViewCheck.setToolTipText("Show the layout in one browser tab that updates itself after every run");
+    liveViewCheck.addActionListener(e -> updateLiveView());
     usePreviousBtn = new JButton("Use Previous Input Files");
 
     JPanel leftButtons = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 0));
     leftButtons.add(openHtmlAfterRunCheck);
+    leftButtons.add(compactHtmlCheck);
+    leftButtons.add(watchInputsCheck);
+    leftButtons.add(liveViewCheck);
     leftButtons.add(usePreviousBtn);
     leftButtons.add(openHtmlButton);
     leftButtons.add(layoutConfigButton);
     leftButtons.add(openFolderButton);
+    leftButtons.add(exportPosterButton);
+    leftButtons.add(tableSignsButton);
 
     JPanel buttonPanel = new JPanel(new BorderLayout(10,0));
     buttonPanel.add(leftButtons, BorderLayout.CENTER);
     JPanel runHolder = new JPanel(new FlowLayout(FlowLayout.RIGHT, 0, 0));
     // Add a little right padding so the Run button isn't touching the frame edge
     runHolder.setBorder(javax.swing.BorderFactory.createEmptyBorder(0,0,0,12));
+    runHolder.add(runProgressBar);
+    runHolder.add(Box.createHorizontalStrut(6));
+    runHolder.add(cancelRunButton);
+    runHolder.add(Box.createHorizontalStrut(6));
     runHolder.add(runButton);
     buttonPanel.add(runHolder, BorderLayout.EAST);
         // Use Previous Input Files button handler
@@ -242,7 +361,11 @@ public class ScienceFairAssignmentGui extends JFrame {
         add(inputPanel, BorderLayout.NORTH);
         resultArea.setBackground(Color.BLACK);
         resultArea.setForeground(Color.WHITE);
-        add(new JScrollPane(resultArea), BorderLayout.CENTER);
+        resultsPanel = new ResultsPanel();
+        centerTabs = new JTabbedPane();
+        centerTabs.addTab("Log", new JScrollPane(resultArea));
+        centerTabs.addTab("Results", resultsPanel);
+        add(centerTabs, BorderLayout.CENTER);
 
         // Add instructions at the bottom
         JTextArea instructions = new JTextArea(5, 60);
@@ -252,7 +375,7 @@ public class ScienceFairAssignmentGui extends JFrame {
         instructions.setText("Instructions:\n" +
             "1. Select your Table Slots CSV and Projects CSV files.\n" +
             "2. Set Center aisle pivot row, or enable auto-detect to split rows evenly (e.g. 6 rows → pivot 3; 7 rows → pivot 4).\n" +
-            "3. The output folder is automatically created next to the JAR file and will contain both output.csv and output.html.\n" +
+            "3. The output folder is automatically created next to the JAR file and will contain output.csv, output.json and output.html.\n" +
             "4. (Optional) Adjust row grouping via the 'Row Grouping' button.\n" +
             "5. Leave 'Open HTML after run' checked to automatically open the layout when complete.\n" +
             "6. Click 'Run' to execute the assignment (tooltip shows full action).");
@@ -266,6 +389,16 @@ public class ScienceFairAssignmentGui extends JFrame {
                 runAssignment();
             }
         });
+        cancelRunButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                if (runProgress != null) {
+                    runProgress.cancel();
+                    cancelRunButton.setEnabled(false);
+                    runProgressBar.setString("Cancelling...");
+                }
+            }
+        });
         openHtmlButton.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
@@ -278,6 +411,24 @@ public class ScienceFairAssignmentGui extends JFrame {
                 openLayoutConfigurator();
             }
         });
+        hallZonesButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                editHallZones();
+            }
+        });
+        exportPosterButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                exportPoster();
+            }
+        });
+        tableSignsButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                exportTableSigns();
+            }
+        });
         openFolderButton.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
@@ -314,35 +465,62 @@ public class ScienceFairAssignmentGui extends JFrame {
         }
     }
 
-    // Validate input file formats and enable/disable buttons accordingly
+    /** What {@link #checkInputs} found out about the input fields */
+    private static final class InputCheck {
+        String tablesPath;
+        String projectsPath;
+        boolean autoDetect;
+        boolean validTables;
+        boolean validProjects;
+        int totalRows;
+        int aislePivot;
+        HallLayoutUtil hallLayout; // null unless the pivot is valid
+    }
+
+    // Validate input file formats and enable/disable buttons accordingly. The files are read off
+    // the event thread once typing pauses; Run stays disabled until the check is back.
     private void validateInputs() {
-        boolean validTables = isValidTableSlotsFile(tableSlotsFileField.getText().trim());
-        boolean validProjects = isValidProjectsFile(projectsFileField.getText().trim());
+        String tablesPath = tableSlotsFileField.getText().trim();
+        String projectsPath = projectsFileField.getText().trim();
         boolean autoDetect = autoDetectAislePivotCheck != null && autoDetectAislePivotCheck.isSelected();
-        int totalRows = validTables ? countHallRowsFromTableSlots(tableSlotsFileField.getText().trim()) : 0;
-        int aislePivot;
-        boolean validAisle;
-        if (autoDetect) {
-            if (!validTables) {
-                aislePivot = -1;
-                validAisle = false;
-            } else {
-                aislePivot = HallLayoutUtil.computeAutoPivotRow(totalRows);
-                validAisle = aislePivot >= 0;
-            }
-        } else {
-            aislePivot = parseAislePivot(aislePivotField.getText());
-            validAisle = aislePivot >= 0;
+        String pivotText = aislePivotField != null ? aislePivotField.getText() : null;
+        String zones = prefs.get(HallLayoutUtil.PREF_HALL_ZONES, "");
+        runButton.setEnabled(false);
+        inputValidation.request(() -> checkInputs(tablesPath, projectsPath, autoDetect, pivotText, zones), this::showInputCheck);
+    }
+
+    private InputCheck checkInputs(String tablesPath, String projectsPath, boolean autoDetect, String pivotText, String zones) {
+        InputCheck check = new InputCheck();
+        check.tablesPath = tablesPath;
+        check.projectsPath = projectsPath;
+        check.autoDetect = autoDetect;
+        check.validTables = isValidTableSlotsFile(tablesPath);
+        check.validProjects = isValidProjectsFile(projectsPath);
+        check.totalRows = check.validTables ? countHallRowsFromTableSlots(tablesPath) : 0;
+        check.aislePivot = resolveAislePivot(autoDetect, check.validTables ? check.totalRows : -1, pivotText);
+        if (check.aislePivot >= 0) {
+            HallLayoutUtil zoned = zonedHallLayout(zones);
+            check.hallLayout = zoned != null ? zoned : new HallLayoutUtil(check.aislePivot);
         }
+        return check;
+    }
+
+    private void showInputCheck(InputCheck check) {
+        boolean validTables = check.validTables;
+        boolean validProjects = check.validProjects;
+        boolean autoDetect = check.autoDetect;
+        int totalRows = check.totalRows;
+        int aislePivot = check.aislePivot;
+        boolean validAisle = aislePivot >= 0;
         updateAisleDisplay(autoDetect, validTables, totalRows, aislePivot);
         boolean enable = validTables && validProjects && validAisle;
         runButton.setEnabled(enable);
         openHtmlButton.setEnabled(false);
         openFolderButton.setEnabled(false);
 
-        resultArea.setText("");
+        resultArea.clear();
         // Table Slots file status
-        if (tableSlotsFileField.getText().trim().isEmpty()) {
+        if (check.tablesPath.isEmpty()) {
             appendColoredText("Table Slots file: Not selected.\n", Color.WHITE);
         } else if (!validTables) {
             appendColoredText("Table Slots file: ", Color.WHITE);
@@ -353,7 +531,7 @@ public class ScienceFairAssignmentGui extends JFrame {
         }
 
         // Projects file status
-        if (projectsFileField.getText().trim().isEmpty()) {
+        if (check.projectsPath.isEmpty()) {
             appendColoredText("Projects file: Not selected.\n", Color.WHITE);
         } else if (!validProjects) {
             appendColoredText("Projects file: ", Color.WHITE);
@@ -366,6 +544,8 @@ public class ScienceFairAssignmentGui extends JFrame {
         if (enable) {
             appendColoredText("Both files are valid. Click 'Assign Projects to Table Slots' to continue.\n", Color.GREEN);
         }
+        prefetchInputs(check, enable);
+        updateInputWatch();
 
         if (aislePivot < 0) {
             appendColoredText("Center aisle: ", Color.WHITE);
@@ -388,6 +568,28 @@ public class ScienceFairAssignmentGui extends JFrame {
         }
     }
 
+    /**
+     * Starts reading the valid input files and, when Run is possible, a speculative assignment
+     * with the current hall layout; changed inputs cancel the stale work.
+     */
+    private void prefetchInputs(InputCheck check, boolean runnable) {
+        prefetcher.update(check.validTables ? check.tablesPath : null, check.validProjects ? check.projectsPath : null,
+                runnable ? check.hallLayout : null, new AssignmentPrefetcher.Listener() {
+                    @Override
+                    public void ready(AssignmentPrefetcher.Result result) {
+                        if (runButton.isEnabled()) {
+                            appendColoredText("Assignment prepared in the background (" + result.projects.size() + " projects, "
+                                    + result.tableSlots.size() + " table slots); Run only writes the outputs.\n", Color.GREEN);
+                        }
+                    }
+
+                    @Override
+                    public void failed(Throwable cause) {
+                        appendColoredText("Could not prepare the assignment: " + cause.getMessage() + "\n", Color.RED);
+                    }
+                });
+    }
+
     // Check if table slots file has required headers
     private boolean isValidTableSlotsFile(String path) {
         if (path.isEmpty() || !(new java.io.File(path).exists())) return false;
@@ -508,74 +710,127 @@ public class ScienceFairAssignmentGui extends JFrame {
     openHtmlButton.setEnabled(false);
     persistAislePivot();
     HallLayoutUtil hallLayoutPreview = loadHallLayout();
+    java.util.concurrent.Future<AssignmentPrefetcher.Result> prefetched =
+            prefetcher.lookup(tableSlotsFile, projectsFile, hallLayoutPreview);
+    // The worker only updates counters; the bar polls them so rows never flood the event thread
+    final TaskProgress progress = new TaskProgress();
+    runProgress = progress;
+    // Read here, on the event thread; toggling it mid-run applies to the next run
+    final HtmlLayoutRenderer.Mode htmlMode = htmlMode();
+    final String previousOutputFolder = outputFolder;
+    final Timer progressPoll = new Timer(150, e -> showRunProgress(progress.snapshot()));
+    progressPoll.start();
+    cancelRunButton.setEnabled(true);
+    cancelRunButton.setVisible(true);
+    runProgressBar.setVisible(true);
+    showRunProgress(progress.snapshot());
     setStyledText("Processing assignment...\n", Color.WHITE);
-    if (hallLayoutPreview.isAisleLayoutEnabled()) {
+    if (hallLayoutPreview.getAislePivotRow() > 0) {
         appendColoredText("Center aisle pivot: row " + hallLayoutPreview.getAislePivotRow() + "\n", new Color(144, 238, 144));
+    } else if (hallLayoutPreview.isAisleLayoutEnabled()) {
+        appendColoredText("Hall zones: " + prefs.get(HallLayoutUtil.PREF_HALL_ZONES, "").trim() + "\n", new Color(144, 238, 144));
     } else {
         appendColoredText("Center aisle: disabled\n", Color.WHITE);
     }
         
         // Run assignment in background thread
-        SwingWorker<Void, String> worker = new SwingWorker<Void, String>() {
+        // The worker only returns its results; done() makes them current on the event thread
+        SwingWorker<RunOutput, String> worker = new SwingWorker<RunOutput, String>() {
             @Override
-            protected Void doInBackground() throws Exception {
+            protected RunOutput doInBackground() throws Exception {
+                String runFolder = null;
+                RunOutput result = null;
                 try {
-                    publish("Reading table slots from: " + tableSlotsFile);
-                    List<TableSlot> tableSlots = ScienceFairCsvUtil.readTableSlots(tableSlotsFile);
-                    publish("Loaded " + tableSlots.size() + " table slots");
-                    
-                    publish("Reading projects from: " + projectsFile);
-                    List<ScienceProject> projects = ScienceFairCsvUtil.readScienceProjects(projectsFile);
-                    publish("Loaded " + projects.size() + " projects");
-                    
-                    publish("Running assignment algorithm...");
-                    HallLayoutUtil hallLayout = loadHallLayout();
-                    List<SlotAssignment> assignments = assignmentService.assignProjectsToSlots(projects, tableSlots, hallLayout);
+                    AssignmentPrefetcher.Result ready = null;
+                    if (prefetched != null) {
+                        progress.beginStage("Finishing the background assignment", -1, "");
+                        try {
+                            while (ready == null) {
+                                try {
+                                    ready = prefetched.get(100, java.util.concurrent.TimeUnit.MILLISECONDS);
+                                } catch (java.util.concurrent.TimeoutException t) {
+                                    progress.checkCancelled();
+                                }
+                            }
+                            publish("Using the inputs and assignment prepared in the background");
+                            publish("Loaded " + ready.tableSlots.size() + " table slots and " + ready.projects.size() + " projects");
+                        } catch (java.util.concurrent.ExecutionException | CancellationException e) {
+                            // Our own cancel stops the run; otherwise redo the work below so
+                            // its errors are reported the usual way
+                            progress.checkCancelled();
+                        }
+                    }
+                    List<TableSlot> tableSlots;
+                    List<ScienceProject> projects;
+                    HallLayoutUtil hallLayout = hallLayoutPreview;
+                    List<SlotAssignment> assignments;
+                    if (ready != null) {
+                        tableSlots = ready.tableSlots;
+                        projects = ready.projects;
+                        assignments = ready.assignments;
+                    } else {
+                        publish("Reading table slots from: " + tableSlotsFile);
+                        tableSlots = ScienceFairCsvUtil.readTableSlots(tableSlotsFile, progress);
+                        publish("Loaded " + tableSlots.size() + " table slots");
+
+                        publish("Reading projects from: " + projectsFile);
+                        projects = ScienceFairCsvUtil.readScienceProjects(projectsFile, progress);
+                        publish("Loaded " + projects.size() + " projects");
+
+                        publish("Running assignment algorithm...");
+                        assignments = assignmentService.assignProjectsToSlots(projects, tableSlots, hallLayout, progress);
+                    }
+                    progress.checkCancelled();
                     
                     // Always create a fresh timestamped output folder
                     String jarPath = new File(System.getProperty("java.class.path")).getAbsoluteFile().getParent();
                     String timestamp = new java.text.SimpleDateFormat("yyyyMMdd_HHmmss").format(new java.util.Date());
-                    outputFolder = jarPath + File.separator + "ScienceFairOutput_" + timestamp;
-                    File outDir = new File(outputFolder);
+                    runFolder = jarPath + File.separator + "ScienceFairOutput_" + timestamp;
+                    File outDir = new File(runFolder);
                     if (!outDir.exists()) {
                         outDir.mkdirs();
                     }
-                    String outputFile = outputFolder + File.separator + "output.csv";
+                    String outputFile = runFolder + File.separator + "output.csv";
                     publish("Writing results to: " + outputFile);
-                    ScienceFairCsvUtil.writeSlotAssignments(assignments, outputFile);
-                    String htmlFile = outputFolder + File.separator + "output.html";
+                    ScienceFairCsvUtil.writeSlotAssignments(assignments, outputFile, progress);
+                    progress.beginStage("Writing output.json", -1, "");
+                    String jsonFile = runFolder + File.separator + "output.json";
+                    ScienceFairJsonUtil.writeAssignmentsJson(assignments,
+                            assignmentService.buildAssignmentSummary(assignments, projects, tableSlots, hallLayout), jsonFile);
+                    String htmlFile = runFolder + File.separator + "output.html";
+                    // Fresh row cache per run; previews of this run reuse the rows rendered here
+                    HtmlRowCache rowCache = new HtmlRowCache();
                     // Apply persisted grouping layout if available; otherwise fall back to legacy pair spacing
+                    progress.checkCancelled();
                     try {
-                        String groupingText = prefs.get(PREF_ROW_GROUPS, "").trim();
-                        if (!groupingText.isEmpty()) {
-                            GroupingLayout layout = buildGroupingLayout(groupingText, assignments, hallLayout);
-                            if (layout != null && layout.orderedRows != null && !layout.orderedRows.isEmpty()) {
-                                com.sciencefair.ScienceFairTableAssignmentApp.generateHtmlLayout(
-                                        assignments, htmlFile, layout.orderedRows, false, null, hallLayout, layout.groupIndexByRow);
-                            } else {
-                                com.sciencefair.ScienceFairTableAssignmentApp.generateHtmlLayout(
-                                        assignments, htmlFile, null, true, null, hallLayout);
-                            }
-                        } else {
-                            com.sciencefair.ScienceFairTableAssignmentApp.generateHtmlLayout(
-                                    assignments, htmlFile, null, true, null, hallLayout);
-                        }
+                        renderLayoutHtml(assignments, htmlFile, prefs.get(PREF_ROW_GROUPS, "").trim(), hallLayout, htmlMode, rowCache, progress);
+                    } catch (CancellationException cx) {
+                        throw cx;
                     } catch (Exception gx) {
                         publish("Warning: Failed to apply custom grouping. Using default layout. Reason: " + gx.getMessage());
-                        com.sciencefair.ScienceFairTableAssignmentApp.generateHtmlLayout(
-                                assignments, htmlFile, null, true, null, hallLayout);
+                        renderLayoutHtml(assignments, htmlFile, "", hallLayout, htmlMode, rowCache, progress);
                     }
                     publish("HTML results saved to: " + htmlFile);
                     publish("\n" + assignmentService.generateAssignmentSummary(assignments, projects, tableSlots));
                     publish("\nAssignment completed successfully!");
-                    publish("Results saved to folder: " + outputFolder);
+                    publish("Results saved to folder: " + runFolder);
+                    result = new RunOutput(runFolder, assignments, rowCache);
+                    return result;
                     
+                } catch (CancellationException e) {
+                    publish("Run cancelled; no output was written.");
                 } catch (IOException e) {
-                    publish("Error: " + e.getMessage());
+                    publish("Error: " + e.getMessage() + " (no output was kept; the previous results stay current)");
                     e.printStackTrace();
                 } catch (Exception e) {
-                    publish("Unexpected error: " + e.getMessage());
+                    publish("Unexpected error: " + e.getMessage() + " (no output was kept; the previous results stay current)");
                     e.printStackTrace();
+                } finally {
+                    // Cancelled or failed: done() keeps the previous run's results, so drop this
+                    // run's partial folder rather than leave one they do not match
+                    if (result == null && runFolder != null && !runFolder.equals(previousOutputFolder)) {
+                        deleteOutputFolder(new File(runFolder));
+                    }
                 }
                 return null;
             }
@@ -589,19 +844,36 @@ public class ScienceFairAssignmentGui extends JFrame {
                         appendColoredText(message + "\n", Color.WHITE);
                     }
                 }
-                resultArea.setCaretPosition(resultArea.getDocument().getLength());
             }
             
             @Override
             protected void done() {
+                try {
+                    RunOutput result = get();
+                    if (result != null) {
+                        outputFolder = result.folder;
+                        lastAssignments = result.assignments;
+                        htmlRowCache = result.rowCache;
+                    }
+                } catch (InterruptedException | java.util.concurrent.ExecutionException e) {
+                    appendColoredText("Unexpected error: " + (e.getCause() != null ? e.getCause() : e) + "\n", Color.RED);
+                }
+                progressPoll.stop();
+                runProgress = null;
+                cancelRunButton.setVisible(false);
+                runProgressBar.setVisible(false);
                 runButton.setEnabled(true);
+                resultsPanel.setAssignments(lastAssignments);
                 if (outputFolder != null) {
                     outputFileField.setText(outputFolder);
                     openHtmlButton.setEnabled(true);
                     openFolderButton.setEnabled(true);
                     layoutConfigButton.setEnabled(true);
-                    // Auto-open output.html if user opted in
-                    if (openHtmlAfterRunCheck != null && openHtmlAfterRunCheck.isSelected()) {
+                    exportPosterButton.setEnabled(lastAssignments != null);
+                    tableSignsButton.setEnabled(lastAssignments != null);
+                    publishLiveView();
+                    // Auto-open output.html if user opted in; a live view updates its own tab
+                    if (openHtmlAfterRunCheck != null && openHtmlAfterRunCheck.isSelected() && !liveView.isRunning()) {
                         try {
                             openFile(outputFolder + File.separator + "output.html");
                         } catch (Exception ignore) { /* silent */ }
@@ -610,13 +882,153 @@ public class ScienceFairAssignmentGui extends JFrame {
                     openHtmlButton.setEnabled(false);
                     openFolderButton.setEnabled(false);
                     layoutConfigButton.setEnabled(false);
+                    exportPosterButton.setEnabled(false);
+                    tableSignsButton.setEnabled(false);
+                }
+                if (watchRefreshPending) {
+                    watchRefreshPending = false;
+                    refreshWatchedRun();
                 }
             }
         };
         
         worker.execute();
     }
+
+    /** Starts, restarts or stops watching the input files to match the checkbox and the fields */
+    private void updateInputWatch() {
+        String tablesPath = tableSlotsFileField.getText().trim();
+        String projectsPath = projectsFileField.getText().trim();
+        boolean watch = watchInputsCheck.isSelected() && new File(tablesPath).isFile() && new File(projectsPath).isFile();
+        java.util.Set<java.nio.file.Path> wanted = new java.util.HashSet<>();
+        if (watch) {
+            wanted.add(new File(tablesPath).getAbsoluteFile().toPath().normalize());
+            wanted.add(new File(projectsPath).getAbsoluteFile().toPath().normalize());
+        }
+        if (inputWatcher != null && inputWatcher.getFiles().equals(wanted)) {
+            return;
+        }
+        if (inputWatcher != null) {
+            try {
+                inputWatcher.close();
+            } catch (IOException ignore) { /* already closed */ }
+            inputWatcher = null;
+        }
+        watchedRun = null;
+        if (!watch) {
+            return;
+        }
+        try {
+            inputWatcher = new InputWatcher(java.util.Arrays.asList(tablesPath, projectsPath), InputWatcher.DEFAULT_DEBOUNCE_MILLIS,
+                    changed -> SwingUtilities.invokeLater(this::refreshWatchedRun));
+            inputWatcher.start();
+            appendColoredText("Watching the input files; saving either one re-runs the assignment.\n", new Color(144, 238, 144));
+        } catch (IOException e) {
+            appendColoredText("Cannot watch the input files: " + e.getMessage() + "\n", Color.RED);
+        }
+    }
+
+    /**
+     * Brings the current output folder up to date after an input was saved. The first change
+     * without an output folder does a normal run; later ones only rewrite the outputs whose
+     * content changed, and re-render only changed HTML rows through the run's row cache.
+     */
+    private void refreshWatchedRun() {
+        if (inputWatcher == null) {
+            return;
+        }
+        if (runProgress != null || watchRefreshRunning) {
+            watchRefreshPending = true;
+            return;
+        }
+        if (outputFolder == null) {
+            if (runButton.isEnabled()) {
+                runAssignment();
+            }
+            return;
+        }
+        String tablesPath = tableSlotsFileField.getText().trim();
+        String projectsPath = projectsFileField.getText().trim();
+        String csvFile = outputFolder + File.separator + "output.csv";
+        if (watchedRun == null || !watchedRun.getCsvFile().equals(csvFile)) {
+            final HtmlLayoutRenderer.Mode htmlMode = htmlMode();
+            final HtmlRowCache rowCache = htmlRowCache; // the output folder's run
+            watchedRun = new IncrementalRun(tablesPath, projectsPath, csvFile, assignmentService,
+                    (assignments, hallLayout, htmlFile) -> renderLayoutHtml(assignments, htmlFile,
+                            prefs.get(PREF_ROW_GROUPS, "").trim(), hallLayout, htmlMode, rowCache, null));
+        }
+        final IncrementalRun run = watchedRun;
+        final HallLayoutUtil hallLayout = loadHallLayout();
+        watchRefreshRunning = true;
+        runButton.setEnabled(false);
+        new SwingWorker<IncrementalRun.Outcome, Void>() {
+            @Override
+            protected IncrementalRun.Outcome doInBackground() throws Exception {
+                return run.refresh(hallLayout);
+            }
+
+            @Override
+            protected void done() {
+                watchRefreshRunning = false;
+                runButton.setEnabled(true);
+                String time = new java.text.SimpleDateFormat("HH:mm:ss").format(new java.util.Date());
+                try {
+                    IncrementalRun.Outcome outcome = get();
+                    if (outcome.isRan()) {
+                        if (lastAssignments != outcome.getAssignments()) {
+                            // Previews, exports and the results tab follow the refreshed outputs
+                            lastAssignments = outcome.getAssignments();
+                            resultsPanel.setAssignments(lastAssignments);
+                            publishLiveView();
+                        }
+                        appendColoredText("[" + time + "] Inputs changed: " + outcome.getProjects().size() + " projects re-assigned in "
+                                + outcome.getElapsedMillis() + " ms; "
+                                + (outcome.getRewritten().isEmpty() ? "no output changed"
+                                        : "updated " + outcome.getRewritten().stream().map(f -> new File(f).getName())
+                                                .collect(java.util.stream.Collectors.joining(", "))) + "\n",
+                                Color.GREEN.brighter());
+                    }
+                } catch (java.util.concurrent.ExecutionException e) {
+                    appendColoredText("[" + time + "] Inputs changed but could not be re-run: " + e.getCause().getMessage()
+                            + " (keeping the previous outputs)\n", Color.RED);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (watchRefreshPending) {
+                    watchRefreshPending = false;
+                    refreshWatchedRun();
+                }
+            }
+        }.execute();
+    }
     
+    private void showRunProgress(TaskProgress.Snapshot snapshot) {
+        if (!cancelRunButton.isEnabled()) {
+            return; // keep showing "Cancelling..."
+        }
+        int percent = snapshot.getPercent();
+        runProgressBar.setIndeterminate(percent < 0);
+        if (percent >= 0) {
+            runProgressBar.setValue(percent);
+        }
+        runProgressBar.setString(snapshot.describe());
+    }
+
+    /** Removes a partial output folder of a cancelled or failed run (it only holds our output files). */
+    private static void deleteOutputFolder(File folder) {
+        File[] files = folder.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (!file.delete()) {
+                    System.err.println("Could not delete " + file);
+                }
+            }
+        }
+        if (!folder.delete()) {
+            System.err.println("Could not delete " + folder);
+        }
+    }
+
     private void showError(String message) {
         JOptionPane.showMessageDialog(this, message, "Error", JOptionPane.ERROR_MESSAGE);
     }
@@ -641,7 +1053,9 @@ public class ScienceFairAssignmentGui extends JFrame {
         File csvFile = currentOutputFolder == null ? null : new File(currentOutputFolder + File.separator + "output.csv");
         List<com.sciencefair.model.SlotAssignment> assignments;
         try {
-            if (csvFile != null && csvFile.exists()) {
+            if (currentOutputFolder != null && lastAssignments != null) {
+                assignments = lastAssignments;
+            } else if (csvFile != null && csvFile.exists()) {
                 assignments = com.sciencefair.util.ScienceFairCsvUtil.readSlotAssignments(csvFile.getAbsolutePath());
             } else {
                 assignments = java.util.Collections.emptyList();
@@ -676,6 +1090,19 @@ public class ScienceFairAssignmentGui extends JFrame {
     validationLabel.setForeground(Color.RED);
     contentPanel.add(Box.createVerticalStrut(4));
     contentPanel.add(validationLabel);
+    // Live floor plan of the grouping; edits only redraw the tiles of rows that moved
+    final HallLayoutUtil previewHallLayout = loadHallLayout();
+    final FloorPlanView previewView = new FloorPlanView();
+    previewView.zoomAt(0.35, null);
+    previewView.setErrorListener(validationLabel::setText);
+    if (!assignments.isEmpty()) {
+        JScrollPane previewScroll = new JScrollPane(previewView);
+        previewScroll.setPreferredSize(new Dimension(760, 320));
+        previewScroll.setAlignmentX(Component.LEFT_ALIGNMENT);
+        groupingScroll.setAlignmentX(Component.LEFT_ALIGNMENT);
+        contentPanel.add(Box.createVerticalStrut(4));
+        contentPanel.add(previewScroll);
+    }
 
     JPanel buttonsPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
     buttonsPanel.add(resetBtn);
@@ -696,11 +1123,44 @@ public class ScienceFairAssignmentGui extends JFrame {
         previewBtn.setEnabled(false);
         previewBtn.setToolTipText("Run an assignment first to enable preview.");
     }
-    // Live validation setup
+    // Live validation setup: checks and preview layouts are built off the event thread
+    final boolean pivotAutoDetect = autoDetectAislePivotCheck != null && autoDetectAislePivotCheck.isSelected();
+    final String pivotTablesPath = tableSlotsFileField.getText().trim();
+    final String pivotText = aislePivotField != null ? aislePivotField.getText() : null;
+    final ValidationService groupingValidation = new ValidationService(ValidationService.DEFAULT_DELAY_MILLIS);
+    dialog.addWindowListener(new java.awt.event.WindowAdapter() {
+        @Override
+        public void windowClosed(java.awt.event.WindowEvent e) {
+            groupingValidation.cancel();
+        }
+    });
     javax.swing.event.DocumentListener groupingValidator = new javax.swing.event.DocumentListener() {
-        private void reval() {
-            int aislePivot = resolveAislePivot();
-            ValidationResult vr = validateGrouping(groupingAreaRef.getText(), assignmentsForPreview, aislePivot);
+        private String previewedGrouping;
+
+        private void reval(boolean immediately) {
+            String groupingText = groupingAreaRef.getText().trim();
+            String previewed = previewedGrouping;
+            previewBtn.setEnabled(false);
+            saveBtn.setEnabled(false);
+            java.util.concurrent.Callable<ValidationResult> check = () -> {
+                int totalRows = pivotAutoDetect && isValidTableSlotsFile(pivotTablesPath)
+                        ? countHallRowsFromTableSlots(pivotTablesPath) : -1;
+                ValidationResult vr = validateGrouping(groupingText, assignmentsForPreview,
+                        resolveAislePivot(pivotAutoDetect, totalRows, pivotText));
+                if (vr.valid && !assignmentsForPreview.isEmpty() && !groupingText.equals(previewed)) {
+                    vr.groupingText = groupingText;
+                    vr.previewLayout = buildPreviewLayout(assignmentsForPreview, groupingText, previewHallLayout);
+                }
+                return vr;
+            };
+            if (immediately) {
+                groupingValidation.requestNow(check, this::show);
+            } else {
+                groupingValidation.request(check, this::show);
+            }
+        }
+
+        private void show(ValidationResult vr) {
             if (!vr.valid) {
                 previewBtn.setEnabled(false);
                 saveBtn.setEnabled(false);
@@ -717,13 +1177,17 @@ public class ScienceFairAssignmentGui extends JFrame {
                 saveBtn.setEnabled(true);
                 previewBtn.setToolTipText("Generate preview with current grouping.");
             }
+            if (vr.previewLayout != null) {
+                previewedGrouping = vr.groupingText;
+                previewView.setLayoutModel(vr.previewLayout);
+            }
         }
-        public void insertUpdate(javax.swing.event.DocumentEvent e) { reval(); }
-        public void removeUpdate(javax.swing.event.DocumentEvent e) { reval(); }
-        public void changedUpdate(javax.swing.event.DocumentEvent e) { reval(); }
+        public void insertUpdate(javax.swing.event.DocumentEvent e) { reval(e == null); }
+        public void removeUpdate(javax.swing.event.DocumentEvent e) { reval(false); }
+        public void changedUpdate(javax.swing.event.DocumentEvent e) { reval(false); }
     };
     groupingAreaRef.getDocument().addDocumentListener(groupingValidator);
-    // Initial validation pass
+    // Initial validation pass, without the typing pause
     groupingValidator.insertUpdate(null);
     previewBtn.addActionListener(new ActionListener() {
         @Override
@@ -736,19 +1200,8 @@ public class ScienceFairAssignmentGui extends JFrame {
             }
             String customHtml = currentOutputFolder + File.separator + "layout_custom.html";
             try {
-                if (groupingText.isEmpty()) {
-                    com.sciencefair.ScienceFairTableAssignmentApp.generateHtmlLayout(
-                            assignmentsForPreview, customHtml, null, true, null, hallLayout);
-                } else {
-                    GroupingLayout layout = buildGroupingLayout(groupingText, assignmentsForPreview, hallLayout);
-                    if (layout != null && layout.orderedRows != null && !layout.orderedRows.isEmpty()) {
-                        com.sciencefair.ScienceFairTableAssignmentApp.generateHtmlLayout(
-                                assignmentsForPreview, customHtml, layout.orderedRows, false, null, hallLayout, layout.groupIndexByRow);
-                    } else {
-                        com.sciencefair.ScienceFairTableAssignmentApp.generateHtmlLayout(
-                                assignmentsForPreview, customHtml, null, true, null, hallLayout);
-                    }
-                }
+                // Rows already rendered for this run come from the row cache; only spacing is re-emitted
+                renderLayoutHtml(assignmentsForPreview, customHtml, groupingText, hallLayout, htmlMode(), htmlRowCache, null);
                 openFile(customHtml);
             } catch (Exception ex) {
                 JOptionPane.showMessageDialog(dialog, "Failed to generate custom layout: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
@@ -781,7 +1234,12 @@ public class ScienceFairAssignmentGui extends JFrame {
     }
 
     // Validation result helper
-    private static class ValidationResult { boolean valid; String message; }
+    private static class ValidationResult {
+        boolean valid;
+        String message;
+        String groupingText; // grouping the preview layout was built for
+        FloorPlanLayout previewLayout; // null when the preview is unchanged or invalid
+    }
 
     private int parseAislePivot(String text) {
         if (text == null) {
@@ -802,14 +1260,18 @@ public class ScienceFairAssignmentGui extends JFrame {
     }
 
     private int resolveAislePivot() {
-        if (autoDetectAislePivotCheck != null && autoDetectAislePivotCheck.isSelected()) {
-            String path = tableSlotsFileField.getText().trim();
-            if (isValidTableSlotsFile(path)) {
-                return HallLayoutUtil.computeAutoPivotRow(countHallRowsFromTableSlots(path));
-            }
-            return -1;
+        boolean autoDetect = autoDetectAislePivotCheck != null && autoDetectAislePivotCheck.isSelected();
+        String path = tableSlotsFileField.getText().trim();
+        int totalRows = autoDetect && isValidTableSlotsFile(path) ? countHallRowsFromTableSlots(path) : -1;
+        return resolveAislePivot(autoDetect, totalRows, aislePivotField != null ? aislePivotField.getText() : null);
+    }
+
+    /** Pivot from already-read inputs; {@code totalRows} is -1 without a valid table slots file */
+    private int resolveAislePivot(boolean autoDetect, int totalRows, String pivotText) {
+        if (autoDetect) {
+            return totalRows >= 0 ? HallLayoutUtil.computeAutoPivotRow(totalRows) : -1;
         }
-        return parseAislePivot(aislePivotField != null ? aislePivotField.getText() : null);
+        return parseAislePivot(pivotText);
     }
 
     private int countHallRowsFromTableSlots(String path) {
@@ -852,6 +1314,160 @@ public class ScienceFairAssignmentGui extends JFrame {
         }
     }
 
+    /**
+     * Asks for a resolution and writes poster.png for the last run into its output folder.
+     */
+    private void exportPoster() {
+        if (outputFolder == null || lastAssignments == null) {
+            return;
+        }
+        String answer = (String) JOptionPane.showInputDialog(this, "Resolution (DPI):", "Export Poster PNG",
+                JOptionPane.QUESTION_MESSAGE, null, new String[]{"96", "150", "300"}, "150");
+        if (answer == null) {
+            return;
+        }
+        final int dpi = Integer.parseInt(answer);
+        final List<SlotAssignment> assignments = lastAssignments;
+        final HallLayoutUtil hallLayout = loadHallLayout();
+        final String pngFile = outputFolder + File.separator + "poster.png";
+        exportPosterButton.setEnabled(false);
+        appendColoredText("Rendering poster at " + dpi + " DPI...\n", Color.WHITE);
+        new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() throws Exception {
+                com.sciencefair.ScienceFairTableAssignmentApp.exportFloorPlanPng(assignments, pngFile, hallLayout, dpi);
+                return null;
+            }
+
+            @Override
+            protected void done() {
+                exportPosterButton.setEnabled(true);
+                try {
+                    get();
+                    appendColoredText("Poster saved to: " + pngFile + "\n", Color.GREEN.brighter());
+                    openFile(pngFile);
+                } catch (Exception ex) {
+                    Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                    appendColoredText("Poster export failed: " + cause.getMessage() + "\n", Color.RED);
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Writes signs.html (one printed page per table) for the last run into its output folder.
+     */
+    private void exportTableSigns() {
+        if (outputFolder == null || lastAssignments == null) {
+            return;
+        }
+        final List<SlotAssignment> assignments = lastAssignments;
+        final HallLayoutUtil hallLayout = loadHallLayout();
+        final String signsFile = outputFolder + File.separator + "signs.html";
+        tableSignsButton.setEnabled(false);
+        new SwingWorker<Integer, Void>() {
+            @Override
+            protected Integer doInBackground() throws Exception {
+                return com.sciencefair.ScienceFairTableAssignmentApp.exportTableSigns(assignments, signsFile, hallLayout, 150);
+            }
+
+            @Override
+            protected void done() {
+                tableSignsButton.setEnabled(true);
+                try {
+                    appendColoredText(get() + " table signs saved to: " + signsFile + "\n", Color.GREEN.brighter());
+                    openFile(signsFile);
+                } catch (Exception ex) {
+                    Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                    appendColoredText("Table sign export failed: " + cause.getMessage() + "\n", Color.RED);
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Writes an HTML layout using the row grouping when it parses to a non-empty row order,
+     * otherwise the default layout with pair spacing. Rendered rows are cached per run, in the
+     * run's row cache. The mode and cache are read by the caller on the event thread.
+     */
+    private void renderLayoutHtml(
+            List<SlotAssignment> assignments,
+            String htmlFile,
+            String groupingText,
+            HallLayoutUtil hallLayout,
+            HtmlLayoutRenderer.Mode mode,
+            HtmlRowCache rowCache,
+            TaskProgress progress) throws IOException {
+        HtmlLayoutRenderer renderer = new HtmlLayoutRenderer(hallLayout, mode, rowCache);
+        renderer.setProgress(progress);
+        try (java.io.OutputStream out = new java.io.BufferedOutputStream(
+                java.nio.file.Files.newOutputStream(java.nio.file.Paths.get(htmlFile)), 64 * 1024)) {
+            renderLayout(renderer, assignments, out, groupingText, hallLayout);
+        }
+    }
+
+    /** Renders with the row grouping as {@link #renderLayoutHtml} does, into any stream */
+    private void renderLayout(
+            HtmlLayoutRenderer renderer,
+            List<SlotAssignment> assignments,
+            java.io.OutputStream out,
+            String groupingText,
+            HallLayoutUtil hallLayout) throws IOException {
+        GroupingLayout layout = groupingText.isEmpty() ? null : buildGroupingLayout(groupingText, assignments, hallLayout);
+        if (layout != null && layout.orderedRows != null && !layout.orderedRows.isEmpty()) {
+            renderer.render(assignments, out, layout.orderedRows, false, null, layout.groupIndexByRow);
+        } else {
+            renderer.render(assignments, out, null, true, null, null);
+        }
+    }
+
+    /** Pushes the last run's layout to live viewers, if the live view is on */
+    private void publishLiveView() {
+        if (!liveView.isRunning() || lastAssignments == null) {
+            return;
+        }
+        final List<SlotAssignment> assignments = lastAssignments;
+        final String groupingText = prefs.get(PREF_ROW_GROUPS, "").trim();
+        final HallLayoutUtil hallLayout = loadHallLayout();
+        liveView.publish(hallLayout, (renderer, out) -> renderLayout(renderer, assignments, out, groupingText, hallLayout));
+    }
+
+    private void updateLiveView() {
+        if (!liveViewCheck.isSelected()) {
+            liveView.stop();
+            return;
+        }
+        try {
+            String url = liveView.start();
+            publishLiveView();
+            appendColoredText("Live view at " + url + " updates after every run.\n", new Color(144, 238, 144));
+            Desktop.getDesktop().browse(java.net.URI.create(url));
+        } catch (IOException | UnsupportedOperationException e) {
+            appendColoredText("Live view: " + e.getMessage() + "\n", Color.RED);
+            if (!liveView.isRunning()) {
+                liveViewCheck.setSelected(false);
+            }
+        }
+    }
+
+    /** Same rows, order and group spacing as {@link #renderLayoutHtml}, as a floor plan */
+    private FloorPlanLayout buildPreviewLayout(
+            List<SlotAssignment> assignments,
+            String groupingText,
+            HallLayoutUtil hallLayout) {
+        GroupingLayout layout = groupingText.isEmpty() ? null : buildGroupingLayout(groupingText, assignments, hallLayout);
+        if (layout != null && layout.orderedRows != null && !layout.orderedRows.isEmpty()) {
+            return FloorPlanLayout.build(assignments, hallLayout, layout.orderedRows, false, null, layout.groupIndexByRow);
+        }
+        return FloorPlanLayout.build(assignments, hallLayout);
+    }
+
+    /** Reads the compact HTML checkbox; event thread only */
+    private HtmlLayoutRenderer.Mode htmlMode() {
+        return compactHtmlCheck != null && compactHtmlCheck.isSelected()
+                ? HtmlLayoutRenderer.Mode.DATA : HtmlLayoutRenderer.Mode.STATIC;
+    }
+
     private void setAislePivotFieldValue(int pivot) {
         if (aislePivotField == null || pivot < 0) {
             return;
@@ -938,6 +1554,19 @@ public class ScienceFairAssignmentGui extends JFrame {
         return vr;
     }
 
+    /** What a successful run hands back to the event thread */
+    private static final class RunOutput {
+        final String folder;
+        final List<SlotAssignment> assignments;
+        final HtmlRowCache rowCache;
+
+        RunOutput(String folder, List<SlotAssignment> assignments, HtmlRowCache rowCache) {
+            this.folder = folder;
+            this.assignments = assignments;
+            this.rowCache = rowCache;
+        }
+    }
+
     /** Container for parsed grouping layout data */
     private static class GroupingLayout {
         java.util.List<Integer> orderedRows;
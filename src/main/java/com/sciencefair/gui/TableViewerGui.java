@@ -1,19 +1,68 @@
 package com.sciencefair.gui;
 
+import com.sciencefair.model.SlotAssignment;
+import com.sciencefair.service.AssignmentEditor;
+import com.sciencefair.service.EditLog;
+import com.sciencefair.util.FloorPlanLayout;
+import com.sciencefair.util.HallLayoutUtil;
+import com.sciencefair.util.ScienceFairCsvUtil;
+
 import javax.swing.*;
 import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.*;
 import java.awt.event.ActionEvent;
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
 import java.io.*;
-import java.util.Map;
-import java.util.TreeMap;
-import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
 
+/**
+ * Viewer for an output CSV. The file is read and laid out on a background thread, then drawn
+ * by a single {@link FloorPlanView} with the same geometry as output.html and the poster PNG.
+ * In Edit mode projects can be dragged to other slots; each drop is checked by an
+ * {@link AssignmentEditor} and only the edited rows are redrawn. Right-clicking a slot withdraws
+ * its project or reserves it, and every edit can be undone through the {@link EditLog}.
+ * With Live View on, the hall is also served to browsers, which receive each edit's rows.
+ */
 public class TableViewerGui extends JFrame {
-    private JPanel tablePanel;
+    private final java.util.prefs.Preferences prefs =
+            java.util.prefs.Preferences.userNodeForPackage(ScienceFairAssignmentGui.class);
+    private FloorPlanView floorPlanView;
     private JButton openButton;
+    private JToggleButton editButton;
+    private JButton saveButton;
+    private JButton undoButton;
+    private JButton redoButton;
+    private JProgressBar progressBar;
+    private JLabel statusLabel;
     private JFileChooser fileChooser;
+    private SwingWorker<LoadedHall, Void> loader;
+    private List<SlotAssignment> assignments;
+    private AssignmentEditor editor;
+    private File loadedFile;
+    private EditLog editLog;
+    private int savedVersion;
+    private HallLayoutUtil hallLayout;
+    private JToggleButton liveViewButton;
+    private final LiveView liveView = new LiveView();
+    private EditLog publishedLog; // what live viewers last got
+    private int publishedVersion;
+
+    /** What the loader hands back to the event thread */
+    private static final class LoadedHall {
+        final List<SlotAssignment> assignments;
+        final FloorPlanLayout layout;
+
+        LoadedHall(List<SlotAssignment> assignments, FloorPlanLayout layout) {
+            this.assignments = assignments;
+            this.layout = layout;
+        }
+    }
 
     public TableViewerGui() {
         setTitle("Science Fair Table Viewer");
@@ -24,18 +73,86 @@ public class TableViewerGui extends JFrame {
 
         openButton = new JButton("Open CSV File...");
         openButton.addActionListener(this::onOpenFile);
-        add(openButton, BorderLayout.NORTH);
+        JButton zoomOutButton = new JButton("−");
+        zoomOutButton.setToolTipText("Zoom out (Ctrl + mouse wheel)");
+        zoomOutButton.addActionListener(e -> floorPlanView.zoomAt(floorPlanView.getZoom() / 1.25, null));
+        JButton zoomInButton = new JButton("+");
+        zoomInButton.setToolTipText("Zoom in (Ctrl + mouse wheel)");
+        zoomInButton.addActionListener(e -> floorPlanView.zoomAt(floorPlanView.getZoom() * 1.25, null));
+        JButton actualSizeButton = new JButton("100%");
+        actualSizeButton.addActionListener(e -> floorPlanView.zoomAt(1.0, null));
+        JButton fitButton = new JButton("Fit Width");
+        fitButton.addActionListener(e -> floorPlanView.zoomToFitWidth());
+        editButton = new JToggleButton("Edit");
+        editButton.setToolTipText("Drag projects to other slots");
+        editButton.setEnabled(false);
+        editButton.addActionListener(e -> updateEditMode());
+        saveButton = new JButton("Save CSV...");
+        saveButton.setEnabled(false);
+        saveButton.addActionListener(e -> onSave());
+        undoButton = new JButton("Undo");
+        undoButton.addActionListener(e -> applyHistory(editLog.undo(), "Undid: "));
+        redoButton = new JButton("Redo");
+        redoButton.addActionListener(e -> applyHistory(editLog.redo(), "Redid: "));
+        undoButton.setEnabled(false);
+        redoButton.setEnabled(false);
+        liveViewButton = new JToggleButton("Live View");
+        liveViewButton.setToolTipText("Serve the hall to browsers on this computer; open pages follow every edit");
+        liveViewButton.addActionListener(e -> updateLiveView());
+        int menuKey = Toolkit.getDefaultToolkit().getMenuShortcutKeyMaskEx();
+        bindKey(KeyStroke.getKeyStroke(KeyEvent.VK_Z, menuKey), "undo", undoButton);
+        bindKey(KeyStroke.getKeyStroke(KeyEvent.VK_Z, menuKey | InputEvent.SHIFT_DOWN_MASK), "redo", redoButton);
+        bindKey(KeyStroke.getKeyStroke(KeyEvent.VK_Y, menuKey), "redo", redoButton);
+
+        JPanel toolbar = new JPanel(new FlowLayout(FlowLayout.LEFT, 6, 4));
+        toolbar.add(openButton);
+        toolbar.add(zoomOutButton);
+        toolbar.add(zoomInButton);
+        toolbar.add(actualSizeButton);
+        toolbar.add(fitButton);
+        toolbar.add(editButton);
+        toolbar.add(undoButton);
+        toolbar.add(redoButton);
+        toolbar.add(saveButton);
+        toolbar.add(liveViewButton);
+        add(toolbar, BorderLayout.NORTH);
 
-        tablePanel = new JPanel();
-        tablePanel.setLayout(new BoxLayout(tablePanel, BoxLayout.Y_AXIS));
-        JScrollPane scrollPane = new JScrollPane(tablePanel);
+        floorPlanView = new FloorPlanView();
+        floorPlanView.setErrorListener(message -> statusLabel.setText(message)); // the label is created below
+        floorPlanView.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                showSlotMenu(e);
+            }
+
+            @Override
+            public void mouseReleased(MouseEvent e) {
+                showSlotMenu(e);
+            }
+        });
+        JScrollPane scrollPane = new JScrollPane(floorPlanView);
+        scrollPane.getViewport().setScrollMode(JViewport.BLIT_SCROLL_MODE);
         add(scrollPane, BorderLayout.CENTER);
 
+        progressBar = new JProgressBar(0, 100);
+        progressBar.setVisible(false);
+        statusLabel = new JLabel("Open an output CSV to view the hall. Drag to pan, Ctrl + wheel to zoom, hover a slot for details.");
+        JPanel statusBar = new JPanel(new BorderLayout(8, 0));
+        statusBar.setBorder(BorderFactory.createEmptyBorder(2, 6, 2, 6));
+        statusBar.add(statusLabel, BorderLayout.CENTER);
+        statusBar.add(progressBar, BorderLayout.EAST);
+        add(statusBar, BorderLayout.SOUTH);
+
         fileChooser = new JFileChooser();
         fileChooser.setFileFilter(new FileNameExtensionFilter("CSV Files", "csv"));
     }
 
     private void onOpenFile(ActionEvent e) {
+        if (editLog != null && editLog.getVersion() != savedVersion && JOptionPane.showConfirmDialog(this,
+                "Discard unsaved edits to " + loadedFile.getName() + "?", "Unsaved Changes",
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.WARNING_MESSAGE) != JOptionPane.OK_OPTION) {
+            return;
+        }
         int result = fileChooser.showOpenDialog(this);
         if (result == JFileChooser.APPROVE_OPTION) {
             File file = fileChooser.getSelectedFile();
@@ -44,61 +161,216 @@ public class TableViewerGui extends JFrame {
     }
 
     private void displayTablesFromCsv(File csvFile) {
-        tablePanel.removeAll();
-        try (BufferedReader reader = new BufferedReader(new FileReader(csvFile))) {
-            String line;
-            Map<Integer, List<String[]>> rows = new TreeMap<>();
-            while ((line = reader.readLine()) != null) {
-                String[] parts = line.split(",");
-                if (parts.length < 5 || parts[0].equalsIgnoreCase("Row")) continue;
-                int row = Integer.parseInt(parts[0].trim());
-                rows.computeIfAbsent(row, k -> new ArrayList<>()).add(parts);
+        if (loader != null) {
+            loader.cancel(true);
+        }
+        HallLayoutUtil hallLayout = HallLayoutUtil.fromPreferences(prefs);
+        openButton.setEnabled(false);
+        progressBar.setValue(0);
+        progressBar.setVisible(true);
+        statusLabel.setText("Reading " + csvFile.getName() + "...");
+        loader = new SwingWorker<LoadedHall, Void>() {
+            @Override
+            protected LoadedHall doInBackground() throws Exception {
+                // Reading is most of the work; laying out takes the last tenth of the bar
+                List<SlotAssignment> assignments = ScienceFairCsvUtil.readSlotAssignments(
+                        csvFile.getAbsolutePath(), fraction -> setProgress((int) (fraction * 90)));
+                setProgress(90);
+                return new LoadedHall(assignments, FloorPlanLayout.build(assignments, hallLayout));
             }
-            for (Map.Entry<Integer, List<String[]>> entry : rows.entrySet()) {
-                int rowNum = entry.getKey();
-                List<String[]> slots = entry.getValue();
-                JPanel rowPanel = new JPanel();
-                rowPanel.setLayout(new FlowLayout(FlowLayout.LEFT, 4, 8));
-                rowPanel.add(new JLabel("Row " + rowNum));
-                for (int i = 0; i < slots.size(); i += 2) {
-                    JPanel tableBlock = new JPanel();
-                    tableBlock.setLayout(new GridLayout(2, 1));
-                    tableBlock.setBorder(BorderFactory.createLineBorder(Color.LIGHT_GRAY, 1));
-                    tableBlock.setPreferredSize(new Dimension(70, 50));
-                    for (int j = 0; j < 2; j++) {
-                        if (i + j < slots.size()) {
-                            String[] slot = slots.get(i + j);
-                            String projectId = slot[2].trim();
-                            String category = slot[3].trim();
-                            JLabel slotLabel = new JLabel();
-                            slotLabel.setOpaque(true);
-                            slotLabel.setFont(new Font("Segoe UI", Font.PLAIN, 10));
-                            slotLabel.setHorizontalAlignment(SwingConstants.CENTER);
-                            slotLabel.setText(projectId.equalsIgnoreCase("EMPTY") ? "EMPTY" : "P" + projectId + " (" + category + ")");
-                            slotLabel.setBackground(getCategoryColor(category));
-                            tableBlock.add(slotLabel);
-                        }
+
+            @Override
+            protected void done() {
+                if (isCancelled()) {
+                    return;
+                }
+                openButton.setEnabled(true);
+                progressBar.setVisible(false);
+                try {
+                    LoadedHall hall = get();
+                    FloorPlanLayout layout = hall.layout;
+                    assignments = hall.assignments;
+                    editor = new AssignmentEditor(assignments);
+                    TableViewerGui.this.hallLayout = hallLayout;
+                    loadedFile = csvFile;
+                    editLog = new EditLog(assignments);
+                    savedVersion = 0;
+                    updateHistoryButtons();
+                    editButton.setEnabled(true);
+                    saveButton.setEnabled(false);
+                    floorPlanView.setLayoutModel(layout);
+                    updateEditMode();
+                    int tables = 0;
+                    for (FloorPlanLayout.Row row : layout.getRows()) {
+                        tables += row.getTableCount();
                     }
-                    rowPanel.add(tableBlock);
+                    statusLabel.setText(csvFile.getName() + ": " + layout.getRows().size() + " rows, " + tables + " tables");
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException ex) {
+                    statusLabel.setText("Could not read " + csvFile.getName());
+                    Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                    JOptionPane.showMessageDialog(TableViewerGui.this, "Error reading CSV: " + cause.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        };
+        loader.addPropertyChangeListener(evt -> {
+            if ("progress".equals(evt.getPropertyName())) {
+                progressBar.setValue((Integer) evt.getNewValue());
+            }
+        });
+        loader.execute();
+    }
+
+    private void updateEditMode() {
+        if (!editButton.isSelected() || editor == null) {
+            floorPlanView.setSlotDropHandler(null);
+            return;
+        }
+        floorPlanView.setSlotDropHandler(new FloorPlanView.SlotDropHandler() {
+            @Override
+            public AssignmentEditor.Check check(SlotAssignment from, SlotAssignment to) {
+                AssignmentEditor.Check check = editor.checkMove(from.getRow(), from.getTableSlotID(), to.getRow(), to.getTableSlotID());
+                String message = check.getMessage();
+                statusLabel.setText(message != null ? message
+                        : "Drop to move P" + from.getProjectID() + " to Row " + to.getRow() + " slot " + to.getTableSlotID());
+                return check;
+            }
+
+            @Override
+            public void drop(SlotAssignment from, SlotAssignment to) {
+                int projectID = from.getProjectID();
+                AssignmentEditor.Check check = editor.move(from.getRow(), from.getTableSlotID(), to.getRow(), to.getTableSlotID());
+                if (!check.isAllowed()) {
+                    statusLabel.setText(check.getMessage());
+                    return;
                 }
-                tablePanel.add(rowPanel);
+                boolean swap = check.getChangedSlots().get(0).getProjectID() != null;
+                String moved = (swap ? "Swapped P" + projectID + " with P" + check.getChangedSlots().get(0).getProjectID() + " at "
+                        : "Moved P" + projectID + " to ") + "Row " + to.getRow() + " slot " + to.getTableSlotID();
+                recordEdit(swap ? EditLog.Kind.SWAP : EditLog.Kind.MOVE, moved, check);
             }
-        } catch (Exception ex) {
-            JOptionPane.showMessageDialog(this, "Error reading CSV: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+        });
+        statusLabel.setText("Edit mode: drag a project onto another slot. Empty slots and other solo projects swap; teams move by table.");
+    }
+
+    private void showSlotMenu(MouseEvent e) {
+        SlotAssignment slot = e.isPopupTrigger() && editButton.isSelected() ? floorPlanView.slotAt(e.getPoint()) : null;
+        if (slot == null) {
+            return;
+        }
+        int row = slot.getRow();
+        int slotID = slot.getTableSlotID();
+        JPopupMenu menu = new JPopupMenu();
+        if (!slot.isUnassigned()) {
+            int projectID = slot.getProjectID();
+            menu.add("Withdraw P" + projectID).addActionListener(a -> recordEdit(EditLog.Kind.WITHDRAW,
+                    "Withdrew P" + projectID + " from Row " + row, editor.withdraw(row, slotID)));
+        } else {
+            String where = " Row " + row + " slot " + slotID;
+            menu.add((slot.isReserved() ? "Free" : "Reserve") + where).addActionListener(a -> recordEdit(EditLog.Kind.RESERVE,
+                    (slot.isReserved() ? "Freed" : "Reserved") + where, editor.toggleReserved(row, slotID)));
         }
-        tablePanel.revalidate();
-        tablePanel.repaint();
+        menu.show(floorPlanView, e.getX(), e.getY());
     }
 
-    private Color getCategoryColor(String category) {
-        if (category.contains("Anim")) return new Color(198, 246, 213);
-        if (category.contains("Behv")) return new Color(190, 227, 248);
-        if (category.contains("Bioc")) return new Color(251, 211, 141);
-        if (category.contains("Biom")) return new Color(254, 215, 215);
-        if (category.contains("Cell")) return new Color(233, 216, 253);
-        if (category.contains("Chem")) return new Color(254, 215, 215);
-        if (category.contains("Comp")) return new Color(198, 247, 237);
-        return Color.WHITE;
+    /** Logs an edit the editor has just made and redraws its rows */
+    private void recordEdit(EditLog.Kind kind, String description, AssignmentEditor.Check check) {
+        if (!check.isAllowed()) {
+            statusLabel.setText(check.getMessage());
+            return;
+        }
+        editLog.record(kind, description, check.getChangedSlots());
+        repaintRows(check.getChangedSlots());
+        updateHistoryButtons();
+        statusLabel.setText(check.getWarnings().isEmpty() ? description : description + " (" + check.getMessage() + ")");
+    }
+
+    private void applyHistory(List<SlotAssignment> changed, String prefix) {
+        repaintRows(changed);
+        EditLog.Entry entry = prefix.startsWith("Undid") ? editLog.getRedoEntry() : editLog.getUndoEntry();
+        if (entry != null) {
+            statusLabel.setText(prefix + entry.getDescription());
+        }
+        updateHistoryButtons();
+    }
+
+    private void repaintRows(List<SlotAssignment> changed) {
+        Set<Integer> rows = new LinkedHashSet<>();
+        for (SlotAssignment slot : changed) {
+            rows.add(slot.getRow());
+        }
+        floorPlanView.rowsChanged(rows);
+    }
+
+    private void updateHistoryButtons() {
+        EditLog.Entry undo = editLog.getUndoEntry();
+        EditLog.Entry redo = editLog.getRedoEntry();
+        undoButton.setEnabled(undo != null);
+        undoButton.setToolTipText(undo != null ? "Undo: " + undo.getDescription() : null);
+        redoButton.setEnabled(redo != null);
+        redoButton.setToolTipText(redo != null ? "Redo: " + redo.getDescription() : null);
+        saveButton.setEnabled(editLog.getVersion() != savedVersion);
+        publishLiveView();
+    }
+
+    private void updateLiveView() {
+        if (!liveViewButton.isSelected()) {
+            liveView.stop();
+            publishedLog = null;
+            return;
+        }
+        try {
+            String url = liveView.start();
+            publishLiveView();
+            statusLabel.setText("Live view at " + url);
+            Desktop.getDesktop().browse(java.net.URI.create(url));
+        } catch (IOException | UnsupportedOperationException e) {
+            statusLabel.setText("Live view: " + e.getMessage());
+            liveViewButton.setSelected(liveView.isRunning());
+        }
+    }
+
+    /** Sends the hall as it is now, if it changed since live viewers last got it */
+    private void publishLiveView() {
+        if (!liveView.isRunning() || editLog == null || (editLog == publishedLog && editLog.getVersion() == publishedVersion)) {
+            return;
+        }
+        publishedLog = editLog;
+        publishedVersion = editLog.getVersion();
+        // Edits keep changing the live slots on this thread; the publish thread builds the slots of
+        // the version it renders from the log's snapshot, so coalesced versions are never copied
+        EditLog.Snapshot snapshot = editLog.snapshot();
+        liveView.publish(hallLayout, (renderer, out) -> renderer.render(snapshot.toAssignments(), out, null, true, null, null));
+    }
+
+    private void bindKey(KeyStroke key, String name, JButton button) {
+        getRootPane().getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW).put(key, name);
+        getRootPane().getActionMap().put(name, new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                if (button.isEnabled()) {
+                    button.doClick();
+                }
+            }
+        });
+    }
+
+    private void onSave() {
+        fileChooser.setSelectedFile(loadedFile);
+        if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        File file = fileChooser.getSelectedFile();
+        try {
+            ScienceFairCsvUtil.writeSlotAssignments(assignments, file.getAbsolutePath());
+            loadedFile = file;
+            savedVersion = editLog.getVersion();
+            updateHistoryButtons();
+            statusLabel.setText("Saved " + file.getName());
+        } catch (IOException ex) {
+            JOptionPane.showMessageDialog(this, "Error writing CSV: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+        }
     }
 
     public static void main(String[] args) {
@@ -0,0 +1,91 @@
+package com.sciencefair.gui;
+
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Runs input checks off the event thread. Requests are debounced, so typing a path runs one check
+ * after the pause rather than one per character; checks run on a single shared background thread;
+ * a newer request cancels the check it supersedes, and only the newest result is delivered, on
+ * the event thread. The check must not touch Swing: read the fields before calling
+ * {@link #request} and capture the values.
+ */
+final class ValidationService {
+
+    static final int DEFAULT_DELAY_MILLIS = 250;
+
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "input-validation");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Timer timer;
+    private Runnable pending;
+    private Future<?> running;
+    private int generation;
+
+    ValidationService(int delayMillis) {
+        timer = new Timer(delayMillis, e -> {
+            Runnable start = pending;
+            pending = null;
+            if (start != null) {
+                start.run();
+            }
+        });
+        timer.setRepeats(false);
+    }
+
+    /** Schedules a check; called on the event thread. */
+    <T> void request(Callable<T> check, Consumer<T> onResult) {
+        int requestGeneration = ++generation;
+        pending = () -> {
+            if (running != null) {
+                running.cancel(true);
+            }
+            running = EXECUTOR.submit(() -> {
+                T result;
+                try {
+                    result = check.call();
+                } catch (InterruptedException e) {
+                    return; // superseded
+                } catch (Exception e) {
+                    if (!Thread.currentThread().isInterrupted()) {
+                        System.err.println("Input check failed: " + e);
+                    }
+                    return;
+                }
+                SwingUtilities.invokeLater(() -> {
+                    if (requestGeneration == generation) {
+                        onResult.accept(result);
+                    }
+                });
+            });
+        };
+        timer.restart();
+    }
+
+    /** Same as {@link #request} without the pause, for the first check when a window opens */
+    <T> void requestNow(Callable<T> check, Consumer<T> onResult) {
+        request(check, onResult);
+        timer.stop();
+        Runnable start = pending;
+        pending = null;
+        start.run();
+    }
+
+    /** Drops any scheduled or running check, e.g. when its window closes. */
+    void cancel() {
+        generation++;
+        timer.stop();
+        pending = null;
+        if (running != null) {
+            running.cancel(true);
+        }
+    }
+}
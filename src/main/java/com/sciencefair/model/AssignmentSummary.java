@@ -0,0 +1,95 @@
+package com.sciencefair.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Structured statistics for an assignment run (machine-readable counterpart of the text summary)
+ */
+public class AssignmentSummary {
+    private long totalSlots;
+    private long availableSlots;
+    private long reservedSlots;
+    private long assignedSlots;
+    private long unassignedSlots;
+    private long totalProjects;
+    private long assignedProjects;
+    private long unassignedProjects;
+    private final Map<String, Long> projectsByCategory = new TreeMap<>();
+    private final Map<String, Long> assignedProjectsByCategory = new TreeMap<>();
+    private final List<ScienceProject> unassignedProjectList = new ArrayList<>();
+    private final List<RowStats> rowStats = new ArrayList<>();
+    private int aislePivotRow;
+    private List<Integer> leftSideRows = Collections.emptyList();
+    private List<Integer> rightSideRows = Collections.emptyList();
+
+    /**
+     * Per-row slot usage; empty slots exclude reserved ones.
+     */
+    public static class RowStats {
+        private final int row;
+        private final int totalSlots;
+        private final int emptySlots;
+        private final int reservedSlots;
+
+        public RowStats(int row, int totalSlots, int emptySlots, int reservedSlots) {
+            this.row = row;
+            this.totalSlots = totalSlots;
+            this.emptySlots = emptySlots;
+            this.reservedSlots = reservedSlots;
+        }
+
+        public int getRow() { return row; }
+        public int getTotalSlots() { return totalSlots; }
+        public int getEmptySlots() { return emptySlots; }
+        public int getReservedSlots() { return reservedSlots; }
+    }
+
+    public long getTotalSlots() { return totalSlots; }
+    public void setTotalSlots(long totalSlots) { this.totalSlots = totalSlots; }
+
+    public long getAvailableSlots() { return availableSlots; }
+    public void setAvailableSlots(long availableSlots) { this.availableSlots = availableSlots; }
+
+    public long getReservedSlots() { return reservedSlots; }
+    public void setReservedSlots(long reservedSlots) { this.reservedSlots = reservedSlots; }
+
+    public long getAssignedSlots() { return assignedSlots; }
+    public void setAssignedSlots(long assignedSlots) { this.assignedSlots = assignedSlots; }
+
+    public long getUnassignedSlots() { return unassignedSlots; }
+    public void setUnassignedSlots(long unassignedSlots) { this.unassignedSlots = unassignedSlots; }
+
+    public long getTotalProjects() { return totalProjects; }
+    public void setTotalProjects(long totalProjects) { this.totalProjects = totalProjects; }
+
+    public long getAssignedProjects() { return assignedProjects; }
+    public void setAssignedProjects(long assignedProjects) { this.assignedProjects = assignedProjects; }
+
+    public long getUnassignedProjects() { return unassignedProjects; }
+    public void setUnassignedProjects(long unassignedProjects) { this.unassignedProjects = unassignedProjects; }
+
+    /** Project count per category, sorted by category name */
+    public Map<String, Long> getProjectsByCategory() { return projectsByCategory; }
+
+    /** Placed project count per category, sorted by category name */
+    public Map<String, Long> getAssignedProjectsByCategory() { return assignedProjectsByCategory; }
+
+    /** Projects that could not be placed, in input order */
+    public List<ScienceProject> getUnassignedProjectList() { return unassignedProjectList; }
+
+    /** Slot usage per row, ascending by row number */
+    public List<RowStats> getRowStats() { return rowStats; }
+
+    public int getAislePivotRow() { return aislePivotRow; }
+    public void setAislePivotRow(int aislePivotRow) { this.aislePivotRow = aislePivotRow; }
+
+    public List<Integer> getLeftSideRows() { return leftSideRows; }
+    public void setLeftSideRows(List<Integer> leftSideRows) { this.leftSideRows = leftSideRows; }
+
+    public List<Integer> getRightSideRows() { return rightSideRows; }
+    public void setRightSideRows(List<Integer> rightSideRows) { this.rightSideRows = rightSideRows; }
+}
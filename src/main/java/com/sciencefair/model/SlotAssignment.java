@@ -28,6 +28,17 @@ public class SlotAssignment {
         this.reserved = reserved;
     }
     
+    /** Copy of another slot's position, contents and reserved flag */
+    public SlotAssignment(SlotAssignment other) {
+        this.row = other.row;
+        this.tableSlotID = other.tableSlotID;
+        this.isUnassigned = other.isUnassigned;
+        this.projectID = other.projectID;
+        this.isTeam = other.isTeam;
+        this.category = other.category;
+        this.reserved = other.reserved;
+    }
+
     public SlotAssignment(int row, int tableSlotID, ScienceProject project) {
         this(row, tableSlotID, false, project);
     }
@@ -0,0 +1,172 @@
+package com.sciencefair.server;
+
+import com.sciencefair.model.ScienceProject;
+import com.sciencefair.model.TableSlot;
+import com.sciencefair.util.HallLayoutUtil;
+import com.sciencefair.util.JsonReader;
+import com.sciencefair.util.ScienceFairCsvUtil;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One {@code POST /assign} body, parsed and validated before it reaches the engine:
+ * <pre>
+ * {"slots": ..., "projects": ..., "layout": "12", "format": "json"}
+ * </pre>
+ * {@code slots} and {@code projects} are either CSV text in the input file format or arrays of
+ * objects keyed by the same column names. {@code layout} is a hall layout setting as in
+ * {@link HallLayoutUtil#parse} and {@code format} is {@code json} (default) or {@code csv}; both may
+ * also be given as query parameters, which win over the body.
+ */
+final class AssignmentRequest {
+
+    final List<TableSlot> tableSlots;
+    final List<ScienceProject> projects;
+    final HallLayoutUtil hallLayout;
+    final boolean csv;
+
+    private AssignmentRequest(List<TableSlot> tableSlots, List<ScienceProject> projects, HallLayoutUtil hallLayout, boolean csv) {
+        this.tableSlots = tableSlots;
+        this.projects = projects;
+        this.hallLayout = hallLayout;
+        this.csv = csv;
+    }
+
+    /**
+     * @throws IllegalArgumentException describing the first problem found, for a 400 response
+     */
+    static AssignmentRequest parse(String body, String query) {
+        Object parsed = JsonReader.parse(body);
+        if (!(parsed instanceof Map)) {
+            throw new IllegalArgumentException("Request body must be a JSON object");
+        }
+        Map<?, ?> fields = (Map<?, ?>) parsed;
+        Map<String, String> params = parseQuery(query);
+
+        Object slotsField = fields.get("slots");
+        Object projectsField = fields.get("projects");
+        if (slotsField == null || projectsField == null) {
+            throw new IllegalArgumentException("Both \"slots\" and \"projects\" are required");
+        }
+        List<TableSlot> tableSlots = slotsField instanceof String
+                ? readCsv(() -> ScienceFairCsvUtil.readTableSlots(new StringReader((String) slotsField)))
+                : tableSlots(records("slots", slotsField));
+        List<ScienceProject> projects = projectsField instanceof String
+                ? readCsv(() -> ScienceFairCsvUtil.readScienceProjects(new StringReader((String) projectsField)))
+                : projects(records("projects", projectsField));
+
+        Object layout = params.containsKey("layout") ? params.get("layout") : fields.get("layout");
+        HallLayoutUtil hallLayout = HallLayoutUtil.parse(layout == null ? null : String.valueOf(layout));
+
+        Object format = params.containsKey("format") ? params.get("format") : fields.get("format");
+        String formatText = format == null ? "json" : String.valueOf(format).trim().toLowerCase();
+        if (!formatText.equals("json") && !formatText.equals("csv")) {
+            throw new IllegalArgumentException("Unknown format '" + format + "'; use json or csv");
+        }
+        return new AssignmentRequest(tableSlots, projects, hallLayout, formatText.equals("csv"));
+    }
+
+    private interface CsvRead<T> {
+        List<T> read() throws IOException;
+    }
+
+    private static <T> List<T> readCsv(CsvRead<T> read) {
+        try {
+            return read.read();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // a StringReader does not fail
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid CSV: " + e.getMessage(), e);
+        }
+    }
+
+    private static List<Map<?, ?>> records(String field, Object value) {
+        if (!(value instanceof List)) {
+            throw new IllegalArgumentException("\"" + field + "\" must be CSV text or an array of objects");
+        }
+        List<Map<?, ?>> records = new ArrayList<>();
+        for (Object item : (List<?>) value) {
+            if (!(item instanceof Map)) {
+                throw new IllegalArgumentException("\"" + field + "\" item " + (records.size() + 1) + " is not an object");
+            }
+            records.add((Map<?, ?>) item);
+        }
+        return records;
+    }
+
+    private static List<TableSlot> tableSlots(List<Map<?, ?>> records) {
+        List<TableSlot> slots = new ArrayList<>(records.size());
+        for (int i = 0; i < records.size(); i++) {
+            Map<?, ?> record = records.get(i);
+            String where = "slot " + (i + 1);
+            slots.add(new TableSlot(intField(record, "Row", where), intField(record, "rowNumSlots", where),
+                    intField(record, "tableSlotID", where), booleanField(record, "isReserved")));
+        }
+        return slots;
+    }
+
+    private static List<ScienceProject> projects(List<Map<?, ?>> records) {
+        List<ScienceProject> projects = new ArrayList<>(records.size());
+        for (int i = 0; i < records.size(); i++) {
+            Map<?, ?> record = records.get(i);
+            String where = "project " + (i + 1);
+            Object category = record.get("Category");
+            if (category == null) {
+                throw new IllegalArgumentException(where + ": \"Category\" is required");
+            }
+            projects.add(new ScienceProject(intField(record, "projectID", where),
+                    booleanField(record, "isTeam"), booleanField(record, "isFirstInCat"), String.valueOf(category)));
+        }
+        return projects;
+    }
+
+    private static int intField(Map<?, ?> record, String name, String where) {
+        Object value = record.get(name);
+        if (value instanceof Long && (Long) value == ((Long) value).intValue()) {
+            return ((Long) value).intValue();
+        }
+        if (value instanceof String) {
+            try {
+                return Integer.parseInt(((String) value).trim());
+            } catch (NumberFormatException e) {
+                // reported below
+            }
+        }
+        throw new IllegalArgumentException(where + ": \"" + name + "\" must be a whole number");
+    }
+
+    /** JSON booleans, or the CSV spellings TRUE/YES/1; missing means false */
+    private static boolean booleanField(Map<?, ?> record, String name) {
+        Object value = record.get(name);
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        if (value instanceof Long) {
+            return (Long) value == 1;
+        }
+        String v = value == null ? "" : String.valueOf(value).trim().toUpperCase();
+        return v.equals("TRUE") || v.equals("YES") || v.equals("1");
+    }
+
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> params = new HashMap<>();
+        if (query == null || query.isEmpty()) {
+            return params;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            params.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+}
@@ -0,0 +1,336 @@
+package com.sciencefair.server;
+
+import com.sciencefair.model.AssignmentSummary;
+import com.sciencefair.model.SlotAssignment;
+import com.sciencefair.service.ScienceFairAssignmentService;
+import com.sciencefair.util.JsonStreamWriter;
+import com.sciencefair.util.ScienceFairCsvUtil;
+import com.sciencefair.util.ScienceFairJsonUtil;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Headless assignment service: {@code POST /assign} takes slots, projects and layout options as
+ * JSON (see {@link AssignmentRequest}) and answers with the assignments as JSON, with the summary,
+ * or as CSV in the output file format. {@code GET /health} reports the queue and counters.
+ * <p>
+ * Reading and parsing bodies and writing responses run on a bounded HTTP pool; the engine itself
+ * runs on one worker per processor, fed from a bounded queue. A worker that wakes up takes every
+ * small request already waiting (up to {@value #MAX_BATCH}) and deals them back to back, so a burst
+ * of small requests costs one hand-off instead of one per request; a large request ends a batch and
+ * is dealt on its own. The engine is a single shared instance, which is safe because it keeps no
+ * state between calls. No request thread waits on the engine: the handler queues the job and
+ * returns, and the worker hands the result back to the HTTP pool to be written. When the queue is
+ * full requests are refused with 503 rather than piling up.
+ * Binds to the loopback address unless a host is given.
+ */
+public final class AssignmentServer implements AutoCloseable {
+
+    public static final int DEFAULT_PORT = 8090;
+    /** Requests with at most this many slots are batched */
+    static final int SMALL_REQUEST_SLOTS = 5000;
+    static final int MAX_BATCH = 32;
+    private static final int HTTP_THREADS = 8;
+    private static final int HTTP_QUEUE = 512;
+    private static final int JOB_QUEUE = 1024;
+    private static final long MAX_BODY_BYTES = 64L << 20;
+
+    static {
+        // Responses are small and written in pieces; without TCP_NODELAY each one can wait out the
+        // client's delayed ACK (about 40 ms). Read once, when the first HTTP server is created.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    /** One parsed request, from the handler through a worker and back */
+    private static final class Job {
+        final HttpExchange exchange;
+        final AssignmentRequest request;
+        final long receivedNanos;
+        List<SlotAssignment> assignments;
+        AssignmentSummary summary;
+        Throwable failure;
+
+        Job(HttpExchange exchange, AssignmentRequest request, long receivedNanos) {
+            this.exchange = exchange;
+            this.request = request;
+            this.receivedNanos = receivedNanos;
+        }
+
+        boolean isSmall() {
+            return request.tableSlots.size() <= SMALL_REQUEST_SLOTS;
+        }
+    }
+
+    private final HttpServer server;
+    private final ThreadPoolExecutor httpPool;
+    private final BlockingQueue<Job> jobs = new ArrayBlockingQueue<>(JOB_QUEUE);
+    private final List<Thread> workers = new ArrayList<>();
+    private final ScienceFairAssignmentService engine;
+    private final AtomicLong served = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private volatile boolean closed;
+
+    private AssignmentServer(HttpServer server, ScienceFairAssignmentService engine, int workerCount) {
+        this.server = server;
+        this.engine = engine;
+        AtomicInteger threadCount = new AtomicInteger();
+        httpPool = new ThreadPoolExecutor(HTTP_THREADS, HTTP_THREADS, 30, TimeUnit.SECONDS, new ArrayBlockingQueue<>(HTTP_QUEUE), runnable -> {
+            Thread thread = new Thread(runnable, "assign-http-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.CallerRunsPolicy());
+        httpPool.allowCoreThreadTimeOut(true);
+        for (int i = 1; i <= workerCount; i++) {
+            Thread worker = new Thread(this::work, "assign-worker-" + i);
+            worker.setDaemon(true);
+            workers.add(worker);
+        }
+        server.createContext("/assign", this::serveAssign);
+        server.createContext("/health", this::serveHealth);
+        server.setExecutor(httpPool);
+    }
+
+    /**
+     * Starts a server with one engine worker per processor; host may be null for the loopback
+     * address, port 0 picks a free port.
+     */
+    public static AssignmentServer start(String host, int port) throws IOException {
+        return start(host, port, Runtime.getRuntime().availableProcessors());
+    }
+
+    public static AssignmentServer start(String host, int port, int workerCount) throws IOException {
+        return start(host, port, workerCount, new ScienceFairAssignmentService());
+    }
+
+    static AssignmentServer start(String host, int port, int workerCount, ScienceFairAssignmentService engine) throws IOException {
+        InetSocketAddress address = host == null || host.isEmpty()
+                ? new InetSocketAddress(InetAddress.getLoopbackAddress(), port) : new InetSocketAddress(host, port);
+        AssignmentServer assignmentServer = new AssignmentServer(HttpServer.create(address, 0),
+                engine, Math.max(1, workerCount));
+        assignmentServer.workers.forEach(Thread::start);
+        assignmentServer.server.start();
+        return assignmentServer;
+    }
+
+    /** Base address, ending in a slash */
+    public String getUrl() {
+        InetSocketAddress address = server.getAddress();
+        String host = address.getAddress().isAnyLocalAddress() ? "localhost" : address.getHostString();
+        return "http://" + host + ":" + address.getPort() + "/";
+    }
+
+    public int getWorkerCount() {
+        return workers.size();
+    }
+
+    /** Requests answered with assignments */
+    public long getServedCount() {
+        return served.get();
+    }
+
+    /** Times a worker woke up for work; served / batches is the average batch size */
+    public long getBatchCount() {
+        return batches.get();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        server.stop(0);
+        workers.forEach(Thread::interrupt);
+        httpPool.shutdownNow();
+    }
+
+    private void serveAssign(HttpExchange exchange) throws IOException {
+        long received = System.nanoTime();
+        try {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Allow", "POST");
+                sendError(exchange, 405, "Use POST");
+                return;
+            }
+            AssignmentRequest request;
+            try {
+                String body = readBody(exchange);
+                request = AssignmentRequest.parse(body, exchange.getRequestURI().getRawQuery());
+            } catch (IllegalArgumentException e) {
+                sendError(exchange, 400, e.getMessage());
+                return;
+            }
+            if (!jobs.offer(new Job(exchange, request, received))) {
+                rejected.incrementAndGet();
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                sendError(exchange, 503, "Too many requests queued");
+                return;
+            }
+        } catch (IOException | RuntimeException e) {
+            exchange.close();
+            throw e;
+        }
+        // The worker owns the exchange from here
+    }
+
+    private void serveHealth(HttpExchange exchange) throws IOException {
+        try {
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+            exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+            exchange.sendResponseHeaders(200, 0);
+            try (JsonStreamWriter json = JsonStreamWriter.toStream(exchange.getResponseBody())) {
+                json.beginObject()
+                        .name("status").value("ok")
+                        .name("workers").value(workers.size())
+                        .name("queued").value(jobs.size())
+                        .name("served").value(served.get())
+                        .name("batches").value(batches.get())
+                        .name("rejected").value(rejected.get())
+                        .endObject().newline();
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Engine worker: takes a batch, deals it, hands each result back to the HTTP pool. A job that
+     * fails, even with an Error such as OutOfMemoryError, is answered with 500 and the worker
+     * carries on with the next.
+     */
+    private void work() {
+        Deque<Job> batch = new ArrayDeque<>(MAX_BATCH);
+        try {
+            while (!closed) {
+                Job first;
+                try {
+                    first = jobs.take();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                batch.add(first);
+                if (first.isSmall()) {
+                    while (batch.size() < MAX_BATCH) {
+                        Job next = jobs.poll();
+                        if (next == null) {
+                            break;
+                        }
+                        batch.add(next);
+                        if (!next.isSmall()) {
+                            break; // dealt last, after the small ones
+                        }
+                    }
+                }
+                batches.incrementAndGet();
+                Job job;
+                while ((job = batch.poll()) != null) {
+                    deal(job);
+                }
+            }
+        } finally {
+            // Stopped mid-batch: nobody will answer these
+            for (Job job : batch) {
+                job.exchange.close();
+            }
+        }
+    }
+
+    private void deal(Job job) {
+        AssignmentRequest request = job.request;
+        try {
+            job.assignments = engine.assignProjectsToSlots(request.projects, request.tableSlots, request.hallLayout);
+            if (!request.csv) {
+                job.summary = engine.buildAssignmentSummary(job.assignments, request.projects,
+                        request.tableSlots, request.hallLayout);
+            }
+        } catch (Throwable e) {
+            job.assignments = null;
+            job.summary = null;
+            job.failure = e;
+            if (!(e instanceof RuntimeException)) {
+                System.err.println("Assignment request failed on " + Thread.currentThread().getName() + ": " + e);
+            }
+        }
+        try {
+            httpPool.execute(() -> respond(job));
+        } catch (Throwable e) {
+            job.exchange.close();
+        }
+    }
+
+    private void respond(Job job) {
+        HttpExchange exchange = job.exchange;
+        try {
+            if (job.failure != null) {
+                String message = job.failure.getMessage();
+                sendError(exchange, 500, "Assignment failed: " + (message != null ? message : job.failure.toString()));
+                return;
+            }
+            exchange.getResponseHeaders().set("Content-Type", job.request.csv
+                    ? "text/csv; charset=UTF-8" : "application/json; charset=UTF-8");
+            exchange.getResponseHeaders().set("X-Elapsed-Millis",
+                    String.valueOf((System.nanoTime() - job.receivedNanos) / 1_000_000));
+            served.incrementAndGet();
+            exchange.sendResponseHeaders(200, 0); // chunked
+            try (OutputStream out = new BufferedOutputStream(exchange.getResponseBody(), 1 << 16)) {
+                if (job.request.csv) {
+                    Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+                    ScienceFairCsvUtil.writeSlotAssignments(job.assignments, writer);
+                    writer.flush();
+                } else {
+                    ScienceFairJsonUtil.writeAssignmentsJson(job.assignments, job.summary, out);
+                }
+            }
+        } catch (IOException e) {
+            // client went away
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException {
+        String length = exchange.getRequestHeaders().getFirst("Content-Length");
+        if (length != null && Long.parseLong(length.trim()) > MAX_BODY_BYTES) {
+            throw new IllegalArgumentException("Request body larger than " + (MAX_BODY_BYTES >> 20) + " MB");
+        }
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] body = in.readNBytes((int) MAX_BODY_BYTES + 1);
+            if (body.length > MAX_BODY_BYTES) {
+                throw new IllegalArgumentException("Request body larger than " + (MAX_BODY_BYTES >> 20) + " MB");
+            }
+            return new String(body, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        try {
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+            exchange.sendResponseHeaders(status, 0);
+            try (JsonStreamWriter json = JsonStreamWriter.toStream(exchange.getResponseBody())) {
+                json.beginObject().name("error").value(message).endObject().newline();
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+}
@@ -0,0 +1,429 @@
+package com.sciencefair.server;
+
+import com.sciencefair.util.HallLayoutUtil;
+import com.sciencefair.util.HtmlLayoutRenderer;
+import com.sciencefair.util.HtmlRowCache;
+import com.sciencefair.util.Utf8ByteBuffer;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serves the live hall layout over HTTP so viewers keep one browser tab open instead of reopening
+ * output.html after every run. Each published version is rendered once into bytes (rows that did
+ * not change come from the row cache) and every viewer gets those bytes; nothing is rendered per
+ * request. The page subscribes to {@code /events}, a server-sent event stream, and a new version
+ * is pushed as the rows whose markup changed, plus the stats and search index when they changed;
+ * when rows were added, removed or reordered viewers are told to reload instead.
+ * <p>
+ * Requests run on a small bounded pool. Event streams do not hold a thread: the handler registers
+ * the stream and returns, and events are written by tasks on a separate bounded writer pool, at
+ * most one per viewer at a time; a viewer still busy receiving an older event is sent a reload once
+ * it catches up. Viewers that stop reading (a laptop asleep on the LAN) cannot tie up the request
+ * pool, and a write still in flight after {@value #SEND_TIMEOUT_SECONDS} seconds, or one the writer
+ * pool has no room for, drops the viewer; its browser reconnects and reloads.
+ * Binds to the loopback address unless a host is given, e.g. 0.0.0.0 for viewers on the LAN.
+ */
+public final class LayoutServer implements AutoCloseable {
+
+    public static final int DEFAULT_PORT = 8080;
+    private static final int THREADS = 4;
+    private static final int QUEUE = 256;
+    private static final int WRITER_THREADS = 8;
+    private static final int WRITER_QUEUE = 1024;
+    private static final long KEEPALIVE_SECONDS = 15;
+    private static final long SEND_TIMEOUT_SECONDS = 10;
+
+    private static final byte[] STATS_START = bytes("        <div class='stats'>");
+    private static final byte[] STATS_END = bytes("        <div class='search-bar'>");
+    private static final byte[] SEARCH_START = bytes("<script id='search-index' type='application/json'>");
+    private static final byte[] SEARCH_END = bytes("</script>");
+    private static final byte[] BODY_END = bytes("</body>");
+
+    /** Renders one version of the layout with the renderer it is given */
+    public interface PageWriter {
+        void write(HtmlLayoutRenderer renderer, OutputStream out) throws IOException;
+    }
+
+    /** One published version; immutable once built */
+    private static final class Page {
+        final int version;
+        final byte[] html; // with the live-update script
+        final Map<Integer, byte[]> rows; // display order
+        final byte[] stats;
+        final byte[] search;
+
+        Page(int version, byte[] html, Map<Integer, byte[]> rows, byte[] stats, byte[] search) {
+            this.version = version;
+            this.html = html;
+            this.rows = rows;
+            this.stats = stats;
+            this.search = search;
+        }
+    }
+
+    /** One open event stream */
+    private final class Viewer {
+        final HttpExchange exchange;
+        final OutputStream out;
+        boolean sending; // guarded by the viewer
+        boolean behind; // missed an event while sending
+        Thread writer; // guarded by the viewer; set while a write is in progress
+        long writeStarted;
+
+        Viewer(HttpExchange exchange) {
+            this.exchange = exchange;
+            this.out = exchange.getResponseBody();
+        }
+
+        void send(byte[] event) {
+            synchronized (this) {
+                if (sending) {
+                    behind = true;
+                    return;
+                }
+                sending = true;
+            }
+            try {
+                writers.execute(() -> write(event));
+            } catch (RejectedExecutionException e) {
+                drop(this);
+            }
+        }
+
+        private void write(byte[] event) {
+            byte[] next = event;
+            while (next != null) {
+                synchronized (this) {
+                    writer = Thread.currentThread();
+                    writeStarted = System.nanoTime();
+                }
+                boolean failed;
+                try {
+                    out.write(next);
+                    out.flush();
+                    failed = false;
+                } catch (IOException e) {
+                    failed = true;
+                }
+                synchronized (this) {
+                    writer = null;
+                    // Interrupted as stalled, possibly just after the write went through
+                    failed |= Thread.interrupted();
+                    if (!failed) {
+                        next = behind ? event("reload", "{\"v\":" + page.version + "}", page.version) : null;
+                        behind = false;
+                        sending = next != null;
+                    }
+                }
+                if (failed) {
+                    drop(this);
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Interrupts a write in flight since before the deadline; interrupting a blocked channel
+         * write closes the connection, and the writer then drops the viewer.
+         */
+        synchronized void interruptIfStalled(long deadline) {
+            if (writer != null && writeStarted - deadline < 0) {
+                writer.interrupt();
+            }
+        }
+    }
+
+    private final HttpServer server;
+    private final ThreadPoolExecutor executor;
+    private final ThreadPoolExecutor writers;
+    private final ScheduledExecutorService keepalive;
+    private final HtmlRowCache rowCache = new HtmlRowCache();
+    private final List<Viewer> viewers = new CopyOnWriteArrayList<>();
+    private final AtomicInteger versions = new AtomicInteger();
+    private volatile Page page;
+
+    private LayoutServer(HttpServer server) {
+        this.server = server;
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(THREADS, THREADS, 30, TimeUnit.SECONDS, new ArrayBlockingQueue<>(QUEUE), runnable -> {
+            Thread thread = new Thread(runnable, "layout-server-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.CallerRunsPolicy()); // a full queue has the dispatcher serve the request, holding back new connections
+        executor.allowCoreThreadTimeOut(true);
+        AtomicInteger writerCount = new AtomicInteger();
+        writers = new ThreadPoolExecutor(WRITER_THREADS, WRITER_THREADS, 30, TimeUnit.SECONDS, new ArrayBlockingQueue<>(WRITER_QUEUE), runnable -> {
+            Thread thread = new Thread(runnable, "layout-server-writer-" + writerCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy()); // rejected sends drop the viewer
+        writers.allowCoreThreadTimeOut(true);
+        keepalive = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "layout-server-keepalive");
+            thread.setDaemon(true);
+            return thread;
+        });
+        page = new Page(0, bytes("<!DOCTYPE html><html><head><meta charset='UTF-8'><title>Hall Layout</title></head>"
+                + "<body><p>Waiting for the first assignment run...</p>" + liveScript(0) + "</body></html>"),
+                new LinkedHashMap<>(), new byte[0], new byte[0]);
+        server.createContext("/", this::servePage);
+        server.createContext("/events", this::serveEvents);
+        server.setExecutor(executor);
+    }
+
+    /**
+     * Starts a server; host may be null for the loopback address, port 0 picks a free port.
+     */
+    public static LayoutServer start(String host, int port) throws IOException {
+        InetSocketAddress address = host == null || host.isEmpty()
+                ? new InetSocketAddress(InetAddress.getLoopbackAddress(), port) : new InetSocketAddress(host, port);
+        LayoutServer layoutServer = new LayoutServer(HttpServer.create(address, 0));
+        layoutServer.server.start();
+        layoutServer.keepalive.scheduleAtFixedRate(layoutServer::ping, KEEPALIVE_SECONDS, KEEPALIVE_SECONDS, TimeUnit.SECONDS);
+        long sweep = SEND_TIMEOUT_SECONDS * 1000 / 2;
+        layoutServer.keepalive.scheduleAtFixedRate(() -> layoutServer.dropStalled(TimeUnit.SECONDS.toNanos(SEND_TIMEOUT_SECONDS)),
+                sweep, sweep, TimeUnit.MILLISECONDS);
+        return layoutServer;
+    }
+
+    /** Address to open in a browser */
+    public String getUrl() {
+        InetSocketAddress address = server.getAddress();
+        String host = address.getAddress().isAnyLocalAddress() ? "localhost" : address.getHostString();
+        return "http://" + host + ":" + address.getPort() + "/";
+    }
+
+    public int getViewerCount() {
+        return viewers.size();
+    }
+
+    public int getVersion() {
+        return page.version;
+    }
+
+    /**
+     * Renders a new version and pushes it to open viewers. Returns the number of rows sent, or -1
+     * when viewers were told to reload. Publishers are serialised; viewers keep being served the
+     * previous version until this returns.
+     */
+    public synchronized int publish(HallLayoutUtil hallLayout, PageWriter writer) throws IOException {
+        HtmlLayoutRenderer renderer = new HtmlLayoutRenderer(hallLayout, HtmlLayoutRenderer.Mode.STATIC, rowCache);
+        Map<Integer, byte[]> rows = new LinkedHashMap<>();
+        renderer.setRowListener(rows::put);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(1 << 16);
+        writer.write(renderer, out);
+        byte[] rendered = out.toByteArray();
+
+        Page previous = page;
+        int version = versions.incrementAndGet();
+        byte[] stats = slice(rendered, STATS_START, STATS_END, false);
+        byte[] search = slice(rendered, SEARCH_START, SEARCH_END, true);
+        Page next = new Page(version, withLiveScript(rendered, version), rows, stats, search);
+        page = next;
+
+        if (!new ArrayList<>(previous.rows.keySet()).equals(new ArrayList<>(rows.keySet()))) {
+            broadcast(event("reload", "{\"v\":" + version + "}", version));
+            return -1;
+        }
+        Utf8ByteBuffer json = new Utf8ByteBuffer(4096);
+        json.append("{\"from\":").append(previous.version).append(",\"v\":").append(version).append(",\"rows\":[");
+        int changed = 0;
+        for (Map.Entry<Integer, byte[]> row : rows.entrySet()) {
+            if (!Arrays.equals(row.getValue(), previous.rows.get(row.getKey()))) {
+                json.append(changed++ == 0 ? "[" : ",[").append(row.getKey()).append(',');
+                HtmlLayoutRenderer.appendJsonString(json, new String(row.getValue(), StandardCharsets.UTF_8));
+                json.append(']');
+            }
+        }
+        json.append(']');
+        if (!Arrays.equals(stats, previous.stats)) {
+            json.append(",\"stats\":");
+            HtmlLayoutRenderer.appendJsonString(json, new String(stats, StandardCharsets.UTF_8));
+        }
+        if (!Arrays.equals(search, previous.search)) {
+            json.append(",\"search\":");
+            HtmlLayoutRenderer.appendJsonString(json, new String(search, StandardCharsets.UTF_8));
+        }
+        json.append('}');
+        broadcast(event("rows", json.toString(), version));
+        return changed;
+    }
+
+    @Override
+    public void close() {
+        keepalive.shutdownNow();
+        writers.shutdownNow(); // interrupts blocked writes, which closes their connections
+        for (Viewer viewer : viewers) {
+            drop(viewer);
+        }
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void servePage(HttpExchange exchange) throws IOException {
+        try {
+            String path = exchange.getRequestURI().getPath();
+            if (!"/".equals(path) && !"/index.html".equals(path)) {
+                sendStatus(exchange, 404, "Not found");
+                return;
+            }
+            byte[] html = page.html;
+            exchange.getResponseHeaders().set("Content-Type", "text/html; charset=UTF-8");
+            exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+            exchange.sendResponseHeaders(200, html.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(html);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /** Registers an event stream and returns; the stream stays open until the viewer leaves. */
+    private void serveEvents(HttpExchange exchange) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream; charset=UTF-8");
+        exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        exchange.sendResponseHeaders(200, 0); // chunked
+        Viewer viewer = new Viewer(exchange);
+        viewers.add(viewer);
+        // A viewer that reconnects after missing a version reloads; events carry their version as id
+        Page current = page;
+        String lastEventId = exchange.getRequestHeaders().getFirst("Last-Event-ID");
+        String query = exchange.getRequestURI().getQuery();
+        String seen = lastEventId != null ? lastEventId : query != null && query.startsWith("v=") ? query.substring(2) : null;
+        if (seen != null && !seen.equals(String.valueOf(current.version))) {
+            viewer.send(event("reload", "{\"v\":" + current.version + "}", current.version));
+        } else {
+            viewer.send(bytes("retry: 2000\n\n"));
+        }
+    }
+
+    private void broadcast(byte[] event) {
+        for (Viewer viewer : viewers) {
+            viewer.send(event);
+        }
+    }
+
+    private void ping() {
+        broadcast(bytes(": keepalive\n\n"));
+    }
+
+    /** Drops viewers whose current write has been in flight longer than the timeout */
+    void dropStalled(long timeoutNanos) {
+        long deadline = System.nanoTime() - timeoutNanos;
+        for (Viewer viewer : viewers) {
+            viewer.interruptIfStalled(deadline);
+        }
+    }
+
+    private void drop(Viewer viewer) {
+        if (viewers.remove(viewer)) {
+            viewer.exchange.close();
+        }
+    }
+
+    private static void sendStatus(HttpExchange exchange, int status, String message) throws IOException {
+        byte[] body = bytes(message + "\n");
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=UTF-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static byte[] event(String name, String data, int version) {
+        return bytes("id: " + version + "\nevent: " + name + "\ndata: " + data + "\n\n");
+    }
+
+    /** Inserts the script that applies pushed versions just before the closing body tag */
+    private static byte[] withLiveScript(byte[] html, int version) {
+        int end = lastIndexOf(html, BODY_END);
+        if (end < 0) {
+            end = html.length;
+        }
+        byte[] script = bytes(liveScript(version));
+        byte[] result = new byte[html.length + script.length];
+        System.arraycopy(html, 0, result, 0, end);
+        System.arraycopy(script, 0, result, end, script.length);
+        System.arraycopy(html, end, result, end + script.length, html.length - end);
+        return result;
+    }
+
+    private static String liveScript(int version) {
+        return "    <script>\n"
+                + "    (function () {\n"
+                + "        var v = " + version + ", es = new EventSource('/events?v=' + v);\n"
+                + "        es.addEventListener('rows', function (e) {\n"
+                + "            var d = JSON.parse(e.data);\n"
+                + "            if (d.from !== v) { location.reload(); return; }\n"
+                + "            d.rows.forEach(function (r) { var el = document.getElementById('row-' + r[0]); if (el) el.outerHTML = r[1]; });\n"
+                + "            if (d.stats) { var s = document.querySelector('.stats'); if (s) s.outerHTML = d.stats; }\n"
+                + "            if (d.search) { document.getElementById('search-index').textContent = d.search; if (window.layoutSearchReload) window.layoutSearchReload(); }\n"
+                + "            v = d.v;\n"
+                + "        });\n"
+                + "        es.addEventListener('reload', function () { location.reload(); });\n"
+                + "    })();\n"
+                + "    </script>\n";
+    }
+
+    /** Bytes from the start marker up to the end marker (the start marker itself only if included) */
+    private static byte[] slice(byte[] html, byte[] start, byte[] end, boolean afterStart) {
+        int from = indexOf(html, start, 0);
+        if (from < 0) {
+            return new byte[0];
+        }
+        int contentFrom = afterStart ? from + start.length : from;
+        int to = indexOf(html, end, contentFrom);
+        return Arrays.copyOfRange(html, contentFrom, to < 0 ? html.length : to);
+    }
+
+    private static int indexOf(byte[] data, byte[] pattern, int from) {
+        outer:
+        for (int i = from; i <= data.length - pattern.length; i++) {
+            for (int j = 0; j < pattern.length; j++) {
+                if (data[i + j] != pattern[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    private static int lastIndexOf(byte[] data, byte[] pattern) {
+        outer:
+        for (int i = data.length - pattern.length; i >= 0; i--) {
+            for (int j = 0; j < pattern.length; j++) {
+                if (data[i + j] != pattern[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,223 @@
+package com.sciencefair.server;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load-test harness for {@link AssignmentServer}: posts the same synthetic hall from a number of
+ * concurrent clients and reports throughput and p50/p90/p99 latency. Without a URL it starts a
+ * server in-process on a free port and also reports how the server batched the requests.
+ * <pre>
+ * java -cp ScienceFairTableAssignment.jar com.sciencefair.server.LoadTest [url]
+ *      [--concurrency N] [--requests N] [--warmup N] [--slots N] [--format json|csv]
+ * </pre>
+ */
+public final class LoadTest {
+
+    /** What one run measured */
+    public static final class Report {
+        final int requests;
+        final int errors;
+        final double seconds;
+        final long[] latencyNanos; // sorted, successful requests only
+
+        Report(int requests, int errors, double seconds, long[] latencyNanos) {
+            this.requests = requests;
+            this.errors = errors;
+            this.seconds = seconds;
+            this.latencyNanos = latencyNanos;
+        }
+
+        public int getErrors() { return errors; }
+
+        public double getThroughput() {
+            return seconds > 0 ? requests / seconds : 0;
+        }
+
+        /** Latency in milliseconds at a percentile (0..100) of successful requests */
+        public double percentileMillis(double percentile) {
+            if (latencyNanos.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100.0 * latencyNanos.length) - 1;
+            return latencyNanos[Math.max(0, Math.min(latencyNanos.length - 1, index))] / 1e6;
+        }
+    }
+
+    private LoadTest() {}
+
+    public static void main(String[] args) throws Exception {
+        String url = null;
+        int concurrency = 16;
+        int requests = 2000;
+        int warmup = 200;
+        int slots = 240;
+        String format = "json";
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("--")) {
+                url = arg;
+                continue;
+            }
+            if (i + 1 >= args.length) {
+                System.err.println("Missing value for " + arg);
+                System.exit(1);
+            }
+            String value = args[++i];
+            switch (arg) {
+                case "--concurrency": concurrency = Integer.parseInt(value); break;
+                case "--requests": requests = Integer.parseInt(value); break;
+                case "--warmup": warmup = Integer.parseInt(value); break;
+                case "--slots": slots = Integer.parseInt(value); break;
+                case "--format": format = value; break;
+                default:
+                    System.err.println("Unknown option: " + arg);
+                    System.exit(1);
+            }
+        }
+
+        AssignmentServer local = url == null ? AssignmentServer.start(null, 0) : null;
+        try {
+            String target = url != null ? url : local.getUrl();
+            byte[] body = syntheticRequest(slots, format).getBytes(StandardCharsets.UTF_8);
+            if (warmup > 0) {
+                run(target, body, Math.min(concurrency, warmup), warmup);
+            }
+            long batchesBefore = local != null ? local.getBatchCount() : 0;
+            long servedBefore = local != null ? local.getServedCount() : 0;
+            Report report = run(target, body, concurrency, requests);
+
+            System.out.println("Load test against " + target + ": " + requests + " requests, " + concurrency
+                    + " concurrent, " + slots + " slots each (" + format + ", " + body.length / 1024 + " KB body)");
+            System.out.println(String.format("  Throughput: %.1f requests/s over %.2f s", report.getThroughput(), report.seconds));
+            System.out.println(String.format("  Latency ms: p50 %.2f  p90 %.2f  p99 %.2f  max %.2f",
+                    report.percentileMillis(50), report.percentileMillis(90), report.percentileMillis(99),
+                    report.percentileMillis(100)));
+            System.out.println("  Errors: " + report.errors);
+            if (local != null) {
+                long batches = local.getBatchCount() - batchesBefore;
+                long served = local.getServedCount() - servedBefore;
+                System.out.println(String.format("  Server: %d workers, %d batches, %.1f requests per batch",
+                        local.getWorkerCount(), batches, batches > 0 ? (double) served / batches : 0));
+            }
+            if (report.errors > 0) {
+                System.exit(1);
+            }
+        } finally {
+            if (local != null) {
+                local.close();
+            }
+        }
+    }
+
+    /**
+     * Posts the body {@code requests} times from {@code concurrency} client threads to
+     * {@code baseUrl}/assign and measures each round trip, response fully read.
+     */
+    public static Report run(String baseUrl, byte[] body, int concurrency, int requests) throws InterruptedException, IOException {
+        URL assign = new URL(baseUrl.endsWith("/") ? baseUrl + "assign" : baseUrl + "/assign");
+        long[] latencies = new long[requests];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        ExecutorService clients = Executors.newFixedThreadPool(Math.max(1, concurrency), runnable -> {
+            Thread thread = new Thread(runnable, "load-test-client");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long start = System.nanoTime();
+        for (int c = 0; c < Math.max(1, concurrency); c++) {
+            clients.execute(() -> {
+                byte[] buffer = new byte[1 << 16];
+                int index;
+                while ((index = next.getAndIncrement()) < requests) {
+                    long sent = System.nanoTime();
+                    try {
+                        HttpURLConnection connection = (HttpURLConnection) assign.openConnection();
+                        connection.setRequestMethod("POST");
+                        connection.setDoOutput(true);
+                        connection.setFixedLengthStreamingMode(body.length);
+                        connection.setRequestProperty("Content-Type", "application/json");
+                        try (OutputStream out = connection.getOutputStream()) {
+                            out.write(body);
+                        }
+                        int status = connection.getResponseCode();
+                        // Read to the end either way so the connection is kept alive for the next request
+                        try (InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+                            while (in != null && in.read(buffer) >= 0) {
+                                // drain
+                            }
+                        }
+                        if (status == 200) {
+                            latencies[index] = System.nanoTime() - sent;
+                        } else {
+                            latencies[index] = -1;
+                            errors.incrementAndGet();
+                        }
+                    } catch (IOException e) {
+                        latencies[index] = -1;
+                        errors.incrementAndGet();
+                    }
+                }
+            });
+        }
+        clients.shutdown();
+        clients.awaitTermination(1, TimeUnit.HOURS);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long[] ok = Arrays.stream(latencies).filter(l -> l >= 0).sorted().toArray();
+        return new Report(requests, errors.get(), seconds, ok);
+    }
+
+    /** A request body for {@link #syntheticTables} and {@link #syntheticProjects} */
+    public static String syntheticRequest(int slots, String format) {
+        return "{\"slots\":" + jsonString(syntheticTables(slots)) + ",\"projects\":" + jsonString(syntheticProjects(slots))
+                + ",\"format\":\"" + format + "\"}";
+    }
+
+    /** Tables CSV for a hall of about {@code slots} slots in rows of 12, every fifth row's last slot reserved */
+    public static String syntheticTables(int slots) {
+        StringBuilder tables = new StringBuilder("Row,rowNumSlots,tableSlotID,isReserved\n");
+        for (int row = 1; row <= rows(slots); row++) {
+            for (int slot = 1; slot <= 12; slot++) {
+                tables.append(row).append(",12,").append(slot).append(slot == 12 && row % 5 == 0 ? ",TRUE\n" : ",FALSE\n");
+            }
+        }
+        return tables.toString();
+    }
+
+    /**
+     * Projects CSV for the same hall: one project per nine slots in ten, spread over six
+     * categories, every seventh project a team.
+     */
+    public static String syntheticProjects(int slots) {
+        List<String> categories = new ArrayList<>(Arrays.asList("JR - Biology", "JR - Chemistry", "JR - Physics",
+                "SR - Biology", "SR - Chemistry", "SR - Physics"));
+        int projectCount = rows(slots) * 12 * 9 / 10;
+        StringBuilder projects = new StringBuilder("projectID,isTeam,isFirstInCat,Category\n");
+        for (int i = 0; i < projectCount; i++) {
+            int category = i * categories.size() / projectCount;
+            boolean first = i == 0 || category != (i - 1) * categories.size() / projectCount;
+            projects.append(1000 + i).append(i % 7 == 3 ? ",TRUE," : ",FALSE,").append(first ? "TRUE," : "FALSE,")
+                    .append(categories.get(category)).append('\n');
+        }
+        return projects.toString();
+    }
+
+    private static int rows(int slots) {
+        return Math.max(1, (slots + 11) / 12);
+    }
+
+    private static String jsonString(CharSequence text) {
+        return "\"" + text.toString().replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n") + "\"";
+    }
+}
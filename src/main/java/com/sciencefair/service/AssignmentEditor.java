@@ -0,0 +1,251 @@
+package com.sciencefair.service;
+
+import com.sciencefair.model.SlotAssignment;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Manual moves on a finished assignment, checked against the dealer's rules without rescanning
+ * the hall: slots are indexed by row and slot ID, and a move only looks at the slots it touches
+ * and their direct neighbours in the row.
+ * <p>
+ * A solo project moves to an empty slot or swaps with another solo project. A team project
+ * always moves as a whole table and swaps with whatever is on the target table. Team rules
+ * (odd start slot, partner slot in the same row, no reserved slot) are errors that refuse the
+ * move; two different categories side by side without a spacing slot is a warning.
+ * Empty slots can also be reserved or freed, and projects withdrawn.
+ * The edited {@link SlotAssignment} objects are updated in place; reserved flags stay with
+ * their slots.
+ */
+public class AssignmentEditor {
+
+    /** Outcome of checking a move */
+    public static final class Check {
+        private final List<String> errors = new ArrayList<>();
+        private final List<String> warnings = new ArrayList<>();
+        private final List<SlotAssignment> changedSlots = new ArrayList<>();
+
+        public boolean isAllowed() { return errors.isEmpty(); }
+        public List<String> getErrors() { return Collections.unmodifiableList(errors); }
+        public List<String> getWarnings() { return Collections.unmodifiableList(warnings); }
+        /** Slots whose content the move changes (or would change) */
+        public List<SlotAssignment> getChangedSlots() { return Collections.unmodifiableList(changedSlots); }
+
+        /** First error, else first warning, else null */
+        public String getMessage() {
+            return !errors.isEmpty() ? errors.get(0) : !warnings.isEmpty() ? warnings.get(0) : null;
+        }
+    }
+
+    private final Map<Integer, SlotAssignment[]> slotsByRow = new HashMap<>();
+
+    public AssignmentEditor(List<SlotAssignment> assignments) {
+        Map<Integer, Integer> maxSlot = new HashMap<>();
+        for (SlotAssignment a : assignments) {
+            maxSlot.merge(a.getRow(), a.getTableSlotID(), Math::max);
+        }
+        for (Map.Entry<Integer, Integer> e : maxSlot.entrySet()) {
+            slotsByRow.put(e.getKey(), new SlotAssignment[e.getValue() + 1]);
+        }
+        for (SlotAssignment a : assignments) {
+            if (a.getTableSlotID() >= 1) {
+                slotsByRow.get(a.getRow())[a.getTableSlotID()] = a;
+            }
+        }
+    }
+
+    /** The slot at row and slot ID, or null */
+    public SlotAssignment getSlot(int row, int tableSlotID) {
+        SlotAssignment[] slots = slotsByRow.get(row);
+        return slots != null && tableSlotID >= 1 && tableSlotID < slots.length ? slots[tableSlotID] : null;
+    }
+
+    /** Checks a move without changing anything. */
+    public Check checkMove(int fromRow, int fromSlot, int toRow, int toSlot) {
+        Check check = plan(fromRow, fromSlot, toRow, toSlot);
+        if (check.isAllowed()) {
+            checkSpacing(check);
+        }
+        return check;
+    }
+
+    /** Performs the move when it has no errors; warnings do not block it. */
+    public Check move(int fromRow, int fromSlot, int toRow, int toSlot) {
+        Check check = plan(fromRow, fromSlot, toRow, toSlot);
+        if (check.isAllowed()) {
+            checkSpacing(check);
+            swapPairs(check.changedSlots);
+        }
+        return check;
+    }
+
+    /** Reserves an empty slot, or frees a reserved one. */
+    public Check toggleReserved(int row, int tableSlotID) {
+        Check check = new Check();
+        SlotAssignment slot = getSlot(row, tableSlotID);
+        if (slot == null) {
+            check.errors.add("No such slot: Row " + row + " slot " + tableSlotID);
+        } else if (!slot.isUnassigned()) {
+            check.errors.add("Row " + row + " slot " + tableSlotID + " holds P" + slot.getProjectID() + "; move or withdraw it first");
+        } else {
+            slot.setReserved(!slot.isReserved());
+            check.changedSlots.add(slot);
+        }
+        return check;
+    }
+
+    /** Takes a project out of the hall; a team frees both slots of its table. */
+    public Check withdraw(int row, int tableSlotID) {
+        Check check = new Check();
+        SlotAssignment slot = getSlot(row, tableSlotID);
+        if (slot == null || slot.isUnassigned() || slot.getProjectID() == null) {
+            check.errors.add("Row " + row + " slot " + tableSlotID + " has no project to withdraw");
+            return check;
+        }
+        check.changedSlots.add(slot);
+        if (isTeam(slot)) {
+            for (int side = -1; side <= 1; side += 2) {
+                SlotAssignment partner = getSlot(row, tableSlotID + side);
+                if (partner != null && Objects.equals(partner.getProjectID(), slot.getProjectID())) {
+                    check.changedSlots.add(partner);
+                }
+            }
+        }
+        for (SlotAssignment freed : check.changedSlots) {
+            freed.setProjectID(null);
+            freed.setIsTeam(null);
+            freed.setCategory(null);
+        }
+        return check;
+    }
+
+    /**
+     * Works out which slots trade contents; changedSlots holds them as consecutive
+     * (source, target) pairs.
+     */
+    private Check plan(int fromRow, int fromSlot, int toRow, int toSlot) {
+        Check check = new Check();
+        SlotAssignment source = getSlot(fromRow, fromSlot);
+        SlotAssignment target = getSlot(toRow, toSlot);
+        if (source == null || target == null) {
+            check.errors.add("No such slot: Row " + (source == null ? fromRow + " slot " + fromSlot : toRow + " slot " + toSlot));
+            return check;
+        }
+        if (source.isUnassigned() || source.getProjectID() == null) {
+            check.errors.add("Row " + fromRow + " slot " + fromSlot + " has no project to move");
+            return check;
+        }
+        if (!isTeam(source)) {
+            if (target == source) {
+                check.errors.add("P" + source.getProjectID() + " is already there");
+            } else if (target.isReserved()) {
+                check.errors.add("Row " + toRow + " slot " + toSlot + " is reserved");
+            } else if (isTeam(target)) {
+                check.errors.add("Row " + toRow + " slot " + toSlot + " is half of team P" + target.getProjectID()
+                        + "; drag the team to move its table");
+            } else {
+                check.changedSlots.add(source);
+                check.changedSlots.add(target);
+            }
+            return check;
+        }
+
+        // Teams move as a table: from their first slot to the first (odd) slot of the target table
+        int sourceStart = Objects.equals(projectAt(fromRow, fromSlot - 1), source.getProjectID()) ? fromSlot - 1 : fromSlot;
+        int targetStart = toSlot % 2 == 0 ? toSlot - 1 : toSlot;
+        SlotAssignment targetFirst = getSlot(toRow, targetStart);
+        SlotAssignment targetSecond = getSlot(toRow, targetStart + 1);
+        SlotAssignment sourceSecond = getSlot(fromRow, sourceStart + 1);
+        if (fromRow == toRow && sourceStart == targetStart) {
+            check.errors.add("Team P" + source.getProjectID() + " is already at that table");
+        } else if (targetFirst == null || targetSecond == null) {
+            check.errors.add("Team P" + source.getProjectID() + " needs both slots of a table in Row " + toRow);
+        } else if (targetFirst.isReserved() || targetSecond.isReserved()) {
+            check.errors.add("Team P" + source.getProjectID() + " needs a table without reserved slots");
+        } else if (sourceStart % 2 == 0 || sourceSecond == null
+                || !Objects.equals(sourceSecond.getProjectID(), source.getProjectID())) {
+            check.errors.add("Team P" + source.getProjectID() + " does not start on an odd slot of a whole table in Row " + fromRow);
+        } else if (splitsTeam(targetFirst, targetSecond) || splitsTeam(targetSecond, targetFirst)) {
+            check.errors.add("The table at Row " + toRow + " slot " + targetStart + " holds half of a team");
+        } else {
+            check.changedSlots.add(getSlot(fromRow, sourceStart));
+            check.changedSlots.add(targetFirst);
+            check.changedSlots.add(sourceSecond);
+            check.changedSlots.add(targetSecond);
+        }
+        return check;
+    }
+
+    /**
+     * Looks at the planned slots and their neighbours as they would be after the move, without
+     * touching them: each planned slot reads the contents of its pair partner.
+     */
+    private void checkSpacing(Check check) {
+        Map<SlotAssignment, SlotAssignment> after = new IdentityHashMap<>();
+        for (int i = 0; i + 1 < check.changedSlots.size(); i += 2) {
+            after.put(check.changedSlots.get(i), check.changedSlots.get(i + 1));
+            after.put(check.changedSlots.get(i + 1), check.changedSlots.get(i));
+        }
+        for (SlotAssignment slot : check.changedSlots) {
+            SlotAssignment content = after.get(slot);
+            if (content.isUnassigned() || content.getCategory() == null) {
+                continue;
+            }
+            for (int side = -1; side <= 1; side += 2) {
+                SlotAssignment neighbour = getSlot(slot.getRow(), slot.getTableSlotID() + side);
+                if (neighbour != null) {
+                    neighbour = after.getOrDefault(neighbour, neighbour);
+                }
+                if (neighbour != null && !neighbour.isUnassigned() && neighbour.getCategory() != null
+                        && !neighbour.getCategory().equals(content.getCategory())) {
+                    String warning = "Row " + slot.getRow() + ": " + content.getCategory() + " next to "
+                            + neighbour.getCategory() + " without a spacing slot";
+                    if (!check.warnings.contains(warning)) {
+                        check.warnings.add(warning);
+                    }
+                }
+            }
+        }
+    }
+
+    /** A team slot whose partner is not the other slot of its table */
+    private static boolean splitsTeam(SlotAssignment slot, SlotAssignment tablePartner) {
+        return isTeam(slot) && !Objects.equals(slot.getProjectID(), tablePartner.getProjectID());
+    }
+
+    private Integer projectAt(int row, int tableSlotID) {
+        SlotAssignment slot = getSlot(row, tableSlotID);
+        return slot != null ? slot.getProjectID() : null;
+    }
+
+    private static boolean isTeam(SlotAssignment slot) {
+        return slot.getIsTeam() != null && slot.getIsTeam() && slot.getProjectID() != null;
+    }
+
+    private static void swapPairs(List<SlotAssignment> pairs) {
+        for (int i = 0; i + 1 < pairs.size(); i += 2) {
+            swapContents(pairs.get(i), pairs.get(i + 1));
+        }
+    }
+
+    private static void swapContents(SlotAssignment a, SlotAssignment b) {
+        Integer projectID = a.getProjectID();
+        Boolean team = a.getIsTeam();
+        String category = a.getCategory();
+        boolean unassigned = a.isUnassigned();
+        a.setProjectID(b.getProjectID());
+        a.setIsTeam(b.getIsTeam());
+        a.setCategory(b.getCategory());
+        a.setUnassigned(b.isUnassigned());
+        b.setProjectID(projectID);
+        b.setIsTeam(team);
+        b.setCategory(category);
+        b.setUnassigned(unassigned);
+    }
+}
@@ -0,0 +1,251 @@
+package com.sciencefair.service;
+
+import com.sciencefair.model.SlotAssignment;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * History of manual edits to an assignment, with undo, redo and jumps to any earlier or later
+ * version.
+ * <p>
+ * Every version is a snapshot of all slot contents held in a persistent 32-way tree: recording
+ * an edit copies only the few nodes on the paths to the changed slots and shares the rest with
+ * the previous version, so a version costs a few hundred bytes however large the hall is.
+ * Moving between versions compares the two trees, skips every subtree they share and writes
+ * only the differing slots back to the live {@link SlotAssignment} objects; undo and redo touch
+ * the handful of slots one edit changed. Entries are never changed once recorded; a new edit
+ * after an undo drops the undone entries, as editors usually do.
+ * <p>
+ * All changes to the slots must be recorded here, or undo will overwrite them.
+ */
+public class EditLog {
+
+    public enum Kind { MOVE, SWAP, RESERVE, WITHDRAW }
+
+    /** One recorded edit */
+    public static final class Entry {
+        private final Kind kind;
+        private final String description;
+
+        Entry(Kind kind, String description) {
+            this.kind = kind;
+            this.description = description;
+        }
+
+        public Kind getKind() { return kind; }
+        public String getDescription() { return description; }
+    }
+
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+
+    /** Immutable copy of what an edit can change in a slot */
+    private static final class SlotState {
+        final Integer projectID;
+        final Boolean isTeam;
+        final String category;
+        final boolean unassigned;
+        final boolean reserved;
+
+        SlotState(SlotAssignment slot) {
+            projectID = slot.getProjectID();
+            isTeam = slot.getIsTeam();
+            category = slot.getCategory();
+            unassigned = slot.isUnassigned();
+            reserved = slot.isReserved();
+        }
+
+        boolean matches(SlotAssignment slot) {
+            return Objects.equals(projectID, slot.getProjectID()) && Objects.equals(isTeam, slot.getIsTeam())
+                    && Objects.equals(category, slot.getCategory()) && unassigned == slot.isUnassigned()
+                    && reserved == slot.isReserved();
+        }
+
+        void applyTo(SlotAssignment slot) {
+            slot.setProjectID(projectID);
+            slot.setIsTeam(isTeam);
+            slot.setCategory(category);
+            slot.setUnassigned(unassigned);
+            slot.setReserved(reserved);
+        }
+    }
+
+    /**
+     * One version's slot contents, readable on any thread while the live slots keep changing.
+     * Taking one is free: it holds the version's tree, and slots are only built on request.
+     */
+    public static final class Snapshot {
+        // Only the row and slot ID are read from these, which edits never change
+        private final List<SlotAssignment> positions;
+        private final Object[] root;
+        private final int rootShift;
+
+        Snapshot(List<SlotAssignment> positions, Object[] root, int rootShift) {
+            this.positions = positions;
+            this.root = root;
+            this.rootShift = rootShift;
+        }
+
+        /** New slot objects with this version's contents, in the order the log was created with */
+        public List<SlotAssignment> toAssignments() {
+            List<SlotAssignment> assignments = new ArrayList<>(positions.size());
+            addLeaves(root, rootShift, assignments);
+            return assignments;
+        }
+
+        private void addLeaves(Object[] node, int shift, List<SlotAssignment> assignments) {
+            for (Object child : node) {
+                if (child == null) {
+                    return; // slots fill the tree from the left
+                }
+                if (shift == 0) {
+                    SlotAssignment position = positions.get(assignments.size());
+                    SlotAssignment slot = new SlotAssignment(position.getRow(), position.getTableSlotID());
+                    ((SlotState) child).applyTo(slot);
+                    assignments.add(slot);
+                } else {
+                    addLeaves((Object[]) child, shift - BITS, assignments);
+                }
+            }
+        }
+    }
+
+    private final List<SlotAssignment> slots;
+    private final Map<SlotAssignment, Integer> indexOf = new IdentityHashMap<>();
+    private final int rootShift;
+    // roots.get(v) holds the slots at version v; entries.get(v - 1) led from v - 1 to v
+    private final List<Object[]> roots = new ArrayList<>();
+    private final List<Entry> entries = new ArrayList<>();
+    private int version;
+
+    public EditLog(List<SlotAssignment> assignments) {
+        slots = new ArrayList<>(assignments);
+        Object[] level = new Object[slots.size()];
+        for (int i = 0; i < slots.size(); i++) {
+            indexOf.put(slots.get(i), i);
+            level[i] = new SlotState(slots.get(i));
+        }
+        // Group WIDTH nodes at a time until one root is left
+        int shift = 0;
+        do {
+            Object[] parents = new Object[Math.max(1, (level.length + MASK) / WIDTH)];
+            for (int p = 0; p < parents.length; p++) {
+                Object[] node = new Object[WIDTH];
+                System.arraycopy(level, p * WIDTH, node, 0, Math.max(0, Math.min(WIDTH, level.length - p * WIDTH)));
+                parents[p] = node;
+            }
+            level = parents;
+            shift += BITS;
+        } while (level.length > 1);
+        rootShift = shift - BITS;
+        roots.add((Object[]) level[0]);
+    }
+
+    /**
+     * Records the current contents of the given slots as a new version, after they were edited.
+     *
+     * @throws IllegalArgumentException if a slot is not part of this assignment
+     */
+    public void record(Kind kind, String description, List<SlotAssignment> changedSlots) {
+        Object[] root = roots.get(version);
+        for (SlotAssignment slot : changedSlots) {
+            Integer index = indexOf.get(slot);
+            if (index == null) {
+                throw new IllegalArgumentException("Slot is not part of this assignment: " + slot);
+            }
+            if (!((SlotState) lookup(root, index)).matches(slot)) {
+                root = assoc(root, rootShift, index, new SlotState(slot));
+            }
+        }
+        roots.subList(version + 1, roots.size()).clear();
+        entries.subList(version, entries.size()).clear();
+        roots.add(root);
+        entries.add(new Entry(kind, description));
+        version++;
+    }
+
+    public int getVersion() { return version; }
+
+    /** The current version, for reading off the event thread */
+    public Snapshot snapshot() {
+        return new Snapshot(slots, roots.get(version), rootShift);
+    }
+
+    /** Newest version that redo can reach */
+    public int getLatestVersion() { return entries.size(); }
+
+    public List<Entry> getEntries() { return Collections.unmodifiableList(entries); }
+
+    public boolean canUndo() { return version > 0; }
+
+    public boolean canRedo() { return version < entries.size(); }
+
+    /** Entry undo would revert, or null */
+    public Entry getUndoEntry() { return canUndo() ? entries.get(version - 1) : null; }
+
+    /** Entry redo would apply again, or null */
+    public Entry getRedoEntry() { return canRedo() ? entries.get(version) : null; }
+
+    /** Reverts the last edit; returns the slots that changed. */
+    public List<SlotAssignment> undo() {
+        return canUndo() ? goTo(version - 1) : Collections.emptyList();
+    }
+
+    /** Applies the last undone edit again; returns the slots that changed. */
+    public List<SlotAssignment> redo() {
+        return canRedo() ? goTo(version + 1) : Collections.emptyList();
+    }
+
+    /**
+     * Puts every slot back to how it was at a version between 0 and {@link #getLatestVersion()};
+     * returns the slots that changed.
+     */
+    public List<SlotAssignment> goTo(int target) {
+        if (target < 0 || target > entries.size()) {
+            throw new IllegalArgumentException("No version " + target + " (0-" + entries.size() + ")");
+        }
+        List<SlotAssignment> changed = new ArrayList<>();
+        diff(roots.get(version), roots.get(target), rootShift, 0, changed);
+        version = target;
+        return changed;
+    }
+
+    private void diff(Object[] from, Object[] to, int shift, int base, List<SlotAssignment> changed) {
+        if (from == to) {
+            return;
+        }
+        for (int i = 0; i < WIDTH; i++) {
+            if (from[i] == to[i]) {
+                continue;
+            }
+            if (shift == 0) {
+                SlotAssignment slot = slots.get(base + i);
+                ((SlotState) to[i]).applyTo(slot);
+                changed.add(slot);
+            } else {
+                diff((Object[]) from[i], (Object[]) to[i], shift - BITS, base + (i << shift), changed);
+            }
+        }
+    }
+
+    private Object lookup(Object[] node, int index) {
+        for (int shift = rootShift; shift > 0; shift -= BITS) {
+            node = (Object[]) node[(index >>> shift) & MASK];
+        }
+        return node[index & MASK];
+    }
+
+    /** Copy of the path to a slot with the slot replaced; everything else is shared */
+    private static Object[] assoc(Object[] node, int shift, int index, SlotState state) {
+        Object[] copy = node.clone();
+        int i = (index >>> shift) & MASK;
+        copy[i] = shift == 0 ? state : assoc((Object[]) node[i], shift - BITS, index, state);
+        return copy;
+    }
+}
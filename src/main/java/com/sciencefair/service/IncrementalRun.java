@@ -0,0 +1,214 @@
+package com.sciencefair.service;
+
+import com.sciencefair.model.ScienceProject;
+import com.sciencefair.model.SlotAssignment;
+import com.sciencefair.model.TableSlot;
+import com.sciencefair.util.HallLayoutUtil;
+import com.sciencefair.util.ScienceFairCsvUtil;
+import com.sciencefair.util.ScienceFairJsonUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Re-runs an assignment into a fixed set of outputs (CSV, with JSON and HTML beside it) each time
+ * the inputs change, doing as little as it can: an input CSV is parsed again only when its size or
+ * modification time changed, and nothing at all happens when neither input nor the hall layout
+ * did. The dealer itself always runs in full, since one added project shifts every slot after it.
+ * When the dealt slots come out the same as last time the CSV and HTML are not touched; otherwise
+ * each output is written beside its target and moved over it only if its bytes differ, so files
+ * that did not change keep their timestamps and open viewers are not reloaded for nothing.
+ * <p>
+ * Not thread-safe: one refresh at a time.
+ */
+public final class IncrementalRun {
+
+    /** Writes the HTML view of an assignment; lets callers apply their own grouping and row cache */
+    public interface HtmlWriter {
+        void write(List<SlotAssignment> assignments, HallLayoutUtil hallLayout, String htmlFile) throws IOException;
+    }
+
+    /** What one refresh did */
+    public static final class Outcome {
+        private final boolean ran;
+        private final List<String> rewritten;
+        private final List<String> unchanged;
+        private final List<SlotAssignment> assignments;
+        private final List<ScienceProject> projects;
+        private final List<TableSlot> tableSlots;
+        private final long elapsedMillis;
+
+        Outcome(boolean ran, List<String> rewritten, List<String> unchanged, List<SlotAssignment> assignments,
+                List<ScienceProject> projects, List<TableSlot> tableSlots, long elapsedMillis) {
+            this.ran = ran;
+            this.rewritten = Collections.unmodifiableList(rewritten);
+            this.unchanged = Collections.unmodifiableList(unchanged);
+            this.assignments = assignments;
+            this.projects = projects;
+            this.tableSlots = tableSlots;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        /** False when the inputs and layout were the same as last time */
+        public boolean isRan() { return ran; }
+        /** Output files whose content changed */
+        public List<String> getRewritten() { return rewritten; }
+        /** Output files left as they were */
+        public List<String> getUnchanged() { return unchanged; }
+        public List<SlotAssignment> getAssignments() { return assignments; }
+        public List<ScienceProject> getProjects() { return projects; }
+        public List<TableSlot> getTableSlots() { return tableSlots; }
+        public long getElapsedMillis() { return elapsedMillis; }
+    }
+
+    private final String tableSlotsFile;
+    private final String projectsFile;
+    private final String csvFile;
+    private final String jsonFile;
+    private final String htmlFile;
+    private final ScienceFairAssignmentService assignmentService;
+    private final HtmlWriter htmlWriter;
+
+    private String tablesKey;
+    private String projectsKey;
+    private String layoutKey;
+    private List<TableSlot> tableSlots;
+    private List<ScienceProject> projects;
+    private List<SlotAssignment> assignments;
+
+    /**
+     * @param csvFile the output CSV; the JSON and HTML go beside it with the same base name
+     */
+    public IncrementalRun(String tableSlotsFile, String projectsFile, String csvFile,
+                          ScienceFairAssignmentService assignmentService, HtmlWriter htmlWriter) {
+        this.tableSlotsFile = tableSlotsFile;
+        this.projectsFile = projectsFile;
+        this.csvFile = csvFile;
+        this.jsonFile = csvFile.replace(".csv", ".json");
+        this.htmlFile = csvFile.replace(".csv", ".html");
+        this.assignmentService = assignmentService;
+        this.htmlWriter = htmlWriter;
+    }
+
+    public String getCsvFile() { return csvFile; }
+    public String getJsonFile() { return jsonFile; }
+    public String getHtmlFile() { return htmlFile; }
+
+    /**
+     * Brings the outputs up to date with the inputs.
+     * @throws IOException when an input cannot be read or an output written; the previous state is kept
+     */
+    public Outcome refresh(HallLayoutUtil hallLayout) throws IOException {
+        long start = System.nanoTime();
+        HallLayoutUtil layout = hallLayout != null ? hallLayout : HallLayoutUtil.disabled();
+        String newTablesKey = fileKey(tableSlotsFile);
+        String newProjectsKey = fileKey(projectsFile);
+        String newLayoutKey = layout.getAislePivotRow() + layout.getZones().toString();
+        List<String> rewritten = new ArrayList<>();
+        List<String> unchanged = new ArrayList<>();
+        if (assignments != null && Objects.equals(newTablesKey, tablesKey) && Objects.equals(newProjectsKey, projectsKey)
+                && newLayoutKey.equals(layoutKey)) {
+            unchanged.addAll(Arrays.asList(csvFile, jsonFile, htmlFile));
+            return new Outcome(false, rewritten, unchanged, assignments, projects, tableSlots, elapsedSince(start));
+        }
+
+        List<TableSlot> newTableSlots = Objects.equals(newTablesKey, tablesKey) && tableSlots != null
+                ? tableSlots : ScienceFairCsvUtil.readTableSlots(tableSlotsFile);
+        List<ScienceProject> newProjects = Objects.equals(newProjectsKey, projectsKey) && projects != null
+                ? projects : ScienceFairCsvUtil.readScienceProjects(projectsFile);
+        boolean layoutChanged = !newLayoutKey.equals(layoutKey);
+        List<SlotAssignment> newAssignments = assignmentService.assignProjectsToSlots(newProjects, newTableSlots, layout);
+
+        boolean sameSlots = !layoutChanged && sameSlots(assignments, newAssignments);
+        if (sameSlots) {
+            unchanged.add(csvFile);
+        } else {
+            record(replaceIfChanged(csvFile, temp -> ScienceFairCsvUtil.writeSlotAssignments(newAssignments, temp)),
+                    csvFile, rewritten, unchanged);
+        }
+        // The summary counts projects, so a project that was not placed still changes it
+        record(replaceIfChanged(jsonFile, temp -> ScienceFairJsonUtil.writeAssignmentsJson(newAssignments,
+                assignmentService.buildAssignmentSummary(newAssignments, newProjects, newTableSlots, layout), temp)),
+                jsonFile, rewritten, unchanged);
+        if (sameSlots) {
+            unchanged.add(htmlFile);
+        } else {
+            record(replaceIfChanged(htmlFile, temp -> htmlWriter.write(newAssignments, layout, temp)),
+                    htmlFile, rewritten, unchanged);
+        }
+
+        tablesKey = newTablesKey;
+        projectsKey = newProjectsKey;
+        layoutKey = newLayoutKey;
+        tableSlots = newTableSlots;
+        projects = newProjects;
+        assignments = newAssignments;
+        return new Outcome(true, rewritten, unchanged, newAssignments, newProjects, newTableSlots, elapsedSince(start));
+    }
+
+    private interface Writer {
+        void write(String file) throws IOException;
+    }
+
+    /** Writes beside the target and replaces it only if the bytes differ; true when replaced */
+    static boolean replaceIfChanged(String target, Writer writer) throws IOException {
+        Path targetPath = Paths.get(target);
+        Path temp = targetPath.resolveSibling(targetPath.getFileName() + ".tmp");
+        try {
+            writer.write(temp.toString());
+            if (Files.isRegularFile(targetPath) && Files.size(targetPath) == Files.size(temp)
+                    && Arrays.equals(Files.readAllBytes(targetPath), Files.readAllBytes(temp))) {
+                return false;
+            }
+            try {
+                Files.move(temp, targetPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, targetPath, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return true;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static void record(boolean replaced, String file, List<String> rewritten, List<String> unchanged) {
+        (replaced ? rewritten : unchanged).add(file);
+    }
+
+    /** Same slots in the same order with the same contents */
+    private static boolean sameSlots(List<SlotAssignment> before, List<SlotAssignment> after) {
+        if (before == null || before.size() != after.size()) {
+            return false;
+        }
+        for (int i = 0; i < after.size(); i++) {
+            SlotAssignment a = before.get(i);
+            SlotAssignment b = after.get(i);
+            if (a.getRow() != b.getRow() || a.getTableSlotID() != b.getTableSlotID()
+                    || a.isUnassigned() != b.isUnassigned() || a.isReserved() != b.isReserved()
+                    || !Objects.equals(a.getProjectID(), b.getProjectID()) || !Objects.equals(a.getIsTeam(), b.getIsTeam())
+                    || !Objects.equals(a.getCategory(), b.getCategory())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String fileKey(String path) {
+        File file = new File(path).getAbsoluteFile();
+        return file.isFile() ? file.getPath() + "@" + file.length() + "@" + file.lastModified() : null;
+    }
+
+    private static long elapsedSince(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
@@ -1,9 +1,12 @@
 package com.sciencefair.service;
 
+import com.sciencefair.model.AssignmentSummary;
 import com.sciencefair.model.ScienceProject;
 import com.sciencefair.model.SlotAssignment;
 import com.sciencefair.model.TableSlot;
+import com.sciencefair.util.HallGeometry;
 import com.sciencefair.util.HallLayoutUtil;
+import com.sciencefair.util.TaskProgress;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -31,7 +34,25 @@ public class ScienceFairAssignmentService {
             List<ScienceProject> projects,
             List<TableSlot> tableSlots,
             HallLayoutUtil hallLayout) {
+        return assignProjectsToSlots(projects, tableSlots, hallLayout, null);
+    }
+
+    /**
+     * Same as {@link #assignProjectsToSlots(List, List, HallLayoutUtil)} as a progress stage
+     * counting slots; progress is updated and cancellation checked at each row boundary.
+     *
+     * @throws java.util.concurrent.CancellationException once the progress is cancelled
+     */
+    public List<SlotAssignment> assignProjectsToSlots(
+            List<ScienceProject> projects,
+            List<TableSlot> tableSlots,
+            HallLayoutUtil hallLayout,
+            TaskProgress progress) {
         List<SlotAssignment> assignments = new ArrayList<>();
+        if (progress != null) {
+            progress.beginStage("Assigning projects", tableSlots.size(), "slots");
+        }
+        int previousRow = Integer.MIN_VALUE;
         
         // A. Initialization (following specification pseudocode exactly)
         int currentProjectIndex = 0;
@@ -46,6 +67,11 @@ public class ScienceFairAssignmentService {
             TableSlot tableSlot = sortedSlots.get(slotIndex);
             int currentRow = tableSlot.getRow();
             int currentSlot = tableSlot.getTableSlotID();
+            if (progress != null && currentRow != previousRow) {
+                previousRow = currentRow;
+                progress.update(slotIndex);
+                progress.checkCancelled();
+            }
             
             // Rule 1: currentSlot is reserved in Input CSV #1
             if (tableSlot.isReserved()) {
@@ -138,6 +164,9 @@ public class ScienceFairAssignmentService {
                 }
             }
         }
+        if (progress != null) {
+            progress.update(sortedSlots.size());
+        }
         
         return assignments;
     }
@@ -156,55 +185,112 @@ public class ScienceFairAssignmentService {
         return 12;
     }
     
+    /**
+     * Builds structured statistics for an assignment run: slot and project totals,
+     * per-category counts, unassigned projects, per-row empty slots and the aisle split.
+     */
+    public AssignmentSummary buildAssignmentSummary(
+            List<SlotAssignment> assignments,
+            List<ScienceProject> projects,
+            List<TableSlot> tableSlots,
+            HallLayoutUtil hallLayout) {
+        HallLayoutUtil layout = hallLayout != null ? hallLayout : HallLayoutUtil.disabled();
+        AssignmentSummary summary = new AssignmentSummary();
+
+        long availableSlots = 0;
+        for (TableSlot slot : tableSlots) {
+            if (slot.isAvailable()) {
+                availableSlots++;
+            }
+        }
+        long assignedSlots = 0;
+        Set<Integer> assignedProjectIds = new HashSet<>();
+        Map<Integer, int[]> perRow = new TreeMap<>(); // row -> {total, empty, reserved}
+        for (SlotAssignment a : assignments) {
+            int[] counts = perRow.computeIfAbsent(a.getRow(), r -> new int[3]);
+            counts[0]++;
+            if (!a.isUnassigned()) {
+                assignedSlots++;
+                if (a.getProjectID() != null) {
+                    assignedProjectIds.add(a.getProjectID());
+                }
+            } else if (a.isReserved()) {
+                counts[2]++;
+            } else {
+                counts[1]++;
+            }
+        }
+
+        summary.setTotalSlots(tableSlots.size()); // Use tableSlots size, not assignments
+        summary.setAvailableSlots(availableSlots);
+        summary.setReservedSlots(tableSlots.size() - availableSlots);
+        summary.setAssignedSlots(assignedSlots);
+        summary.setUnassignedSlots(availableSlots - assignedSlots);
+        summary.setTotalProjects(projects.size());
+        // Team projects occupy 2 slots but count once
+        summary.setAssignedProjects(assignedProjectIds.size());
+        summary.setUnassignedProjects(projects.size() - assignedProjectIds.size());
+
+        // {projects, assigned} per category name
+        Map<String, long[]> byCategory = new LinkedHashMap<>();
+        for (ScienceProject p : projects) {
+            long[] counts = byCategory.computeIfAbsent(Objects.requireNonNull(p.getCategory(), "category"),
+                    k -> new long[2]);
+            counts[0]++;
+            if (assignedProjectIds.contains(p.getProjectID())) {
+                counts[1]++;
+            } else {
+                summary.getUnassignedProjectList().add(p);
+            }
+        }
+        for (Map.Entry<String, long[]> e : byCategory.entrySet()) {
+            summary.getProjectsByCategory().put(e.getKey(), e.getValue()[0]);
+            if (e.getValue()[1] > 0) {
+                summary.getAssignedProjectsByCategory().put(e.getKey(), e.getValue()[1]);
+            }
+        }
+        for (Map.Entry<Integer, int[]> e : perRow.entrySet()) {
+            int[] c = e.getValue();
+            summary.getRowStats().add(new AssignmentSummary.RowStats(e.getKey(), c[0], c[1], c[2]));
+        }
+
+        // Same row table counts as the dealer and renderers, so the cached geometry is shared
+        Map<Integer, Integer> rowTableCounts = new TreeMap<>();
+        for (Map.Entry<Integer, int[]> e : perRow.entrySet()) {
+            rowTableCounts.put(e.getKey(), e.getValue()[0] / 2);
+        }
+        HallGeometry geometry = layout.geometry(rowTableCounts);
+        summary.setAislePivotRow(layout.getAislePivotRow());
+        summary.setLeftSideRows(new ArrayList<>(geometry.getLeftSideRows()));
+        summary.setRightSideRows(new ArrayList<>(geometry.getRightSideRows()));
+        return summary;
+    }
+
     /**
      * Generates a summary report of the assignment results
      */
     public String generateAssignmentSummary(List<SlotAssignment> assignments, List<ScienceProject> projects, List<TableSlot> tableSlots) {
+        AssignmentSummary stats = buildAssignmentSummary(assignments, projects, tableSlots, HallLayoutUtil.disabled());
         StringBuilder summary = new StringBuilder();
         
-        long totalSlots = tableSlots.size(); // Use tableSlots size, not assignments
-        long availableSlots = tableSlots.stream().filter(TableSlot::isAvailable).count();
-        long reservedSlots = tableSlots.stream().filter(TableSlot::isReserved).count();
-        long assignedSlots = assignments.stream().filter(a -> !a.isUnassigned()).count();
-        long unassignedSlots = availableSlots - assignedSlots;
-
-        long totalProjects = projects.size();
-        // Count unique project IDs actually placed (team projects occupy 2 slots but should count once)
-        long assignedProjects = assignments.stream()
-            .filter(a -> !a.isUnassigned() && a.getProjectID() != null)
-            .map(SlotAssignment::getProjectID)
-            .distinct()
-            .count();
-        long unassignedProjects = totalProjects - assignedProjects;
-        
         summary.append("=== SCIENCE FAIR ASSIGNMENT SUMMARY ===\n");
-        summary.append(String.format("Total table slots: %d\n", totalSlots));
-        summary.append(String.format("Available slots: %d\n", availableSlots));
-        summary.append(String.format("Reserved slots: %d\n", reservedSlots));
-        summary.append(String.format("Slots assigned: %d\n", assignedSlots));
-        summary.append(String.format("Slots unassigned: %d\n", unassignedSlots));
-        summary.append(String.format("Total projects: %d\n", totalProjects));
-        summary.append(String.format("Projects assigned: %d\n", assignedProjects));
-        summary.append(String.format("Projects unassigned: %d\n", unassignedProjects));
+        summary.append(String.format("Total table slots: %d\n", stats.getTotalSlots()));
+        summary.append(String.format("Available slots: %d\n", stats.getAvailableSlots()));
+        summary.append(String.format("Reserved slots: %d\n", stats.getReservedSlots()));
+        summary.append(String.format("Slots assigned: %d\n", stats.getAssignedSlots()));
+        summary.append(String.format("Slots unassigned: %d\n", stats.getUnassignedSlots()));
+        summary.append(String.format("Total projects: %d\n", stats.getTotalProjects()));
+        summary.append(String.format("Projects assigned: %d\n", stats.getAssignedProjects()));
+        summary.append(String.format("Projects unassigned: %d\n", stats.getUnassignedProjects()));
         
         // Category breakdown
-        Map<String, Long> categoryCount = projects.stream()
-            .collect(Collectors.groupingBy(ScienceProject::getCategory, Collectors.counting()));
-        
         summary.append("\n=== PROJECTS BY CATEGORY ===\n");
-        categoryCount.entrySet().stream()
-            .sorted(Map.Entry.comparingByKey())
-            .forEach(entry -> summary.append(String.format("- %s: %d projects\n", entry.getKey(), entry.getValue())));
+        stats.getProjectsByCategory()
+            .forEach((category, count) -> summary.append(String.format("- %s: %d projects\n", category, count)));
         
-        if (unassignedProjects > 0) {
+        if (stats.getUnassignedProjects() > 0) {
             summary.append("\n=== UNASSIGNED PROJECTS ===\n");
-            Set<Integer> assignedProjectIds = assignments.stream()
-                .filter(a -> !a.isUnassigned())
-                .map(SlotAssignment::getProjectID)
-                .collect(Collectors.toSet());
-            
-            projects.stream()
-                .filter(p -> !assignedProjectIds.contains(p.getProjectID()))
+            stats.getUnassignedProjectList()
                 .forEach(p -> summary.append(String.format("- Project %d (%s)\n", p.getProjectID(), p.getCategory())));
         }
         
@@ -0,0 +1,219 @@
+package com.sciencefair.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interns project category strings into immutable {@link Category} descriptors with small
+ * integer ids. Each distinct category string is resolved once (official code, CSS class,
+ * division prefix, colors, legend label); renderers and viewers then look descriptors up by id.
+ */
+public final class CategoryRegistry {
+
+    /** Id reserved for slots without a category (unassigned or reserved). */
+    public static final int UNKNOWN_ID = 0;
+
+    /**
+     * Visual style shared by every category mapped to the same CSS class.
+     * Colors are 0xRRGGBB values so headless code can use them without AWT.
+     */
+    public static final class Style {
+        private final String cssClass;
+        private final String legendLabel;
+        private final int backgroundStart;
+        private final int backgroundEnd;
+        private final int textColor;
+        private final int accentColor;
+
+        Style(String cssClass, String legendLabel, int backgroundStart, int backgroundEnd, int textColor, int accentColor) {
+            this.cssClass = cssClass;
+            this.legendLabel = legendLabel;
+            this.backgroundStart = backgroundStart;
+            this.backgroundEnd = backgroundEnd;
+            this.textColor = textColor;
+            this.accentColor = accentColor;
+        }
+
+        public String getCssClass() { return cssClass; }
+        public String getLegendLabel() { return legendLabel; }
+        public int getBackgroundStart() { return backgroundStart; }
+        public int getBackgroundEnd() { return backgroundEnd; }
+        public int getTextColor() { return textColor; }
+        /** Border / left-stripe color */
+        public int getAccentColor() { return accentColor; }
+    }
+
+    /**
+     * Immutable descriptor for one distinct category string.
+     */
+    public static final class Category {
+        private final int id;
+        private final String name;
+        private final String code;
+        private final String division;
+        private final String slotLabel;
+        private final Style style;
+
+        Category(int id, String name, String code, String division, Style style) {
+            this.id = id;
+            this.name = name;
+            this.code = code;
+            this.division = division;
+            this.slotLabel = division + "-" + code;
+            this.style = style;
+        }
+
+        public int getId() { return id; }
+        /** Category string as it appears in the input CSV (null for {@link #UNKNOWN_ID}) */
+        public String getName() { return name; }
+        /** Official four-letter code, e.g. ANIM */
+        public String getCode() { return code; }
+        /** Division prefix, e.g. SR for "SR - Animal Sciences" */
+        public String getDivision() { return division; }
+        /** Slot caption, e.g. SR-ANIM */
+        public String getSlotLabel() { return slotLabel; }
+        public Style getStyle() { return style; }
+        public String getCssClass() { return style.getCssClass(); }
+        public String getLegendLabel() { return style.getLegendLabel(); }
+    }
+
+    public static final Style EMPTY_STYLE = new Style("empty", "Unassigned slot", 0xf7fafc, 0xedf2f7, 0xa0aec0, 0xcbd5e0);
+    public static final Style RESERVED_STYLE = new Style("empty reserved", "Reserved slot", 0xffe6e6, 0xffd6d6, 0xb80000, 0xff6b6b);
+
+    private static final Map<String, Style> STYLES_BY_CSS = new LinkedHashMap<>();
+    // Official category name -> code, in lookup order for substring matching
+    private static final Map<String, String> CODES_BY_NAME = new LinkedHashMap<>();
+    private static final Map<String, String> CSS_BY_CODE = new LinkedHashMap<>();
+
+    static {
+        style("anim", "Animal Sciences (ANIM)", 0xdcfce7, 0x86efac, 0x14532d, 0x16a34a);
+        style("behv", "Behavioral & Social Sciences (BEHV)", 0xdbeafe, 0x93c5fd, 0x1e3a8a, 0x2563eb);
+        style("bioc", "Biochemistry (BIOC)", 0xfef3c7, 0xfcd34d, 0x92400e, 0xd97706);
+        style("biom", "Biomedical/Health Sci & Eng (BIOM)", 0xfed7aa, 0xfb923c, 0x9a3412, 0xea580c);
+        style("cbio", "Computational Bio & Info (CBIO)", 0xfce7f3, 0xf9a8d4, 0x831843, 0xbe185d);
+        style("cell", "Cellular & Molecular Biology (CELL)", 0xede9fe, 0xc4b5fd, 0x581c87, 0x7c3aed);
+        style("chem", "Chemistry (CHEM)", 0xa7f3d0, 0x34d399, 0x064e3b, 0x059669);
+        style("comp", "Computer Science (COMP)", 0xf0f9ff, 0x7dd3fc, 0x0c4a6e, 0x0284c7);
+        style("eaev", "Earth & Environmental Sci (EAEV)", 0xf0fdf4, 0xbbf7d0, 0x14532d, 0x22c55e);
+        style("eemr", "Eng: Electrical, Mech, Robotics (EEMR)", 0xfef7ff, 0xf3e8ff, 0x581c87, 0x9333ea);
+        style("eemt", "Eng: Energy, Materials, Transport (EEMT)", 0xfff7ed, 0xfed7aa, 0x9a3412, 0xf97316);
+        style("math", "Mathematics (MATH)", 0xfefce8, 0xfde047, 0x713f12, 0xca8a04);
+        style("mcro", "Microbiology (MCRO)", 0xf0f9ff, 0xbae6fd, 0x0c4a6e, 0x0ea5e9);
+        style("phys", "Physics & Astronomy (PHYS)", 0xfdf4ff, 0xf5d0fe, 0x86198f, 0xc026d3);
+        style("plnt", "Plant Sciences (PLNT)", 0xf7fee7, 0xd9f99d, 0x365314, 0x65a30d);
+        style("prod", "Product Testing (PROD)", 0xfff1f2, 0xfda4af, 0x881337, 0xe11d48);
+
+        code("Animal Sciences", "ANIM", "anim");
+        code("Behavioral and Social Sciences", "BEHA", "behv");
+        code("Biochemistry", "BCHM", "bioc");
+        code("Biomedical/Health Sciences, and Biomedical Engineering", "BMED", "biom");
+        code("Cellular and Molecular Biology", "CELL", "cell");
+        code("Chemistry", "CHEM", "chem");
+        // Computational biology slots have always been drawn with the computer science style
+        code("Computational Biology and Bioinformatics", "CBIO", "comp");
+        code("Computer Science and Systems Software", "COMP", "comp");
+        code("Earth and Environmental Sciences", "EAEV", "eaev");
+        code("Engineering: Electrical, Mechanical, and Robotics", "EEMR", "eemr");
+        code("Engineering: Energy, Materials, and Transport", "EEMT", "eemt");
+        code("Mathematics", "MATH", "math");
+        code("Microbiology", "MCRO", "mcro");
+        code("Physics and Astronomy", "PHYS", "phys");
+        code("Plant Sciences", "PLNT", "plnt");
+        code("Product Testing", "PROD", "prod");
+    }
+
+    private static void style(String css, String legendLabel, int bgStart, int bgEnd, int text, int accent) {
+        STYLES_BY_CSS.put(css, new Style(css, legendLabel, bgStart, bgEnd, text, accent));
+    }
+
+    private static void code(String name, String code, String css) {
+        CODES_BY_NAME.put(name, code);
+        CSS_BY_CODE.put(code, css);
+    }
+
+    private static final CategoryRegistry SHARED = new CategoryRegistry();
+
+    private final Map<String, Category> byName = new ConcurrentHashMap<>();
+    private volatile Category[] byId;
+
+    public CategoryRegistry() {
+        byId = new Category[]{new Category(UNKNOWN_ID, null, "UNKN", "", EMPTY_STYLE)};
+    }
+
+    /** Process-wide registry; category strings are few, so descriptors are kept for the JVM lifetime. */
+    public static CategoryRegistry shared() {
+        return SHARED;
+    }
+
+    /**
+     * Resolves a category string to its descriptor, creating it on first sight.
+     */
+    public Category resolve(String name) {
+        if (name == null) {
+            return byId[UNKNOWN_ID];
+        }
+        Category existing = byName.get(name);
+        return existing != null ? existing : intern(name);
+    }
+
+    public int idOf(String name) {
+        return resolve(name).getId();
+    }
+
+    public Category get(int id) {
+        Category[] snapshot = byId;
+        return id >= 0 && id < snapshot.length ? snapshot[id] : snapshot[UNKNOWN_ID];
+    }
+
+    public int size() {
+        return byId.length;
+    }
+
+    /**
+     * Styles in legend order (alphabetical by label), including the empty and reserved styles.
+     */
+    public static List<Style> legendStyles() {
+        List<Style> styles = new ArrayList<>(STYLES_BY_CSS.values());
+        styles.add(EMPTY_STYLE);
+        styles.add(RESERVED_STYLE);
+        styles.sort((a, b) -> a.getLegendLabel().toLowerCase().compareTo(b.getLegendLabel().toLowerCase()));
+        return Collections.unmodifiableList(styles);
+    }
+
+    private synchronized Category intern(String name) {
+        Category existing = byName.get(name);
+        if (existing != null) {
+            return existing;
+        }
+        String code = lookupCode(name);
+        String css = CSS_BY_CODE.get(code);
+        Style style = css != null ? STYLES_BY_CSS.get(css) : EMPTY_STYLE;
+        String division = name.length() >= 2 ? name.substring(0, 2).toUpperCase() : "";
+
+        Category[] current = byId;
+        Category category = new Category(current.length, name, code, division, style);
+        Category[] grown = new Category[current.length + 1];
+        System.arraycopy(current, 0, grown, 0, current.length);
+        grown[current.length] = category;
+        byId = grown;
+        byName.put(name, category);
+        return category;
+    }
+
+    private static String lookupCode(String name) {
+        String exact = CODES_BY_NAME.get(name);
+        if (exact != null) {
+            return exact;
+        }
+        for (Map.Entry<String, String> entry : CODES_BY_NAME.entrySet()) {
+            if (name.contains(entry.getKey())) {
+                return entry.getValue();
+            }
+        }
+        return name.length() >= 4 ? name.substring(0, 4).toUpperCase() : name;
+    }
+}
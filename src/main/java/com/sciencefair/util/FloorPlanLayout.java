@@ -0,0 +1,470 @@
+package com.sciencefair.util;
+
+import com.sciencefair.model.SlotAssignment;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable geometry of the hall layout for image output, in logical pixels (96 per inch).
+ * Rows, table numbering, zone columns, aisles and row spacing follow the HTML layout: rows are
+ * placed top-down in display order, each with its tables in visual (snake) order and two slots per
+ * table. Zones of one hall sit side by side across aisles; each further hall is a band below.
+ */
+public final class FloorPlanLayout {
+
+    public static final int MARGIN = 24;
+    public static final int TITLE_HEIGHT = 40;
+    public static final int SIDE_LABEL_HEIGHT = 26;
+    public static final int ROW_LABEL_WIDTH = 60;
+    public static final int ROW_LABEL_GAP = 6;
+    public static final int SLOT_WIDTH = 64;
+    public static final int SLOT_HEIGHT = 40;
+    public static final int SLOT_GAP = 4;
+    public static final int TABLE_PADDING = 4;
+    public static final int TABLE_HEADER_HEIGHT = 14;
+    public static final int TABLE_GAP = 6;
+    public static final int TABLE_WIDTH = 2 * SLOT_WIDTH + SLOT_GAP + 2 * TABLE_PADDING;
+    public static final int ROW_HEIGHT = TABLE_HEADER_HEIGHT + SLOT_HEIGHT + 2 * TABLE_PADDING;
+    public static final int ROW_BOTTOM_GAP = 4;
+    public static final int AISLE_WIDTH = 56;
+    public static final int AISLE_GAP = 12;
+    public static final int HALL_GAP = 48;
+    public static final int LEGEND_COLUMN_WIDTH = 280;
+    public static final int LEGEND_LINE_HEIGHT = 22;
+    public static final int LEGEND_TITLE_HEIGHT = 28;
+
+    // Height of the horizontal bands of the row index; a row spans at most two bands
+    private static final int BAND_HEIGHT = 256;
+
+    /**
+     * One rendered row: its bounds and, per table in visual order, the table number and two
+     * slots (left, right as drawn; the second is null for a half table).
+     */
+    public static final class Row {
+        private final int rowNumber;
+        private final int x;
+        private final int y;
+        private final int[] tableNumbers;
+        private final SlotAssignment[] slots;
+
+        Row(int rowNumber, int x, int y, int[] tableNumbers, SlotAssignment[] slots) {
+            this.rowNumber = rowNumber;
+            this.x = x;
+            this.y = y;
+            this.tableNumbers = tableNumbers;
+            this.slots = slots;
+        }
+
+        public int getRowNumber() { return rowNumber; }
+        public int getX() { return x; }
+        public int getY() { return y; }
+        public int getWidth() { return rowWidth(tableNumbers.length); }
+        public int getHeight() { return ROW_HEIGHT; }
+        public int getTableCount() { return tableNumbers.length; }
+        public int getTableNumber(int visualIndex) { return tableNumbers[visualIndex]; }
+        /** Left edge of a table block */
+        public int getTableX(int visualIndex) { return x + ROW_LABEL_WIDTH + ROW_LABEL_GAP + visualIndex * (TABLE_WIDTH + TABLE_GAP); }
+        /** Slot as drawn: side 0 is the left slot of the table, side 1 the right one */
+        public SlotAssignment getSlot(int visualIndex, int side) { return slots[visualIndex * 2 + side]; }
+
+        /** Same row over copies of its slots, so later edits of the originals do not reach it */
+        Row detached() {
+            SlotAssignment[] copies = new SlotAssignment[slots.length];
+            for (int i = 0; i < slots.length; i++) {
+                copies[i] = slots[i] != null ? new SlotAssignment(slots[i]) : null;
+            }
+            return new Row(rowNumber, x, y, tableNumbers, copies);
+        }
+
+        /** Same position, numbering and slot objects, so the row paints identically */
+        boolean paintsLike(Row other) {
+            return x == other.x && y == other.y && Arrays.equals(tableNumbers, other.tableNumbers)
+                    && Arrays.equals(slots, other.slots);
+        }
+
+        /** Visual index of the table block under px, or -1 over the row label or a gap */
+        public int tableAt(int px) {
+            int offset = px - (x + ROW_LABEL_WIDTH + ROW_LABEL_GAP);
+            if (offset < 0) {
+                return -1;
+            }
+            int visualIndex = offset / (TABLE_WIDTH + TABLE_GAP);
+            return visualIndex < tableNumbers.length && offset % (TABLE_WIDTH + TABLE_GAP) < TABLE_WIDTH ? visualIndex : -1;
+        }
+
+        /** Side (0 or 1) of the slot of a table under (px, py), or -1 outside both slots */
+        public int slotAt(int visualIndex, int px, int py) {
+            int sx = px - getTableX(visualIndex) - TABLE_PADDING;
+            int sy = py - y - TABLE_HEADER_HEIGHT - TABLE_PADDING;
+            if (sy < 0 || sy >= SLOT_HEIGHT || sx < 0) {
+                return -1;
+            }
+            int side = sx < SLOT_WIDTH ? 0 : sx >= SLOT_WIDTH + SLOT_GAP && sx < 2 * SLOT_WIDTH + SLOT_GAP ? 1 : -1;
+            return side == 1 && slots[visualIndex * 2 + 1] == null ? -1 : side;
+        }
+    }
+
+    private final List<Row> rows;
+    private final int width;
+    private final int height;
+    private final int aislePivotRow;
+    private final int[] columnX;
+    private final int[] columnWidth;
+    private final int[] columnTop;
+    private final String[] columnLabels;
+    private final int[][] aisles;
+    private final int legendY;
+    private final int[][] rowsByBand;  // band -> indices into rows whose bounds overlap it, ascending
+    private final Map<Integer, Row> rowsByNumber = new HashMap<>();
+
+    private FloorPlanLayout(List<Row> rows, int width, int height, int aislePivotRow, int[] columnX, int[] columnWidth,
+                            int[] columnTop, String[] columnLabels, int[][] aisles, int legendY) {
+        this.rows = rows;
+        this.width = width;
+        this.height = height;
+        this.aislePivotRow = aislePivotRow;
+        this.columnX = columnX;
+        this.columnWidth = columnWidth;
+        this.columnTop = columnTop;
+        this.columnLabels = columnLabels;
+        this.aisles = aisles;
+        this.legendY = legendY;
+        this.rowsByBand = indexRows(rows, height);
+        for (Row row : rows) {
+            rowsByNumber.put(row.rowNumber, row);
+        }
+    }
+
+    // Same geometry and row index as the template, over other rows at the same places
+    private FloorPlanLayout(FloorPlanLayout template, List<Row> rows) {
+        this.rows = rows;
+        this.width = template.width;
+        this.height = template.height;
+        this.aislePivotRow = template.aislePivotRow;
+        this.columnX = template.columnX;
+        this.columnWidth = template.columnWidth;
+        this.columnTop = template.columnTop;
+        this.columnLabels = template.columnLabels;
+        this.aisles = template.aisles;
+        this.legendY = template.legendY;
+        this.rowsByBand = template.rowsByBand;
+        for (Row row : rows) {
+            rowsByNumber.put(row.rowNumber, row);
+        }
+    }
+
+    /**
+     * Copy of this layout over copies of its slots, for painting on other threads while the
+     * slots here are edited on the event thread.
+     */
+    public FloorPlanLayout detached() {
+        List<Row> copies = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            copies.add(row.detached());
+        }
+        return new FloorPlanLayout(this, Collections.unmodifiableList(copies));
+    }
+
+    /**
+     * This (detached) layout with the given rows copied again from {@code source}, the layout
+     * it was detached from, after their slots were edited; the other rows are shared.
+     */
+    public FloorPlanLayout withRowsDetached(FloorPlanLayout source, Collection<Integer> rowNumbers) {
+        Set<Integer> edited = new HashSet<>(rowNumbers);
+        List<Row> updated = new ArrayList<>(rows);
+        for (int i = 0; i < updated.size(); i++) {
+            int rowNumber = updated.get(i).rowNumber;
+            if (edited.contains(rowNumber)) {
+                updated.set(i, source.getRow(rowNumber).detached());
+            }
+        }
+        return new FloorPlanLayout(this, Collections.unmodifiableList(updated));
+    }
+
+    private static int[][] indexRows(List<Row> rows, int height) {
+        int bands = Math.max(1, (height + BAND_HEIGHT - 1) / BAND_HEIGHT);
+        int[] counts = new int[bands];
+        for (Row row : rows) {
+            for (int b = row.getY() / BAND_HEIGHT; b <= (row.getY() + ROW_HEIGHT - 1) / BAND_HEIGHT; b++) {
+                counts[b]++;
+            }
+        }
+        int[][] index = new int[bands][];
+        for (int b = 0; b < bands; b++) {
+            index[b] = new int[counts[b]];
+            counts[b] = 0;
+        }
+        for (int i = 0; i < rows.size(); i++) {
+            Row row = rows.get(i);
+            for (int b = row.getY() / BAND_HEIGHT; b <= (row.getY() + ROW_HEIGHT - 1) / BAND_HEIGHT; b++) {
+                index[b][counts[b]++] = i;
+            }
+        }
+        return index;
+    }
+
+    public static FloorPlanLayout build(List<SlotAssignment> assignments, HallLayoutUtil hallLayout) {
+        return build(assignments, hallLayout, null, true, null, null);
+    }
+
+    /**
+     * Arguments mirror {@link HtmlLayoutRenderer#render}: optional row order, pair spacing,
+     * explicit margins and row groups.
+     */
+    public static FloorPlanLayout build(
+            List<SlotAssignment> assignments,
+            HallLayoutUtil hallLayout,
+            List<Integer> rowOrder,
+            boolean applyPairSpacing,
+            Map<Integer, Integer> rowMarginTop,
+            Map<Integer, Integer> rowGroupIndex) {
+        HallLayoutUtil layout = hallLayout != null ? hallLayout : HallLayoutUtil.disabled();
+        Map<Integer, List<SlotAssignment>> assignmentsByRow = assignments.stream()
+            .collect(Collectors.groupingBy(
+                SlotAssignment::getRow,
+                TreeMap::new,
+                Collectors.toList()
+            ));
+        Map<Integer, Integer> rowTableCounts = new TreeMap<>();
+        for (Map.Entry<Integer, List<SlotAssignment>> rowEntry : assignmentsByRow.entrySet()) {
+            rowEntry.getValue().sort((a, b) -> Integer.compare(a.getTableSlotID(), b.getTableSlotID()));
+            rowTableCounts.put(rowEntry.getKey(), rowEntry.getValue().size() / 2);
+        }
+        HallGeometry geometry = layout.geometry(rowTableCounts);
+
+        // One column per zone; zones starting a new hall begin a new band below the previous one
+        List<List<Integer>> columns = new ArrayList<>();
+        List<String> labels = new ArrayList<>();
+        List<Boolean> hallStarts = new ArrayList<>();
+        if (geometry.isAisleLayoutEnabled()) {
+            for (int z = 0; z < geometry.getZoneCount(); z++) {
+                columns.add(geometry.getZoneDisplayRows(z));
+                labels.add(geometry.getZones().get(z).getLabel());
+                hallStarts.add(z == 0 || geometry.getZones().get(z).isNewHall());
+            }
+        } else {
+            if (rowOrder != null && !rowOrder.isEmpty()) {
+                columns.add(rowOrder.stream().filter(assignmentsByRow::containsKey).collect(Collectors.toList()));
+            } else {
+                columns.add(geometry.getTraversalOrder());
+            }
+            labels.add(null);
+            hallStarts.add(true);
+        }
+
+        int columnCount = columns.size();
+        int[] columnWidth = new int[columnCount];
+        for (int c = 0; c < columnCount; c++) {
+            for (int rowNumber : columns.get(c)) {
+                columnWidth[c] = Math.max(columnWidth[c], rowWidth(tableCount(assignmentsByRow.get(rowNumber))));
+            }
+            columnWidth[c] = Math.max(columnWidth[c], ROW_LABEL_WIDTH);
+        }
+
+        int labelHeight = geometry.isAisleLayoutEnabled() ? SIDE_LABEL_HEIGHT : 0;
+        int[] columnX = new int[columnCount];
+        int[] columnTop = new int[columnCount];
+        List<int[]> aisles = new ArrayList<>(); // {x, top, bottom}
+        List<Row> rows = new ArrayList<>();
+        int contentWidth = 0;
+        int bottom = MARGIN + TITLE_HEIGHT;
+        for (int hallStart = 0; hallStart < columnCount; ) {
+            int hallEnd = hallStart + 1;
+            while (hallEnd < columnCount && !hallStarts.get(hallEnd)) {
+                hallEnd++;
+            }
+            int top = (hallStart == 0 ? MARGIN + TITLE_HEIGHT : bottom + HALL_GAP) + labelHeight;
+            int hallBottom = top;
+            int x = MARGIN;
+            for (int c = hallStart; c < hallEnd; c++) {
+                if (c > hallStart) {
+                    aisles.add(new int[]{x + AISLE_GAP, top, 0});
+                    x += AISLE_GAP + AISLE_WIDTH + AISLE_GAP;
+                }
+                columnX[c] = x;
+                columnTop[c] = top;
+                // The first column of a hall with aisles is right-aligned against the aisle, like the HTML layout
+                boolean alignRight = c == hallStart && hallEnd - hallStart > 1;
+                int y = top;
+                Integer previousRowNumber = null;
+                for (int rowNumber : columns.get(c)) {
+                    List<SlotAssignment> rowAssignments = assignmentsByRow.get(rowNumber);
+                    y += HtmlLayoutRenderer.rowMarginTop(layout, rowNumber, previousRowNumber, rowMarginTop, rowGroupIndex, applyPairSpacing);
+                    previousRowNumber = rowNumber;
+                    int tables = tableCount(rowAssignments);
+                    int rowX = alignRight ? x + columnWidth[c] - rowWidth(tables) : x;
+                    rows.add(buildRow(rowNumber, rowX, y, rowAssignments, geometry));
+                    y += ROW_HEIGHT + ROW_BOTTOM_GAP;
+                }
+                hallBottom = Math.max(hallBottom, y);
+                x += columnWidth[c];
+            }
+            for (int[] aisle : aisles) {
+                if (aisle[1] == top) {
+                    aisle[2] = hallBottom;
+                }
+            }
+            contentWidth = Math.max(contentWidth, x);
+            bottom = hallBottom;
+            hallStart = hallEnd;
+        }
+
+        int legendColumns = Math.max(1, Math.min(4, (contentWidth - MARGIN) / LEGEND_COLUMN_WIDTH));
+        int legendEntries = CategoryRegistry.legendStyles().size() + 1; // + team marker
+        int legendY = bottom + MARGIN;
+        int legendHeight = LEGEND_TITLE_HEIGHT + ((legendEntries + legendColumns - 1) / legendColumns) * LEGEND_LINE_HEIGHT;
+        int width = Math.max(contentWidth, MARGIN + legendColumns * LEGEND_COLUMN_WIDTH) + MARGIN;
+        int height = legendY + legendHeight + MARGIN;
+        return new FloorPlanLayout(Collections.unmodifiableList(rows), width, height, layout.getAislePivotRow(),
+                columnX, columnWidth, columnTop, labels.toArray(new String[0]), aisles.toArray(new int[0][]), legendY);
+    }
+
+    private static Row buildRow(int rowNumber, int x, int y, List<SlotAssignment> rowAssignments, HallGeometry geometry) {
+        boolean reverseRow = geometry.isReversed(rowNumber);
+        int tables = tableCount(rowAssignments);
+        int[] tableNumbers = new int[tables];
+        SlotAssignment[] slots = new SlotAssignment[tables * 2];
+        for (int v = 0; v < tables; v++) {
+            int tableIndex = reverseRow ? tables - 1 - v : v;
+            int slotIndexStart = tableIndex * 2;
+            SlotAssignment first = rowAssignments.get(slotIndexStart);
+            SlotAssignment second = slotIndexStart + 1 < rowAssignments.size() ? rowAssignments.get(slotIndexStart + 1) : null;
+            tableNumbers[v] = geometry.getTableNumber(rowNumber, tableIndex);
+            slots[v * 2] = reverseRow && second != null ? second : first;
+            slots[v * 2 + 1] = reverseRow ? (second != null ? first : null) : second;
+        }
+        return new Row(rowNumber, x, y, tableNumbers, slots);
+    }
+
+    private static int tableCount(List<SlotAssignment> rowAssignments) {
+        return rowAssignments == null ? 0 : (rowAssignments.size() + 1) / 2;
+    }
+
+    static int rowWidth(int tableCount) {
+        return ROW_LABEL_WIDTH + ROW_LABEL_GAP + tableCount * TABLE_WIDTH + Math.max(0, tableCount - 1) * TABLE_GAP;
+    }
+
+    /**
+     * Indices into {@link #getRows()} of the rows overlapping the given rectangle, ascending.
+     * Looks only at the bands the rectangle covers, so the cost follows the visible area.
+     */
+    public int[] getRowsIn(int x, int y, int w, int h) {
+        int firstBand = Math.max(0, y / BAND_HEIGHT);
+        int lastBand = Math.min(rowsByBand.length - 1, (y + h - 1) / BAND_HEIGHT);
+        int[] found = new int[16];
+        int count = 0;
+        for (int b = firstBand; b <= lastBand; b++) {
+            for (int i : rowsByBand[b]) {
+                Row row = rows.get(i);
+                // Report a row spanning two bands only from the first band looked at
+                if (Math.max(firstBand, row.getY() / BAND_HEIGHT) != b
+                        || row.getY() >= y + h || row.getY() + ROW_HEIGHT <= y
+                        || row.getX() >= x + w || row.getX() + row.getWidth() <= x) {
+                    continue;
+                }
+                if (count == found.length) {
+                    found = Arrays.copyOf(found, count * 2);
+                }
+                found[count++] = i;
+            }
+        }
+        found = Arrays.copyOf(found, count);
+        if (lastBand > firstBand) {
+            Arrays.sort(found);
+        }
+        return found;
+    }
+
+    /**
+     * Logical-pixel areas that may paint differently than in {@code previous}, so a cached image
+     * of the old layout only needs those parts redrawn; null when everything must be redrawn.
+     */
+    public List<Rectangle> getChangedRegions(FloorPlanLayout previous) {
+        if (previous == null || previous.width != width || previous.aislePivotRow != aislePivotRow
+                || !Arrays.equals(previous.columnX, columnX) || !Arrays.equals(previous.columnWidth, columnWidth)
+                || !Arrays.equals(previous.columnTop, columnTop) || !Arrays.equals(previous.columnLabels, columnLabels)) {
+            return null;
+        }
+        List<Rectangle> changed = new ArrayList<>();
+        Map<Integer, Row> before = new HashMap<>();
+        for (Row row : previous.rows) {
+            before.put(row.rowNumber, row);
+        }
+        for (Row row : rows) {
+            Row old = before.remove(row.rowNumber);
+            if (old == null || !old.paintsLike(row)) {
+                changed.add(getPaintBounds(row));
+                if (old != null) {
+                    changed.add(getPaintBounds(old));
+                }
+            }
+        }
+        for (Row old : before.values()) {
+            changed.add(getPaintBounds(old));
+        }
+        if (!Arrays.deepEquals(previous.aisles, aisles)) {
+            for (int[] aisle : previous.aisles) {
+                changed.add(aisleBounds(aisle));
+            }
+            for (int[] aisle : aisles) {
+                changed.add(aisleBounds(aisle));
+            }
+        }
+        if (previous.legendY != legendY || previous.height != height) {
+            int top = Math.min(previous.legendY, legendY) - 2;
+            changed.add(new Rectangle(0, top, width, Math.max(previous.height, height) - top));
+        }
+        return changed;
+    }
+
+    /** Area a row paints: borders are stroked on its bounds, so they reach a pixel outside */
+    public static Rectangle getPaintBounds(Row row) {
+        return new Rectangle(row.x - 2, row.y - 2, row.getWidth() + 4, ROW_HEIGHT + 4);
+    }
+
+    private static Rectangle aisleBounds(int[] aisle) {
+        return new Rectangle(aisle[0] - 2, aisle[1] - 2, AISLE_WIDTH + 4, Math.max(aisle[2] - aisle[1], ROW_HEIGHT) + 4);
+    }
+
+    /** Row by its hall row number, or null */
+    public Row getRow(int rowNumber) {
+        return rowsByNumber.get(rowNumber);
+    }
+
+    /** The row whose bounds contain the point, or null */
+    public Row getRowAt(int x, int y) {
+        int[] hits = getRowsIn(x, y, 1, 1);
+        return hits.length > 0 ? rows.get(hits[0]) : null;
+    }
+
+    /** Rows in display order, column by column (zone order when the hall is zoned) */
+    public List<Row> getRows() { return rows; }
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+    public int getAislePivotRow() { return aislePivotRow; }
+    public boolean hasAisle() { return aisles.length > 0; }
+    public int getColumnCount() { return columnX.length; }
+    public int getColumnX(int column) { return columnX[column]; }
+    public int getColumnWidth(int column) { return columnWidth[column]; }
+    /** Top of the column's first row (below its hall's side labels) */
+    public int getColumnTop(int column) { return columnTop[column]; }
+    /** Zone label drawn above the column, or null without zones */
+    public String getColumnLabel(int column) { return columnLabels[column]; }
+    public int getAisleCount() { return aisles.length; }
+    /** Left edge of an aisle band between two columns of the same hall */
+    public int getAisleX(int aisle) { return aisles[aisle][0]; }
+    public int getAisleTop(int aisle) { return aisles[aisle][1]; }
+    public int getAisleBottom(int aisle) { return aisles[aisle][2]; }
+    public int getLegendY() { return legendY; }
+}
@@ -0,0 +1,353 @@
+package com.sciencefair.util;
+
+import com.sciencefair.model.SlotAssignment;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.Stroke;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Draws a {@link FloorPlanLayout} with Java2D: rows, snake table numbers, category colors,
+ * reserved slots, the center aisle and the legend. Works headless.
+ * {@link #writePng} renders the image in horizontal strips on the fork/join pool and streams
+ * each strip straight into the PNG, so poster-size output never holds the full image in memory.
+ */
+public final class FloorPlanRenderer {
+
+    public static final int BASE_DPI = 96;
+    public static final int MIN_DPI = 24;
+    public static final int MAX_DPI = 1200;
+
+    // Upper bound on pixels per strip (about 16 MB of ARGB), strips in flight scale with cores
+    private static final int MAX_STRIP_PIXELS = 4 * 1024 * 1024;
+    private static final int MAX_STRIP_HEIGHT = 512;
+
+    private static final Color PAGE_BACKGROUND = Color.WHITE;
+    private static final Color TITLE_COLOR = new Color(0x2d3748);
+    private static final Color ROW_LABEL_COLOR = new Color(0x2d3748);
+    private static final Color TABLE_BACKGROUND = new Color(0xfffbe6);
+    private static final Color TABLE_BORDER = new Color(0xb8b8b8);
+    private static final Color TABLE_HEADER = new Color(0xe5e7eb);
+    private static final Color TEAM_TABLE_HEADER = new Color(0xfffde3);
+    private static final Color TABLE_HEADER_TEXT = new Color(0x495057);
+    private static final Color AISLE_FILL = new Color(0xeef1f5);
+    private static final Color AISLE_BORDER = new Color(0x94a3b8);
+    private static final Color AISLE_LABEL = new Color(0x475569);
+    private static final Color SIDE_LABEL_FILL = new Color(0xe2e8f0);
+    private static final Color SIDE_LABEL_TEXT = new Color(0x334155);
+    private static final Color TEAM_MARKER = new Color(0x475569);
+
+    private static final Font TITLE_FONT = new Font(Font.SANS_SERIF, Font.BOLD, 20);
+    private static final Font ROW_LABEL_FONT = new Font(Font.SANS_SERIF, Font.BOLD, 11);
+    private static final Font TABLE_HEADER_FONT = new Font(Font.SANS_SERIF, Font.BOLD, 8);
+    private static final Font PROJECT_FONT = new Font(Font.SANS_SERIF, Font.BOLD, 10);
+    private static final Font CATEGORY_FONT = new Font(Font.SANS_SERIF, Font.PLAIN, 8);
+    private static final Font LABEL_FONT = new Font(Font.SANS_SERIF, Font.BOLD, 10);
+    private static final Font LEGEND_FONT = new Font(Font.SANS_SERIF, Font.PLAIN, 11);
+    private static final Stroke THIN = new BasicStroke(1f);
+    private static final Stroke SLOT_BORDER = new BasicStroke(2f);
+    private static final Stroke DASHED = new BasicStroke(3f, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER, 10f, new float[]{8f, 6f}, 0f);
+
+    private final FloorPlanLayout layout;
+    private final CategoryRegistry categories = CategoryRegistry.shared();
+    // Style -> {backgroundStart, backgroundEnd, text, accent}
+    private final Map<CategoryRegistry.Style, Color[]> palette = new ConcurrentHashMap<>();
+
+    public FloorPlanRenderer(FloorPlanLayout layout) {
+        this.layout = layout;
+    }
+
+    public FloorPlanLayout getLayout() {
+        return layout;
+    }
+
+    /**
+     * Paints everything intersecting {@code clip} (logical pixels) into {@code g}, which must
+     * already carry any scaling. Safe to call from several threads with separate Graphics.
+     */
+    public void paint(Graphics2D g, Rectangle clip) {
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
+
+        if (clip.y < FloorPlanLayout.MARGIN + FloorPlanLayout.TITLE_HEIGHT) {
+            g.setColor(TITLE_COLOR);
+            g.setFont(TITLE_FONT);
+            String title = "Science Fair Table Assignment";
+            if (layout.getAislePivotRow() > 0) {
+                title += "  -  center aisle after row " + layout.getAislePivotRow();
+            }
+            g.drawString(title, FloorPlanLayout.MARGIN, FloorPlanLayout.MARGIN + 22);
+        }
+        paintZones(g, clip);
+        List<FloorPlanLayout.Row> rows = layout.getRows();
+        for (int i : layout.getRowsIn(clip.x, clip.y, clip.width, clip.height)) {
+            paintRow(g, rows.get(i), clip);
+        }
+        if (clip.y + clip.height > layout.getLegendY()) {
+            paintLegend(g);
+        }
+    }
+
+    private void paintZones(Graphics2D g, Rectangle clip) {
+        for (int c = 0; c < layout.getColumnCount(); c++) {
+            String label = layout.getColumnLabel(c);
+            int labelY = layout.getColumnTop(c) - FloorPlanLayout.SIDE_LABEL_HEIGHT;
+            if (label != null && clip.y < labelY + FloorPlanLayout.SIDE_LABEL_HEIGHT && clip.y + clip.height > labelY) {
+                pill(g, label.toUpperCase(Locale.ROOT), layout.getColumnX(c) + layout.getColumnWidth(c) / 2, labelY + 10,
+                        LABEL_FONT, SIDE_LABEL_FILL, SIDE_LABEL_TEXT);
+            }
+        }
+        for (int a = 0; a < layout.getAisleCount(); a++) {
+            paintAisle(g, clip, a);
+        }
+    }
+
+    private void paintAisle(Graphics2D g, Rectangle clip, int aisle) {
+        int x = layout.getAisleX(aisle);
+        int y = layout.getAisleTop(aisle);
+        int h = Math.max(layout.getAisleBottom(aisle) - y, FloorPlanLayout.ROW_HEIGHT);
+        if (clip.y > y + h || clip.y + clip.height < y) {
+            return;
+        }
+        g.setColor(AISLE_FILL);
+        g.fillRoundRect(x, y, FloorPlanLayout.AISLE_WIDTH, h, 8, 8);
+        g.setColor(AISLE_BORDER);
+        g.setStroke(DASHED);
+        g.drawLine(x, y, x, y + h);
+        g.drawLine(x + FloorPlanLayout.AISLE_WIDTH, y, x + FloorPlanLayout.AISLE_WIDTH, y + h);
+        g.setStroke(THIN);
+
+        // Vertical label reading bottom-up, centered in the aisle; a hall split once has a center aisle
+        boolean centerAisle = layout.getAisleCount() == 1 || !sharesHall(aisle, aisle - 1) && !sharesHall(aisle, aisle + 1);
+        AffineTransform saved = g.getTransform();
+        g.translate(x + FloorPlanLayout.AISLE_WIDTH / 2.0, y + h / 2.0);
+        g.rotate(-Math.PI / 2);
+        pill(g, centerAisle ? "CENTER AISLE" : "AISLE", 0, 0, LABEL_FONT, AISLE_LABEL, Color.WHITE);
+        g.setTransform(saved);
+    }
+
+    private boolean sharesHall(int aisle, int other) {
+        return other >= 0 && other < layout.getAisleCount() && layout.getAisleTop(other) == layout.getAisleTop(aisle);
+    }
+
+    private void paintRow(Graphics2D g, FloorPlanLayout.Row row, Rectangle clip) {
+        int y = row.getY();
+        g.setColor(ROW_LABEL_COLOR);
+        g.fillRoundRect(row.getX(), y, FloorPlanLayout.ROW_LABEL_WIDTH, FloorPlanLayout.ROW_HEIGHT, 8, 8);
+        g.setColor(Color.WHITE);
+        g.setFont(ROW_LABEL_FONT);
+        centerText(g, "Row " + row.getRowNumber(), row.getX() + FloorPlanLayout.ROW_LABEL_WIDTH / 2, y + FloorPlanLayout.ROW_HEIGHT / 2);
+
+        for (int t = 0; t < row.getTableCount(); t++) {
+            int tx = row.getTableX(t);
+            if (tx > clip.x + clip.width || tx + FloorPlanLayout.TABLE_WIDTH < clip.x) {
+                continue;
+            }
+            SlotAssignment left = row.getSlot(t, 0);
+            SlotAssignment right = row.getSlot(t, 1);
+            boolean team = isTeam(left) || isTeam(right);
+            boolean empty = left.isUnassigned() && (right == null || right.isUnassigned());
+
+            g.setColor(TABLE_BACKGROUND);
+            g.fillRoundRect(tx, y, FloorPlanLayout.TABLE_WIDTH, FloorPlanLayout.ROW_HEIGHT, 8, 8);
+            if (!empty) {
+                g.setColor(team ? TEAM_TABLE_HEADER : TABLE_HEADER);
+                g.fillRect(tx + 1, y + 1, FloorPlanLayout.TABLE_WIDTH - 2, FloorPlanLayout.TABLE_HEADER_HEIGHT);
+            }
+            g.setColor(TABLE_BORDER);
+            g.setStroke(SLOT_BORDER);
+            g.drawRoundRect(tx, y, FloorPlanLayout.TABLE_WIDTH, FloorPlanLayout.ROW_HEIGHT, 8, 8);
+            g.setStroke(THIN);
+            g.setColor(TABLE_HEADER_TEXT);
+            g.setFont(TABLE_HEADER_FONT);
+            centerText(g, "Table " + row.getTableNumber(t), tx + FloorPlanLayout.TABLE_WIDTH / 2,
+                    y + FloorPlanLayout.TABLE_HEADER_HEIGHT / 2 + 1);
+
+            int sy = y + FloorPlanLayout.TABLE_HEADER_HEIGHT + FloorPlanLayout.TABLE_PADDING;
+            int sx = tx + FloorPlanLayout.TABLE_PADDING;
+            paintSlot(g, left, sx, sy);
+            if (right != null) {
+                paintSlot(g, right, sx + FloorPlanLayout.SLOT_WIDTH + FloorPlanLayout.SLOT_GAP, sy);
+            }
+        }
+    }
+
+    private void paintSlot(Graphics2D g, SlotAssignment assignment, int x, int y) {
+        int w = FloorPlanLayout.SLOT_WIDTH;
+        int h = FloorPlanLayout.SLOT_HEIGHT;
+        boolean placed = !assignment.isUnassigned() && assignment.getProjectID() != null;
+        CategoryRegistry.Category category = placed ? categories.resolve(assignment.getCategory()) : null;
+        CategoryRegistry.Style style = placed ? category.getStyle()
+                : assignment.isReserved() ? CategoryRegistry.RESERVED_STYLE : CategoryRegistry.EMPTY_STYLE;
+        Color[] colors = colors(style);
+
+        g.setPaint(new GradientPaint(x, y, colors[0], x, y + h, colors[1]));
+        g.fillRoundRect(x, y, w, h, 6, 6);
+        g.setColor(colors[3]);
+        g.setStroke(SLOT_BORDER);
+        g.drawRoundRect(x + 1, y + 1, w - 2, h - 2, 6, 6);
+        g.setStroke(THIN);
+        g.setColor(colors[2]);
+        if (placed) {
+            g.setFont(PROJECT_FONT);
+            centerText(g, "P" + assignment.getProjectID(), x + w / 2, y + 14);
+            g.setFont(CATEGORY_FONT);
+            centerText(g, category.getSlotLabel(), x + w / 2, y + 29);
+            if (isTeam(assignment)) {
+                g.setColor(TEAM_MARKER);
+                g.fillOval(x + w - 9, y + 3, 6, 6);
+            }
+        } else {
+            g.setFont(PROJECT_FONT);
+            centerText(g, assignment.isReserved() ? "RSRVD" : "EMPTY", x + w / 2, y + h / 2);
+        }
+    }
+
+    private void paintLegend(Graphics2D g) {
+        int y = layout.getLegendY();
+        g.setColor(TITLE_COLOR);
+        g.setFont(LABEL_FONT.deriveFont(13f));
+        g.drawString("Category Legend", FloorPlanLayout.MARGIN, y + 16);
+
+        List<CategoryRegistry.Style> styles = CategoryRegistry.legendStyles();
+        int columns = Math.max(1, Math.min(4, (layout.getWidth() - 2 * FloorPlanLayout.MARGIN) / FloorPlanLayout.LEGEND_COLUMN_WIDTH));
+        g.setFont(LEGEND_FONT);
+        for (int i = 0; i <= styles.size(); i++) {
+            int x = FloorPlanLayout.MARGIN + (i % columns) * FloorPlanLayout.LEGEND_COLUMN_WIDTH;
+            int ly = y + FloorPlanLayout.LEGEND_TITLE_HEIGHT + (i / columns) * FloorPlanLayout.LEGEND_LINE_HEIGHT;
+            if (i == styles.size()) {
+                g.setColor(TEAM_MARKER);
+                g.fillOval(x + 13, ly + 3, 8, 8);
+                g.setColor(TITLE_COLOR);
+                g.drawString("Team project", x + 42, ly + 12);
+                break;
+            }
+            Color[] colors = colors(styles.get(i));
+            g.setPaint(new GradientPaint(x, ly, colors[0], x, ly + 14, colors[1]));
+            g.fillRoundRect(x, ly, 32, 14, 4, 4);
+            g.setColor(colors[3]);
+            g.drawRoundRect(x, ly, 32, 14, 4, 4);
+            g.setColor(TITLE_COLOR);
+            g.drawString(styles.get(i).getLegendLabel(), x + 42, ly + 12);
+        }
+    }
+
+    private Color[] colors(CategoryRegistry.Style style) {
+        return palette.computeIfAbsent(style, s -> new Color[]{
+                new Color(s.getBackgroundStart()), new Color(s.getBackgroundEnd()),
+                new Color(s.getTextColor()), new Color(s.getAccentColor())});
+    }
+
+    private static boolean isTeam(SlotAssignment assignment) {
+        return assignment != null && assignment.getIsTeam() != null && assignment.getIsTeam();
+    }
+
+    private static void centerText(Graphics2D g, String text, int cx, int cy) {
+        FontMetrics fm = g.getFontMetrics();
+        g.drawString(text, cx - fm.stringWidth(text) / 2f, cy + (fm.getAscent() - fm.getDescent()) / 2f);
+    }
+
+    private static void pill(Graphics2D g, String text, int cx, int cy, Font font, Color fill, Color textColor) {
+        g.setFont(font);
+        FontMetrics fm = g.getFontMetrics();
+        int w = fm.stringWidth(text) + 20;
+        int h = fm.getHeight() + 4;
+        g.setColor(fill);
+        g.fillRoundRect(cx - w / 2, cy - h / 2, w, h, h, h);
+        g.setColor(textColor);
+        centerText(g, text, cx, cy);
+    }
+
+    /**
+     * Writes the floor plan as a PNG at the given resolution (clamped to 24..1200 DPI).
+     */
+    public void writePng(String pngFile, int dpi) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(Paths.get(pngFile)), 1 << 16)) {
+            writePng(out, dpi);
+        }
+    }
+
+    /**
+     * Strips are rendered, filtered and deflated concurrently and appended in order as
+     * independent segments of one zlib stream (see {@link PngWriter}). At most a few strips
+     * per core are held at a time.
+     */
+    public void writePng(OutputStream out, int dpi) throws IOException {
+        int clampedDpi = Math.max(MIN_DPI, Math.min(MAX_DPI, dpi));
+        double scale = clampedDpi / (double) BASE_DPI;
+        long pixelWidth = (long) Math.ceil(layout.getWidth() * scale);
+        long pixelHeight = (long) Math.ceil(layout.getHeight() * scale);
+        if (pixelWidth * 3 + 1 > Integer.MAX_VALUE / 2 || pixelHeight > Integer.MAX_VALUE) {
+            throw new IOException("Floor plan too large for " + clampedDpi + " DPI: " + pixelWidth + "x" + pixelHeight);
+        }
+        int width = (int) pixelWidth;
+        int height = (int) pixelHeight;
+        int stripHeight = (int) Math.max(1, Math.min(MAX_STRIP_HEIGHT, MAX_STRIP_PIXELS / pixelWidth));
+
+        PngWriter png = new PngWriter(out, width, height, clampedDpi);
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        int inFlight = Math.max(2, pool.getParallelism() * 2);
+        ArrayDeque<Future<PngWriter.Segment>> pending = new ArrayDeque<>();
+        int nextY = 0;
+        try {
+            while (nextY < height || !pending.isEmpty()) {
+                while (nextY < height && pending.size() < inFlight) {
+                    int y0 = nextY;
+                    int h = Math.min(stripHeight, height - y0);
+                    pending.add(pool.submit(() -> PngWriter.encode(renderStrip(width, y0, h, scale))));
+                    nextY += h;
+                }
+                png.write(pending.removeFirst().get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Floor plan rendering interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Floor plan rendering failed: " + e.getCause(), e.getCause());
+        } finally {
+            for (Future<PngWriter.Segment> f : pending) {
+                f.cancel(true);
+            }
+        }
+        png.finish();
+    }
+
+    private BufferedImage renderStrip(int width, int y0, int height, double scale) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setColor(PAGE_BACKGROUND);
+            g.fillRect(0, 0, width, height);
+            g.translate(0, -y0);
+            g.scale(scale, scale);
+            int top = (int) Math.floor(y0 / scale) - 1;
+            int bottom = (int) Math.ceil((y0 + height) / scale) + 1;
+            paint(g, new Rectangle(0, top, layout.getWidth(), bottom - top));
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+}
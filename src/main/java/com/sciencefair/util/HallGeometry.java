@@ -0,0 +1,294 @@
+package com.sciencefair.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable hall geometry for one row set, per-row table counts and zone layout: traversal and
+ * display order, snake direction per row and snake table numbering, stored in int arrays so
+ * per-row lookups are O(1). Obtain instances from {@link HallLayoutUtil#geometry}, which caches
+ * them, so the assignment dealer and the renderers share one copy.
+ * <p>
+ * Rows are filled zone by zone; within a zone the first row filled runs left to right and
+ * directions alternate. Without zones all rows form one block and even rows run right to left.
+ */
+public final class HallGeometry {
+
+    // Zone-local work is tiny per row; only fan out across zones for very large halls
+    private static final int PARALLEL_MIN_ROWS = 4096;
+    private static final HallLayoutUtil.Zone ALL_ROWS =
+            new HallLayoutUtil.Zone("All rows", Integer.MIN_VALUE, Integer.MAX_VALUE, false, false, false);
+    private static final HallLayoutUtil.Zone OTHER_ROWS =
+            new HallLayoutUtil.Zone("Other rows", Integer.MIN_VALUE, Integer.MAX_VALUE, false, false, false);
+
+    private final int aislePivotRow;
+    private final List<HallLayoutUtil.Zone> layoutZones;
+    private final int[] rows;         // ascending, distinct
+    private final int[] tableCounts;  // by row index: tables in the snake numbering (slots / 2)
+    private final int[] firstTable;   // by row index: snake number of table position 1
+    private final BitSet reversed;    // by row index: row runs right to left
+    private final int[] zoneOfRow;    // by row index
+    private final int totalTables;
+    private final int minRow;
+    private final int[] indexByRow;   // row - minRow -> index or -1; null when rows are too sparse
+
+    private final List<HallLayoutUtil.Zone> zones;  // layout zones plus OTHER_ROWS when needed, or ALL_ROWS
+    private final List<List<Integer>> zoneFillRows;
+    private final List<List<Integer>> zoneDisplayRows;
+    private final List<Integer> traversalOrder;
+    private final List<Integer> leftSideRows;
+    private final List<Integer> rightSideRows;
+    private final List<Integer> rightSideDisplayRows;
+
+    /** Per-zone result, computed independently of other zones */
+    private static final class ZoneRows {
+        int[] fill;          // row indices in fill order
+        boolean[] reverse;   // parallel to fill
+    }
+
+    /**
+     * @param rows ascending distinct row numbers
+     * @param tableCounts tables per row, parallel to rows
+     */
+    HallGeometry(HallLayoutUtil layout, int[] rows, int[] tableCounts) {
+        this.aislePivotRow = layout.getAislePivotRow();
+        this.layoutZones = layout.getZones();
+        this.rows = rows;
+        this.tableCounts = tableCounts;
+        int n = rows.length;
+
+        zoneOfRow = new int[n];
+        boolean otherRows = false;
+        for (int i = 0; i < n; i++) {
+            int zone = layoutZones.isEmpty() ? 0 : layout.zoneIndexOf(rows[i]);
+            if (zone < 0) {
+                zone = layoutZones.size();
+                otherRows = true;
+            }
+            zoneOfRow[i] = zone;
+        }
+        List<HallLayoutUtil.Zone> allZones = new ArrayList<>(layoutZones);
+        if (layoutZones.isEmpty()) {
+            allZones.add(ALL_ROWS);
+        } else if (otherRows) {
+            allZones.add(OTHER_ROWS);
+        }
+        zones = Collections.unmodifiableList(allZones);
+
+        int zoneCount = zones.size();
+        ZoneRows[] zoneRows = new ZoneRows[zoneCount];
+        IntStream zoneIndices = IntStream.range(0, zoneCount);
+        if (n >= PARALLEL_MIN_ROWS && zoneCount > 1) {
+            zoneIndices = zoneIndices.parallel();
+        }
+        zoneIndices.forEach(z -> zoneRows[z] = computeZone(z, layoutZones.isEmpty()));
+
+        // Snake numbering continues across zones in fill order
+        firstTable = new int[n];
+        reversed = new BitSet(n);
+        int[] traversal = new int[n];
+        int t = 0;
+        int nextTable = 1;
+        List<List<Integer>> fillLists = new ArrayList<>(zoneCount);
+        List<List<Integer>> displayLists = new ArrayList<>(zoneCount);
+        for (int z = 0; z < zoneCount; z++) {
+            ZoneRows zr = zoneRows[z];
+            for (int k = 0; k < zr.fill.length; k++) {
+                int index = zr.fill[k];
+                traversal[t++] = rows[index];
+                firstTable[index] = nextTable;
+                nextTable += tableCounts[index];
+                reversed.set(index, zr.reverse[k]);
+            }
+            fillLists.add(boxed(zr.fill, false));
+            displayLists.add(boxed(zr.fill, zones.get(z).isBottomUp() != zones.get(z).isReverseFill()));
+        }
+        totalTables = nextTable - 1;
+        zoneFillRows = Collections.unmodifiableList(fillLists);
+        zoneDisplayRows = Collections.unmodifiableList(displayLists);
+
+        minRow = n > 0 ? rows[0] : 0;
+        long span = n > 0 ? (long) rows[n - 1] - rows[0] + 1 : 0;
+        if (span <= 4L * n + 64) {
+            indexByRow = new int[(int) span];
+            Arrays.fill(indexByRow, -1);
+            for (int i = 0; i < n; i++) {
+                indexByRow[rows[i] - minRow] = i;
+            }
+        } else {
+            indexByRow = null;
+        }
+
+        List<Integer> order = new ArrayList<>(n);
+        for (int row : traversal) {
+            order.add(row);
+        }
+        traversalOrder = Collections.unmodifiableList(order);
+        if (layoutZones.isEmpty()) {
+            leftSideRows = traversalOrder;
+            rightSideRows = Collections.emptyList();
+            rightSideDisplayRows = Collections.emptyList();
+        } else {
+            leftSideRows = zoneFillRows.get(0);
+            rightSideRows = traversalOrder.subList(leftSideRows.size(), n);
+            List<Integer> display = new ArrayList<>(n - leftSideRows.size());
+            for (int z = 1; z < zoneCount; z++) {
+                display.addAll(zoneDisplayRows.get(z));
+            }
+            rightSideDisplayRows = Collections.unmodifiableList(display);
+        }
+    }
+
+    private ZoneRows computeZone(int zone, boolean parityDirection) {
+        int count = 0;
+        for (int z : zoneOfRow) {
+            if (z == zone) {
+                count++;
+            }
+        }
+        ZoneRows zr = new ZoneRows();
+        zr.fill = new int[count];
+        zr.reverse = new boolean[count];
+        boolean reverseFill = zones.get(zone).isReverseFill();
+        for (int i = 0, k = 0; i < zoneOfRow.length; i++) {
+            if (zoneOfRow[i] == zone) {
+                zr.fill[reverseFill ? count - 1 - k : k] = i;
+                k++;
+            }
+        }
+        boolean reverse = false;
+        for (int k = 0; k < count; k++) {
+            int index = zr.fill[k];
+            reverse = parityDirection ? rows[index] % 2 == 0 : k > 0 && !reverse;
+            zr.reverse[k] = reverse;
+        }
+        return zr;
+    }
+
+    private List<Integer> boxed(int[] indices, boolean backwards) {
+        List<Integer> list = new ArrayList<>(indices.length);
+        for (int k = 0; k < indices.length; k++) {
+            list.add(rows[indices[backwards ? indices.length - 1 - k : k]]);
+        }
+        return Collections.unmodifiableList(list);
+    }
+
+    /** Cache identity: same zones, rows and table counts. */
+    boolean matches(int pivot, List<HallLayoutUtil.Zone> otherZones, int[] otherRows, int[] otherCounts) {
+        return aislePivotRow == pivot && layoutZones.equals(otherZones)
+                && Arrays.equals(rows, otherRows) && Arrays.equals(tableCounts, otherCounts);
+    }
+
+    private int indexOf(int row) {
+        if (indexByRow != null) {
+            int offset = row - minRow;
+            return offset >= 0 && offset < indexByRow.length ? indexByRow[offset] : -1;
+        }
+        int index = Arrays.binarySearch(rows, row);
+        return index >= 0 ? index : -1;
+    }
+
+    public int getAislePivotRow() {
+        return aislePivotRow;
+    }
+
+    public boolean isAisleLayoutEnabled() {
+        return !layoutZones.isEmpty();
+    }
+
+    public int getRowCount() {
+        return rows.length;
+    }
+
+    public boolean containsRow(int row) {
+        return indexOf(row) >= 0;
+    }
+
+    /** Whether the row runs right to left; rows outside the hall fall back to even rows reversed. */
+    public boolean isReversed(int row) {
+        int index = indexOf(row);
+        return index >= 0 ? reversed.get(index) : row % 2 == 0;
+    }
+
+    /**
+     * Zones in fill order; rows outside every configured zone form a trailing "Other rows" zone,
+     * and a layout without zones has a single "All rows" zone.
+     */
+    public List<HallLayoutUtil.Zone> getZones() {
+        return zones;
+    }
+
+    public int getZoneCount() {
+        return zones.size();
+    }
+
+    /** Zone index of a row, or -1 for rows outside the hall */
+    public int getZoneIndex(int row) {
+        int index = indexOf(row);
+        return index >= 0 ? zoneOfRow[index] : -1;
+    }
+
+    /** A zone's rows in fill order */
+    public List<Integer> getZoneFillRows(int zone) {
+        return zoneFillRows.get(zone);
+    }
+
+    /** A zone's rows top-down as drawn */
+    public List<Integer> getZoneDisplayRows(int zone) {
+        return zoneDisplayRows.get(zone);
+    }
+
+    public boolean isLeftSide(int row) {
+        int index = indexOf(row);
+        return index >= 0 && zoneOfRow[index] == 0;
+    }
+
+    /** Tables in the row's snake numbering, 0 for rows outside the hall */
+    public int getTableCount(int row) {
+        int index = indexOf(row);
+        return index >= 0 ? tableCounts[index] : 0;
+    }
+
+    public int getTotalTables() {
+        return totalTables;
+    }
+
+    /**
+     * Snake-flow table number of the table at tableIndex (0-based, in table slot order) of a row,
+     * same as {@link HallLayoutUtil#resolveTableNumber} with this geometry's direction and counts.
+     */
+    public int getTableNumber(int row, int tableIndex) {
+        int index = indexOf(row);
+        int tablesInRow = index >= 0 ? tableCounts[index] : 0;
+        boolean reverse = index >= 0 ? reversed.get(index) : row % 2 == 0;
+        int tablePosition = reverse ? tablesInRow - tableIndex : tableIndex + 1;
+        if (index < 0 || tablePosition < 1 || tablePosition > tablesInRow) {
+            return tablePosition;
+        }
+        return firstTable[index] + tablePosition - 1;
+    }
+
+    /** Rows in assignment order */
+    public List<Integer> getTraversalOrder() {
+        return traversalOrder;
+    }
+
+    /** Rows of the first zone in fill order; all rows without zones */
+    public List<Integer> getLeftSideRows() {
+        return leftSideRows;
+    }
+
+    /** Rows of the later zones in fill order; empty without zones */
+    public List<Integer> getRightSideRows() {
+        return rightSideRows;
+    }
+
+    /** Rows of the later zones as drawn, zone by zone; for a center aisle the right column top-down */
+    public List<Integer> getRightSideDisplayRows() {
+        return rightSideDisplayRows;
+    }
+}
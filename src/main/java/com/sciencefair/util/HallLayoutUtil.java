@@ -6,15 +6,104 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 /**
- * Handles center-aisle hall layout: assignment traversal order, display row order,
+ * Handles zoned hall layout: assignment traversal order, display row order,
  * and per-row left/right snake direction.
+ * <p>
+ * A layout is an ordered list of {@link Zone}s, each a row range drawn as one column; zones
+ * are filled in list order and separated by aisles, and a zone may start a new hall (room)
+ * drawn below the previous ones. The classic center aisle is the two-zone special case
+ * built from a pivot row; without zones all rows form one block snaking by row parity.
  */
 public final class HallLayoutUtil {
 
     public static final String PREF_AISLE_PIVOT_ROW = "aislePivotRow";
     public static final String PREF_AISLE_AUTO_DETECT = "aislePivotAutoDetect";
+    public static final String PREF_HALL_ZONES = "hallZones";
+
+    public static final String LEFT_SIDE_LABEL = "Left side of hall";
+    public static final String RIGHT_SIDE_LABEL = "Right side of hall";
+
+    private static final int GEOMETRY_CACHE_SIZE = 8;
+    private static final Deque<HallGeometry> GEOMETRY_CACHE = new ArrayDeque<>();
+
+    /**
+     * A row range drawn as one column. Rows are filled ascending unless {@code reverseFill},
+     * drawn top-down ascending unless {@code bottomUp}, and the first row filled runs left to right.
+     */
+    public static final class Zone {
+        private final String label;
+        private final int firstRow;
+        private final int lastRow;
+        private final boolean reverseFill;
+        private final boolean bottomUp;
+        private final boolean newHall;
+
+        public Zone(String label, int firstRow, int lastRow, boolean reverseFill, boolean bottomUp, boolean newHall) {
+            if (firstRow > lastRow) {
+                throw new IllegalArgumentException("Zone rows out of order: " + firstRow + "-" + lastRow);
+            }
+            this.label = Objects.requireNonNull(label, "label");
+            this.firstRow = firstRow;
+            this.lastRow = lastRow;
+            this.reverseFill = reverseFill;
+            this.bottomUp = bottomUp;
+            this.newHall = newHall;
+        }
+
+        public String getLabel() { return label; }
+        public int getFirstRow() { return firstRow; }
+        public int getLastRow() { return lastRow; }
+        /** Rows are filled from the highest row number down */
+        public boolean isReverseFill() { return reverseFill; }
+        /** Rows are drawn top-down from the highest row number, e.g. the right side across the aisle */
+        public boolean isBottomUp() { return bottomUp; }
+        /** Starts a new hall (room) below the previous zones instead of across an aisle */
+        public boolean isNewHall() { return newHall; }
+
+        public boolean contains(int row) {
+            return row >= firstRow && row <= lastRow;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Zone)) {
+                return false;
+            }
+            Zone z = (Zone) o;
+            return firstRow == z.firstRow && lastRow == z.lastRow && reverseFill == z.reverseFill
+                    && bottomUp == z.bottomUp && newHall == z.newHall && label.equals(z.label);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(label, firstRow, lastRow, reverseFill, bottomUp, newHall);
+        }
+
+        /** Zone in {@link #parseZones} syntax, without the hall separator */
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder(label).append('=');
+            if (firstRow != Integer.MIN_VALUE) {
+                sb.append(firstRow);
+            }
+            if (firstRow != lastRow) {
+                sb.append('-');
+                if (lastRow != Integer.MAX_VALUE) {
+                    sb.append(lastRow);
+                }
+            }
+            if (reverseFill) {
+                sb.append(" reverse");
+            }
+            if (bottomUp) {
+                sb.append(" up");
+            }
+            return sb.toString();
+        }
+    }
 
     private final int aislePivotRow;
+    private final List<Zone> zones;
 
     /**
      * Splits hall rows across the center aisle with the left side getting the extra row when odd.
@@ -29,52 +118,203 @@ public final class HallLayoutUtil {
 
     public HallLayoutUtil(int aislePivotRow) {
         this.aislePivotRow = Math.max(0, aislePivotRow);
+        this.zones = this.aislePivotRow > 0
+                ? Collections.unmodifiableList(Arrays.asList(
+                        new Zone(LEFT_SIDE_LABEL, Integer.MIN_VALUE, this.aislePivotRow, false, false, false),
+                        new Zone(RIGHT_SIDE_LABEL, this.aislePivotRow + 1, Integer.MAX_VALUE, false, true, false)))
+                : Collections.emptyList();
+    }
+
+    /**
+     * Zoned layout; a row belongs to the first zone containing it, and rows outside every
+     * zone are collected in a trailing "Other rows" zone.
+     */
+    public HallLayoutUtil(List<Zone> zones) {
+        this.aislePivotRow = 0;
+        this.zones = Collections.unmodifiableList(new ArrayList<>(zones));
     }
 
     public static HallLayoutUtil disabled() {
         return new HallLayoutUtil(0);
     }
 
+    /**
+     * Layout saved by the assignment GUI: its zone list when set and valid, otherwise its
+     * center-aisle pivot row.
+     */
+    public static HallLayoutUtil fromPreferences(java.util.prefs.Preferences prefs) {
+        String zones = prefs.get(PREF_HALL_ZONES, "");
+        if (!zones.trim().isEmpty()) {
+            try {
+                return new HallLayoutUtil(parseZones(zones));
+            } catch (IllegalArgumentException e) {
+                System.err.println("Ignoring saved hall zones: " + e.getMessage());
+            }
+        }
+        return new HallLayoutUtil(prefs.getInt(PREF_AISLE_PIVOT_ROW, 0));
+    }
+
+    /**
+     * Parses a layout setting: a plain number is a center-aisle pivot row (0 = disabled),
+     * anything else a zone list for {@link #parseZones}.
+     */
+    public static HallLayoutUtil parse(String setting) {
+        String text = setting == null ? "" : setting.trim();
+        if (text.isEmpty()) {
+            return disabled();
+        }
+        if (text.matches("\\d+")) {
+            return new HallLayoutUtil(Integer.parseInt(text));
+        }
+        return new HallLayoutUtil(parseZones(text));
+    }
+
+    /**
+     * Parses zones such as {@code "Main left=1-12, Main right=13-24 up; Overflow=25-"}.
+     * Zones are separated by commas, halls by semicolons. A range is {@code a-b}, {@code a-}
+     * (open ended) or a single row; the label and {@code =} are optional. Flags: {@code reverse}
+     * fills the zone from its last row, {@code up} draws it bottom-up.
+     */
+    public static List<Zone> parseZones(String spec) {
+        List<Zone> result = new ArrayList<>();
+        String[] halls = spec.split(";");
+        for (int h = 0; h < halls.length; h++) {
+            boolean firstInHall = true;
+            for (String part : halls[h].split(",")) {
+                String text = part.trim();
+                if (text.isEmpty()) {
+                    continue;
+                }
+                String label = "Zone " + (result.size() + 1);
+                int eq = text.indexOf('=');
+                if (eq >= 0) {
+                    if (!text.substring(0, eq).trim().isEmpty()) {
+                        label = text.substring(0, eq).trim();
+                    }
+                    text = text.substring(eq + 1).trim();
+                }
+                String[] tokens = text.split("\\s+");
+                boolean reverse = false;
+                boolean up = false;
+                for (int i = 1; i < tokens.length; i++) {
+                    if (tokens[i].equalsIgnoreCase("reverse")) {
+                        reverse = true;
+                    } else if (tokens[i].equalsIgnoreCase("up")) {
+                        up = true;
+                    } else if (!tokens[i].equalsIgnoreCase("down")) {
+                        throw new IllegalArgumentException("Unknown zone option '" + tokens[i] + "' in: " + part.trim());
+                    }
+                }
+                int[] range = parseRange(tokens[0], part.trim());
+                result.add(new Zone(label, range[0], range[1], reverse, up, h > 0 && firstInHall));
+                firstInHall = false;
+            }
+        }
+        if (result.isEmpty()) {
+            throw new IllegalArgumentException("No zones in: " + spec);
+        }
+        return result;
+    }
+
+    private static int[] parseRange(String range, String zoneText) {
+        try {
+            int dash = range.indexOf('-');
+            if (dash < 0) {
+                int row = Integer.parseInt(range);
+                return new int[]{row, row};
+            }
+            String from = range.substring(0, dash).trim();
+            String to = range.substring(dash + 1).trim();
+            return new int[]{
+                    from.isEmpty() ? Integer.MIN_VALUE : Integer.parseInt(from),
+                    to.isEmpty() ? Integer.MAX_VALUE : Integer.parseInt(to)};
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid zone rows '" + range + "' in: " + zoneText);
+        }
+    }
+
+    /** True when rows are split into zones (center aisle or explicit zones) */
     public boolean isAisleLayoutEnabled() {
-        return aislePivotRow > 0;
+        return !zones.isEmpty();
     }
 
+    /** Pivot row of the classic center-aisle layout; 0 when disabled or zoned explicitly */
     public int getAislePivotRow() {
         return aislePivotRow;
     }
 
+    public List<Zone> getZones() {
+        return zones;
+    }
+
+    /** Index of the first zone containing the row, or -1 */
+    public int zoneIndexOf(int row) {
+        for (int z = 0; z < zones.size(); z++) {
+            if (zones.get(z).contains(row)) {
+                return z;
+            }
+        }
+        return -1;
+    }
+
     public List<Integer> getSortedRows(Collection<Integer> rows) {
         return rows.stream().sorted().collect(Collectors.toList());
     }
 
     /**
-     * Row order for project assignment when aisle layout is active:
-     * left side ascending (1..pivot), then right side ascending (pivot+1..max).
-     * After crossing the aisle, projects fill row 4 first (bottom right), then 5, then 6.
-     * Use {@link #getRightSideDisplayRows} for the visual column order (6, 5, 4 top-down).
+     * Geometry for rows with the given snake table counts (row -> tables), cached across
+     * calls so the dealer and the renderers of one run share it.
      */
-    public List<Integer> getTraversalRowOrder(Collection<Integer> rows) {
-        List<Integer> sorted = getSortedRows(rows);
-        if (sorted.isEmpty()) {
-            return sorted;
+    public HallGeometry geometry(Map<Integer, Integer> rowTableCounts) {
+        int[] rows = new int[rowTableCounts.size()];
+        int i = 0;
+        for (int row : rowTableCounts.keySet()) {
+            rows[i++] = row;
         }
-        if (!isAisleLayoutEnabled() || aislePivotRow >= sorted.get(sorted.size() - 1)) {
-            return sorted;
+        Arrays.sort(rows);
+        int[] counts = new int[rows.length];
+        for (i = 0; i < rows.length; i++) {
+            Integer count = rowTableCounts.get(rows[i]);
+            counts[i] = count != null ? Math.max(0, count) : 0;
         }
+        return geometry(rows, counts);
+    }
 
-        List<Integer> left = new ArrayList<>();
-        List<Integer> right = new ArrayList<>();
-        for (int row : sorted) {
-            if (row <= aislePivotRow) {
-                left.add(row);
-            } else {
-                right.add(row);
+    /** Geometry for a row set without table numbering (duplicates are ignored). */
+    public HallGeometry geometry(Collection<Integer> rows) {
+        int[] sorted = rows.stream().mapToInt(Integer::intValue).sorted().distinct().toArray();
+        return geometry(sorted, new int[sorted.length]);
+    }
+
+    private HallGeometry geometry(int[] rows, int[] counts) {
+        synchronized (GEOMETRY_CACHE) {
+            for (HallGeometry cached : GEOMETRY_CACHE) {
+                if (cached.matches(aislePivotRow, zones, rows, counts)) {
+                    // Most recently used first
+                    GEOMETRY_CACHE.remove(cached);
+                    GEOMETRY_CACHE.addFirst(cached);
+                    return cached;
+                }
+            }
+        }
+        HallGeometry geometry = new HallGeometry(this, rows, counts);
+        synchronized (GEOMETRY_CACHE) {
+            GEOMETRY_CACHE.addFirst(geometry);
+            while (GEOMETRY_CACHE.size() > GEOMETRY_CACHE_SIZE) {
+                GEOMETRY_CACHE.removeLast();
             }
         }
+        return geometry;
+    }
 
-        List<Integer> result = new ArrayList<>(left);
-        result.addAll(right);
-        return result;
+    /**
+     * Row order for project assignment: zone by zone in list order.
+     * With a center aisle: left side ascending (1..pivot), then right side ascending (pivot+1..max).
+     * After crossing the aisle, projects fill row 4 first (bottom right), then 5, then 6.
+     * Use {@link #getRightSideDisplayRows} for the visual column order (6, 5, 4 top-down).
+     */
+    public List<Integer> getTraversalRowOrder(Collection<Integer> rows) {
+        return new ArrayList<>(geometry(rows).getTraversalOrder());
     }
 
     /**
@@ -83,51 +323,24 @@ public final class HallLayoutUtil {
      * as the last row on the left (left-to-right).
      */
     public boolean shouldReverseRow(int row, Collection<Integer> rows) {
-        return buildRowReverseMap(rows).getOrDefault(row, row % 2 == 0);
+        return geometry(rows).isReversed(row);
     }
 
     public Map<Integer, Boolean> buildRowReverseMap(Collection<Integer> rows) {
-        List<Integer> order = getTraversalRowOrder(rows);
+        HallGeometry geometry = geometry(rows);
         Map<Integer, Boolean> reverseMap = new LinkedHashMap<>();
-
-        if (!isAisleLayoutEnabled()) {
-            for (int row : order) {
-                reverseMap.put(row, row % 2 == 0);
-            }
-            return reverseMap;
-        }
-
-        boolean reverse = false;
-        Integer previousRow = null;
-        for (int row : order) {
-            if (previousRow != null) {
-                boolean crossedAisle = previousRow <= aislePivotRow && row > aislePivotRow;
-                if (crossedAisle) {
-                    // First right-side row flows left-to-right from the aisle (continues after last left row)
-                    reverse = false;
-                } else {
-                    reverse = !reverse;
-                }
-            }
-            reverseMap.put(row, reverse);
-            previousRow = row;
+        for (int row : geometry.getTraversalOrder()) {
+            reverseMap.put(row, geometry.isReversed(row));
         }
         return reverseMap;
     }
 
     public List<Integer> getLeftSideRows(Collection<Integer> rows) {
-        return getSortedRows(rows).stream()
-                .filter(r -> !isAisleLayoutEnabled() || r <= aislePivotRow)
-                .collect(Collectors.toList());
+        return new ArrayList<>(geometry(rows).getLeftSideRows());
     }
 
     public List<Integer> getRightSideRows(Collection<Integer> rows) {
-        if (!isAisleLayoutEnabled()) {
-            return Collections.emptyList();
-        }
-        return getSortedRows(rows).stream()
-                .filter(r -> r > aislePivotRow)
-                .collect(Collectors.toList());
+        return new ArrayList<>(geometry(rows).getRightSideRows());
     }
 
     /**
@@ -135,16 +348,19 @@ public final class HallLayoutUtil {
      * sits at the bottom (across from row 3) while assignment still fills 4, 5, 6.
      */
     public List<Integer> getRightSideDisplayRows(Collection<Integer> rows) {
-        List<Integer> rightRows = new ArrayList<>(getRightSideRows(rows));
-        Collections.reverse(rightRows);
-        return rightRows;
+        return new ArrayList<>(geometry(rows).getRightSideDisplayRows());
     }
 
+    /** Whether filling moves on to a later zone between the two rows */
     public boolean crossesAisleAfter(Integer previousRow, int nextRow) {
         return isAisleLayoutEnabled()
                 && previousRow != null
-                && previousRow <= aislePivotRow
-                && nextRow > aislePivotRow;
+                && fillZone(previousRow) < fillZone(nextRow);
+    }
+
+    private int fillZone(int row) {
+        int zone = zoneIndexOf(row);
+        return zone >= 0 ? zone : zones.size();
     }
 
     /**
@@ -153,14 +369,15 @@ public final class HallLayoutUtil {
     public List<TableSlot> orderSlotsForAssignment(List<TableSlot> tableSlots) {
         Map<Integer, List<TableSlot>> byRow = tableSlots.stream()
                 .collect(Collectors.groupingBy(TableSlot::getRow, LinkedHashMap::new, Collectors.toList()));
+        // Same counts as the renderers derive from the assignments, so they reuse this geometry
+        Map<Integer, Integer> rowTableCounts = new HashMap<>();
+        for (Map.Entry<Integer, List<TableSlot>> entry : byRow.entrySet()) {
+            rowTableCounts.put(entry.getKey(), entry.getValue().size() / 2);
+        }
 
-        List<Integer> rowOrder = getTraversalRowOrder(byRow.keySet());
-        List<TableSlot> ordered = new ArrayList<>();
-        for (int row : rowOrder) {
+        List<TableSlot> ordered = new ArrayList<>(tableSlots.size());
+        for (int row : geometry(rowTableCounts).getTraversalOrder()) {
             List<TableSlot> rowSlots = byRow.get(row);
-            if (rowSlots == null) {
-                continue;
-            }
             rowSlots.sort(Comparator.comparing(TableSlot::getTableSlotID));
             ordered.addAll(rowSlots);
         }
@@ -169,17 +386,18 @@ public final class HallLayoutUtil {
 
     /**
      * Maps each row and 1-based table position to its snake-flow table number.
+     * Prefer {@link HallGeometry#getTableNumber}, which avoids the boxed maps.
      */
     public Map<Integer, Map<Integer, Integer>> buildSnakeTableNumbers(Map<Integer, Integer> rowTableCounts) {
-        List<Integer> rowOrder = getTraversalRowOrder(rowTableCounts.keySet());
+        HallGeometry geometry = geometry(rowTableCounts);
         Map<Integer, Map<Integer, Integer>> tableNumbers = new HashMap<>();
-        int nextTableNumber = 1;
-
-        for (int row : rowOrder) {
-            int tablesInRow = rowTableCounts.getOrDefault(row, 0);
+        for (int row : geometry.getTraversalOrder()) {
+            int tablesInRow = geometry.getTableCount(row);
+            boolean reverse = geometry.isReversed(row);
             Map<Integer, Integer> rowMap = new HashMap<>();
             for (int position = 1; position <= tablesInRow; position++) {
-                rowMap.put(position, nextTableNumber++);
+                int tableIndex = reverse ? tablesInRow - position : position - 1;
+                rowMap.put(position, geometry.getTableNumber(row, tableIndex));
             }
             tableNumbers.put(row, rowMap);
         }
@@ -0,0 +1,988 @@
+package com.sciencefair.util;
+
+import com.sciencefair.model.SlotAssignment;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Collectors;
+
+/**
+ * Renders the visual hall layout (output.html) as a compiled template.
+ * The document head, stylesheet and legend never change between runs, so they are built once
+ * as UTF-8 bytes; rows, tables and slots are appended into a reusable byte buffer that is
+ * flushed through a buffered file stream. Rows are rendered into independent fragments
+ * in parallel and concatenated in display order.
+ * In {@link Mode#DATA} the rows are embedded as a compact JSON payload instead of markup,
+ * and a small inline script builds the DOM only for rows near the viewport.
+ */
+public final class HtmlLayoutRenderer {
+
+    /**
+     * STATIC writes every row, table and slot as markup.
+     * DATA writes one placeholder per row plus a JSON payload rendered client-side on scroll;
+     * it looks the same but is several times smaller and opens instantly for big halls.
+     */
+    public enum Mode { STATIC, DATA }
+
+    /** Receives each row's markup as it is written, in display order (STATIC mode) */
+    public interface RowListener {
+        void row(int rowNumber, byte[] markup);
+    }
+
+    // Slot flag bits in the DATA payload
+    private static final int FLAG_TEAM = 1;
+    private static final int FLAG_RESERVED = 2;
+    private static final int FLAG_ABSENT = 4;
+    private static final int FLAG_UNASSIGNED = 8;
+    private static final int ESTIMATED_ROW_HEIGHT = 76;
+    private static final int ESTIMATED_TABLE_WIDTH = 140;
+
+    private static final int GROUP_SMALL_GAP = 2;
+    private static final int GROUP_LARGE_GAP = 48;
+    private static final int DEFAULT_ROW_GAP = 24;
+    private static final int FLUSH_THRESHOLD = 64 * 1024;
+    private static final String ROW_INDENT = "            ";
+    // Rows rendered per fork/join leaf, rows buffered per window, and the size below which rendering stays inline
+    private static final int ROWS_PER_TASK = 4;
+    private static final int ROW_WINDOW = 512;
+    private static final int PARALLEL_MIN_ROWS = 16;
+
+    private static final byte[] DOCUMENT_HEAD = Utf8ByteBuffer.utf8(buildDocumentHead());
+    private static final byte[] LEGEND_AND_FOOTER = Utf8ByteBuffer.utf8(buildLegendAndFooter());
+
+    private static final byte[] SLOT_OPEN = Utf8ByteBuffer.utf8("<div class='slot ");
+    private static final byte[] SLOT_TEXT = Utf8ByteBuffer.utf8("'>");
+    private static final byte[] DIV_CLOSE_LINE = Utf8ByteBuffer.utf8("</div>\n");
+    private static final byte[] PROJECT_OPEN = Utf8ByteBuffer.utf8("<strong>P");
+    private static final byte[] PROJECT_LABEL = Utf8ByteBuffer.utf8("</strong><br><small>");
+    private static final byte[] PROJECT_CLOSE = Utf8ByteBuffer.utf8("</small>");
+    private static final byte[] RESERVED_CONTENT = Utf8ByteBuffer.utf8("<strong>RSRVD</strong>");
+    private static final byte[] EMPTY_CONTENT = Utf8ByteBuffer.utf8("<strong>EMPTY</strong>");
+    private static final byte[] VIRTUAL_ROW_SCRIPT = Utf8ByteBuffer.utf8(buildVirtualRowScript());
+    private static final byte[] SEARCH_BAR = Utf8ByteBuffer.utf8(buildSearchBar());
+    private static final byte[] SEARCH_SCRIPT = Utf8ByteBuffer.utf8(buildSearchScript());
+
+    private final HallLayoutUtil layout;
+    private final CategoryRegistry categories = CategoryRegistry.shared();
+    private final Mode mode;
+    private final HtmlRowCache rowCache;
+    private final Utf8ByteBuffer buffer = new Utf8ByteBuffer(FLUSH_THRESHOLD + 8192);
+    private final Utf8ByteBuffer payload = new Utf8ByteBuffer();
+    private final HtmlSearchIndex searchIndex = new HtmlSearchIndex(categories);
+    private int payloadRows;
+    private TaskProgress progress;
+    private RowListener rowListener;
+    private int renderedRows;
+
+    public HtmlLayoutRenderer(HallLayoutUtil hallLayout) {
+        this(hallLayout, Mode.STATIC);
+    }
+
+    public HtmlLayoutRenderer(HallLayoutUtil hallLayout, Mode mode) {
+        this(hallLayout, mode, null);
+    }
+
+    /**
+     * @param rowCache row bodies shared between renders of the same assignments (STATIC mode
+     *                 only; may be null)
+     */
+    public HtmlLayoutRenderer(HallLayoutUtil hallLayout, Mode mode, HtmlRowCache rowCache) {
+        this.layout = hallLayout != null ? hallLayout : HallLayoutUtil.disabled();
+        this.mode = mode != null ? mode : Mode.STATIC;
+        this.rowCache = this.mode == Mode.STATIC ? rowCache : null;
+    }
+
+    /**
+     * Reports the following renders as a progress stage counting rows, checked for cancellation
+     * after each window of rows; null stops reporting.
+     */
+    public void setProgress(TaskProgress progress) {
+        this.progress = progress;
+    }
+
+    /** Hands each row's markup to a listener during the following renders; null stops it. */
+    public void setRowListener(RowListener rowListener) {
+        this.rowListener = rowListener;
+    }
+
+    /**
+     * Writes the layout to a file.
+     * If rowOrder is provided, rows are rendered in that sequence (rows not found are ignored).
+     * Row spacing precedence: rowGroupIndex, then explicit rowMarginTop, then pair spacing.
+     */
+    public void render(
+            List<SlotAssignment> assignments,
+            String outputFile,
+            List<Integer> rowOrder,
+            boolean applyPairSpacing,
+            Map<Integer, Integer> rowMarginTop,
+            Map<Integer, Integer> rowGroupIndex) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(Paths.get(outputFile)), FLUSH_THRESHOLD)) {
+            render(assignments, out, rowOrder, applyPairSpacing, rowMarginTop, rowGroupIndex);
+        }
+    }
+
+    public void render(
+            List<SlotAssignment> assignments,
+            OutputStream out,
+            List<Integer> rowOrder,
+            boolean applyPairSpacing,
+            Map<Integer, Integer> rowMarginTop,
+            Map<Integer, Integer> rowGroupIndex) throws IOException {
+        buffer.reset();
+        payload.reset();
+        payloadRows = 0;
+        searchIndex.reset();
+        if (rowCache != null) {
+            rowCache.beginRender();
+        }
+        // Group assignments by row
+        Map<Integer, List<SlotAssignment>> assignmentsByRow = assignments.stream()
+            .collect(Collectors.groupingBy(
+                SlotAssignment::getRow,
+                TreeMap::new,
+                Collectors.toList()
+            ));
+        renderedRows = 0;
+        if (progress != null) {
+            progress.beginStage("Rendering HTML", assignmentsByRow.size(), "rows");
+        }
+
+        // Collect all row information to calculate proper table numbers
+        Map<Integer, Integer> rowTableCounts = new TreeMap<>();
+        for (Map.Entry<Integer, List<SlotAssignment>> rowEntry : assignmentsByRow.entrySet()) {
+            rowTableCounts.put(rowEntry.getKey(), rowEntry.getValue().size() / 2); // 2 slots per table
+        }
+        HallGeometry geometry = layout.geometry(rowTableCounts);
+
+        // Derive ordered list of rows
+        List<Integer> orderedRows;
+        if (rowOrder != null && !rowOrder.isEmpty()) {
+            orderedRows = rowOrder.stream().filter(assignmentsByRow::containsKey).collect(Collectors.toList());
+        } else {
+            orderedRows = geometry.getTraversalOrder();
+        }
+
+        out.write(DOCUMENT_HEAD);
+        appendStats(assignments, assignmentsByRow, geometry);
+        buffer.append(SEARCH_BAR);
+
+        // Generate table
+        line("        <div class='table-container'>");
+
+        if (geometry.isAisleLayoutEnabled()) {
+            renderZones(out, assignmentsByRow, geometry, rowMarginTop, rowGroupIndex, applyPairSpacing);
+        } else {
+            renderRowSequence(out, orderedRows, HtmlSearchIndex.SIDE_NONE, assignmentsByRow, geometry,
+                    rowMarginTop, rowGroupIndex, applyPairSpacing);
+        }
+        line("        </div>");
+        if (mode == Mode.DATA) {
+            appendDataScripts();
+        }
+        searchIndex.writeTo(buffer, geometry.isAisleLayoutEnabled()
+                ? geometry.getZones() : Collections.<HallLayoutUtil.Zone>emptyList());
+        buffer.append(SEARCH_SCRIPT);
+        buffer.append(LEGEND_AND_FOOTER);
+        buffer.writeTo(out);
+        buffer.reset();
+        if (rowCache != null) {
+            rowCache.endRender(assignmentsByRow.size());
+        }
+    }
+
+    /**
+     * One column per zone: zones of a hall sit side by side with an aisle between them (a center
+     * aisle when the hall is split once), and each zone starting a new hall opens a block below.
+     */
+    private void renderZones(
+            OutputStream out,
+            Map<Integer, List<SlotAssignment>> assignmentsByRow,
+            HallGeometry geometry,
+            Map<Integer, Integer> rowMarginTop,
+            Map<Integer, Integer> rowGroupIndex,
+            boolean applyPairSpacing) throws IOException {
+        List<HallLayoutUtil.Zone> zones = geometry.getZones();
+        for (int hallStart = 0; hallStart < zones.size(); ) {
+            int hallEnd = hallStart + 1;
+            while (hallEnd < zones.size() && !zones.get(hallEnd).isNewHall()) {
+                hallEnd++;
+            }
+            line(hallStart == 0 ? "            <div class='hall-layout'>"
+                    : "            <div class='hall-layout' style='margin-top: " + GROUP_LARGE_GAP + "px;'>");
+            for (int z = hallStart; z < hallEnd; z++) {
+                if (z > hallStart) {
+                    line("                <div class='center-aisle-vertical'>");
+                    line("                    <span class='center-aisle-label'>" + (hallEnd - hallStart == 2 ? "Center Aisle" : "Aisle") + "</span>");
+                    line("                </div>");
+                }
+                line(z == hallStart && hallEnd - hallStart > 1
+                        ? "                <div class='hall-column hall-column-left'>"
+                        : "                <div class='hall-column hall-column-right'>");
+                buffer.append("                    <div class='hall-side-label'>");
+                appendEscaped(buffer, zones.get(z).getLabel());
+                buffer.append("</div>\n");
+                renderRowSequence(out, geometry.getZoneDisplayRows(z), z + 1, assignmentsByRow, geometry,
+                        rowMarginTop, rowGroupIndex, applyPairSpacing);
+                line("                </div>");
+            }
+            line("            </div>");
+            hallStart = hallEnd;
+        }
+    }
+
+    private static void appendEscaped(Utf8ByteBuffer buffer, String text) {
+        for (int i = 0, n = text.length(); i < n; i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '<': buffer.append("&lt;"); break;
+                case '>': buffer.append("&gt;"); break;
+                case '&': buffer.append("&amp;"); break;
+                case '\'': buffer.append("&#39;"); break;
+                case '"': buffer.append("&quot;"); break;
+                default: buffer.append(c);
+            }
+        }
+    }
+
+    private void appendStats(List<SlotAssignment> assignments, Map<Integer, List<SlotAssignment>> assignmentsByRow,
+                             HallGeometry geometry) {
+        // Only keep Team Projects, Total Projects, and Table Counts
+        // Team Projects: count unique project IDs where isTeam is true
+        Set<Integer> teamProjectIds = new HashSet<>();
+        // Total Projects: count unique project IDs (assigned)
+        Set<Integer> totalProjectIds = new HashSet<>();
+        for (SlotAssignment a : assignments) {
+            if (a.getProjectID() == null) {
+                continue;
+            }
+            if (a.getIsTeam() != null && a.getIsTeam()) {
+                teamProjectIds.add(a.getProjectID());
+            }
+            if (!a.isUnassigned()) {
+                totalProjectIds.add(a.getProjectID());
+            }
+        }
+        // Table Counts: count total tables (each table = 2 slots)
+        int tableCount = assignments.size() / 2;
+        // Row Count: distinct rows in the hall layout
+        int rowCount = assignmentsByRow.size();
+
+        line("        <div class='stats'>");
+        appendStatCard(totalProjectIds.size(), "Total Projects");
+        appendStatCard(teamProjectIds.size(), "Team Projects");
+        appendStatCard(tableCount, "Table Count");
+        appendStatCard(rowCount, "Row Count");
+        if (layout.getAislePivotRow() > 0) {
+            line("            <div class='stat-card' style='grid-column: 1 / -1; text-align: center;'>");
+            buffer.append("                <div class='stat-label'>Center aisle after row ")
+                    .append(layout.getAislePivotRow())
+                    .append(" — assignments continue row ")
+                    .append(joinRows(geometry.getRightSideRows()))
+                    .append("; right column shown top-down as ")
+                    .append(joinRows(geometry.getRightSideDisplayRows()))
+                    .append("</div>\n");
+            line("            </div>");
+        } else if (geometry.isAisleLayoutEnabled()) {
+            line("            <div class='stat-card' style='grid-column: 1 / -1; text-align: center;'>");
+            buffer.append("                <div class='stat-label'>Zones in fill order");
+            for (int z = 0; z < geometry.getZoneCount(); z++) {
+                buffer.append(z == 0 ? " — " : "; ");
+                appendEscaped(buffer, geometry.getZones().get(z).getLabel());
+                buffer.append(": rows ").append(joinRows(geometry.getZoneFillRows(z)));
+            }
+            buffer.append("</div>\n");
+            line("            </div>");
+        }
+        line("        </div>");
+    }
+
+    private void appendStatCard(int number, String label) {
+        line("            <div class='stat-card'>");
+        buffer.append("                <div class='stat-number'>").append(number).append("</div>\n");
+        buffer.append("                <div class='stat-label'>").append(label).append("</div>\n");
+        line("            </div>");
+    }
+
+    private static String joinRows(List<Integer> rows) {
+        return rows.stream().map(String::valueOf).collect(Collectors.joining(", "));
+    }
+
+    /**
+     * Renders a column of rows. Margins are computed up front (they depend on the previous row),
+     * then each row is rendered into its own fragment on the fork/join pool and the fragments
+     * are written in display order. Rows are processed in windows so memory stays bounded.
+     * The search index is filled here, on the calling thread, in the same order.
+     */
+    private void renderRowSequence(
+            OutputStream out,
+            List<Integer> rowNumbers,
+            int side,
+            Map<Integer, List<SlotAssignment>> assignmentsByRow,
+            HallGeometry geometry,
+            Map<Integer, Integer> rowMarginTop,
+            Map<Integer, Integer> rowGroupIndex,
+            boolean applyPairSpacing) throws IOException {
+        int count = rowNumbers.size();
+        int[] rows = new int[count];
+        int[] margins = new int[count];
+        Integer previousRowNumber = null;
+        for (int i = 0; i < count; i++) {
+            int rowNumber = rowNumbers.get(i);
+            rows[i] = rowNumber;
+            margins[i] = computeRowMarginTop(
+                    rowNumber, previousRowNumber, rowMarginTop, rowGroupIndex, applyPairSpacing);
+            previousRowNumber = rowNumber;
+        }
+
+        Utf8ByteBuffer[] fragments = new Utf8ByteBuffer[Math.min(count, ROW_WINDOW)];
+        for (int start = 0; start < count; start += ROW_WINDOW) {
+            int end = Math.min(count, start + ROW_WINDOW);
+            RowTask task = new RowTask(fragments, start, start, end, rows, margins, assignmentsByRow, geometry);
+            if (end - start >= PARALLEL_MIN_ROWS) {
+                ForkJoinPool.commonPool().invoke(task);
+            } else {
+                task.compute();
+            }
+            for (int i = start; i < end; i++) {
+                Utf8ByteBuffer fragment = fragments[i - start];
+                if (fragment.length() > 0) {
+                    indexRow(rows[i], side, assignmentsByRow.get(rows[i]), geometry);
+                }
+                if (mode == Mode.DATA) {
+                    if (fragment.length() == 0) {
+                        continue;
+                    }
+                    appendRowPlaceholder(rows[i], assignmentsByRow.get(rows[i]).size(), margins[i]);
+                    payload.append(payloadRows++ == 0 ? "\n" : ",\n").append(fragment);
+                } else {
+                    buffer.append(fragment);
+                    if (rowListener != null && fragment.length() > 0) {
+                        rowListener.row(rows[i], fragment.toByteArray());
+                    }
+                }
+                if (buffer.length() >= FLUSH_THRESHOLD) {
+                    buffer.writeTo(out);
+                    buffer.reset();
+                }
+            }
+            renderedRows += end - start;
+            if (progress != null) {
+                progress.update(renderedRows);
+                progress.checkCancelled();
+            }
+        }
+    }
+
+    /**
+     * Renders rows [from, to) of the current window, splitting in halves until a leaf is small.
+     */
+    private final class RowTask extends RecursiveAction {
+        private final Utf8ByteBuffer[] fragments;
+        private final int windowStart;
+        private final int from;
+        private final int to;
+        private final int[] rows;
+        private final int[] margins;
+        private final Map<Integer, List<SlotAssignment>> assignmentsByRow;
+        private final HallGeometry geometry;
+
+        RowTask(Utf8ByteBuffer[] fragments, int windowStart, int from, int to, int[] rows, int[] margins,
+                Map<Integer, List<SlotAssignment>> assignmentsByRow, HallGeometry geometry) {
+            this.fragments = fragments;
+            this.windowStart = windowStart;
+            this.from = from;
+            this.to = to;
+            this.rows = rows;
+            this.margins = margins;
+            this.assignmentsByRow = assignmentsByRow;
+            this.geometry = geometry;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > ROWS_PER_TASK) {
+                int mid = (from + to) >>> 1;
+                invokeAll(split(from, mid), split(mid, to));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                int slot = i - windowStart;
+                Utf8ByteBuffer fragment = fragments[slot];
+                if (fragment == null) {
+                    fragment = new Utf8ByteBuffer(4096);
+                    fragments[slot] = fragment;
+                } else {
+                    fragment.reset();
+                }
+                renderSingleRow(fragment, rows[i], assignmentsByRow.get(rows[i]), geometry, margins[i]);
+            }
+        }
+
+        private RowTask split(int lo, int hi) {
+            return new RowTask(fragments, windowStart, lo, hi, rows, margins, assignmentsByRow, geometry);
+        }
+    }
+
+    /**
+     * Adds a rendered row to the search index; its slots are already sorted by the row task.
+     */
+    private void indexRow(
+            int rowNumber,
+            int side,
+            List<SlotAssignment> rowAssignments,
+            HallGeometry geometry) {
+        boolean reverseRow = geometry.isReversed(rowNumber);
+        int tableCount = (rowAssignments.size() + 1) / 2;
+        for (int v = 0; v < tableCount; v++) {
+            int tableIndex = reverseRow ? tableCount - 1 - v : v;
+            int slotIndexStart = tableIndex * 2;
+            SlotAssignment first = rowAssignments.get(slotIndexStart);
+            SlotAssignment second = slotIndexStart + 1 < rowAssignments.size() ? rowAssignments.get(slotIndexStart + 1) : null;
+            int tableNumber = geometry.getTableNumber(rowNumber, tableIndex);
+            // Same visual order as appendRowBody: a reversed row draws its second slot first
+            if (reverseRow && second != null) {
+                searchIndex.addTable(rowNumber, tableNumber, side, v, second, first);
+            } else {
+                searchIndex.addTable(rowNumber, tableNumber, side, v, first, second);
+            }
+        }
+    }
+
+    private int computeRowMarginTop(
+            int rowNumber,
+            Integer previousRowNumber,
+            Map<Integer, Integer> rowMarginTop,
+            Map<Integer, Integer> rowGroupIndex,
+            boolean applyPairSpacing) {
+        return rowMarginTop(layout, rowNumber, previousRowNumber, rowMarginTop, rowGroupIndex, applyPairSpacing);
+    }
+
+    /**
+     * Gap above a row in pixels; shared with the floor-plan image so both layouts space rows alike.
+     */
+    static int rowMarginTop(
+            HallLayoutUtil layout,
+            int rowNumber,
+            Integer previousRowNumber,
+            Map<Integer, Integer> rowMarginTop,
+            Map<Integer, Integer> rowGroupIndex,
+            boolean applyPairSpacing) {
+        if (previousRowNumber == null) {
+            return 0;
+        }
+        if (rowGroupIndex != null && !rowGroupIndex.isEmpty()) {
+            Integer prevGroup = rowGroupIndex.get(previousRowNumber);
+            Integer rowGroup = rowGroupIndex.get(rowNumber);
+            if (prevGroup != null && rowGroup != null) {
+                return prevGroup.equals(rowGroup) ? GROUP_SMALL_GAP : GROUP_LARGE_GAP;
+            }
+            return DEFAULT_ROW_GAP;
+        }
+        if (rowMarginTop != null && rowMarginTop.containsKey(rowNumber)) {
+            return rowMarginTop.get(rowNumber);
+        }
+        if (applyPairSpacing && !layout.isAisleLayoutEnabled()
+                && previousRowNumber % 2 == 0 && rowNumber == previousRowNumber + 1) {
+            return 4;
+        }
+        return DEFAULT_ROW_GAP;
+    }
+
+    /**
+     * Renders one row into its own fragment; must not touch shared renderer state
+     * because rows are rendered concurrently.
+     */
+    private void renderSingleRow(
+            Utf8ByteBuffer buffer,
+            int rowNumber,
+            List<SlotAssignment> rowAssignments,
+            HallGeometry geometry,
+            int marginTop) {
+        if (rowAssignments == null || rowAssignments.isEmpty()) {
+            return;
+        }
+
+        rowAssignments.sort((a, b) -> Integer.compare(a.getTableSlotID(), b.getTableSlotID()));
+        boolean reverseRow = geometry.isReversed(rowNumber);
+        if (mode == Mode.DATA) {
+            appendRowData(buffer, rowNumber, rowAssignments, reverseRow, geometry);
+            return;
+        }
+
+        buffer.append(ROW_INDENT).append("<div class='row-wrapper' id='row-").append(rowNumber)
+                .append("' style='margin-top: ").append(marginTop)
+                .append("px; margin-bottom: 0;'>\n");
+        if (rowCache == null) {
+            appendRowBody(buffer, rowNumber, rowAssignments, reverseRow, geometry);
+            return;
+        }
+        // The compact DATA encoding fully determines the body markup, so it doubles as the cache key
+        Utf8ByteBuffer key = new Utf8ByteBuffer(64 + rowAssignments.size() * 12);
+        appendRowData(key, rowNumber, rowAssignments, reverseRow, geometry);
+        String cacheKey = key.toString();
+        byte[] body = rowCache.get(cacheKey);
+        if (body != null) {
+            buffer.append(body);
+            return;
+        }
+        int bodyStart = buffer.length();
+        appendRowBody(buffer, rowNumber, rowAssignments, reverseRow, geometry);
+        rowCache.put(cacheKey, buffer.copyOfRange(bodyStart, buffer.length()));
+    }
+
+    /**
+     * Row label, tables and slots plus the closing wrapper tag; independent of row spacing.
+     */
+    private void appendRowBody(
+            Utf8ByteBuffer buffer,
+            int rowNumber,
+            List<SlotAssignment> rowAssignments,
+            boolean reverseRow,
+            HallGeometry geometry) {
+        buffer.append(ROW_INDENT).append("    <div class='row-label'>Row ").append(rowNumber).append("</div>\n");
+        buffer.append(ROW_INDENT).append("    <div class='row-tables'>\n");
+
+        int tableCount = (rowAssignments.size() + 1) / 2;
+        for (int v = 0; v < tableCount; v++) {
+            int tableIndex = reverseRow ? tableCount - 1 - v : v;
+            int slotIndexStart = tableIndex * 2;
+            int tableNumber = geometry.getTableNumber(rowNumber, tableIndex);
+            SlotAssignment assignment1 = rowAssignments.get(slotIndexStart);
+            SlotAssignment assignment2 = (slotIndexStart + 1 < rowAssignments.size()) ? rowAssignments.get(slotIndexStart + 1) : null;
+
+            boolean isTeamTable = (assignment1.getIsTeam() != null && assignment1.getIsTeam())
+                    || (assignment2 != null && assignment2.getIsTeam() != null && assignment2.getIsTeam());
+            boolean isEmptyTable = assignment1.isUnassigned() && (assignment2 == null || assignment2.isUnassigned());
+            boolean isNonTeamTable = !isTeamTable && !isEmptyTable;
+
+            buffer.append(ROW_INDENT).append("    <div class='table-block")
+                    .append(isTeamTable ? " team-table" : "")
+                    .append(isEmptyTable ? " empty-table" : "")
+                    .append(isNonTeamTable ? " non-team-table" : "").append("'>\n");
+            buffer.append(ROW_INDENT).append("        <div class='table-header'>Table ").append(tableNumber).append("</div>\n");
+            buffer.append(ROW_INDENT).append("        <div class='table-slots'>\n");
+            if (reverseRow) {
+                if (assignment2 != null) {
+                    appendSlot(buffer, assignment2);
+                }
+                appendSlot(buffer, assignment1);
+            } else {
+                appendSlot(buffer, assignment1);
+                if (assignment2 != null) {
+                    appendSlot(buffer, assignment2);
+                }
+            }
+            buffer.append(ROW_INDENT).append("        </div>\n");
+            buffer.append(ROW_INDENT).append("    </div>\n");
+        }
+
+        buffer.append(ROW_INDENT).append("    </div>\n");
+        buffer.append(ROW_INDENT).append("</div>\n");
+    }
+
+    private void appendSlot(Utf8ByteBuffer buffer, SlotAssignment assignment) {
+        buffer.append(ROW_INDENT).append("        ").append(SLOT_OPEN);
+        if (!assignment.isUnassigned() && assignment.getProjectID() != null) {
+            CategoryRegistry.Category category = categories.resolve(assignment.getCategory());
+            buffer.append(category.getCssClass());
+            if (assignment.getIsTeam() != null && assignment.getIsTeam()) {
+                buffer.append(" team");
+            }
+            buffer.append(SLOT_TEXT).append(PROJECT_OPEN).append(assignment.getProjectID().intValue())
+                    .append(PROJECT_LABEL).append(category.getSlotLabel()).append(PROJECT_CLOSE);
+        } else if (assignment.isReserved()) {
+            buffer.append("empty reserved").append(SLOT_TEXT).append(RESERVED_CONTENT);
+        } else {
+            buffer.append("empty").append(SLOT_TEXT).append(EMPTY_CONTENT);
+        }
+        buffer.append(DIV_CLOSE_LINE);
+    }
+
+    /**
+     * DATA mode: one lightweight placeholder per row, sized from its table count.
+     */
+    private void appendRowPlaceholder(int rowNumber, int slotCount, int marginTop) {
+        int tableCount = (slotCount + 1) / 2;
+        buffer.append(ROW_INDENT).append("<div class='vrow' id='row-").append(rowNumber)
+                .append("' data-i='").append(payloadRows)
+                .append("' style='margin-top: ").append(marginTop).append("px; min-height: ")
+                .append(ESTIMATED_ROW_HEIGHT).append("px; min-width: ")
+                .append(60 + tableCount * ESTIMATED_TABLE_WIDTH).append("px;'></div>\n");
+    }
+
+    /**
+     * DATA mode payload entry: [rowNumber, [tableNumbers...], [projectID, categoryId, flags, ...]]
+     * with tables and slots in visual order.
+     */
+    private void appendRowData(
+            Utf8ByteBuffer payload,
+            int rowNumber,
+            List<SlotAssignment> rowAssignments,
+            boolean reverseRow,
+            HallGeometry geometry) {
+        int tableCount = (rowAssignments.size() + 1) / 2;
+
+        payload.append('[').append(rowNumber).append(",[");
+        for (int v = 0; v < tableCount; v++) {
+            int tableIndex = reverseRow ? tableCount - 1 - v : v;
+            if (v > 0) {
+                payload.append(',');
+            }
+            payload.append(geometry.getTableNumber(rowNumber, tableIndex));
+        }
+        payload.append("],[");
+        for (int v = 0; v < tableCount; v++) {
+            int tableIndex = reverseRow ? tableCount - 1 - v : v;
+            int slotIndexStart = tableIndex * 2;
+            SlotAssignment first = rowAssignments.get(slotIndexStart);
+            SlotAssignment second = slotIndexStart + 1 < rowAssignments.size() ? rowAssignments.get(slotIndexStart + 1) : null;
+            if (v > 0) {
+                payload.append(',');
+            }
+            appendSlotTuple(payload, reverseRow ? second : first);
+            payload.append(',');
+            appendSlotTuple(payload, reverseRow ? first : second);
+        }
+        payload.append("]]");
+    }
+
+    private void appendSlotTuple(Utf8ByteBuffer payload, SlotAssignment assignment) {
+        if (assignment == null) {
+            payload.append("0,0,").append(FLAG_ABSENT);
+            return;
+        }
+        int flags = 0;
+        if (assignment.getIsTeam() != null && assignment.getIsTeam()) {
+            flags |= FLAG_TEAM;
+        }
+        if (assignment.isReserved()) {
+            flags |= FLAG_RESERVED;
+        }
+        if (assignment.isUnassigned()) {
+            flags |= FLAG_UNASSIGNED;
+        }
+        boolean placed = !assignment.isUnassigned() && assignment.getProjectID() != null;
+        payload.append(placed ? assignment.getProjectID() : 0).append(',')
+                .append(placed ? categories.idOf(assignment.getCategory()) : CategoryRegistry.UNKNOWN_ID).append(',')
+                .append(flags);
+    }
+
+    private void appendDataScripts() {
+        // Category table indexed by registry id: [cssClass, slotLabel]
+        buffer.append("        <script id='layout-data' type='application/json'>{\"c\":[");
+        for (int id = 0, n = categories.size(); id < n; id++) {
+            CategoryRegistry.Category category = categories.get(id);
+            if (id > 0) {
+                buffer.append(',');
+            }
+            buffer.append('[');
+            appendJsonString(buffer, category.getCssClass());
+            buffer.append(',');
+            appendJsonString(buffer, category.getSlotLabel());
+            buffer.append(']');
+        }
+        buffer.append("],\"r\":[").append(payload).append("]}</script>\n");
+        buffer.append(VIRTUAL_ROW_SCRIPT);
+    }
+
+    /** Escapes for both JSON and an enclosing script element. */
+    public static void appendJsonString(Utf8ByteBuffer buffer, String text) {
+        buffer.append('"');
+        for (int i = 0, n = text.length(); i < n; i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\') {
+                buffer.append('\\').append(c);
+            } else if (c < 0x20 || c == '<' || c == '>' || c == '&') {
+                buffer.append("\\u00").append(Character.forDigit(c >> 4, 16)).append(Character.forDigit(c & 0xF, 16));
+            } else {
+                buffer.append(c);
+            }
+        }
+        buffer.append('"');
+    }
+
+    private void line(String text) {
+        buffer.append(text).append('\n');
+    }
+
+    private static void line(StringBuilder sb, String text) {
+        sb.append(text).append('\n');
+    }
+
+    /**
+     * Static document prefix: doctype, stylesheet and page title.
+     */
+    private static String buildDocumentHead() {
+        StringBuilder sb = new StringBuilder(16 * 1024);
+        line(sb, "<!DOCTYPE html>");
+        line(sb, "<html>");
+        line(sb, "<head>");
+        line(sb, "    <meta charset='utf-8'>");
+        line(sb, "    <title>Science Fair Table Assignment - Visual Layout</title>");
+        line(sb, "    <style>");
+        line(sb, "        * { box-sizing: border-box; }");
+        line(sb, "        body { font-family: 'Segoe UI', system-ui, -apple-system, sans-serif; margin: 0; padding: 20px; background: linear-gradient(135deg, #667eea 0%, #764ba2 100%); min-height: 100vh; }");
+        line(sb, "        .container { max-width: min(3200px, 98vw); margin: 0 auto; background: rgba(255,255,255,0.95); padding: 30px; border-radius: 20px; box-shadow: 0 20px 60px rgba(0,0,0,0.1); backdrop-filter: blur(10px); }");
+        line(sb, "        h1 { color: #2d3748; text-align: center; margin-bottom: 40px; font-size: 2.5em; font-weight: 300; letter-spacing: -1px; }");
+        line(sb, "        .table-container { overflow-x: auto; margin: 30px 0; border-radius: 12px; box-shadow: 0 8px 32px rgba(0,0,0,0.08); width: 100%; }");
+        line(sb, "        table { border-collapse: separate; border-spacing: 0; width: 100%; font-size: 11px; background: white; border-radius: 12px; overflow: hidden; }");
+        line(sb, "        .row-label { background: linear-gradient(135deg, #4a5568, #2d3748); color: white; padding: 12px 16px; font-weight: 600; text-align: center; font-size: 12px; text-shadow: 0 1px 2px rgba(0,0,0,0.3); min-width: 60px; flex: 0 0 auto; }");
+        line(sb, "        .row-wrapper { display: flex; flex-wrap: nowrap; align-items: flex-start; }");
+        line(sb, "        .row-tables { display: flex; flex-wrap: nowrap; flex: 1 1 auto; align-items: flex-start; min-width: 0; }");
+        line(sb, "        .slot { border-top: 2px solid transparent !important; border-bottom: 2px solid transparent !important; border-left: none !important; border-right: none !important; box-shadow: inset 0 0 0 2px transparent; padding: 4px 2px; text-align: center; min-width: 60px; font-weight: 500; position: relative; font-size: 9px; border-radius: 4px; }");
+        // Table slot borders (not legend samples) - consistent 2px inset border for all categories
+        line(sb, "        .slot:not(.legend-sample).anim { border-color: #38a169 !important; box-shadow: inset 0 0 0 2px #38a169 !important; }");
+        line(sb, "        .slot:not(.legend-sample).behv { border-color: #3182ce !important; box-shadow: inset 0 0 0 2px #3182ce !important; }");
+        line(sb, "        .slot:not(.legend-sample).bioc { border-color: #b7791f !important; box-shadow: inset 0 0 0 2px #b7791f !important; }");
+        line(sb, "        .slot:not(.legend-sample).biom { border-color: #c05621 !important; box-shadow: inset 0 0 0 2px #c05621 !important; }");
+        line(sb, "        .slot:not(.legend-sample).chem { border-color: #2c7a7b !important; box-shadow: inset 0 0 0 2px #2c7a7b !important; }");
+        line(sb, "        .slot:not(.legend-sample).cbio { border-color: #3c366b !important; box-shadow: inset 0 0 0 2px #3c366b !important; }");
+        line(sb, "        .slot:not(.legend-sample).cell { border-color: #805ad5 !important; box-shadow: inset 0 0 0 2px #805ad5 !important; }");
+        line(sb, "        .slot:not(.legend-sample).comp { border-color: #2c7a7b !important; box-shadow: inset 0 0 0 2px #2c7a7b !important; }");
+        line(sb, "        .slot:not(.legend-sample).eaev { border-color: #22c55e !important; box-shadow: inset 0 0 0 2px #22c55e !important; }");
+        line(sb, "        .slot:not(.legend-sample).eemr { border-color: #9333ea !important; box-shadow: inset 0 0 0 2px #9333ea !important; }");
+        line(sb, "        .slot:not(.legend-sample).eemt { border-color: #f97316 !important; box-shadow: inset 0 0 0 2px #f97316 !important; }");
+        line(sb, "        .slot:not(.legend-sample).math { border-color: #ca8a04 !important; box-shadow: inset 0 0 0 2px #ca8a04 !important; }");
+        line(sb, "        .slot:not(.legend-sample).mcro { border-color: #0ea5e9 !important; box-shadow: inset 0 0 0 2px #0ea5e9 !important; }");
+        line(sb, "        .slot:not(.legend-sample).phys { border-color: #c026d3 !important; box-shadow: inset 0 0 0 2px #c026d3 !important; }");
+        line(sb, "        .slot:not(.legend-sample).plnt { border-color: #65a30d !important; box-shadow: inset 0 0 0 2px #65a30d !important; }");
+        line(sb, "        .slot:not(.legend-sample).prod { border-color: #e11d48 !important; box-shadow: inset 0 0 0 2px #e11d48 !important; }");
+        line(sb, "        .slot { border-top: 2px solid transparent !important; border-bottom: 2px solid transparent !important; border-left: none !important; border-right: none !important; box-shadow: inset 0 0 0 2px transparent; padding: 4px 2px; text-align: center; min-width: 60px; min-height: 38px; height: 38px; font-weight: 500; position: relative; font-size: 9px; border-radius: 4px; }");
+        line(sb, "        .slot:not(.legend-sample).empty { border-color: #a0aec0 !important; box-shadow: inset 0 0 0 2px #a0aec0 !important; background: linear-gradient(135deg, #f7fafc, #edf2f7); color: #a0aec0; border-left: 4px solid #cbd5e0; min-height: 38px; height: 38px; }");
+        line(sb, "        .slot:not(.legend-sample).empty.reserved { background: linear-gradient(135deg, #ffe6e6, #ffd6d6); color: #b80000; border-left: 4px solid #ff6b6b; border-color: #ff6b6b !important; box-shadow: inset 0 0 0 2px #ff6b6b !important; min-height: 38px; height: 38px; }");
+        line(sb, "        .table-block.non-team-table { background: #e5e7eb !important; }");
+        line(sb, "        .table-block { display: block; flex: 0 0 auto; margin: 0 3px 4px 0; border: 2px solid #b8b8b8; border-radius: 6px; overflow: hidden; box-shadow: 0 1px 4px rgba(0,0,0,0.1); background: #fffbe6; position: relative; min-height: 70px; padding-left: 4px; padding-right: 4px; }");
+        line(sb, "        .table-slots { display: flex; gap: 8px; }");
+        line(sb, "        .table-block.empty-table { background: inherit !important; }");
+        line(sb, "        .table-block.team-table { background: #fffde3; }");
+        line(sb, "        .table-header { background: #e5e7eb; padding: 2px 4px; text-align: center; font-size: 8px; font-weight: 600; color: #495057; border-bottom: 1px solid #dee2e6; position: relative; }");
+        line(sb, "        .team-table .table-header { background: #fffde3 !important; }");
+        line(sb, "        .empty-table .table-header { background: inherit !important; }");
+        // Removed table-level team icon styling (slot-level icons remain via .team::before)
+        line(sb, "        .table-slots { display: flex; }");
+        line(sb, "        .empty { background: linear-gradient(135deg, #f7fafc, #edf2f7); color: #a0aec0; border-left: 4px solid #cbd5e0; }");
+        line(sb, "        .anim { background: linear-gradient(135deg, #dcfce7, #86efac); color: #14532d; border-left: 4px solid #16a34a; }");
+        line(sb, "        .behv { background: linear-gradient(135deg, #dbeafe, #93c5fd); color: #1e3a8a; border-left: 4px solid #2563eb; }");
+        line(sb, "        .bioc { background: linear-gradient(135deg, #fef3c7, #fcd34d); color: #92400e; border-left: 4px solid #d97706; }");
+        line(sb, "        .biom { background: linear-gradient(135deg, #fed7aa, #fb923c); color: #9a3412; border-left: 4px solid #ea580c; }");
+        line(sb, "        .chem { background: linear-gradient(135deg, #a7f3d0, #34d399); color: #064e3b; border-left: 4px solid #059669; }");
+        line(sb, "        .cbio { background: linear-gradient(135deg, #fce7f3, #f9a8d4); color: #831843; border-left: 4px solid #be185d; }");
+        line(sb, "        .cell { background: linear-gradient(135deg, #ede9fe, #c4b5fd); color: #581c87; border-left: 4px solid #7c3aed; }");
+        line(sb, "        .comp { background: linear-gradient(135deg, #f0f9ff, #7dd3fc); color: #0c4a6e; border-left: 4px solid #0284c7; }");
+        line(sb, "        .eaev { background: linear-gradient(135deg, #f0fdf4, #bbf7d0); color: #14532d; border-left: 4px solid #22c55e; }");
+        line(sb, "        .eemr { background: linear-gradient(135deg, #fef7ff, #f3e8ff); color: #581c87; border-left: 4px solid #9333ea; }");
+        line(sb, "        .eemt { background: linear-gradient(135deg, #fff7ed, #fed7aa); color: #9a3412; border-left: 4px solid #f97316; }");
+        line(sb, "        .math { background: linear-gradient(135deg, #fefce8, #fde047); color: #713f12; border-left: 4px solid #ca8a04; }");
+        line(sb, "        .mcro { background: linear-gradient(135deg, #f0f9ff, #bae6fd); color: #0c4a6e; border-left: 4px solid #0ea5e9; }");
+        line(sb, "        .phys { background: linear-gradient(135deg, #fdf4ff, #f5d0fe); color: #86198f; border-left: 4px solid #c026d3; }");
+        line(sb, "        .plnt { background: linear-gradient(135deg, #f7fee7, #d9f99d); color: #365314; border-left: 4px solid #65a30d; }");
+        line(sb, "        .prod { background: linear-gradient(135deg, #fff1f2, #fda4af); color: #881337; border-left: 4px solid #e11d48; }");
+        line(sb, "        .anim.legend-sample { border: 3px solid #16a34a !important; }");
+        line(sb, "        .behv.legend-sample { border: 3px solid #2563eb !important; }");
+        line(sb, "        .bioc.legend-sample { border: 3px solid #d97706 !important; }");
+        line(sb, "        .biom.legend-sample { border: 3px solid #ea580c !important; }");
+        line(sb, "        .chem.legend-sample { border: 3px solid #059669 !important; }");
+        line(sb, "        .cbio.legend-sample { border: 3px solid #be185d !important; }");
+        line(sb, "        .cell.legend-sample { border: 3px solid #7c3aed !important; }");
+        line(sb, "        .comp.legend-sample { border: 3px solid #0284c7 !important; }");
+        line(sb, "        .eaev.legend-sample { border: 3px solid #22c55e !important; }");
+        line(sb, "        .eemr.legend-sample { border: 3px solid #9333ea !important; }");
+        line(sb, "        .eemt.legend-sample { border: 3px solid #f97316 !important; }");
+        line(sb, "        .math.legend-sample { border: 3px solid #ca8a04 !important; }");
+        line(sb, "        .mcro.legend-sample { border: 3px solid #0ea5e9 !important; }");
+        line(sb, "        .phys.legend-sample { border: 3px solid #c026d3 !important; }");
+        line(sb, "        .plnt.legend-sample { border: 3px solid #65a30d !important; }");
+        line(sb, "        .prod.legend-sample { border: 3px solid #e11d48 !important; }");
+        line(sb, "        .empty.legend-sample { border: 3px solid #cbd5e0 !important; }");
+        line(sb, "        .empty.reserved.legend-sample { border: 3px solid #ff6b6b !important; color: #b80000 !important; }");
+        line(sb, "        .team::before { content: '👥'; position: absolute; top: 1px; right: 2px; font-size: 8px; opacity: 0.7; }");
+        line(sb, "        .team { box-shadow: inset 0 0 0 2px currentColor; border-radius: 4px; }");
+        line(sb, "        .legend { margin-top: 24px; padding: 12px 10px; background: linear-gradient(135deg, #f8f9fa, #e9ecef); border-radius: 10px; }");
+        line(sb, "        .legend h3 { color: #495057; margin-bottom: 10px; font-size: 1em; font-weight: 500; }");
+        line(sb, "        .legend-table { font-size: 11px; width: 100%; border-collapse: collapse; border-spacing: 0; }");
+        line(sb, "        .legend-table td { padding: 1px 2px; vertical-align: middle; line-height: 1; }");
+        line(sb, "        .legend-table td:first-child { padding-right: 2px; }");
+        // Legend layout: two vertical columns (first half left, second half right) using flex
+        line(sb, "        .legend-grid { display: flex; gap: 32px; align-items: flex-start; }");
+        line(sb, "        .legend-col { flex: 1; display: flex; flex-direction: column; gap: 4px; }");
+        line(sb, "        .legend-item { display: flex; align-items: center; font-size: 11px; line-height: 1.1; }");
+        line(sb, "        .legend-item .legend-sample { margin-right: 6px !important; }");
+        line(sb, "        .legend-item span { line-height: 1.1; }");
+        line(sb, "        @media (max-width: 700px) { .legend-grid { flex-direction: column; gap: 12px; } .legend-col { width: 100%; } }");
+        line(sb, "        .legend-sample { width: 32px !important; height: 16px !important; min-height: 16px !important; border-radius: 3px; font-size: 8px; display: flex; align-items: center; justify-content: center; border: 3px solid transparent !important; padding: 0 !important; }");
+        line(sb, "        .slot.legend-sample { min-width: 32px !important; width: 32px !important; height: 16px !important; min-height: 16px !important; padding: 0 !important; }");
+        line(sb, "        .stats { display: grid; grid-template-columns: repeat(auto-fit, minmax(120px, 1fr)); gap: 8px; margin-bottom: 16px; }");
+        line(sb, "        .stat-card { background: white; padding: 8px; border-radius: 8px; box-shadow: 0 2px 6px rgba(0,0,0,0.04); text-align: center; }");
+        line(sb, "        .stat-number { font-size: 1.2em; font-weight: 700; color: #4a5568; }");
+        line(sb, "        .stat-label { color: #718096; font-size: 0.8em; margin-top: 2px; }");
+        line(sb, "        .center-aisle { margin: 20px 0 16px 76px; padding: 14px 0; text-align: center; border-top: 3px dashed #94a3b8; border-bottom: 3px dashed #94a3b8; background: linear-gradient(90deg, rgba(148,163,184,0.05), rgba(148,163,184,0.18), rgba(148,163,184,0.05)); }");
+        line(sb, "        .center-aisle-vertical { flex: 0 0 56px; display: flex; flex-direction: column; align-items: center; justify-content: center; align-self: stretch; border-left: 3px dashed #94a3b8; border-right: 3px dashed #94a3b8; background: linear-gradient(180deg, rgba(148,163,184,0.05), rgba(148,163,184,0.22), rgba(148,163,184,0.05)); margin: 28px 12px; padding: 20px 6px; border-radius: 8px; }");
+        line(sb, "        .center-aisle-vertical .center-aisle-label { writing-mode: vertical-rl; text-orientation: mixed; transform: rotate(180deg); white-space: nowrap; }");
+        line(sb, "        .center-aisle-vertical .center-aisle-note { writing-mode: vertical-rl; text-orientation: mixed; transform: rotate(180deg); margin-top: 0; margin-right: 8px; font-size: 9px; max-height: 180px; }");
+        line(sb, "        .hall-layout { display: flex; align-items: flex-start; gap: 0; width: 100%; min-width: fit-content; }");
+        line(sb, "        .hall-column { flex: 1 1 auto; min-width: 1050px; }");
+        line(sb, "        .hall-column-left { display: flex; flex-direction: column; align-items: flex-end; }");
+        line(sb, "        .hall-column-left .hall-side-label { align-self: stretch; }");
+        line(sb, "        .hall-column-right { display: flex; flex-direction: column; align-items: flex-start; }");
+        line(sb, "        .hall-column-right .hall-side-label { align-self: stretch; }");
+        line(sb, "        .hall-column .hall-side-label { margin-left: 0; margin-bottom: 8px; display: block; text-align: center; }");
+        line(sb, "        .center-aisle-label { display: inline-block; padding: 4px 18px; border-radius: 999px; background: #475569; color: white; font-size: 12px; font-weight: 700; letter-spacing: 0.08em; text-transform: uppercase; }");
+        line(sb, "        .center-aisle-note { display: block; margin-top: 6px; color: #64748b; font-size: 10px; font-style: italic; }");
+        line(sb, "        .hall-side-label { display: inline-block; margin-left: 76px; margin-bottom: 4px; padding: 2px 10px; border-radius: 6px; background: #e2e8f0; color: #334155; font-size: 10px; font-weight: 600; letter-spacing: 0.04em; text-transform: uppercase; }");
+        line(sb, "        @media (max-width: 1100px) { .hall-layout { flex-direction: column; } .center-aisle-vertical { flex: none; flex-direction: row; width: auto; margin: 16px 0; padding: 12px 20px; border-left: none; border-right: none; border-top: 3px dashed #94a3b8; border-bottom: 3px dashed #94a3b8; } .center-aisle-vertical .center-aisle-label, .center-aisle-vertical .center-aisle-note { writing-mode: horizontal-tb; transform: none; } }");
+        line(sb, "        .search-bar { position: sticky; top: 0; z-index: 10; display: flex; flex-wrap: wrap; align-items: center; gap: 8px 12px; margin: 0 0 12px; padding: 8px 10px; background: rgba(255,255,255,0.97); border-radius: 10px; box-shadow: 0 2px 8px rgba(0,0,0,0.08); }");
+        line(sb, "        .search-bar input { flex: 1 1 220px; max-width: 360px; padding: 8px 10px; font-size: 16px; border: 2px solid #cbd5e0; border-radius: 8px; }");
+        line(sb, "        .search-result { color: #334155; font-size: 13px; font-weight: 600; }");
+        line(sb, "        .search-hit { outline: 4px solid #e11d48; outline-offset: 2px; z-index: 1; animation: search-pulse 1s ease-in-out 3; }");
+        line(sb, "        @keyframes search-pulse { 50% { outline-color: rgba(225,29,72,0.2); } }");
+        line(sb, "        @media (max-width: 768px) { .container { padding: 15px; } h1 { font-size: 1.8em; } .slot { min-width: 70px; padding: 6px 2px; font-size: 10px; } .row-label { padding: 8px 10px; font-size: 10px; } .center-aisle { margin-left: 0; } .hall-side-label { margin-left: 0; } }");
+        line(sb, "    </style>");
+        line(sb, "</head>");
+        line(sb, "<body>");
+        line(sb, "    <div class='container'>");
+        line(sb, "        <h1>Science Fair Table Assignment</h1>");
+        return sb.toString();
+    }
+
+    /**
+     * Client-side row renderer for DATA mode. Produces the same markup as STATIC mode, but
+     * only for rows near the viewport; rows scrolled far away are emptied again and keep
+     * their measured size so the page does not jump.
+     */
+    private static String buildVirtualRowScript() {
+        StringBuilder sb = new StringBuilder(4096);
+        line(sb, "        <script>");
+        line(sb, "        (function () {");
+        line(sb, "            var D = JSON.parse(document.getElementById('layout-data').textContent);");
+        line(sb, "            function slot(p, c, f) {");
+        line(sb, "                if (p) return \"<div class='slot \" + D.c[c][0] + (f & 1 ? \" team\" : \"\") + \"'><strong>P\" + p + \"</strong><br><small>\" + D.c[c][1] + \"</small></div>\";");
+        line(sb, "                return f & 2 ? \"<div class='slot empty reserved'><strong>RSRVD</strong></div>\" : \"<div class='slot empty'><strong>EMPTY</strong></div>\";");
+        line(sb, "            }");
+        line(sb, "            function row(r) {");
+        line(sb, "                var t = r[1], s = r[2], h = \"<div class='row-wrapper' style='margin-top: 0px; margin-bottom: 0;'><div class='row-label'>Row \" + r[0] + \"</div><div class='row-tables'>\";");
+        line(sb, "                for (var i = 0; i < t.length; i++) {");
+        line(sb, "                    var k = i * 6, team = false, empty = true, inner = '';");
+        line(sb, "                    for (var j = k; j < k + 6; j += 3) {");
+        line(sb, "                        if (s[j + 2] & 4) continue;");
+        line(sb, "                        if (s[j + 2] & 1) team = true;");
+        line(sb, "                        if (!(s[j + 2] & 8)) empty = false;");
+        line(sb, "                        inner += slot(s[j], s[j + 1], s[j + 2]);");
+        line(sb, "                    }");
+        line(sb, "                    h += \"<div class='table-block\" + (team ? \" team-table\" : \"\") + (empty ? \" empty-table\" : \"\")");
+        line(sb, "                        + (!team && !empty ? \" non-team-table\" : \"\") + \"'><div class='table-header'>Table \" + t[i]");
+        line(sb, "                        + \"</div><div class='table-slots'>\" + inner + \"</div></div>\";");
+        line(sb, "                }");
+        line(sb, "                return h + '</div></div>';");
+        line(sb, "            }");
+        line(sb, "            function show(el) { if (!el.firstChild) { el.innerHTML = row(D.r[+el.getAttribute('data-i')]); el.style.minHeight = ''; el.style.minWidth = ''; } }");
+        line(sb, "            function hide(el) { if (el.firstChild) { el.style.minHeight = el.offsetHeight + 'px'; el.style.minWidth = el.offsetWidth + 'px'; el.innerHTML = ''; } }");
+        line(sb, "            window.layoutData = D;");
+        line(sb, "            window.layoutShowRow = show;");
+        line(sb, "            var rows = document.querySelectorAll('.vrow');");
+        line(sb, "            if (!('IntersectionObserver' in window)) { for (var i = 0; i < rows.length; i++) show(rows[i]); return; }");
+        line(sb, "            var io = new IntersectionObserver(function (entries) {");
+        line(sb, "                entries.forEach(function (e) { if (e.isIntersecting) show(e.target); else hide(e.target); });");
+        line(sb, "            }, { rootMargin: '800px 800px' });");
+        line(sb, "            for (var i = 0; i < rows.length; i++) io.observe(rows[i]);");
+        line(sb, "        })();");
+        line(sb, "        </script>");
+        return sb.toString();
+    }
+
+    private static String buildSearchBar() {
+        StringBuilder sb = new StringBuilder(512);
+        line(sb, "        <div class='search-bar'>");
+        line(sb, "            <input id='layout-search' type='search' placeholder='Find a project (P1234) or category' autocomplete='off' enterkeyhint='search'>");
+        line(sb, "            <span id='layout-search-result' class='search-result'></span>");
+        line(sb, "        </div>");
+        return sb.toString();
+    }
+
+    /**
+     * Search box behaviour: project IDs resolve through the embedded index to a row element by id
+     * and then by child position, categories (full name or slot label, any case) to table ranges.
+     * In DATA mode the target row is built first if it is not on screen.
+     */
+    private static String buildSearchScript() {
+        StringBuilder sb = new StringBuilder(4096);
+        line(sb, "        <script>");
+        line(sb, "        (function () {");
+        line(sb, "            var I, C;");
+        line(sb, "            function load() {");
+        line(sb, "                I = JSON.parse(document.getElementById('search-index').textContent); C = {};");
+        line(sb, "                I.c.forEach(function (c) { C[c[0].toLowerCase()] = c; C[c[1].toLowerCase()] = c; });");
+        line(sb, "            }");
+        line(sb, "            load();");
+        line(sb, "            window.layoutSearchReload = load; // after a live update replaces the index");
+        line(sb, "            var input = document.getElementById('layout-search'), out = document.getElementById('layout-search-result'), hit = null;");
+        line(sb, "            function ranges(r) { return r.map(function (x) { return x[0] === x[1] ? x[0] : x[0] + '\\u2013' + x[1]; }).join(', '); }");
+        line(sb, "            function find(q) {");
+        line(sb, "                if (hit) { hit.classList.remove('search-hit'); hit = null; }");
+        line(sb, "                q = q.trim();");
+        line(sb, "                if (!q) { out.textContent = ''; return; }");
+        line(sb, "                var m = /^p?\\s*(\\d+)$/i.exec(q), c = C[q.toLowerCase()];");
+        line(sb, "                if (c) { out.textContent = c[0] + ': tables ' + ranges(c[2]); return; }");
+        line(sb, "                var p = m && I.p.hasOwnProperty(m[1]) ? I.p[m[1]] : null;");
+        line(sb, "                if (!p) { out.textContent = 'No match for \\u201c' + q + '\\u201d'; return; }");
+        line(sb, "                out.textContent = 'P' + m[1] + ': Table ' + p[1] + ', Row ' + p[0] + (p[2] ? ', ' + I.z[p[2] - 1] : '');");
+        line(sb, "                var el = document.getElementById('row-' + p[0]);");
+        line(sb, "                if (!el) return;");
+        line(sb, "                if (el.className === 'vrow') { if (window.layoutShowRow) window.layoutShowRow(el); el = el.firstElementChild; }");
+        line(sb, "                var slot = el && el.children[1].children[p[3]].children[1].children[p[4]];");
+        line(sb, "                if (!slot) return;");
+        line(sb, "                hit = slot;");
+        line(sb, "                slot.classList.add('search-hit');");
+        line(sb, "                slot.scrollIntoView({ block: 'center', inline: 'center', behavior: 'smooth' });");
+        line(sb, "            }");
+        line(sb, "            input.addEventListener('keydown', function (e) { if (e.key === 'Enter') find(input.value); });");
+        line(sb, "            input.addEventListener('search', function () { find(input.value); });");
+        line(sb, "            input.addEventListener('input', function () { if (/^p?\\s*\\d+$/i.test(input.value.trim()) || C[input.value.trim().toLowerCase()]) find(input.value); });");
+        line(sb, "        })();");
+        line(sb, "        </script>");
+        return sb.toString();
+    }
+
+    /**
+     * Static document suffix: category legend and closing tags.
+     */
+    private static String buildLegendAndFooter() {
+        StringBuilder sb = new StringBuilder(4096);
+        line(sb, "        <div class='legend'>");
+        line(sb, "            <h3>🧬 Category Legend</h3>");
+        // Legend items sorted alphabetically by label, split into two columns
+        List<CategoryRegistry.Style> legendItems = CategoryRegistry.legendStyles();
+        int half = legendItems.size() / 2; // even count splits evenly
+        line(sb, "            <div class='legend-grid'>");
+        line(sb, "              <div class='legend-col'>");
+        for (CategoryRegistry.Style it : legendItems.subList(0, half)) {
+            appendLegendItem(sb, it);
+        }
+        line(sb, "              </div>");
+        line(sb, "              <div class='legend-col'>");
+        for (CategoryRegistry.Style it : legendItems.subList(half, legendItems.size())) {
+            appendLegendItem(sb, it);
+        }
+        line(sb, "              </div>");
+        line(sb, "            </div>");
+        line(sb, "            <p style='font-size:10px; margin-top:6px;'><strong>💡 Note:</strong> T### = Table Number (snake flow), P### = Project ID. Team projects are marked with 👥</p>");
+        line(sb, "        </div>");
+        line(sb, "    </div>");
+        line(sb, "</body>");
+        line(sb, "</html>");
+        return sb.toString();
+    }
+
+    private static void appendLegendItem(StringBuilder sb, CategoryRegistry.Style style) {
+        String boxText = style == CategoryRegistry.EMPTY_STYLE ? "EMPTY"
+                : style == CategoryRegistry.RESERVED_STYLE ? "RSRVD" : "";
+        line(sb, "                <div class='legend-item'><div class='slot " + style.getCssClass() + " legend-sample'>"
+                + boxText + "</div><span>" + style.getLegendLabel() + "</span></div>");
+    }
+}
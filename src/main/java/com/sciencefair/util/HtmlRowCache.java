@@ -0,0 +1,66 @@
+package com.sciencefair.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache of rendered row bodies for {@link HtmlLayoutRenderer}, reused across renders of the
+ * same assignments (layout configurator previews, grouping and aisle changes).
+ * A row body is everything inside the row wrapper: label, tables and slots. Its key is the
+ * compact row encoding (row number, table numbers in visual order, slot contents), so a row
+ * is re-rendered only when its content, direction or numbering changes; spacing between rows
+ * lives in the wrapper and never invalidates an entry.
+ */
+public final class HtmlRowCache {
+
+    private static final class Entry {
+        final byte[] body;
+        volatile int lastUsed;
+
+        Entry(byte[] body, int lastUsed) {
+            this.body = body;
+            this.lastUsed = lastUsed;
+        }
+    }
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private volatile int generation;
+
+    /** Returns the cached row body, or null on a miss. Safe to call from render threads. */
+    byte[] get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        entry.lastUsed = generation;
+        return entry.body;
+    }
+
+    void put(String key, byte[] body) {
+        entries.put(key, new Entry(body, generation));
+    }
+
+    /** Starts a render pass. */
+    void beginRender() {
+        generation++;
+    }
+
+    /**
+     * Ends a render pass. Entries not used by the last two renders are dropped once the cache
+     * holds more than a few layouts' worth of rows, so toggling between two previews stays cached.
+     */
+    void endRender(int rowCount) {
+        if (entries.size() > 4 * Math.max(rowCount, 1)) {
+            int oldest = generation - 1;
+            entries.values().removeIf(e -> e.lastUsed < oldest);
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+}
@@ -0,0 +1,103 @@
+package com.sciencefair.util;
+
+import com.sciencefair.model.SlotAssignment;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Lookup index embedded in the HTML layout so the search box never scans the DOM.
+ * Payload: {"p":{projectID:[row, table, side, tableIndex, slotIndex]}, "c":[[name, label, [[from, to], ...]]],
+ * "z":[zone label, ...]} where side is 0 without zones and otherwise the 1-based zone column, and
+ * the indices are the visual position of the table in its row and of the slot in its table.
+ * Rows are added in display order on the rendering thread.
+ */
+final class HtmlSearchIndex {
+
+    static final int SIDE_NONE = 0;
+
+    private final CategoryRegistry categories;
+    private final Utf8ByteBuffer projects = new Utf8ByteBuffer();
+    private final Set<Integer> indexedProjects = new HashSet<>();
+    private final List<BitSet> tablesByCategory = new ArrayList<>();
+
+    HtmlSearchIndex(CategoryRegistry categories) {
+        this.categories = categories;
+    }
+
+    void reset() {
+        projects.reset();
+        indexedProjects.clear();
+        tablesByCategory.clear();
+    }
+
+    /**
+     * Records one table; slots are given as drawn (the second is null for a half table).
+     */
+    void addTable(int rowNumber, int tableNumber, int side, int tableIndex, SlotAssignment left, SlotAssignment right) {
+        addSlot(rowNumber, tableNumber, side, tableIndex, 0, left);
+        addSlot(rowNumber, tableNumber, side, tableIndex, 1, right);
+    }
+
+    private void addSlot(int rowNumber, int tableNumber, int side, int tableIndex, int slotIndex, SlotAssignment assignment) {
+        if (assignment == null || assignment.isUnassigned() || assignment.getProjectID() == null) {
+            return;
+        }
+        int categoryId = categories.idOf(assignment.getCategory());
+        while (tablesByCategory.size() <= categoryId) {
+            tablesByCategory.add(new BitSet());
+        }
+        tablesByCategory.get(categoryId).set(tableNumber);
+        // Team projects span both slots of a table; the first one drawn is the target
+        if (!indexedProjects.add(assignment.getProjectID())) {
+            return;
+        }
+        projects.append(projects.length() == 0 ? "\n\"" : ",\n\"").append(assignment.getProjectID().intValue())
+                .append("\":[").append(rowNumber).append(',').append(tableNumber).append(',').append(side)
+                .append(',').append(tableIndex).append(',').append(slotIndex).append(']');
+    }
+
+    void writeTo(Utf8ByteBuffer out, List<HallLayoutUtil.Zone> zones) {
+        out.append("        <script id='search-index' type='application/json'>{\"p\":{").append(projects).append("},\"c\":[");
+        // Registry ids depend on which render thread saw a category first; list by name instead
+        List<CategoryRegistry.Category> listed = new ArrayList<>();
+        for (int id = 0; id < tablesByCategory.size(); id++) {
+            CategoryRegistry.Category category = categories.get(id);
+            if (!tablesByCategory.get(id).isEmpty() && category.getName() != null) {
+                listed.add(category);
+            }
+        }
+        listed.sort(Comparator.comparing(CategoryRegistry.Category::getName));
+        boolean first = true;
+        for (CategoryRegistry.Category category : listed) {
+            BitSet tables = tablesByCategory.get(category.getId());
+            out.append(first ? "\n[" : ",\n[");
+            first = false;
+            HtmlLayoutRenderer.appendJsonString(out, category.getName());
+            out.append(',');
+            HtmlLayoutRenderer.appendJsonString(out, category.getSlotLabel());
+            out.append(",[");
+            for (int from = tables.nextSetBit(0); from >= 0; ) {
+                int to = tables.nextClearBit(from) - 1;
+                if (from != tables.nextSetBit(0)) {
+                    out.append(',');
+                }
+                out.append('[').append(from).append(',').append(to).append(']');
+                from = tables.nextSetBit(to + 1);
+            }
+            out.append("]]");
+        }
+        out.append("],\"z\":[");
+        for (int z = 0; z < zones.size(); z++) {
+            if (z > 0) {
+                out.append(',');
+            }
+            HtmlLayoutRenderer.appendJsonString(out, zones.get(z).getLabel());
+        }
+        out.append("]}</script>\n");
+    }
+}
@@ -0,0 +1,143 @@
+package com.sciencefair.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Watches a few files through their directories' {@link WatchService} and reports when they
+ * change. Events are debounced: after the first one the watcher waits until the directory has
+ * been quiet for the debounce period, so a spreadsheet save (often a temp file, a rename and a
+ * few writes) is reported once. A file is only reported when its size or modification time
+ * differs from what was last seen, which drops events for untouched siblings and no-op saves.
+ * <p>
+ * The listener runs on the watcher's own daemon thread; events arriving meanwhile are reported
+ * after it returns.
+ */
+public final class InputWatcher implements Closeable {
+
+    public static final long DEFAULT_DEBOUNCE_MILLIS = 300;
+
+    private final Set<Path> files = new LinkedHashSet<>();
+    private final Map<Path, String> stamps = new HashMap<>();
+    private final long debounceMillis;
+    private final Consumer<Set<Path>> onChange;
+    private final WatchService watchService;
+    private final Thread thread;
+    private volatile boolean closed;
+
+    public InputWatcher(Collection<String> paths, long debounceMillis, Consumer<Set<Path>> onChange) throws IOException {
+        this.debounceMillis = debounceMillis;
+        this.onChange = onChange;
+        for (String path : paths) {
+            Path file = Paths.get(path).toAbsolutePath().normalize();
+            files.add(file);
+            stamps.put(file, stamp(file));
+        }
+        watchService = FileSystems.getDefault().newWatchService();
+        Set<Path> directories = new LinkedHashSet<>();
+        for (Path file : files) {
+            directories.add(file.getParent());
+        }
+        try {
+            for (Path directory : directories) {
+                directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            }
+        } catch (IOException | RuntimeException e) {
+            watchService.close();
+            throw e;
+        }
+        thread = new Thread(this::watch, "input-watch");
+        thread.setDaemon(true);
+    }
+
+    public void start() {
+        thread.start();
+    }
+
+    /** The watched files, absolute */
+    public Set<Path> getFiles() {
+        return Collections.unmodifiableSet(files);
+    }
+
+    /** Waits until the watcher is closed; for command-line watch mode. */
+    public void join() throws InterruptedException {
+        thread.join();
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        watchService.close(); // wakes the watcher thread
+    }
+
+    private void watch() {
+        try {
+            while (!closed) {
+                Set<Path> touched = new LinkedHashSet<>();
+                collect(watchService.take(), touched);
+                WatchKey more;
+                while ((more = watchService.poll(debounceMillis, TimeUnit.MILLISECONDS)) != null) {
+                    collect(more, touched);
+                }
+                Set<Path> changed = new LinkedHashSet<>();
+                for (Path file : touched) {
+                    String current = stamp(file);
+                    if (current != null && !current.equals(stamps.get(file))) {
+                        stamps.put(file, current);
+                        changed.add(file);
+                    }
+                }
+                if (!changed.isEmpty() && !closed) {
+                    try {
+                        onChange.accept(Collections.unmodifiableSet(changed));
+                    } catch (RuntimeException e) {
+                        System.err.println("Error handling input change: " + e.getMessage());
+                    }
+                }
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            // closed
+        }
+    }
+
+    private void collect(WatchKey key, Set<Path> touched) {
+        Path directory = (Path) key.watchable();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                touched.addAll(files); // events were lost; the stamps sort it out
+            } else {
+                Path file = directory.resolve((Path) event.context());
+                if (files.contains(file)) {
+                    touched.add(file);
+                }
+            }
+        }
+        key.reset();
+    }
+
+    /** Size and modification time, or null while the file is missing (mid-rename) */
+    private static String stamp(Path file) {
+        try {
+            return Files.size(file) + "@" + Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.sciencefair.util;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * Minimal streaming JSON writer. Tokens are written straight into a reusable char buffer
+ * and flushed to the underlying writer, so arbitrarily large documents can be emitted
+ * without building a tree in memory. Numbers and booleans are encoded without allocating.
+ */
+public final class JsonStreamWriter implements Closeable, Flushable {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Writer out;
+    private final boolean closeUnderlying;
+    private final char[] buf = new char[BUFFER_SIZE];
+    private int pos;
+
+    // Per nesting level: true once the container has received its first element
+    private boolean[] hasElement = new boolean[16];
+    private int depth;
+    private boolean afterName;
+    private boolean pendingNewline;
+
+    public JsonStreamWriter(Writer out) {
+        this(out, true);
+    }
+
+    private JsonStreamWriter(Writer out, boolean closeUnderlying) {
+        this.out = out;
+        this.closeUnderlying = closeUnderlying;
+    }
+
+    /**
+     * Opens a UTF-8 JSON writer on a file (created or truncated).
+     */
+    public static JsonStreamWriter toFile(String filePath) throws IOException {
+        return new JsonStreamWriter(new OutputStreamWriter(
+                Files.newOutputStream(Paths.get(filePath)), StandardCharsets.UTF_8), true);
+    }
+
+    /**
+     * Wraps a shared stream such as System.out; {@link #close()} only flushes it.
+     */
+    public static JsonStreamWriter toStream(OutputStream stream) {
+        return new JsonStreamWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), false);
+    }
+
+    public JsonStreamWriter beginObject() throws IOException {
+        beforeValue();
+        put('{');
+        push();
+        return this;
+    }
+
+    public JsonStreamWriter endObject() throws IOException {
+        depth--;
+        emitPendingNewline();
+        put('}');
+        return this;
+    }
+
+    public JsonStreamWriter beginArray() throws IOException {
+        beforeValue();
+        put('[');
+        push();
+        return this;
+    }
+
+    public JsonStreamWriter endArray() throws IOException {
+        depth--;
+        emitPendingNewline();
+        put(']');
+        return this;
+    }
+
+    public JsonStreamWriter name(String name) throws IOException {
+        separator();
+        writeString(name);
+        put(':');
+        afterName = true;
+        return this;
+    }
+
+    public JsonStreamWriter value(String value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        beforeValue();
+        writeString(value);
+        return this;
+    }
+
+    public JsonStreamWriter value(long value) throws IOException {
+        beforeValue();
+        writeLong(value);
+        return this;
+    }
+
+    public JsonStreamWriter value(boolean value) throws IOException {
+        beforeValue();
+        putAscii(value ? "true" : "false");
+        return this;
+    }
+
+    public JsonStreamWriter value(Integer value) throws IOException {
+        return value == null ? nullValue() : value((long) value);
+    }
+
+    public JsonStreamWriter value(Boolean value) throws IOException {
+        return value == null ? nullValue() : value((boolean) value);
+    }
+
+    public JsonStreamWriter nullValue() throws IOException {
+        beforeValue();
+        putAscii("null");
+        return this;
+    }
+
+    /**
+     * Requests a line break before the next token (after its separating comma), so large
+     * arrays come out one record per line and piped consumers can read them incrementally.
+     */
+    public JsonStreamWriter newline() {
+        pendingNewline = true;
+        return this;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        drain();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        emitPendingNewline();
+        flush();
+        if (closeUnderlying) {
+            out.close();
+        }
+    }
+
+    private void push() {
+        if (depth == hasElement.length) {
+            boolean[] grown = new boolean[depth * 2];
+            System.arraycopy(hasElement, 0, grown, 0, depth);
+            hasElement = grown;
+        }
+        hasElement[depth++] = false;
+    }
+
+    private void beforeValue() throws IOException {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        separator();
+    }
+
+    private void separator() throws IOException {
+        if (depth > 0) {
+            if (hasElement[depth - 1]) {
+                put(',');
+            } else {
+                hasElement[depth - 1] = true;
+            }
+        }
+        emitPendingNewline();
+    }
+
+    private void emitPendingNewline() throws IOException {
+        if (pendingNewline) {
+            pendingNewline = false;
+            put('\n');
+        }
+    }
+
+    private void writeString(String s) throws IOException {
+        put('"');
+        for (int i = 0, n = s.length(); i < n; i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"': put('\\'); put('"'); break;
+                case '\\': put('\\'); put('\\'); break;
+                case '\n': put('\\'); put('n'); break;
+                case '\r': put('\\'); put('r'); break;
+                case '\t': put('\\'); put('t'); break;
+                default:
+                    if (c < 0x20) {
+                        put('\\'); put('u'); put('0'); put('0');
+                        put(HEX[c >> 4]); put(HEX[c & 0xF]);
+                    } else {
+                        put(c);
+                    }
+            }
+        }
+        put('"');
+    }
+
+    private void writeLong(long v) throws IOException {
+        if (v == Long.MIN_VALUE) {
+            putAscii("-9223372036854775808");
+            return;
+        }
+        if (pos + 20 > buf.length) {
+            drain();
+        }
+        if (v < 0) {
+            buf[pos++] = '-';
+            v = -v;
+        }
+        int start = pos;
+        do {
+            buf[pos++] = (char) ('0' + (v % 10));
+            v /= 10;
+        } while (v != 0);
+        // digits were produced least-significant first
+        for (int i = start, j = pos - 1; i < j; i++, j--) {
+            char t = buf[i];
+            buf[i] = buf[j];
+            buf[j] = t;
+        }
+    }
+
+    private void putAscii(String s) throws IOException {
+        for (int i = 0, n = s.length(); i < n; i++) {
+            put(s.charAt(i));
+        }
+    }
+
+    private void put(char c) throws IOException {
+        if (pos == buf.length) {
+            drain();
+        }
+        buf[pos++] = c;
+    }
+
+    private void drain() throws IOException {
+        if (pos > 0) {
+            out.write(buf, 0, pos);
+            pos = 0;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.sciencefair.util;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Streaming RGB PNG encoder used by the floor-plan and sign renderers (ImageIO needs the whole
+ * image and compresses slowly). Images are appended as horizontal strips: each strip is filtered
+ * and deflated on its own with a sync flush, so strips can be encoded on any thread and the
+ * byte-aligned segments concatenate into one zlib stream; the Adler-32 checksum is combined.
+ */
+final class PngWriter {
+
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    // zlib header (deflate, 32K window, fastest level) and a final empty fixed-Huffman block
+    private static final byte[] ZLIB_HEADER = {0x78, 0x01};
+    private static final byte[] DEFLATE_FINAL_BLOCK = {0x03, 0x00};
+
+    /** One encoded strip */
+    static final class Segment {
+        final byte[] deflated;
+        final long adler;
+        final long rawLength;
+
+        Segment(byte[] deflated, long adler, long rawLength) {
+            this.deflated = deflated;
+            this.adler = adler;
+            this.rawLength = rawLength;
+        }
+    }
+
+    private final DataOutputStream png;
+    private long adler = 1;
+
+    /**
+     * Writes the signature, header and resolution; follow with {@link #write} per strip, top to
+     * bottom, and {@link #finish()}.
+     */
+    PngWriter(OutputStream out, int width, int height, int dpi) throws IOException {
+        png = new DataOutputStream(out);
+        png.write(PNG_SIGNATURE);
+        ByteArrayOutputStream header = new ByteArrayOutputStream(13);
+        DataOutputStream ihdr = new DataOutputStream(header);
+        ihdr.writeInt(width);
+        ihdr.writeInt(height);
+        ihdr.writeByte(8);  // bit depth
+        ihdr.writeByte(2);  // truecolor RGB
+        ihdr.writeByte(0);  // deflate
+        ihdr.writeByte(0);  // adaptive filtering
+        ihdr.writeByte(0);  // no interlace
+        writeChunk("IHDR", header.toByteArray());
+        header.reset();
+        int pixelsPerMeter = (int) Math.round(dpi / 0.0254);
+        ihdr.writeInt(pixelsPerMeter);
+        ihdr.writeInt(pixelsPerMeter);
+        ihdr.writeByte(1);  // unit: meter
+        writeChunk("pHYs", header.toByteArray());
+        writeChunk("IDAT", ZLIB_HEADER);
+    }
+
+    /** Encodes a whole image in one strip. */
+    static void write(BufferedImage image, OutputStream out, int dpi) throws IOException {
+        PngWriter png = new PngWriter(out, image.getWidth(), image.getHeight(), dpi);
+        png.write(encode(image));
+        png.finish();
+    }
+
+    void write(Segment segment) throws IOException {
+        writeChunk("IDAT", segment.deflated);
+        adler = adler32Combine(adler, segment.adler, segment.rawLength);
+    }
+
+    void finish() throws IOException {
+        byte[] trailer = new byte[DEFLATE_FINAL_BLOCK.length + 4];
+        System.arraycopy(DEFLATE_FINAL_BLOCK, 0, trailer, 0, DEFLATE_FINAL_BLOCK.length);
+        for (int i = 0; i < 4; i++) {
+            trailer[DEFLATE_FINAL_BLOCK.length + i] = (byte) (adler >>> (24 - 8 * i));
+        }
+        writeChunk("IDAT", trailer);
+        writeChunk("IEND", new byte[0]);
+        png.flush();
+    }
+
+    /**
+     * Filters and deflates a TYPE_INT_RGB strip; thread-safe.
+     */
+    static Segment encode(BufferedImage strip) {
+        int width = strip.getWidth();
+        int height = strip.getHeight();
+        // Scanlines with the Sub filter: each byte minus the same channel of the pixel to its left
+        int[] pixels = ((DataBufferInt) strip.getRaster().getDataBuffer()).getData();
+        int stride = width * 3 + 1;
+        byte[] raw = new byte[stride * height];
+        for (int row = 0, p = 0, o = 0; row < height; row++) {
+            raw[o++] = 1;
+            int prev = 0;
+            for (int col = 0; col < width; col++, p++) {
+                int rgb = pixels[p];
+                raw[o++] = (byte) ((rgb >>> 16) - (prev >>> 16));
+                raw[o++] = (byte) ((rgb >>> 8) - (prev >>> 8));
+                raw[o++] = (byte) (rgb - prev);
+                prev = rgb;
+            }
+        }
+        Adler32 checksum = new Adler32();
+        checksum.update(raw, 0, raw.length);
+
+        // Rendered layouts are mostly flat color; the fastest level costs little size and a third of the time
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+        try {
+            deflater.setInput(raw);
+            ByteArrayOutputStream deflated = new ByteArrayOutputStream(Math.max(1024, raw.length / 16));
+            byte[] chunk = new byte[64 * 1024];
+            int n;
+            do {
+                n = deflater.deflate(chunk, 0, chunk.length, Deflater.SYNC_FLUSH);
+                deflated.write(chunk, 0, n);
+            } while (n == chunk.length || !deflater.needsInput());
+            return new Segment(deflated.toByteArray(), checksum.getValue(), raw.length);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private void writeChunk(String type, byte[] data) throws IOException {
+        byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data);
+        png.writeInt(data.length);
+        png.write(typeBytes);
+        png.write(data);
+        png.writeInt((int) crc.getValue());
+    }
+
+    /** Adler-32 of the concatenation of two blocks, given the length of the second (as in zlib). */
+    static long adler32Combine(long adler1, long adler2, long length2) {
+        final long base = 65521;
+        long rem = length2 % base;
+        long sum1 = adler1 & 0xffff;
+        long sum2 = (rem * sum1) % base;
+        sum1 += (adler2 & 0xffff) + base - 1;
+        sum2 += ((adler1 >>> 16) & 0xffff) + ((adler2 >>> 16) & 0xffff) + base - rem;
+        if (sum1 >= base) sum1 -= base;
+        if (sum1 >= base) sum1 -= base;
+        if (sum2 >= (base << 1)) sum2 -= (base << 1);
+        if (sum2 >= base) sum2 -= base;
+        return sum1 | (sum2 << 16);
+    }
+}
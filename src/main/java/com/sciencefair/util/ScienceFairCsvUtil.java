@@ -13,6 +13,7 @@ import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.DoubleConsumer;
 
 /**
  * Utility class for reading and writing science fair CSV files
@@ -23,10 +24,22 @@ public class ScienceFairCsvUtil {
      * Expected format: Row,tableSlotID,isUnassigned,projectID,isTeam,Category
      */
     public static List<SlotAssignment> readSlotAssignments(String filePath) throws IOException {
+        return readSlotAssignments(filePath, null);
+    }
+
+    /**
+     * Same as {@link #readSlotAssignments(String)}, reporting the fraction of the file read
+     * (0..1, by characters against the file size) every few thousand records.
+     */
+    public static List<SlotAssignment> readSlotAssignments(String filePath, DoubleConsumer progress) throws IOException {
         List<SlotAssignment> assignments = new ArrayList<>();
+        double size = Math.max(1, Files.size(Paths.get(filePath)));
         try (Reader reader = Files.newBufferedReader(Paths.get(filePath));
              CSVParser csvParser = new CSVParser(reader, CSVFormat.DEFAULT.withFirstRecordAsHeader())) {
             for (CSVRecord csvRecord : csvParser) {
+                if (progress != null && (assignments.size() & 4095) == 0) {
+                    progress.accept(Math.min(1.0, csvRecord.getCharacterPosition() / size));
+                }
                 SlotAssignment assignment = new SlotAssignment();
                 assignment.setRow(Integer.parseInt(csvRecord.get("Row")));
                 assignment.setTableSlotID(Integer.parseInt(csvRecord.get("tableSlotID")));
@@ -49,12 +62,33 @@ public class ScienceFairCsvUtil {
      * Expected format: Row,rowNumSlots,tableSlotID,isReserved
      */
     public static List<TableSlot> readTableSlots(String filePath) throws IOException {
+        return readTableSlots(filePath, null);
+    }
+
+    /**
+     * Same as {@link #readTableSlots(String)} as a progress stage, counting records against a
+     * total estimated from the file size; stops at the next batch once cancelled.
+     */
+    public static List<TableSlot> readTableSlots(String filePath, TaskProgress progress) throws IOException {
+        long size = beginReadStage(progress, filePath);
+        try (Reader reader = Files.newBufferedReader(Paths.get(filePath))) {
+            return readTableSlots(reader, progress, size);
+        }
+    }
+
+    /** Same as {@link #readTableSlots(String)} from CSV text, e.g. a request body; closes the reader */
+    public static List<TableSlot> readTableSlots(Reader reader) throws IOException {
+        return readTableSlots(reader, null, 0);
+    }
+
+    private static List<TableSlot> readTableSlots(Reader reader, TaskProgress progress, long size) throws IOException {
         List<TableSlot> tableSlots = new ArrayList<>();
-        
-        try (Reader reader = Files.newBufferedReader(Paths.get(filePath));
-             CSVParser csvParser = new CSVParser(reader, CSVFormat.DEFAULT.withFirstRecordAsHeader())) {
+        try (CSVParser csvParser = new CSVParser(reader, CSVFormat.DEFAULT.withFirstRecordAsHeader())) {
             
             for (CSVRecord csvRecord : csvParser) {
+                if (progress != null && (tableSlots.size() & 4095) == 0) {
+                    reportRead(progress, tableSlots.size(), csvRecord, size);
+                }
                 TableSlot slot = new TableSlot();
                 slot.setRow(Integer.parseInt(csvRecord.get("Row")));
                 slot.setRowNumSlots(Integer.parseInt(csvRecord.get("rowNumSlots")));
@@ -64,6 +98,9 @@ public class ScienceFairCsvUtil {
                 tableSlots.add(slot);
             }
         }
+        if (progress != null) {
+            progress.update(tableSlots.size(), tableSlots.size());
+        }
         
         return tableSlots;
     }
@@ -73,12 +110,30 @@ public class ScienceFairCsvUtil {
      * Expected format: projectID,isTeam,isFirstInCat,Category
      */
     public static List<ScienceProject> readScienceProjects(String filePath) throws IOException {
+        return readScienceProjects(filePath, null);
+    }
+
+    /** Same as {@link #readScienceProjects(String)} as a progress stage, like {@link #readTableSlots(String, TaskProgress)} */
+    public static List<ScienceProject> readScienceProjects(String filePath, TaskProgress progress) throws IOException {
+        long size = beginReadStage(progress, filePath);
+        try (Reader reader = Files.newBufferedReader(Paths.get(filePath))) {
+            return readScienceProjects(reader, progress, size);
+        }
+    }
+
+    /** Same as {@link #readScienceProjects(String)} from CSV text; closes the reader */
+    public static List<ScienceProject> readScienceProjects(Reader reader) throws IOException {
+        return readScienceProjects(reader, null, 0);
+    }
+
+    private static List<ScienceProject> readScienceProjects(Reader reader, TaskProgress progress, long size) throws IOException {
         List<ScienceProject> projects = new ArrayList<>();
-        
-        try (Reader reader = Files.newBufferedReader(Paths.get(filePath));
-             CSVParser csvParser = new CSVParser(reader, CSVFormat.DEFAULT.withFirstRecordAsHeader())) {
+        try (CSVParser csvParser = new CSVParser(reader, CSVFormat.DEFAULT.withFirstRecordAsHeader())) {
             
             for (CSVRecord csvRecord : csvParser) {
+                if (progress != null && (projects.size() & 4095) == 0) {
+                    reportRead(progress, projects.size(), csvRecord, size);
+                }
                 ScienceProject project = new ScienceProject();
                 project.setProjectID(Integer.parseInt(csvRecord.get("projectID")));
                 project.setTeam(parseBoolean(csvRecord.get("isTeam")));
@@ -88,6 +143,9 @@ public class ScienceFairCsvUtil {
                 projects.add(project);
             }
         }
+        if (progress != null) {
+            progress.update(projects.size(), projects.size());
+        }
         
         return projects;
     }
@@ -97,11 +155,45 @@ public class ScienceFairCsvUtil {
      * Output format: Row,tableSlotID,isUnassigned,projectID,isTeam,Category
      */
     public static void writeSlotAssignments(List<SlotAssignment> assignments, String filePath) throws IOException {
-        try (BufferedWriter writer = Files.newBufferedWriter(Paths.get(filePath));
-             CSVPrinter csvPrinter = new CSVPrinter(writer, CSVFormat.DEFAULT.withHeader(
+        writeSlotAssignments(assignments, filePath, null);
+    }
+
+    /**
+     * Same as {@link #writeSlotAssignments(List, String)} as a progress stage counting slots,
+     * updated and checked for cancellation whenever the row changes.
+     */
+    public static void writeSlotAssignments(List<SlotAssignment> assignments, String filePath, TaskProgress progress) throws IOException {
+        if (progress != null) {
+            progress.beginStage("Writing " + Paths.get(filePath).getFileName(), assignments.size(), "slots");
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(Paths.get(filePath))) {
+            writeSlotAssignments(assignments, writer, progress);
+        }
+    }
+
+    /** Same as {@link #writeSlotAssignments(List, String)} to any writer, which is flushed but not closed */
+    public static void writeSlotAssignments(List<SlotAssignment> assignments, Writer writer) throws IOException {
+        writeSlotAssignments(assignments, writer, null);
+    }
+
+    private static void writeSlotAssignments(List<SlotAssignment> assignments, Writer writer, TaskProgress progress) throws IOException {
+        try (CSVPrinter csvPrinter = new CSVPrinter(new FilterWriter(writer) {
+                 @Override
+                 public void close() throws IOException {
+                     flush(); // the caller owns the writer
+                 }
+             }, CSVFormat.DEFAULT.withHeader(
                  "Row", "tableSlotID", "isUnassigned", "projectID", "isTeam", "Category", "reserved"))) {
             
+            int written = 0;
+            int previousRow = Integer.MIN_VALUE;
             for (SlotAssignment assignment : assignments) {
+                if (progress != null && assignment.getRow() != previousRow) {
+                    previousRow = assignment.getRow();
+                    progress.update(written);
+                    progress.checkCancelled();
+                }
+                written++;
                 csvPrinter.printRecord(
                     assignment.getRow(),
                     assignment.getTableSlotID(),
@@ -113,6 +205,25 @@ public class ScienceFairCsvUtil {
                 );
             }
         }
+        if (progress != null) {
+            progress.update(assignments.size());
+        }
+    }
+
+    /** Starts a read stage and returns the file size, or 0 without progress */
+    private static long beginReadStage(TaskProgress progress, String filePath) throws IOException {
+        if (progress == null) {
+            return 0;
+        }
+        progress.beginStage("Reading " + Paths.get(filePath).getFileName(), -1, "records");
+        return Files.size(Paths.get(filePath));
+    }
+
+    /** Records so far, with the total extrapolated from how far into the file they reach */
+    private static void reportRead(TaskProgress progress, int records, CSVRecord current, long size) {
+        long position = current.getCharacterPosition();
+        progress.update(records, records > 0 && position > 0 ? Math.max(records, records * size / position) : -1);
+        progress.checkCancelled();
     }
     
     /**
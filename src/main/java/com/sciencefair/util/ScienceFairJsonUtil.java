@@ -0,0 +1,129 @@
+package com.sciencefair.util;
+
+import com.sciencefair.model.AssignmentSummary;
+import com.sciencefair.model.ScienceProject;
+import com.sciencefair.model.SlotAssignment;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes assignment results as JSON for downstream tools.
+ * Output format:
+ * {"assignments":[{"row":1,"tableSlotID":1,"isUnassigned":false,"projectID":101,"isTeam":false,"category":"...","reserved":false},...],
+ *  "summary":{...}}
+ * Assignments are streamed one record per line, so consumers can parse them incrementally.
+ */
+public class ScienceFairJsonUtil {
+
+    /**
+     * Writes assignments and summary to a UTF-8 JSON file
+     */
+    public static void writeAssignmentsJson(List<SlotAssignment> assignments, AssignmentSummary summary, String filePath) throws IOException {
+        try (JsonStreamWriter json = JsonStreamWriter.toFile(filePath)) {
+            writeDocument(json, assignments, summary);
+        }
+    }
+
+    /**
+     * Writes assignments and summary to a stream (e.g. System.out) without closing it
+     */
+    public static void writeAssignmentsJson(List<SlotAssignment> assignments, AssignmentSummary summary, OutputStream out) throws IOException {
+        try (JsonStreamWriter json = JsonStreamWriter.toStream(out)) {
+            writeDocument(json, assignments, summary);
+        }
+    }
+
+    private static void writeDocument(JsonStreamWriter json, List<SlotAssignment> assignments, AssignmentSummary summary) throws IOException {
+        json.beginObject();
+        json.name("assignments").beginArray();
+        for (SlotAssignment a : assignments) {
+            json.newline();
+            writeAssignment(json, a);
+        }
+        json.endArray();
+        if (summary != null) {
+            json.newline();
+            json.name("summary");
+            writeSummary(json, summary);
+        }
+        json.endObject().newline();
+    }
+
+    public static void writeAssignment(JsonStreamWriter json, SlotAssignment a) throws IOException {
+        json.beginObject()
+            .name("row").value(a.getRow())
+            .name("tableSlotID").value(a.getTableSlotID())
+            .name("isUnassigned").value(a.isUnassigned())
+            .name("projectID").value(a.getProjectID())
+            .name("isTeam").value(a.getIsTeam())
+            .name("category").value(a.getCategory())
+            .name("reserved").value(a.isReserved())
+            .endObject();
+    }
+
+    public static void writeSummary(JsonStreamWriter json, AssignmentSummary s) throws IOException {
+        json.beginObject()
+            .name("totalSlots").value(s.getTotalSlots())
+            .name("availableSlots").value(s.getAvailableSlots())
+            .name("reservedSlots").value(s.getReservedSlots())
+            .name("assignedSlots").value(s.getAssignedSlots())
+            .name("unassignedSlots").value(s.getUnassignedSlots())
+            .name("totalProjects").value(s.getTotalProjects())
+            .name("assignedProjects").value(s.getAssignedProjects())
+            .name("unassignedProjects").value(s.getUnassignedProjects());
+
+        // A registry per summary: the names may come from a service caller
+        CategoryRegistry categories = new CategoryRegistry();
+        json.name("categories").beginArray();
+        for (Map.Entry<String, Long> e : s.getProjectsByCategory().entrySet()) {
+            json.beginObject()
+                .name("category").value(e.getKey())
+                .name("code").value(categories.resolve(e.getKey()).getCode())
+                .name("projects").value(e.getValue())
+                .name("assigned").value(s.getAssignedProjectsByCategory().getOrDefault(e.getKey(), 0L))
+                .endObject();
+        }
+        json.endArray();
+
+        json.name("unassignedProjectList").beginArray();
+        for (ScienceProject p : s.getUnassignedProjectList()) {
+            json.beginObject()
+                .name("projectID").value(p.getProjectID())
+                .name("isTeam").value(p.isTeam())
+                .name("category").value(p.getCategory())
+                .endObject();
+        }
+        json.endArray();
+
+        json.name("rows").beginArray();
+        for (AssignmentSummary.RowStats r : s.getRowStats()) {
+            json.beginObject()
+                .name("row").value(r.getRow())
+                .name("totalSlots").value(r.getTotalSlots())
+                .name("emptySlots").value(r.getEmptySlots())
+                .name("reservedSlots").value(r.getReservedSlots())
+                .endObject();
+        }
+        json.endArray();
+
+        json.name("aisle").beginObject()
+            .name("enabled").value(s.getAislePivotRow() > 0)
+            .name("pivotRow").value(s.getAislePivotRow());
+        writeIntArray(json.name("leftSideRows"), s.getLeftSideRows());
+        writeIntArray(json.name("rightSideRows"), s.getRightSideRows());
+        json.endObject();
+
+        json.endObject();
+    }
+
+    private static void writeIntArray(JsonStreamWriter json, List<Integer> values) throws IOException {
+        json.beginArray();
+        for (Integer v : values) {
+            json.value(v);
+        }
+        json.endArray();
+    }
+}
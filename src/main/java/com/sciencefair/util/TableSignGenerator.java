@@ -0,0 +1,322 @@
+package com.sciencefair.util;
+
+import com.sciencefair.model.SlotAssignment;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Generates one printable sign per table (table number, row, project IDs and categories).
+ * Table numbers and slot order come from {@link FloorPlanLayout}, i.e. the same snake numbering
+ * as output.html. Signs are rendered in batches on the fork/join pool, either as one paginated
+ * HTML document (one sign per printed page) or as one PNG per table.
+ */
+public final class TableSignGenerator {
+
+    private static final int BATCH_SIZE = 64;
+    // Sign card: 7 x 5 inches
+    private static final int SIGN_WIDTH = 672;
+    private static final int SIGN_HEIGHT = 480;
+
+    private static final byte[] HTML_HEAD = Utf8ByteBuffer.utf8(
+            "<!DOCTYPE html>\n<html>\n<head>\n<meta charset='utf-8'>\n<title>Table Signs</title>\n<style>\n"
+            + "@page { size: 7in 5in; margin: 0; }\n"
+            + "body { margin: 0; font-family: 'Segoe UI', Tahoma, Geneva, Verdana, sans-serif; color: #2d3748; }\n"
+            + ".sign { box-sizing: border-box; width: 7in; height: 5in; padding: 0.3in 0.4in; page-break-after: always; break-after: page; display: flex; flex-direction: column; }\n"
+            + ".sign-header { display: flex; justify-content: space-between; align-items: baseline; border-bottom: 3px solid #2d3748; padding-bottom: 6px; }\n"
+            + ".sign-table { font-size: 64px; font-weight: 800; }\n"
+            + ".sign-row { font-size: 22px; font-weight: 600; color: #4a5568; }\n"
+            + ".sign-slots { display: flex; gap: 0.25in; flex: 1; margin-top: 0.25in; }\n"
+            + ".sign-slot { flex: 1; border-radius: 12px; border: 4px solid #cbd5e0; background: #f7fafc; padding: 14px; display: flex; flex-direction: column; justify-content: center; text-align: center; }\n"
+            + ".sign-project { font-size: 54px; font-weight: 800; }\n"
+            + ".sign-category { font-size: 17px; margin-top: 8px; }\n"
+            + ".sign-code { font-size: 15px; font-weight: 700; margin-top: 4px; letter-spacing: 0.06em; }\n"
+            + ".sign-team { display: inline-block; margin-top: 10px; padding: 2px 12px; border-radius: 999px; background: #475569; color: white; font-size: 14px; font-weight: 700; }\n"
+            + ".sign-empty { font-size: 30px; font-weight: 700; color: #a0aec0; }\n"
+            + "@media screen { body { background: #e2e8f0; } .sign { background: white; margin: 16px auto; box-shadow: 0 2px 8px rgba(0,0,0,0.15); } }\n"
+            + "</style>\n</head>\n<body>\n");
+    private static final byte[] HTML_FOOTER = Utf8ByteBuffer.utf8("</body>\n</html>\n");
+
+    private static final Font TABLE_FONT = new Font(Font.SANS_SERIF, Font.BOLD, 64);
+    private static final Font ROW_FONT = new Font(Font.SANS_SERIF, Font.BOLD, 22);
+    private static final Font PROJECT_FONT = new Font(Font.SANS_SERIF, Font.BOLD, 54);
+    private static final Font CATEGORY_FONT = new Font(Font.SANS_SERIF, Font.PLAIN, 16);
+    private static final Font CODE_FONT = new Font(Font.SANS_SERIF, Font.BOLD, 15);
+    private static final Font EMPTY_FONT = new Font(Font.SANS_SERIF, Font.BOLD, 30);
+    private static final Color INK = new Color(0x2d3748);
+    private static final Color MUTED = new Color(0x4a5568);
+    private static final Color TEAM_BADGE = new Color(0x475569);
+
+    /**
+     * One table: number, row and its slots left to right as seen in the hall (second may be null).
+     */
+    public static final class TableSign {
+        private final int tableNumber;
+        private final int row;
+        private final SlotAssignment left;
+        private final SlotAssignment right;
+
+        TableSign(int tableNumber, int row, SlotAssignment left, SlotAssignment right) {
+            this.tableNumber = tableNumber;
+            this.row = row;
+            this.left = left;
+            this.right = right;
+        }
+
+        public int getTableNumber() { return tableNumber; }
+        public int getRow() { return row; }
+        public SlotAssignment getLeft() { return left; }
+        public SlotAssignment getRight() { return right; }
+    }
+
+    private final List<TableSign> signs;
+    private final CategoryRegistry categories = CategoryRegistry.shared();
+
+    public TableSignGenerator(List<SlotAssignment> assignments, HallLayoutUtil hallLayout) {
+        this(FloorPlanLayout.build(assignments, hallLayout));
+    }
+
+    public TableSignGenerator(FloorPlanLayout layout) {
+        List<TableSign> list = new ArrayList<>();
+        for (FloorPlanLayout.Row row : layout.getRows()) {
+            for (int t = 0; t < row.getTableCount(); t++) {
+                list.add(new TableSign(row.getTableNumber(t), row.getRowNumber(), row.getSlot(t, 0), row.getSlot(t, 1)));
+            }
+        }
+        list.sort(Comparator.comparingInt(TableSign::getTableNumber));
+        this.signs = Collections.unmodifiableList(list);
+    }
+
+    /** Signs in table-number order */
+    public List<TableSign> getSigns() {
+        return signs;
+    }
+
+    /**
+     * Writes all signs into one HTML document, one sign per printed page.
+     */
+    public void writeHtml(String htmlFile) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(Paths.get(htmlFile)), 1 << 16)) {
+            writeHtml(out);
+        }
+    }
+
+    public void writeHtml(OutputStream out) throws IOException {
+        out.write(HTML_HEAD);
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        // Render a window of batches concurrently, then write them in table order
+        int window = Math.max(2, pool.getParallelism() * 2) * BATCH_SIZE;
+        for (int start = 0; start < signs.size(); start += window) {
+            int end = Math.min(signs.size(), start + window);
+            List<ForkJoinTask<Utf8ByteBuffer>> batches = new ArrayList<>();
+            for (int from = start; from < end; from += BATCH_SIZE) {
+                int lo = from;
+                int hi = Math.min(end, from + BATCH_SIZE);
+                batches.add(pool.submit(() -> renderHtmlBatch(lo, hi)));
+            }
+            for (ForkJoinTask<Utf8ByteBuffer> batch : batches) {
+                batch.join().writeTo(out);
+            }
+        }
+        out.write(HTML_FOOTER);
+    }
+
+    private Utf8ByteBuffer renderHtmlBatch(int from, int to) {
+        Utf8ByteBuffer html = new Utf8ByteBuffer((to - from) * 1024);
+        for (int i = from; i < to; i++) {
+            TableSign sign = signs.get(i);
+            html.append("<div class='sign'>\n  <div class='sign-header'><span class='sign-table'>Table ")
+                    .append(sign.tableNumber).append("</span><span class='sign-row'>Row ")
+                    .append(sign.row).append("</span></div>\n  <div class='sign-slots'>\n");
+            appendHtmlSlot(html, sign.left);
+            if (sign.right != null) {
+                appendHtmlSlot(html, sign.right);
+            }
+            html.append("  </div>\n</div>\n");
+        }
+        return html;
+    }
+
+    private void appendHtmlSlot(Utf8ByteBuffer html, SlotAssignment slot) {
+        if (slot.isUnassigned() || slot.getProjectID() == null) {
+            CategoryRegistry.Style style = slot.isReserved() ? CategoryRegistry.RESERVED_STYLE : CategoryRegistry.EMPTY_STYLE;
+            html.append("    <div class='sign-slot'").append(slotStyle(style)).append("><div class='sign-empty'>")
+                    .append(slot.isReserved() ? "Reserved" : "Open").append("</div></div>\n");
+            return;
+        }
+        CategoryRegistry.Category category = categories.resolve(slot.getCategory());
+        html.append("    <div class='sign-slot'").append(slotStyle(category.getStyle())).append(">")
+                .append("<div class='sign-project'>P").append(slot.getProjectID().intValue()).append("</div>")
+                .append("<div class='sign-category'>").append(escapeHtml(slot.getCategory())).append("</div>")
+                .append("<div class='sign-code'>").append(category.getSlotLabel()).append("</div>");
+        if (slot.getIsTeam() != null && slot.getIsTeam()) {
+            html.append("<div><span class='sign-team'>Team project</span></div>");
+        }
+        html.append("</div>\n");
+    }
+
+    private static String slotStyle(CategoryRegistry.Style style) {
+        return String.format(" style='background: linear-gradient(135deg, #%06x, #%06x); border-color: #%06x; color: #%06x;'",
+                style.getBackgroundStart(), style.getBackgroundEnd(), style.getAccentColor(), style.getTextColor());
+    }
+
+    private static String escapeHtml(String text) {
+        StringBuilder sb = new StringBuilder(text.length() + 8);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '<': sb.append("&lt;"); break;
+                case '>': sb.append("&gt;"); break;
+                case '&': sb.append("&amp;"); break;
+                case '\'': sb.append("&#39;"); break;
+                case '"': sb.append("&quot;"); break;
+                default: sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Writes one PNG per table (table-0001.png, ...) into a directory at the given DPI.
+     * Returns the number of files written.
+     */
+    public int writePngs(String directory, int dpi) throws IOException {
+        Path dir = Paths.get(directory);
+        Files.createDirectories(dir);
+        int clampedDpi = Math.max(FloorPlanRenderer.MIN_DPI, Math.min(600, dpi));
+        double scale = clampedDpi / (double) FloorPlanRenderer.BASE_DPI;
+        int digits = Math.max(4, String.valueOf(signs.isEmpty() ? 0 : signs.get(signs.size() - 1).tableNumber).length());
+
+        List<ForkJoinTask<?>> batches = new ArrayList<>();
+        for (int from = 0; from < signs.size(); from += BATCH_SIZE) {
+            int lo = from;
+            int hi = Math.min(signs.size(), from + BATCH_SIZE);
+            batches.add(ForkJoinPool.commonPool().submit(() -> {
+                for (int i = lo; i < hi; i++) {
+                    TableSign sign = signs.get(i);
+                    Path file = dir.resolve(String.format("table-%0" + digits + "d.png", sign.tableNumber));
+                    try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file), 1 << 16)) {
+                        PngWriter.write(renderSign(sign, scale), out, clampedDpi);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            }));
+        }
+        try {
+            for (ForkJoinTask<?> batch : batches) {
+                batch.join();
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return signs.size();
+    }
+
+    private BufferedImage renderSign(TableSign sign, double scale) {
+        BufferedImage image = new BufferedImage((int) Math.ceil(SIGN_WIDTH * scale), (int) Math.ceil(SIGN_HEIGHT * scale),
+                BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, image.getWidth(), image.getHeight());
+            g.scale(scale, scale);
+
+            int pad = 32;
+            g.setColor(INK);
+            g.setFont(TABLE_FONT);
+            g.drawString("Table " + sign.tableNumber, pad, pad + 58);
+            g.setColor(MUTED);
+            g.setFont(ROW_FONT);
+            String row = "Row " + sign.row;
+            g.drawString(row, SIGN_WIDTH - pad - g.getFontMetrics().stringWidth(row), pad + 58);
+            g.setColor(INK);
+            g.fillRect(pad, pad + 72, SIGN_WIDTH - 2 * pad, 3);
+
+            int top = pad + 96;
+            int height = SIGN_HEIGHT - top - pad;
+            int gap = 24;
+            int slots = sign.right != null ? 2 : 1;
+            int width = (SIGN_WIDTH - 2 * pad - (slots - 1) * gap) / slots;
+            paintSlot(g, sign.left, pad, top, width, height);
+            if (sign.right != null) {
+                paintSlot(g, sign.right, pad + width + gap, top, width, height);
+            }
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+
+    private void paintSlot(Graphics2D g, SlotAssignment slot, int x, int y, int w, int h) {
+        boolean placed = !slot.isUnassigned() && slot.getProjectID() != null;
+        CategoryRegistry.Category category = placed ? categories.resolve(slot.getCategory()) : null;
+        CategoryRegistry.Style style = placed ? category.getStyle()
+                : slot.isReserved() ? CategoryRegistry.RESERVED_STYLE : CategoryRegistry.EMPTY_STYLE;
+        g.setPaint(new GradientPaint(x, y, new Color(style.getBackgroundStart()), x + w, y + h, new Color(style.getBackgroundEnd())));
+        g.fillRoundRect(x, y, w, h, 24, 24);
+        g.setColor(new Color(style.getAccentColor()));
+        g.setStroke(new BasicStroke(4f));
+        g.drawRoundRect(x + 2, y + 2, w - 4, h - 4, 24, 24);
+        g.setColor(new Color(style.getTextColor()));
+        int cx = x + w / 2;
+        if (!placed) {
+            g.setFont(EMPTY_FONT);
+            centerText(g, slot.isReserved() ? "Reserved" : "Open", cx, y + h / 2 + 10);
+            return;
+        }
+        g.setFont(PROJECT_FONT);
+        centerText(g, "P" + slot.getProjectID(), cx, y + h / 2 - 20);
+        g.setFont(CATEGORY_FONT);
+        centerText(g, fit(g, slot.getCategory(), w - 24), cx, y + h / 2 + 22);
+        g.setFont(CODE_FONT);
+        centerText(g, category.getSlotLabel(), cx, y + h / 2 + 46);
+        if (slot.getIsTeam() != null && slot.getIsTeam()) {
+            g.setFont(CODE_FONT);
+            FontMetrics fm = g.getFontMetrics();
+            int bw = fm.stringWidth("Team project") + 24;
+            g.setColor(TEAM_BADGE);
+            g.fillRoundRect(cx - bw / 2, y + h / 2 + 60, bw, 24, 24, 24);
+            g.setColor(Color.WHITE);
+            centerText(g, "Team project", cx, y + h / 2 + 78);
+        }
+    }
+
+    /** Shortens text with an ellipsis so it fits the given width. */
+    private static String fit(Graphics2D g, String text, int width) {
+        FontMetrics fm = g.getFontMetrics();
+        if (fm.stringWidth(text) <= width) {
+            return text;
+        }
+        int end = text.length();
+        while (end > 1 && fm.stringWidth(text.substring(0, end) + "...") > width) {
+            end--;
+        }
+        return text.substring(0, end) + "...";
+    }
+
+    private static void centerText(Graphics2D g, String text, int cx, int baseline) {
+        g.drawString(text, cx - g.getFontMetrics().stringWidth(text) / 2, baseline);
+    }
+}
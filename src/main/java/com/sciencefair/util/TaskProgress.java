@@ -0,0 +1,131 @@
+package com.sciencefair.util;
+
+import java.util.Locale;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Progress of a long run, shared between the thread doing the work and whoever shows it. Each
+ * stage (reading, assigning, writing, rendering) starts itself with its unit and total, and
+ * updates plain counters at row boundaries; a display polls {@link #snapshot()} at its own pace,
+ * so nothing piles up on the event thread however fast rows go by.
+ * <p>
+ * Cancellation is cooperative: {@link #cancel()} only sets a flag, and the stages call
+ * {@link #checkCancelled()} at row boundaries, which throws {@link CancellationException}.
+ */
+public final class TaskProgress {
+
+    /** Consistent view of the current stage */
+    public static final class Snapshot {
+        private final String stage;
+        private final String unit;
+        private final long done;
+        private final long total;
+        private final long elapsedNanos;
+
+        Snapshot(String stage, String unit, long done, long total, long elapsedNanos) {
+            this.stage = stage;
+            this.unit = unit;
+            this.done = done;
+            this.total = total;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public String getStage() { return stage; }
+        public String getUnit() { return unit; }
+        public long getDone() { return done; }
+        /** Units in this stage, or -1 while unknown */
+        public long getTotal() { return total; }
+
+        /** 0-100, or -1 while the total is unknown */
+        public int getPercent() {
+            return total > 0 ? (int) Math.min(100, done * 100 / total) : -1;
+        }
+
+        public double getUnitsPerSecond() {
+            return elapsedNanos > 0 ? done * 1e9 / elapsedNanos : 0;
+        }
+
+        /** Remaining time at the stage's average rate so far, or -1 when there is no estimate */
+        public long getEtaMillis() {
+            double rate = getUnitsPerSecond();
+            return total > 0 && done > 0 && rate > 0 ? (long) ((total - done) * 1000 / rate) : -1;
+        }
+
+        /** e.g. "Assigning: 12,000 / 24,000 slots, 150,000 slots/s, about 1 s left" */
+        public String describe() {
+            StringBuilder sb = new StringBuilder(stage);
+            if (done > 0 || total > 0) {
+                sb.append(String.format(Locale.ROOT, ": %,d", done));
+                if (total > 0) {
+                    sb.append(String.format(Locale.ROOT, " / %,d", total));
+                }
+                sb.append(' ').append(unit);
+            }
+            double rate = getUnitsPerSecond();
+            if (done > 0 && rate > 0) {
+                sb.append(String.format(Locale.ROOT, ", %,.0f %s/s", rate, unit));
+            }
+            long eta = getEtaMillis();
+            if (eta >= 0) {
+                sb.append(", about ").append(eta < 1000 ? "<1" : String.valueOf((eta + 500) / 1000)).append(" s left");
+            }
+            return sb.toString();
+        }
+    }
+
+    private static final class Stage {
+        final String name;
+        final String unit;
+        final long startNanos = System.nanoTime();
+
+        Stage(String name, String unit) {
+            this.name = name;
+            this.unit = unit;
+        }
+    }
+
+    private volatile Stage stage = new Stage("Starting", "");
+    private volatile long done;
+    private volatile long total = -1;
+    private volatile boolean cancelled;
+
+    /** Starts a stage; {@code total} is -1 when not known up front. */
+    public void beginStage(String name, long total, String unit) {
+        this.done = 0;
+        this.total = total;
+        this.stage = new Stage(name, unit);
+    }
+
+    public void update(long done) {
+        this.done = done;
+    }
+
+    /** Progress with a refined total, for stages that can only estimate theirs */
+    public void update(long done, long total) {
+        this.total = total;
+        this.done = done;
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /** @throws CancellationException once {@link #cancel()} was called */
+    public void checkCancelled() {
+        if (cancelled) {
+            throw new CancellationException(stage.name + " cancelled");
+        }
+    }
+
+    public Snapshot snapshot() {
+        Stage current = stage;
+        long currentDone = done;
+        long currentTotal = total;
+        return new Snapshot(current.name, current.unit, currentDone,
+                currentTotal >= 0 ? Math.max(currentTotal, currentDone) : -1, System.nanoTime() - current.startNanos);
+    }
+}
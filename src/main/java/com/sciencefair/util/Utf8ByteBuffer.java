@@ -0,0 +1,130 @@
+package com.sciencefair.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Growable byte buffer that encodes text as UTF-8 on append. Used by the HTML renderer to
+ * assemble markup fragments without intermediate Strings; call {@link #reset()} to reuse it.
+ */
+public final class Utf8ByteBuffer {
+    private byte[] bytes;
+    private int length;
+
+    public Utf8ByteBuffer() {
+        this(8192);
+    }
+
+    public Utf8ByteBuffer(int initialCapacity) {
+        bytes = new byte[Math.max(16, initialCapacity)];
+    }
+
+    public static byte[] utf8(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    public Utf8ByteBuffer append(byte[] chunk) {
+        ensure(chunk.length);
+        System.arraycopy(chunk, 0, bytes, length, chunk.length);
+        length += chunk.length;
+        return this;
+    }
+
+    public Utf8ByteBuffer append(byte[] chunk, int offset, int count) {
+        ensure(count);
+        System.arraycopy(chunk, offset, bytes, length, count);
+        length += count;
+        return this;
+    }
+
+    public Utf8ByteBuffer append(Utf8ByteBuffer other) {
+        return append(other.bytes, 0, other.length);
+    }
+
+    public Utf8ByteBuffer append(String text) {
+        int n = text.length();
+        ensure(n);
+        for (int i = 0; i < n; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                bytes[length++] = (byte) c;
+            } else {
+                // Rare in generated markup (emoji, accented categories): defer to the JDK encoder
+                append(utf8(text.substring(i)));
+                return this;
+            }
+        }
+        return this;
+    }
+
+    public Utf8ByteBuffer append(char c) {
+        if (c >= 0x80) {
+            return append(String.valueOf(c));
+        }
+        ensure(1);
+        bytes[length++] = (byte) c;
+        return this;
+    }
+
+    public Utf8ByteBuffer append(int value) {
+        if (value == Integer.MIN_VALUE) {
+            return append(String.valueOf(value));
+        }
+        ensure(11);
+        if (value < 0) {
+            bytes[length++] = '-';
+            value = -value;
+        }
+        int start = length;
+        do {
+            bytes[length++] = (byte) ('0' + (value % 10));
+            value /= 10;
+        } while (value != 0);
+        for (int i = start, j = length - 1; i < j; i++, j--) {
+            byte t = bytes[i];
+            bytes[i] = bytes[j];
+            bytes[j] = t;
+        }
+        return this;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public void reset() {
+        length = 0;
+    }
+
+    public byte[] toByteArray() {
+        byte[] copy = new byte[length];
+        System.arraycopy(bytes, 0, copy, 0, length);
+        return copy;
+    }
+
+    public byte[] copyOfRange(int from, int to) {
+        byte[] copy = new byte[to - from];
+        System.arraycopy(bytes, from, copy, 0, copy.length);
+        return copy;
+    }
+
+    /** Decodes the contents as UTF-8. */
+    @Override
+    public String toString() {
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(bytes, 0, length);
+    }
+
+    private void ensure(int extra) {
+        int needed = length + extra;
+        if (needed > bytes.length) {
+            byte[] grown = new byte[Math.max(needed, bytes.length * 2)];
+            System.arraycopy(bytes, 0, grown, 0, length);
+            bytes = grown;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.sciencefair;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScienceFairDaemonTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void runsCommandsForTheClientAndForwardsOutputAndExitCode() throws Exception {
+        Files.write(tempDir.resolve("tables.csv"), "Row,rowNumSlots,tableSlotID,isReserved\n1,2,1,FALSE\n1,2,2,FALSE\n".getBytes());
+        Files.write(tempDir.resolve("projects.csv"), "projectID,isTeam,isFirstInCat,Category\n7,FALSE,TRUE,SR - Physics\n".getBytes());
+        Path info = tempDir.resolve("daemon");
+        try (ScienceFairDaemon daemon = ScienceFairDaemon.start(0, info)) {
+            assertTrue(Files.readString(info).startsWith(daemon.getPort() + " "));
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ByteArrayOutputStream err = new ByteArrayOutputStream();
+            int code = ScienceFairClient.run(new String[]{"--json", "tables.csv", "projects.csv", "-"}, tempDir, info,
+                    new PrintStream(out, true, StandardCharsets.UTF_8), new PrintStream(err, true, StandardCharsets.UTF_8));
+            assertEquals(0, code);
+            assertTrue(out.toString(StandardCharsets.UTF_8).startsWith("{\"assignments\":[\n{\"row\":1,\"tableSlotID\":1,"));
+            assertTrue(err.toString(StandardCharsets.UTF_8).contains("Loaded 2 table slots and 1 projects"));
+
+            err.reset();
+            assertEquals(1, ScienceFairClient.run(new String[]{"missing.csv", "projects.csv", "out.csv"}, tempDir, info,
+                    new PrintStream(new ByteArrayOutputStream(), true), new PrintStream(err, true, StandardCharsets.UTF_8)));
+            assertTrue(err.toString(StandardCharsets.UTF_8).contains(tempDir.resolve("missing.csv").toString()));
+        }
+        assertFalse(Files.exists(info));
+        assertEquals(ScienceFairClient.NO_DAEMON, ScienceFairClient.run(new String[]{"--debug"}, tempDir, info,
+                new PrintStream(new ByteArrayOutputStream()), new PrintStream(new ByteArrayOutputStream())));
+    }
+
+    @Test
+    void dropsConnectionsWithAnArgumentCountOutOfRange() throws Exception {
+        Path info = tempDir.resolve("daemon");
+        try (ScienceFairDaemon daemon = ScienceFairDaemon.start(0, info)) {
+            String token = Files.readString(info).trim().split("\\s+")[1];
+            for (String count : new String[]{"-1", "4097", "2147483647"}) {
+                try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), daemon.getPort())) {
+                    socket.setSoTimeout(5000);
+                    socket.getOutputStream().write((ScienceFairDaemon.PROTOCOL + " " + token + "\n" + tempDir + "\n" + count + "\n")
+                            .getBytes(StandardCharsets.UTF_8));
+                    assertEquals(-1, socket.getInputStream().read(), count);
+                }
+            }
+            assertEquals(2, ScienceFairClient.run(new String[0], tempDir, info,
+                    new PrintStream(new ByteArrayOutputStream()), new PrintStream(new ByteArrayOutputStream())));
+        }
+    }
+}
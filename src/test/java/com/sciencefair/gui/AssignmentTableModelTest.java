@@ -0,0 +1,71 @@
+package com.sciencefair.gui;
+
+import com.sciencefair.model.ScienceProject;
+import com.sciencefair.model.SlotAssignment;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AssignmentTableModelTest {
+
+    private static List<SlotAssignment> hall() {
+        List<SlotAssignment> assignments = new ArrayList<>();
+        assignments.add(new SlotAssignment(1, 1, new ScienceProject(30, false, true, "SR - Physics")));
+        assignments.add(new SlotAssignment(1, 2, new ScienceProject(10, true, true, "JR - Biology")));
+        assignments.add(new SlotAssignment(2, 1, true));
+        assignments.add(new SlotAssignment(2, 2, new ScienceProject(20, false, false, "JR - Biology")));
+        assignments.add(new SlotAssignment(3, 1, false));
+        return assignments;
+    }
+
+    @Test
+    void sortsByColumnAndReversesOnSecondClick() {
+        AssignmentTableModel model = new AssignmentTableModel();
+        List<SlotAssignment> assignments = hall();
+        model.setAssignments(assignments);
+        assertEquals(5, model.getRowCount());
+        assertSame(assignments.get(0), model.getAssignment(0)); // read in place
+
+        model.sortBy(AssignmentTableModel.COLUMN_PROJECT);
+        assertEquals(10, model.getValueAt(0, AssignmentTableModel.COLUMN_PROJECT));
+        assertEquals(20, model.getValueAt(1, AssignmentTableModel.COLUMN_PROJECT));
+        assertEquals(30, model.getValueAt(2, AssignmentTableModel.COLUMN_PROJECT));
+        assertNull(model.getValueAt(3, AssignmentTableModel.COLUMN_PROJECT));
+
+        model.sortBy(AssignmentTableModel.COLUMN_PROJECT);
+        assertTrue(model.isSortDescending());
+        assertEquals(30, model.getValueAt(2, AssignmentTableModel.COLUMN_PROJECT));
+        assertEquals(3, model.getValueAt(0, AssignmentTableModel.COLUMN_ROW)); // empty slots, reversed
+    }
+
+    @Test
+    void filtersCombineWithTheSortOrder() {
+        AssignmentTableModel model = new AssignmentTableModel();
+        model.setAssignments(hall());
+        assertEquals(List.of("JR - Biology", "SR - Physics"), model.getCategories());
+
+        AssignmentTableModel.Filter filter = new AssignmentTableModel.Filter();
+        filter.category = "JR - Biology";
+        model.sortBy(AssignmentTableModel.COLUMN_PROJECT);
+        model.sortBy(AssignmentTableModel.COLUMN_PROJECT);
+        model.setFilter(filter);
+        assertEquals(2, model.getRowCount());
+        assertEquals(20, model.getValueAt(0, AssignmentTableModel.COLUMN_PROJECT));
+
+        filter.team = Boolean.TRUE;
+        model.setFilter(filter);
+        assertEquals(1, model.getRowCount());
+        assertEquals(10, model.getValueAt(0, AssignmentTableModel.COLUMN_PROJECT));
+
+        filter = new AssignmentTableModel.Filter();
+        filter.firstRow = 2;
+        filter.lastRow = 3;
+        filter.status = AssignmentTableModel.STATUS_RESERVED;
+        model.setFilter(filter);
+        assertEquals(1, model.getRowCount());
+        assertEquals(2, model.getValueAt(0, AssignmentTableModel.COLUMN_ROW));
+    }
+}
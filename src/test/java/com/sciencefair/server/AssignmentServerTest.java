@@ -0,0 +1,88 @@
+package com.sciencefair.server;
+
+import com.sciencefair.model.ScienceProject;
+import com.sciencefair.model.SlotAssignment;
+import com.sciencefair.model.TableSlot;
+import com.sciencefair.service.ScienceFairAssignmentService;
+import com.sciencefair.util.HallLayoutUtil;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AssignmentServerTest {
+
+    private static String post(String url, String body, int expectedStatus) throws Exception {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+        assertEquals(expectedStatus, connection.getResponseCode());
+        try (InputStream in = expectedStatus < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    void assignsCsvAndObjectInputs() throws Exception {
+        try (AssignmentServer server = AssignmentServer.start(null, 0, 2)) {
+            String csv = post(server.getUrl() + "assign?format=csv", "{\"slots\":\"Row,rowNumSlots,tableSlotID,isReserved\\n"
+                    + "1,2,1,FALSE\\n1,2,2,FALSE\\n\",\"projects\":\"projectID,isTeam,isFirstInCat,Category\\n"
+                    + "7,FALSE,TRUE,SR - Physics\\n\"}", 200);
+            assertEquals("Row,tableSlotID,isUnassigned,projectID,isTeam,Category,reserved\r\n"
+                    + "1,1,FALSE,7,FALSE,SR - Physics,FALSE\r\n1,2,TRUE,,,,FALSE\r\n", csv);
+
+            String json = post(server.getUrl() + "assign", "{\"slots\":[{\"Row\":1,\"rowNumSlots\":2,\"tableSlotID\":1},"
+                    + "{\"Row\":1,\"rowNumSlots\":2,\"tableSlotID\":2,\"isReserved\":true}],"
+                    + "\"projects\":[{\"projectID\":7,\"isFirstInCat\":true,\"Category\":\"SR - Physics\"}],\"layout\":0}", 200);
+            assertTrue(json.startsWith("{\"assignments\":["), json);
+            assertTrue(json.contains("\"projectID\":7"));
+            assertTrue(json.contains("\"summary\":{\"totalSlots\":2,"));
+            assertEquals(2, server.getServedCount());
+        }
+    }
+
+    @Test
+    void rejectsInvalidRequests() throws Exception {
+        try (AssignmentServer server = AssignmentServer.start(null, 0, 1)) {
+            assertTrue(post(server.getUrl() + "assign", "{\"slots\":[]}", 400).contains("\"error\""));
+            assertTrue(post(server.getUrl() + "assign", "{\"slots\":[{\"Row\":\"x\"}],\"projects\":[]}", 400)
+                    .contains("slot 1"));
+            assertTrue(post(server.getUrl() + "assign",
+                    "{\"slots\":[],\"projects\":[{\"projectID\":1,\"Category\":\"SR - Physics\"},{\"projectID\":2}]}", 400)
+                    .contains("project 2"));
+            assertTrue(post(server.getUrl() + "assign", "[1,", 400).contains("offset"));
+            assertEquals(0, server.getServedCount());
+        }
+    }
+
+    @Test
+    void answersJobsThatFailWithAnErrorAndKeepsTheWorker() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        ScienceFairAssignmentService engine = new ScienceFairAssignmentService() {
+            @Override
+            public List<SlotAssignment> assignProjectsToSlots(List<ScienceProject> projects, List<TableSlot> tableSlots,
+                                                              HallLayoutUtil layout) {
+                if (calls.incrementAndGet() == 1) {
+                    throw new StackOverflowError();
+                }
+                return super.assignProjectsToSlots(projects, tableSlots, layout);
+            }
+        };
+        String body = "{\"slots\":[{\"Row\":1,\"rowNumSlots\":2,\"tableSlotID\":1}],"
+                + "\"projects\":[{\"projectID\":7,\"Category\":\"SR - Physics\"}],\"format\":\"csv\"}";
+        try (AssignmentServer server = AssignmentServer.start(null, 0, 1, engine)) {
+            assertTrue(post(server.getUrl() + "assign", body, 500).contains("StackOverflowError"));
+            assertTrue(post(server.getUrl() + "assign", body, 200).contains("SR - Physics"));
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.sciencefair.server;
+
+import com.sciencefair.model.ScienceProject;
+import com.sciencefair.model.SlotAssignment;
+import com.sciencefair.util.HallLayoutUtil;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LayoutServerTest {
+
+    private static List<SlotAssignment> hall(int firstProject) {
+        List<SlotAssignment> slots = new ArrayList<>();
+        for (int row = 1; row <= 3; row++) {
+            for (int slot = 1; slot <= 4; slot++) {
+                slots.add(new SlotAssignment(row, slot, new ScienceProject(row * 10 + slot, false, false, "SR - Chemistry")));
+            }
+        }
+        slots.set(0, new SlotAssignment(1, 1, new ScienceProject(firstProject, false, true, "SR - Chemistry")));
+        return slots;
+    }
+
+    private static void publish(LayoutServer server, List<SlotAssignment> slots) throws Exception {
+        server.publish(HallLayoutUtil.disabled(), (renderer, out) -> renderer.render(slots, out, null, true, null, null));
+    }
+
+    @Test
+    void servesTheRenderedPageAndPushesOnlyChangedRows() throws Exception {
+        try (LayoutServer server = LayoutServer.start(null, 0)) {
+            publish(server, hall(900));
+            HttpURLConnection page = (HttpURLConnection) new URL(server.getUrl()).openConnection();
+            String html;
+            try (InputStream in = page.getInputStream()) {
+                html = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            assertEquals(200, page.getResponseCode());
+            assertTrue(html.contains("id='row-3'"));
+            assertTrue(html.contains("var v = 1, es = new EventSource("));
+
+            HttpURLConnection events = (HttpURLConnection) new URL(server.getUrl() + "events?v=1").openConnection();
+            events.setReadTimeout(5000);
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(events.getInputStream(), StandardCharsets.UTF_8))) {
+                assertEquals("retry: 2000", reader.readLine());
+                while (server.getViewerCount() == 0) {
+                    Thread.sleep(10);
+                }
+                publish(server, hall(901));
+                reader.readLine();
+                assertEquals("id: 2", reader.readLine());
+                assertEquals("event: rows", reader.readLine());
+                String data = reader.readLine();
+                assertTrue(data.startsWith("data: {\"from\":1,\"v\":2,\"rows\":[[1,"), data);
+                assertFalse(data.contains("row-2"), "unchanged rows are not sent");
+                assertTrue(data.contains("P901"));
+            }
+        }
+    }
+
+    @Test
+    void dropsAViewerThatStopsReading() throws Exception {
+        try (LayoutServer server = LayoutServer.start(null, 0);
+             Socket stalled = new Socket()) {
+            stalled.setReceiveBufferSize(1024);
+            URL url = new URL(server.getUrl());
+            stalled.connect(new InetSocketAddress(url.getHost(), url.getPort()));
+            stalled.getOutputStream().write("GET /events HTTP/1.1\r\nHost: localhost\r\n\r\n".getBytes(StandardCharsets.US_ASCII));
+            long deadline = System.nanoTime() + 20_000_000_000L;
+            while (server.getViewerCount() == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(1, server.getViewerCount());
+
+            // Every row changes each time, so each event is large; the stalled viewer's writes block
+            int first = 1000;
+            while (server.getViewerCount() > 0 && System.nanoTime() < deadline) {
+                List<SlotAssignment> slots = new ArrayList<>();
+                for (int row = 1; row <= 20; row++) {
+                    for (int slot = 1; slot <= 40; slot++) {
+                        slots.add(new SlotAssignment(row, slot, new ScienceProject(first++, false, false, "SR - Chemistry")));
+                    }
+                }
+                publish(server, slots);
+                server.dropStalled(0);
+                Thread.sleep(10);
+            }
+            assertEquals(0, server.getViewerCount());
+
+            HttpURLConnection page = (HttpURLConnection) url.openConnection();
+            page.setReadTimeout(5000);
+            assertEquals(200, page.getResponseCode());
+        }
+    }
+}
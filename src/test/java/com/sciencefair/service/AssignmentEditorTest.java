@@ -0,0 +1,89 @@
+package com.sciencefair.service;
+
+import com.sciencefair.model.ScienceProject;
+import com.sciencefair.model.SlotAssignment;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AssignmentEditorTest {
+
+    // Row 1: P1 P2 (solo chemistry) | team P3 | empty, reserved
+    // Row 2: team P4 | P5 (solo physics) empty | empty empty
+    private static List<SlotAssignment> hall() {
+        List<SlotAssignment> slots = new ArrayList<>();
+        slots.add(new SlotAssignment(1, 1, new ScienceProject(1, false, true, "SR - Chemistry")));
+        slots.add(new SlotAssignment(1, 2, new ScienceProject(2, false, false, "SR - Chemistry")));
+        slots.add(new SlotAssignment(1, 3, new ScienceProject(3, true, false, "SR - Chemistry")));
+        slots.add(new SlotAssignment(1, 4, new ScienceProject(3, true, false, "SR - Chemistry")));
+        slots.add(new SlotAssignment(1, 5, false));
+        slots.add(new SlotAssignment(1, 6, true));
+        slots.add(new SlotAssignment(2, 1, new ScienceProject(4, true, true, "SR - Physics")));
+        slots.add(new SlotAssignment(2, 2, new ScienceProject(4, true, true, "SR - Physics")));
+        slots.add(new SlotAssignment(2, 3, new ScienceProject(5, false, false, "SR - Physics")));
+        slots.add(new SlotAssignment(2, 4, false));
+        slots.add(new SlotAssignment(2, 5, false));
+        slots.add(new SlotAssignment(2, 6, false));
+        return slots;
+    }
+
+    @Test
+    void soloProjectsMoveToEmptySlotsAndSwapWithSoloProjects() {
+        AssignmentEditor editor = new AssignmentEditor(hall());
+
+        AssignmentEditor.Check check = editor.move(2, 3, 2, 6);
+        assertTrue(check.isAllowed());
+        assertTrue(check.getWarnings().isEmpty());
+        assertEquals(Integer.valueOf(5), editor.getSlot(2, 6).getProjectID());
+        assertTrue(editor.getSlot(2, 3).isUnassigned());
+
+        assertTrue(editor.move(1, 1, 1, 2).isAllowed());
+        assertEquals(Integer.valueOf(2), editor.getSlot(1, 1).getProjectID());
+        assertEquals(Integer.valueOf(1), editor.getSlot(1, 2).getProjectID());
+    }
+
+    @Test
+    void checkingLeavesTheHallUnchanged() {
+        AssignmentEditor editor = new AssignmentEditor(hall());
+
+        AssignmentEditor.Check check = editor.checkMove(1, 2, 2, 4);
+        assertTrue(check.isAllowed());
+        assertEquals("Row 2: SR - Chemistry next to SR - Physics without a spacing slot", check.getMessage());
+        assertEquals(Integer.valueOf(2), editor.getSlot(1, 2).getProjectID());
+        assertTrue(editor.getSlot(2, 4).isUnassigned());
+    }
+
+    @Test
+    void teamsSwapWholeTables() {
+        AssignmentEditor editor = new AssignmentEditor(hall());
+
+        // Dropped on the second slot of the target table, dragged from the team's second slot
+        AssignmentEditor.Check check = editor.move(1, 4, 2, 6);
+        assertTrue(check.isAllowed(), check.getMessage());
+        assertEquals(4, check.getChangedSlots().size());
+        assertEquals(Integer.valueOf(3), editor.getSlot(2, 5).getProjectID());
+        assertEquals(Integer.valueOf(3), editor.getSlot(2, 6).getProjectID());
+        assertTrue(editor.getSlot(1, 3).isUnassigned());
+        assertTrue(editor.getSlot(1, 4).isUnassigned());
+
+        assertTrue(editor.move(2, 5, 2, 1).isAllowed());
+        assertEquals(Integer.valueOf(3), editor.getSlot(2, 2).getProjectID());
+        assertEquals(Integer.valueOf(4), editor.getSlot(2, 6).getProjectID());
+    }
+
+    @Test
+    void refusedMovesReportWhy() {
+        AssignmentEditor editor = new AssignmentEditor(hall());
+
+        assertEquals("Row 1 slot 6 is reserved", editor.checkMove(1, 1, 1, 6).getMessage());
+        assertFalse(editor.checkMove(1, 1, 2, 2).isAllowed());
+        assertFalse(editor.checkMove(2, 1, 1, 5).isAllowed());
+        // The table at row 2 slots 3-4 holds a solo project beside an empty slot, so a team may take it
+        assertTrue(editor.checkMove(2, 1, 2, 4).isAllowed());
+        assertFalse(editor.checkMove(1, 5, 1, 1).isAllowed());
+        assertEquals(Integer.valueOf(1), editor.getSlot(1, 1).getProjectID());
+    }
+}
@@ -0,0 +1,119 @@
+package com.sciencefair.service;
+
+import com.sciencefair.model.ScienceProject;
+import com.sciencefair.model.SlotAssignment;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EditLogTest {
+
+    private static List<SlotAssignment> hall(int rows, int slotsPerRow) {
+        List<SlotAssignment> slots = new ArrayList<>();
+        for (int row = 1; row <= rows; row++) {
+            for (int slot = 1; slot <= slotsPerRow; slot++) {
+                slots.add(slot % 3 == 0
+                        ? new SlotAssignment(row, slot, false)
+                        : new SlotAssignment(row, slot, new ScienceProject(row * 100 + slot, false, false, "SR - Chemistry")));
+            }
+        }
+        return slots;
+    }
+
+    private static List<String> contents(List<SlotAssignment> slots) {
+        List<String> contents = new ArrayList<>();
+        for (SlotAssignment slot : slots) {
+            contents.add(slot.getProjectID() + "/" + slot.isUnassigned() + "/" + slot.isReserved());
+        }
+        return contents;
+    }
+
+    @Test
+    void undoRedoAndJumpsRestoreEveryVersion() {
+        // Over 32 * 32 slots, so the tree has three levels
+        List<SlotAssignment> slots = hall(40, 30);
+        AssignmentEditor editor = new AssignmentEditor(slots);
+        EditLog log = new EditLog(slots);
+        List<List<String>> versions = new ArrayList<>();
+        versions.add(contents(slots));
+
+        for (int i = 0; i < 300; i++) {
+            int row = 1 + i % 40;
+            AssignmentEditor.Check check;
+            EditLog.Kind kind;
+            if (i % 10 == 7) {
+                check = editor.withdraw(row, 1);
+                kind = EditLog.Kind.WITHDRAW;
+            } else if (i % 10 == 8) {
+                check = editor.toggleReserved(row, 3);
+                kind = EditLog.Kind.RESERVE;
+            } else {
+                check = editor.move(row, 1 + i % 29, 1 + (i * 7) % 40, 1 + (i * 13) % 29);
+                kind = EditLog.Kind.SWAP;
+            }
+            if (check.isAllowed()) {
+                log.record(kind, "edit " + i, check.getChangedSlots());
+                versions.add(contents(slots));
+            }
+        }
+        int latest = log.getLatestVersion();
+        assertEquals(versions.size() - 1, latest);
+        assertTrue(latest > 100);
+
+        assertFalse(log.undo().isEmpty());
+        assertEquals(versions.get(latest - 1), contents(slots));
+        log.redo();
+        assertEquals(versions.get(latest), contents(slots));
+        assertFalse(log.canRedo());
+
+        for (int target : new int[] {0, latest / 2, 3, latest, 1}) {
+            log.goTo(target);
+            assertEquals(target, log.getVersion());
+            assertEquals(versions.get(target), contents(slots), "version " + target);
+        }
+    }
+
+    @Test
+    void newEditAfterUndoDropsTheRedoBranch() {
+        List<SlotAssignment> slots = hall(2, 6);
+        AssignmentEditor editor = new AssignmentEditor(slots);
+        EditLog log = new EditLog(slots);
+
+        log.record(EditLog.Kind.MOVE, "first", editor.move(1, 1, 1, 3).getChangedSlots());
+        log.record(EditLog.Kind.WITHDRAW, "second", editor.withdraw(2, 2).getChangedSlots());
+        log.undo();
+        assertEquals("second", log.getRedoEntry().getDescription());
+        assertEquals(Integer.valueOf(202), editor.getSlot(2, 2).getProjectID());
+
+        log.record(EditLog.Kind.RESERVE, "third", editor.toggleReserved(2, 3).getChangedSlots());
+        assertFalse(log.canRedo());
+        assertEquals(2, log.getLatestVersion());
+        assertEquals("third", log.getUndoEntry().getDescription());
+
+        List<SlotAssignment> changed = log.goTo(0);
+        assertEquals(3, changed.size());
+        assertEquals(Integer.valueOf(101), editor.getSlot(1, 1).getProjectID());
+        assertFalse(editor.getSlot(2, 3).isReserved());
+        assertThrows(IllegalArgumentException.class, () -> log.goTo(3));
+    }
+
+    @Test
+    void snapshotsKeepTheirVersionWhileTheSlotsChange() {
+        // Over 32 * 32 slots and not a multiple of 32, so the last leaf node is partly empty
+        List<SlotAssignment> slots = hall(35, 30);
+        AssignmentEditor editor = new AssignmentEditor(slots);
+        EditLog log = new EditLog(slots);
+        List<String> before = contents(slots);
+        EditLog.Snapshot snapshot = log.snapshot();
+
+        log.record(EditLog.Kind.MOVE, "move", editor.move(35, 29, 35, 30).getChangedSlots());
+        List<SlotAssignment> restored = snapshot.toAssignments();
+        assertEquals(before, contents(restored));
+        assertEquals(35, restored.get(slots.size() - 1).getRow());
+        assertEquals(30, restored.get(slots.size() - 1).getTableSlotID());
+        assertEquals(contents(slots), contents(log.snapshot().toAssignments()));
+    }
+}
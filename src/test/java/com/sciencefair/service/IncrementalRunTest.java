@@ -0,0 +1,57 @@
+package com.sciencefair.service;
+
+import com.sciencefair.util.HallLayoutUtil;
+import com.sciencefair.util.HtmlLayoutRenderer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IncrementalRunTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void rewritesOnlyOutputsWhoseContentChanged() throws Exception {
+        StringBuilder tables = new StringBuilder("Row,rowNumSlots,tableSlotID,isReserved\n");
+        for (int row = 1; row <= 4; row++) {
+            for (int slot = 1; slot <= 6; slot++) {
+                tables.append(row).append(",6,").append(slot).append(",FALSE\n");
+            }
+        }
+        Path tablesFile = Files.write(tempDir.resolve("tables.csv"), tables.toString().getBytes());
+        Path projectsFile = Files.write(tempDir.resolve("projects.csv"), ("projectID,isTeam,isFirstInCat,Category\n"
+                + "1001,FALSE,TRUE,SR - Chemistry\n1002,FALSE,FALSE,SR - Chemistry\n1003,TRUE,FALSE,SR - Chemistry\n").getBytes());
+        String csvFile = tempDir.resolve("out.csv").toString();
+        IncrementalRun run = new IncrementalRun(tablesFile.toString(), projectsFile.toString(), csvFile,
+                new ScienceFairAssignmentService(), (assignments, layout, htmlFile) ->
+                        new HtmlLayoutRenderer(layout, HtmlLayoutRenderer.Mode.STATIC).render(assignments, htmlFile, null, true, null, null));
+
+        IncrementalRun.Outcome first = run.refresh(HallLayoutUtil.disabled());
+        assertTrue(first.isRan());
+        assertEquals(Arrays.asList(run.getCsvFile(), run.getJsonFile(), run.getHtmlFile()), first.getRewritten());
+
+        // Nothing changed on disk: nothing runs
+        assertFalse(run.refresh(HallLayoutUtil.disabled()).isRan());
+
+        // Saved again without edits: runs, but every output stays as it was
+        Files.setLastModifiedTime(projectsFile, FileTime.fromMillis(Files.getLastModifiedTime(projectsFile).toMillis() + 5000));
+        IncrementalRun.Outcome resaved = run.refresh(HallLayoutUtil.disabled());
+        assertTrue(resaved.isRan());
+        assertEquals(Collections.emptyList(), resaved.getRewritten());
+
+        Files.write(projectsFile, "1004,FALSE,FALSE,SR - Physics\n".getBytes(), java.nio.file.StandardOpenOption.APPEND);
+        IncrementalRun.Outcome edited = run.refresh(HallLayoutUtil.disabled());
+        assertEquals(3, edited.getRewritten().size());
+        assertEquals(4, edited.getProjects().size());
+        assertTrue(new String(Files.readAllBytes(Path.of(csvFile))).contains("1004"));
+        assertFalse(Files.exists(Path.of(csvFile + ".tmp")));
+    }
+}
@@ -0,0 +1,45 @@
+package com.sciencefair.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CategoryRegistryTest {
+
+    @Test
+    void resolvesDivisionPrefixedCategoryBySubstring() {
+        CategoryRegistry registry = new CategoryRegistry();
+        CategoryRegistry.Category anim = registry.resolve("SR - Animal Sciences");
+
+        assertEquals("ANIM", anim.getCode());
+        assertEquals("anim", anim.getCssClass());
+        assertEquals("SR", anim.getDivision());
+        assertEquals("SR-ANIM", anim.getSlotLabel());
+        assertSame(anim, registry.resolve("SR - Animal Sciences"));
+        assertSame(anim, registry.get(anim.getId()));
+    }
+
+    @Test
+    void distinctStringsGetSequentialIdsAfterUnknown() {
+        CategoryRegistry registry = new CategoryRegistry();
+        assertEquals(CategoryRegistry.UNKNOWN_ID, registry.idOf(null));
+        assertEquals("UNKN", registry.get(CategoryRegistry.UNKNOWN_ID).getCode());
+        assertEquals(1, registry.idOf("SR - Chemistry"));
+        assertEquals(2, registry.idOf("JR - Chemistry"));
+        assertEquals(1, registry.idOf("SR - Chemistry"));
+        assertEquals(3, registry.size());
+    }
+
+    @Test
+    void keepsLegacyCodeAndStyleMappings() {
+        CategoryRegistry registry = new CategoryRegistry();
+        assertEquals("BEHA", registry.resolve("SR - Behavioral and Social Sciences").getCode());
+        assertEquals("behv", registry.resolve("SR - Behavioral and Social Sciences").getCssClass());
+        assertEquals("comp", registry.resolve("SR - Computational Biology and Bioinformatics").getCssClass());
+        assertEquals("BCHM", registry.resolve("SR - Biochemistry").getCode());
+
+        CategoryRegistry.Category unknown = registry.resolve("Robotics Club");
+        assertEquals("ROBO", unknown.getCode());
+        assertSame(CategoryRegistry.EMPTY_STYLE, unknown.getStyle());
+    }
+}
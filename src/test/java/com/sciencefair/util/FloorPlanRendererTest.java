@@ -0,0 +1,159 @@
+package com.sciencefair.util;
+
+import com.sciencefair.model.ScienceProject;
+import com.sciencefair.model.SlotAssignment;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Adler32;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FloorPlanRendererTest {
+
+    @Test
+    void combinesAdlerChecksumsOfConsecutiveBlocks() {
+        byte[] data = new byte[100_000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (i * 31 + i / 7);
+        }
+        Adler32 whole = new Adler32();
+        whole.update(data, 0, data.length);
+        Adler32 first = new Adler32();
+        first.update(data, 0, 40_000);
+        Adler32 second = new Adler32();
+        second.update(data, 40_000, 60_000);
+
+        assertEquals(whole.getValue(), PngWriter.adler32Combine(first.getValue(), second.getValue(), 60_000));
+    }
+
+    @Test
+    void writesDecodablePngAtRequestedResolution() throws IOException {
+        System.setProperty("java.awt.headless", "true");
+        List<SlotAssignment> assignments = new ArrayList<>();
+        for (int row = 1; row <= 6; row++) {
+            for (int slot = 1; slot <= 6; slot++) {
+                assignments.add(slot == 6
+                        ? new SlotAssignment(row, slot, row == 2)
+                        : new SlotAssignment(row, slot, new ScienceProject(row * 10 + slot, slot == 1, false, "SR - Chemistry")));
+            }
+        }
+        FloorPlanLayout layout = FloorPlanLayout.build(assignments, new HallLayoutUtil(3));
+        assertEquals(6, layout.getRows().size());
+        assertTrue(layout.hasAisle());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new FloorPlanRenderer(layout).writePng(out, 192);
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(out.toByteArray()));
+
+        assertNotNull(image);
+        assertEquals(layout.getWidth() * 2, image.getWidth());
+        assertEquals(layout.getHeight() * 2, image.getHeight());
+        assertEquals(0xFFFFFF, image.getRGB(1, 1) & 0xFFFFFF);
+    }
+
+    @Test
+    void rowIndexFindsRowsTablesAndSlotsUnderPoints() {
+        List<SlotAssignment> assignments = new ArrayList<>();
+        for (int row = 1; row <= 40; row++) {
+            for (int slot = 1; slot <= 7; slot++) {
+                assignments.add(new SlotAssignment(row, slot, new ScienceProject(row * 10 + slot, false, false, "SR - Chemistry")));
+            }
+        }
+        FloorPlanLayout layout = FloorPlanLayout.build(assignments, new HallLayoutUtil(20));
+
+        // The band index must report exactly the rows a linear scan finds, in display order
+        for (int y = -50; y < layout.getHeight(); y += 97) {
+            List<Integer> expected = new ArrayList<>();
+            for (int i = 0; i < layout.getRows().size(); i++) {
+                FloorPlanLayout.Row row = layout.getRows().get(i);
+                if (row.getY() < y + 300 && row.getY() + row.getHeight() > y && row.getX() < 700) {
+                    expected.add(i);
+                }
+            }
+            List<Integer> found = new ArrayList<>();
+            for (int i : layout.getRowsIn(0, y, 700, 300)) {
+                found.add(i);
+            }
+            assertEquals(expected, found);
+        }
+
+        FloorPlanLayout.Row row = layout.getRows().get(1);
+        int tableX = row.getTableX(3);
+        int slotY = row.getY() + FloorPlanLayout.TABLE_HEADER_HEIGHT + FloorPlanLayout.TABLE_PADDING + 5;
+        assertSame(row, layout.getRowAt(tableX + 5, row.getY() + 5));
+        assertEquals(3, row.tableAt(tableX + 5));
+        assertEquals(-1, row.tableAt(tableX - 2));
+        assertEquals(-1, row.tableAt(row.getX() + 5));
+        assertEquals(0, row.slotAt(3, tableX + FloorPlanLayout.TABLE_PADDING + 5, slotY));
+        assertEquals(1, row.slotAt(3, tableX + FloorPlanLayout.TABLE_WIDTH - 10, slotY));
+        // Row 2 runs right to left, so its half table is drawn first
+        assertEquals(-1, row.slotAt(0, row.getTableX(0) + FloorPlanLayout.TABLE_WIDTH - 10, slotY));
+        assertNull(layout.getRowAt(1, 1));
+    }
+
+    @Test
+    void changedRegionsCoverOnlyRowsThatMove() {
+        List<SlotAssignment> assignments = new ArrayList<>();
+        for (int row = 1; row <= 8; row++) {
+            for (int slot = 1; slot <= 4; slot++) {
+                assignments.add(new SlotAssignment(row, slot, new ScienceProject(row * 10 + slot, false, false, "JR - Chemistry")));
+            }
+        }
+        List<Integer> order = Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8);
+        Map<Integer, Integer> groups = new HashMap<>();
+        groups.put(5, 0);
+        groups.put(6, 0);
+        FloorPlanLayout plain = FloorPlanLayout.build(assignments, HallLayoutUtil.disabled(), order, false, null, null);
+        FloorPlanLayout grouped = FloorPlanLayout.build(assignments, HallLayoutUtil.disabled(), order, false, null, groups);
+
+        assertTrue(plain.getChangedRegions(FloorPlanLayout.build(assignments, HallLayoutUtil.disabled(), order, false, null, null)).isEmpty());
+        assertNull(plain.getChangedRegions(FloorPlanLayout.build(assignments, new HallLayoutUtil(4))));
+
+        List<Rectangle> changed = grouped.getChangedRegions(plain);
+        assertNotNull(changed);
+        for (FloorPlanLayout.Row row : plain.getRows()) {
+            Rectangle bounds = new Rectangle(row.getX(), row.getY(), row.getWidth(), row.getHeight());
+            boolean dirty = changed.stream().anyMatch(bounds::intersects);
+            // Grouping 5 and 6 tightens the gap above row 6; everything above stays put
+            assertEquals(row.getRowNumber() >= 6, dirty, "row " + row.getRowNumber());
+        }
+    }
+
+    @Test
+    void detachedLayoutKeepsItsSlotsWhenTheOriginalsAreEdited() {
+        List<SlotAssignment> assignments = new ArrayList<>();
+        for (int row = 1; row <= 3; row++) {
+            for (int slot = 1; slot <= 3; slot++) {
+                assignments.add(new SlotAssignment(row, slot, new ScienceProject(row * 10 + slot, false, false, "SR - Physics")));
+            }
+        }
+        FloorPlanLayout layout = FloorPlanLayout.build(assignments, HallLayoutUtil.disabled());
+        FloorPlanLayout detached = layout.detached();
+
+        SlotAssignment original = layout.getRow(2).getSlot(0, 0);
+        SlotAssignment copy = detached.getRow(2).getSlot(0, 0);
+        assertNotSame(original, copy);
+        assertEquals(original.getProjectID(), copy.getProjectID());
+        assertNull(detached.getRow(2).getSlot(0, 1)); // row 2 starts with its half table
+        assertEquals(layout.getHeight(), detached.getHeight());
+
+        original.setProjectID(null);
+        assertFalse(copy.isUnassigned());
+
+        FloorPlanLayout refreshed = detached.withRowsDetached(layout, Arrays.asList(2));
+        assertTrue(refreshed.getRow(2).getSlot(0, 0).isUnassigned());
+        assertSame(detached.getRow(1), refreshed.getRow(1));
+        assertSame(detached.getRow(3), refreshed.getRowAt(detached.getRow(3).getX() + 1, detached.getRow(3).getY() + 1));
+    }
+}
@@ -4,8 +4,10 @@ import com.sciencefair.model.TableSlot;
 import org.junit.jupiter.api.Test;
 
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -95,4 +97,67 @@ class HallLayoutUtilTest {
         assertEquals(5, ordered.get(4).getRow());
         assertEquals(6, ordered.get(5).getRow());
     }
+
+    @Test
+    void geometryNumbersTablesInSnakeOrderAcrossTheAisle() {
+        Map<Integer, Integer> rowTableCounts = new TreeMap<>();
+        for (int row = 1; row <= 6; row++) {
+            rowTableCounts.put(row, 2);
+        }
+        HallGeometry geometry = new HallLayoutUtil(3).geometry(rowTableCounts);
+
+        assertSame(geometry, new HallLayoutUtil(3).geometry(new HashMap<>(rowTableCounts)));
+        assertNotSame(geometry, new HallLayoutUtil(4).geometry(rowTableCounts));
+        assertEquals(12, geometry.getTotalTables());
+        assertEquals(Arrays.asList(6, 5, 4), geometry.getRightSideDisplayRows());
+        // Row 2 runs right to left: its first table in slot order is the last one numbered
+        assertEquals(4, geometry.getTableNumber(2, 0));
+        assertEquals(3, geometry.getTableNumber(2, 1));
+        assertEquals(7, geometry.getTableNumber(4, 0));
+        assertEquals(9, geometry.getTableNumber(5, 1));
+        assertTrue(geometry.isLeftSide(3));
+        assertFalse(geometry.isLeftSide(4));
+    }
+
+    @Test
+    void zonesFillInOrderWithZoneLocalSnakeAndDisplayDirection() {
+        HallLayoutUtil layout = HallLayoutUtil.parse("Left=1-4, Middle=5-8 reverse; Annex=9- up");
+        List<HallLayoutUtil.Zone> zones = layout.getZones();
+        assertEquals(3, zones.size());
+        assertEquals("Middle", zones.get(1).getLabel());
+        assertFalse(zones.get(1).isNewHall());
+        assertTrue(zones.get(2).isNewHall());
+        assertEquals(0, layout.getAislePivotRow());
+
+        Map<Integer, Integer> tables = new TreeMap<>();
+        for (int row = 1; row <= 11; row++) {
+            tables.put(row, 2);
+        }
+        HallGeometry geometry = layout.geometry(tables);
+        assertEquals(Arrays.asList(1, 2, 3, 4, 8, 7, 6, 5, 9, 10, 11), geometry.getTraversalOrder());
+        assertEquals(Arrays.asList(5, 6, 7, 8), geometry.getZoneDisplayRows(1));
+        assertEquals(Arrays.asList(11, 10, 9), geometry.getZoneDisplayRows(2));
+        // Each zone starts left to right from its first filled row
+        assertFalse(geometry.isReversed(8));
+        assertTrue(geometry.isReversed(7));
+        assertFalse(geometry.isReversed(9));
+        assertEquals(9, geometry.getTableNumber(8, 0));
+        assertEquals(12, geometry.getTableNumber(7, 0));
+        assertTrue(layout.crossesAisleAfter(4, 8));
+        assertFalse(layout.crossesAisleAfter(8, 7));
+    }
+
+    @Test
+    void rowsOutsideZonesFormTrailingZoneAndBadSpecsAreRejected() {
+        HallGeometry geometry = HallLayoutUtil.parse("2-3").geometry(Arrays.asList(1, 2, 3, 4));
+        assertEquals(2, geometry.getZoneCount());
+        assertEquals("Zone 1", geometry.getZones().get(0).getLabel());
+        assertEquals(Arrays.asList(2, 3, 1, 4), geometry.getTraversalOrder());
+        assertEquals(3, HallLayoutUtil.parse("-3").getZones().get(0).getLastRow());
+
+        assertEquals(12, HallLayoutUtil.parse(" 12 ").getAislePivotRow());
+        assertThrows(IllegalArgumentException.class, () -> HallLayoutUtil.parseZones("1-4 sideways"));
+        assertThrows(IllegalArgumentException.class, () -> HallLayoutUtil.parseZones("Left=x-3"));
+        assertThrows(IllegalArgumentException.class, () -> HallLayoutUtil.parseZones(" ; "));
+    }
 }
@@ -0,0 +1,103 @@
+package com.sciencefair.util;
+
+import com.sciencefair.model.ScienceProject;
+import com.sciencefair.model.SlotAssignment;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HtmlLayoutRendererTest {
+
+    private static List<SlotAssignment> hall(int rows, int slotsPerRow) {
+        String[] categories = {"SR - Animal Sciences", "JR - Chemistry", "SR - Physics and Astronomy"};
+        List<SlotAssignment> assignments = new ArrayList<>();
+        int projectId = 100;
+        for (int row = 1; row <= rows; row++) {
+            for (int slot = 1; slot <= slotsPerRow; slot++) {
+                if (slot % 7 == 0) {
+                    assignments.add(new SlotAssignment(row, slot, slot % 14 == 0));
+                } else {
+                    ScienceProject p = new ScienceProject(projectId++, slot % 5 == 0, false, categories[slot % categories.length]);
+                    assignments.add(new SlotAssignment(row, slot, p));
+                }
+            }
+        }
+        return assignments;
+    }
+
+    private static String render(HtmlLayoutRenderer renderer, List<SlotAssignment> assignments,
+                                 List<Integer> rowOrder, Map<Integer, Integer> rowGroupIndex) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        renderer.render(assignments, out, rowOrder, rowOrder == null, null, rowGroupIndex);
+        return out.toString("UTF-8");
+    }
+
+    @Test
+    void cachedRowsMatchFreshRenderAcrossGroupingAndPivotChanges() throws IOException {
+        List<SlotAssignment> assignments = hall(40, 12);
+        HtmlRowCache cache = new HtmlRowCache();
+
+        for (int pivot : new int[]{0, 20, 0, 13}) {
+            HallLayoutUtil layout = new HallLayoutUtil(pivot);
+            assertEquals(render(new HtmlLayoutRenderer(layout), assignments, null, null),
+                    render(new HtmlLayoutRenderer(layout, HtmlLayoutRenderer.Mode.STATIC, cache), assignments, null, null));
+
+            List<Integer> order = Arrays.asList(2, 1, 3, 4, 5, 6);
+            Map<Integer, Integer> groups = new HashMap<>();
+            groups.put(1, 0);
+            groups.put(2, 0);
+            groups.put(5, 1);
+            assertEquals(render(new HtmlLayoutRenderer(layout), assignments, order, groups),
+                    render(new HtmlLayoutRenderer(layout, HtmlLayoutRenderer.Mode.STATIC, cache), assignments, order, groups));
+        }
+        assertTrue(cache.size() > 0);
+    }
+
+    @Test
+    void regroupingReusesEveryRow() throws IOException {
+        List<SlotAssignment> assignments = hall(10, 8);
+        HtmlRowCache cache = new HtmlRowCache();
+        HtmlLayoutRenderer renderer = new HtmlLayoutRenderer(HallLayoutUtil.disabled(), HtmlLayoutRenderer.Mode.STATIC, cache);
+        render(renderer, assignments, null, null);
+        int rows = cache.size();
+
+        Map<Integer, Integer> groups = new HashMap<>();
+        groups.put(3, 0);
+        groups.put(4, 0);
+        render(renderer, assignments, Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9, 10), groups);
+        assertEquals(10, rows);
+        assertEquals(rows, cache.size());
+    }
+
+    @Test
+    void dataModeEmbedsRowsInsteadOfMarkup() throws IOException {
+        String html = render(new HtmlLayoutRenderer(HallLayoutUtil.disabled(), HtmlLayoutRenderer.Mode.DATA),
+                hall(3, 4), null, null);
+        assertTrue(html.contains("<script id='layout-data' type='application/json'>"));
+        assertTrue(html.contains("\n[1,[1,2],[100,"));
+        assertEquals(3, html.split("class='vrow'", -1).length - 1);
+        assertFalse(html.contains("\n                <div class='table-block"));
+    }
+
+    @Test
+    void searchIndexPointsAtDrawnSlots() throws IOException {
+        for (HtmlLayoutRenderer.Mode mode : HtmlLayoutRenderer.Mode.values()) {
+            String html = render(new HtmlLayoutRenderer(HallLayoutUtil.disabled(), mode), hall(3, 4), null, null);
+            assertTrue(html.contains("<script id='search-index' type='application/json'>"));
+            assertTrue(html.contains("id='row-2'"));
+            // Row 2 runs right to left: table 3 is drawn first, its second slot on the left
+            assertTrue(html.contains("\n\"100\":[1,1,0,0,0],"));
+            assertTrue(html.contains("\n\"107\":[2,3,0,0,0],"));
+            assertTrue(html.contains("\n\"104\":[2,4,0,1,1],"));
+            assertTrue(html.contains("[\"JR - Chemistry\",\"JR-CHEM\",[[1,6]]]"));
+        }
+    }
+}
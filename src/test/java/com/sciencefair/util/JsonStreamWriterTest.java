@@ -0,0 +1,42 @@
+package com.sciencefair.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonStreamWriterTest {
+
+    @Test
+    void writesNestedContainersWithSeparators() throws Exception {
+        StringWriter out = new StringWriter();
+        try (JsonStreamWriter json = new JsonStreamWriter(out)) {
+            json.beginObject()
+                .name("rows").beginArray().value(1).value(-22).value(Long.MAX_VALUE).endArray()
+                .name("team").value(Boolean.TRUE)
+                .name("projectID").value((Integer) null)
+                .name("empty").beginObject().endObject()
+                .endObject();
+        }
+        assertEquals("{\"rows\":[1,-22,9223372036854775807],\"team\":true,\"projectID\":null,\"empty\":{}}", out.toString());
+    }
+
+    @Test
+    void escapesControlCharactersAndQuotes() throws Exception {
+        StringWriter out = new StringWriter();
+        try (JsonStreamWriter json = new JsonStreamWriter(out)) {
+            json.value("SR - \"Bio\\Chem\"\n\t\u0001");
+        }
+        assertEquals("\"SR - \\\"Bio\\\\Chem\\\"\\n\\t\\u0001\"", out.toString());
+    }
+
+    @Test
+    void newlineIsPlacedAfterTheSeparatingComma() throws Exception {
+        StringWriter out = new StringWriter();
+        try (JsonStreamWriter json = new JsonStreamWriter(out)) {
+            json.beginArray().newline().value(1).newline().value(2).endArray();
+        }
+        assertEquals("[\n1,\n2]", out.toString());
+    }
+}
@@ -0,0 +1,72 @@
+package com.sciencefair.util;
+
+import com.sciencefair.model.ScienceProject;
+import com.sciencefair.model.SlotAssignment;
+import com.sciencefair.model.TableSlot;
+import com.sciencefair.service.ScienceFairAssignmentService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskProgressTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static List<TableSlot> slots(int rows, int slotsPerRow) {
+        List<TableSlot> slots = new ArrayList<>();
+        for (int row = 1; row <= rows; row++) {
+            for (int slot = 1; slot <= slotsPerRow; slot++) {
+                slots.add(new TableSlot(row, slotsPerRow, slot, false));
+            }
+        }
+        return slots;
+    }
+
+    @Test
+    void stagesReportTheirUnitsAndTotals() {
+        TaskProgress progress = new TaskProgress();
+        List<ScienceProject> projects = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            projects.add(new ScienceProject(1000 + i, false, i == 0, "SR - Chemistry"));
+        }
+        List<SlotAssignment> assignments = new ScienceFairAssignmentService()
+                .assignProjectsToSlots(projects, slots(10, 20), HallLayoutUtil.disabled(), progress);
+
+        TaskProgress.Snapshot snapshot = progress.snapshot();
+        assertEquals(200, assignments.size());
+        assertEquals("Assigning projects", snapshot.getStage());
+        assertEquals(200, snapshot.getDone());
+        assertEquals(100, snapshot.getPercent());
+        assertEquals(0, snapshot.getEtaMillis());
+        assertTrue(snapshot.describe().startsWith("Assigning projects: 200 / 200 slots"), snapshot.describe());
+
+        progress.beginStage("Reading", -1, "records");
+        assertEquals(-1, progress.snapshot().getPercent());
+        assertEquals(-1, progress.snapshot().getEtaMillis());
+    }
+
+    @Test
+    void cancelledStagesStopAtTheNextRow() throws Exception {
+        TaskProgress progress = new TaskProgress();
+        progress.cancel();
+        assertThrows(CancellationException.class, () -> new ScienceFairAssignmentService()
+                .assignProjectsToSlots(new ArrayList<>(), slots(3, 4), HallLayoutUtil.disabled(), progress));
+
+        List<SlotAssignment> assignments = new ArrayList<>();
+        for (int slot = 1; slot <= 4; slot++) {
+            assignments.add(new SlotAssignment(1, slot, false));
+        }
+        String csv = tempDir.resolve("out.csv").toString();
+        assertThrows(CancellationException.class, () -> ScienceFairCsvUtil.writeSlotAssignments(assignments, csv, progress));
+        // Without progress nothing changes
+        ScienceFairCsvUtil.writeSlotAssignments(assignments, csv);
+        assertEquals(4, ScienceFairCsvUtil.readSlotAssignments(csv).size());
+    }
+}